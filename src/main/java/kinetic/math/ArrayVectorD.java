@@ -82,12 +82,17 @@ public class ArrayVectorD extends VectorD {
         if (!(i < n)) {
             throw new IndexOutOfBoundsException(String.format("i value of %s is not < then n of %s", i, n));
         }
-        if (mutate) {
-            return data[i];
-        } else {
-            Double output = new Double(data[i]);
-            return output;
-        }
+        return data[i];
+    }
+
+    @Override
+    public double get(int i) {
+        return data[i];
+    }
+
+    @Override
+    public void set(int i, double v) {
+        data[i] = v;
     }
 
     @Override
@@ -156,7 +161,7 @@ public class ArrayVectorD extends VectorD {
             throw new RuntimeException("Vector dimensions are not equal.");
         }
         for (int i = 0; i < n; i++) {
-            c.setData(i, getData(i) + b.getData(i).doubleValue());
+            c.data[i] = data[i] + valueAt(b, i);
         }
         return c;
     }
@@ -173,7 +178,7 @@ public class ArrayVectorD extends VectorD {
             throw new RuntimeException("Vector dimensions are not equal.");
         }
         for (int i = 0; i < n; i++) {
-            a.setData(i, getData(i) - b.getData(i).doubleValue());
+            a.data[i] = data[i] - valueAt(b, i);
         }
         return a;
     }
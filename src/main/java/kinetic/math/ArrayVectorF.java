@@ -65,12 +65,17 @@ public class ArrayVectorF extends VectorF {
         if (!(i < n)) {
             throw new IndexOutOfBoundsException(String.format("i value of %s is not < then n of %s", i, n));
         }
-        if (mutate) {
-            return data[i];
-        } else {
-            Float output = new Float(data[i]);
-            return output;
-        }
+        return data[i];
+    }
+
+    @Override
+    public float get(int i) {
+        return data[i];
+    }
+
+    @Override
+    public void set(int i, float v) {
+        data[i] = v;
     }
 
     @Override
@@ -136,13 +141,13 @@ public class ArrayVectorF extends VectorF {
     public final ArrayVectorF add(Vector b) {
         if(mutate) {
             for(int i=0;i<n;i++) {
-               data[i] = data[i] + b.getData(i).floatValue();
+               data[i] = data[i] + (float) valueAt(b, i);
             }
             return this;
         } else {
             ArrayVectorF c = new ArrayVectorF(n);
             for (int i = 0; i < n; i++) {
-                data[i] = data[i] + b.getData(i).floatValue();
+                c.data[i] = data[i] + (float) valueAt(b, i);
             }
             return c;
         }
@@ -152,13 +157,13 @@ public class ArrayVectorF extends VectorF {
     public final ArrayVectorF subtract(Vector b) {
         if(mutate) {
             for(int i=0;i<n;i++) {
-               data[i] = data[i] - b.getData(i).floatValue();
+               data[i] = data[i] - (float) valueAt(b, i);
             }
             return this;
         } else {
             ArrayVectorF c = new ArrayVectorF(n);
             for (int i = 0; i < n; i++) {
-                data[i] = data[i] - b.getData(i).floatValue();
+                c.data[i] = data[i] - (float) valueAt(b, i);
             }
             return c;
         }
@@ -197,7 +202,7 @@ public class ArrayVectorF extends VectorF {
         } else {
             ArrayVectorF c = new ArrayVectorF(n);
             for (int i = 0; i < n; i++) {
-                data[i] = data[i] + v.floatValue();
+                c.data[i] = data[i] + v.floatValue();
             }
             return c;
         }
@@ -213,7 +218,7 @@ public class ArrayVectorF extends VectorF {
         } else {
             ArrayVectorF c = new ArrayVectorF(n);
             for (int i = 0; i < n; i++) {
-                data[i] = data[i] - v.floatValue();
+                c.data[i] = data[i] - v.floatValue();
             }
             return c;
         }
@@ -229,7 +234,7 @@ public class ArrayVectorF extends VectorF {
         } else {
             ArrayVectorF c = new ArrayVectorF(n);
             for (int i = 0; i < n; i++) {
-                data[i] = data[i] * v.floatValue();
+                c.data[i] = data[i] * v.floatValue();
             }
             return c;
         }
@@ -248,7 +253,7 @@ public class ArrayVectorF extends VectorF {
         } else {
             ArrayVectorF c = new ArrayVectorF(n);
             for (int i = 0; i < n; i++) {
-                data[i] = data[i] / v.floatValue();
+                c.data[i] = data[i] / v.floatValue();
             }
             return c;
         }
@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+/**
+ * CompressedColumnMatrixD Implementation.
+ *
+ * Compressed sparse column (CSC) MatrixD. The non zero elements of column o
+ * are stored at pointers[o] to pointers[o + 1] - 1 of indices (row
+ * numbers, ascending) and values.
+ *
+ * <pre>
+ *   A = [1 0 2]     pointers = {0, 1, 2, 3}
+ *       [0 3 0]     indices  = {0, 1, 0}
+ *                   values   = {1, 3, 2}
+ * </pre>
+ *
+ * Memory is O(m + n + nnz) and the element wise, product and transpose
+ * operations all run in time proportional to the number of non zeros. The
+ * CSC layout favours algorithms walking columns, such as A' * x and column statistics.
+ * Use SparseMatrixBuilderD to assemble one from (i, j, v) triplets.
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public class CompressedColumnMatrixD extends CompressedMatrixD {
+
+    /**
+     * Creates an empty m by n CompressedColumnMatrixD.
+     * @param m rows in the MatrixD.
+     * @param n columns in the MatrixD.
+     */
+    public CompressedColumnMatrixD(int m, int n) {
+        this(m, n, false);
+    }
+
+    public CompressedColumnMatrixD(int m, int n, boolean mutable) {
+        this(m, n, new int[n + 1], new int[0], new double[0], mutable);
+    }
+
+    /**
+     * Wraps existing CSC arrays without copying them.
+     * @param m rows in the MatrixD.
+     * @param n columns in the MatrixD.
+     * @param pointers start of each column, n + 1 entries.
+     * @param indices row of each stored element, ascending within a column.
+     * @param values value of each stored element.
+     */
+    public CompressedColumnMatrixD(int m, int n, int[] pointers, int[] indices, double[] values) {
+        this(m, n, pointers, indices, values, false);
+    }
+
+    public CompressedColumnMatrixD(int m, int n, int[] pointers, int[] indices, double[] values, boolean mutable) {
+        super(m, n, pointers, indices, values, mutable);
+    }
+
+    /**
+     * Conversion constructor. Zero elements of a are not stored; a
+     * CompressedRowMatrixD is converted with a counting sort.
+     * @param a Matrix to copy.
+     */
+    public CompressedColumnMatrixD(Matrix a) {
+        this(a, false);
+    }
+
+    public CompressedColumnMatrixD(Matrix a, boolean mutable) {
+        super(a, mutable);
+    }
+
+    @Override
+    final boolean isRowMajor() {
+        return false;
+    }
+
+    @Override
+    final CompressedMatrixD create(int m, int n, int[] pointers, int[] indices, double[] values, boolean mutable) {
+        return new CompressedColumnMatrixD(m, n, pointers, indices, values, mutable);
+    }
+
+    @Override
+    final CompressedMatrixD compress(Matrix a) {
+        return new CompressedColumnMatrixD(a, mutate);
+    }
+}
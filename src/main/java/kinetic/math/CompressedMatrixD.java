@@ -0,0 +1,790 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+import java.util.Arrays;
+
+/**
+ * Abstract compressed sparse MatrixD. Provides the functionality shared by
+ * CompressedRowMatrixD (CSR) and CompressedColumnMatrixD (CSC).
+ *
+ * Only the non zero elements are stored. The matrix is split into outer
+ * slices (rows for CSR, columns for CSC) and the elements of slice o are
+ * held at positions pointers[o] to pointers[o + 1] - 1 of indices and
+ * values, sorted by their inner index (column for CSR, row for CSC).
+ *
+ * <pre>
+ *   A = [1 0 2]     CSR pointers = {0, 2, 3}
+ *       [0 3 0]         indices  = {0, 2, 1}
+ *                       values   = {1, 2, 3}
+ * </pre>
+ *
+ * The compressed arrays of A in one orientation are exactly the arrays of A'
+ * in the other, which is what transpose and the CSR/CSC conversions use.
+ *
+ * Operations that keep zeros as zeros (scaling, sparse sums and products,
+ * transpose) return a compressed MatrixD of the same orientation. Products
+ * and sums with dense operands, and scalar addition, return a DenseMatrixD;
+ * when mutating such a result is compressed back into this instance.
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public abstract class CompressedMatrixD extends MatrixD {
+
+    /**
+     * Start of each outer slice, outer + 1 entries.
+     */
+    int[] pointers;
+    /**
+     * Inner index of each stored element.
+     */
+    int[] indices;
+    /**
+     * Value of each stored element.
+     */
+    double[] values;
+
+    CompressedMatrixD(int m, int n, int[] pointers, int[] indices, double[] values, boolean mutable) {
+        super(m, n, mutable);
+        int outer = isRowMajor() ? m : n;
+        if (pointers.length != outer + 1) {
+            throw new IllegalArgumentException("pointers must have one entry per slice plus one.");
+        }
+        if (indices.length < pointers[outer] || values.length < pointers[outer]) {
+            throw new IllegalArgumentException("indices and values are too small for the given pointers.");
+        }
+        this.pointers = pointers;
+        this.indices = indices;
+        this.values = values;
+    }
+
+    /**
+     * Compresses any Matrix, skipping its zero elements.
+     * @param a Matrix to copy.
+     * @param mutable mutate flag.
+     */
+    CompressedMatrixD(Matrix a, boolean mutable) {
+        super(a.m, a.n, mutable);
+        boolean row = isRowMajor();
+        int outer = outer();
+        int inner = inner();
+        pointers = new int[outer + 1];
+        if (a instanceof CompressedMatrixD) {
+            CompressedMatrixD c = (CompressedMatrixD) a;
+            int nnz = c.getNonZeroCount();
+            if (c.isRowMajor() == row) {
+                System.arraycopy(c.pointers, 0, pointers, 0, outer + 1);
+                indices = Arrays.copyOf(c.indices, nnz);
+                values = Arrays.copyOf(c.values, nnz);
+            } else {
+                indices = new int[nnz];
+                values = new double[nnz];
+                transpose(inner, outer, c.pointers, c.indices, c.values, pointers, indices, values);
+            }
+            return;
+        }
+        int nnz = 0;
+        indices = new int[16];
+        values = new double[16];
+        for (int o = 0; o < outer; o++) {
+            for (int in = 0; in < inner; in++) {
+                double v = row ? element(a, o, in) : element(a, in, o);
+                if (v == 0D) {
+                    continue;
+                }
+                if (nnz == indices.length) {
+                    indices = Arrays.copyOf(indices, nnz * 2);
+                    values = Arrays.copyOf(values, nnz * 2);
+                }
+                indices[nnz] = in;
+                values[nnz] = v;
+                nnz++;
+            }
+            pointers[o + 1] = nnz;
+        }
+    }
+
+    private static double element(Matrix a, int i, int j) {
+        if (a instanceof DenseMatrixD) {
+            return ((DenseMatrixD) a).get(i, j);
+        } else if (a instanceof RowArrayMatrixD) {
+            return ((RowArrayMatrixD) a).data[i][j];
+        }
+        return a.getData(i, j).doubleValue();
+    }
+
+    /**
+     * Flag indicating if the outer slices are rows (CSR) or columns (CSC).
+     * @return true for CSR.
+     */
+    abstract boolean isRowMajor();
+
+    /**
+     * Builds a new compressed MatrixD of the same orientation.
+     */
+    abstract CompressedMatrixD create(int m, int n, int[] pointers, int[] indices, double[] values, boolean mutable);
+
+    /**
+     * Compresses any Matrix into the orientation of this instance.
+     */
+    abstract CompressedMatrixD compress(Matrix a);
+
+    final int outer() {
+        return isRowMajor() ? m : n;
+    }
+
+    final int inner() {
+        return isRowMajor() ? n : m;
+    }
+
+    /**
+     * Number of stored elements.
+     * @return nnz
+     */
+    public final int getNonZeroCount() {
+        return pointers[outer()];
+    }
+
+    /**
+     * Copy of the slice start positions, outer + 1 entries.
+     * @return pointers
+     */
+    public final int[] getPointers() {
+        return pointers.clone();
+    }
+
+    /**
+     * Copy of the inner index of each stored element.
+     * @return indices of length getNonZeroCount().
+     */
+    public final int[] getIndices() {
+        return Arrays.copyOf(indices, getNonZeroCount());
+    }
+
+    /**
+     * Copy of the value of each stored element.
+     * @return values of length getNonZeroCount().
+     */
+    public final double[] getValues() {
+        return Arrays.copyOf(values, getNonZeroCount());
+    }
+
+    /**
+     * Primitive element accessor. Each lookup is a binary search within the
+     * slice so it costs O(log(nnz per slice)).
+     * @param i The row to extract the data from.
+     * @param j The column to extract the data from.
+     * @return a[i,j]
+     */
+    public final double get(int i, int j) {
+        checkIndex(i, j);
+        int k = isRowMajor() ? find(i, j) : find(j, i);
+        return k < 0 ? 0D : values[k];
+    }
+
+    /**
+     * Primitive element mutator. Replacing a stored element is cheap,
+     * inserting a new non zero shifts every element after it.
+     * @param i The row to set the data to.
+     * @param j The column to set the data to.
+     * @param v The value to set.
+     */
+    public final void set(int i, int j, double v) {
+        modified();
+        checkIndex(i, j);
+        int o = isRowMajor() ? i : j;
+        int in = isRowMajor() ? j : i;
+        int k = find(o, in);
+        if (k >= 0) {
+            values[k] = v;
+        } else if (v != 0D) {
+            insert(o, -k - 1, in, v);
+        }
+    }
+
+    private void checkIndex(int i, int j) {
+        if (i < 0 || i >= m) {
+            throw new IndexOutOfBoundsException(String.format("i value of %s is not < then m of %s", i, m));
+        }
+        if (j < 0 || j >= n) {
+            throw new IndexOutOfBoundsException(String.format("j value of %s is not < then n of %s", j, n));
+        }
+    }
+
+    private int find(int o, int in) {
+        return Arrays.binarySearch(indices, pointers[o], pointers[o + 1], in);
+    }
+
+    private void insert(int o, int k, int in, double v) {
+        int nnz = getNonZeroCount();
+        if (nnz == indices.length || nnz == values.length) {
+            int capacity = Math.max(nnz + 1, nnz + (nnz >> 1));
+            indices = Arrays.copyOf(indices, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        System.arraycopy(indices, k, indices, k + 1, nnz - k);
+        System.arraycopy(values, k, values, k + 1, nnz - k);
+        indices[k] = in;
+        values[k] = v;
+        for (int p = o + 1; p < pointers.length; p++) {
+            pointers[p]++;
+        }
+    }
+
+    /**
+     * Takes over the storage of a compressed MatrixD of the same
+     * orientation.
+     */
+    final void adopt(CompressedMatrixD c) {
+        m = c.m;
+        n = c.n;
+        pointers = c.pointers;
+        indices = c.indices;
+        values = c.values;
+    }
+
+    /**
+     * Writes the elements of this instance into row major storage.
+     * @param data destination array.
+     * @param offset index of a[0,0].
+     * @param stride row stride of the destination.
+     */
+    final void scatter(double[] data, int offset, int stride) {
+        boolean row = isRowMajor();
+        int outer = outer();
+        for (int o = 0; o < outer; o++) {
+            for (int k = pointers[o]; k < pointers[o + 1]; k++) {
+                int i = row ? o : indices[k];
+                int j = row ? indices[k] : o;
+                data[offset + i * stride + j] = values[k];
+            }
+        }
+    }
+
+    /**
+     * Converts this instance into a DenseMatrixD.
+     * @return DenseMatrixD copy.
+     */
+    public final DenseMatrixD toDenseMatrixD() {
+        DenseMatrixD c = new DenseMatrixD(m, n, mutate);
+        scatter(c.data, 0, n);
+        return c;
+    }
+
+    /**
+     * Converts this instance into a RowArrayMatrixD.
+     * @return RowArrayMatrixD copy.
+     */
+    public final RowArrayMatrixD toRowArrayMatrixD() {
+        Double[][] data = new Double[m][n];
+        for (int i = 0; i < m; i++) {
+            Arrays.fill(data[i], 0D);
+        }
+        boolean row = isRowMajor();
+        for (int o = 0; o < outer(); o++) {
+            for (int k = pointers[o]; k < pointers[o + 1]; k++) {
+                int i = row ? o : indices[k];
+                int j = row ? indices[k] : o;
+                data[i][j] = values[k];
+            }
+        }
+        return new RowArrayMatrixD(data, mutate);
+    }
+
+    @Override
+    public final Double[][] getData() {
+        return toRowArrayMatrixD().data;
+    }
+
+    @Override
+    public final Double getData(int i, int j) {
+        return get(i, j);
+    }
+
+    @Override
+    public final void setData(Number[][] data) {
+        modified();
+        int dm = data.length;
+        int dn = data[0].length;
+        Double[][] copy = new Double[dm][dn];
+        for (int i = 0; i < dm; i++) {
+            for (int j = 0; j < dn; j++) {
+                copy[i][j] = data[i][j].doubleValue();
+            }
+        }
+        adopt(compress(new RowArrayMatrixD(copy)));
+    }
+
+    @Override
+    public final void setData(int i, int j, Number data) {
+        set(i, j, data.doubleValue());
+    }
+
+    @Override
+    public final Double[] getRow(int i) {
+        if (i < 0 || i >= m) {
+            throw new IndexOutOfBoundsException();
+        }
+        Double[] output = new Double[n];
+        for (int j = 0; j < n; j++) {
+            output[j] = get(i, j);
+        }
+        return output;
+    }
+
+    @Override
+    public MatrixD add(Matrix b) {
+        return add(b, mutate);
+    }
+
+    @Override
+    public MatrixD add(Matrix b, boolean mutate) {
+        return sum(b, 1D, mutate);
+    }
+
+    @Override
+    public MatrixD subtract(Matrix b) {
+        return subtract(b, mutate);
+    }
+
+    @Override
+    public MatrixD subtract(Matrix b, boolean mutate) {
+        return sum(b, -1D, mutate);
+    }
+
+    /**
+     * Computes A + sign * B. Two compressed operands are merged slice by
+     * slice, anything else is accumulated into a DenseMatrixD.
+     */
+    private MatrixD sum(Matrix b, double sign, boolean mutate) {
+        if (m != b.m || n != b.n) {
+            throw new RuntimeException("Matrix dimensions are not equal.");
+        }
+        if (!(b instanceof CompressedMatrixD)) {
+            DenseMatrixD c = toDenseMatrixD();
+            c = (sign > 0) ? c.add(b, true) : c.subtract(b, true);
+            if (mutate) {
+                modified();
+                adopt(compress(c));
+                return this;
+            }
+            return c;
+        }
+        CompressedMatrixD bc = orient((CompressedMatrixD) b);
+        int outer = outer();
+        int[] cp = new int[outer + 1];
+        int capacity = getNonZeroCount() + bc.getNonZeroCount();
+        int[] ci = new int[capacity];
+        double[] cx = new double[capacity];
+        int nnz = 0;
+        for (int o = 0; o < outer; o++) {
+            int ka = pointers[o], kaEnd = pointers[o + 1];
+            int kb = bc.pointers[o], kbEnd = bc.pointers[o + 1];
+            while (ka < kaEnd || kb < kbEnd) {
+                int ia = (ka < kaEnd) ? indices[ka] : Integer.MAX_VALUE;
+                int ib = (kb < kbEnd) ? bc.indices[kb] : Integer.MAX_VALUE;
+                double v;
+                int in;
+                if (ia == ib) {
+                    in = ia;
+                    v = values[ka++] + sign * bc.values[kb++];
+                } else if (ia < ib) {
+                    in = ia;
+                    v = values[ka++];
+                } else {
+                    in = ib;
+                    v = sign * bc.values[kb++];
+                }
+                if (v != 0D) {
+                    ci[nnz] = in;
+                    cx[nnz] = v;
+                    nnz++;
+                }
+            }
+            cp[o + 1] = nnz;
+        }
+        CompressedMatrixD c = create(m, n, cp, ci, cx, this.mutate);
+        if (mutate) {
+            modified();
+            adopt(c);
+            return this;
+        }
+        return c;
+    }
+
+    /**
+     * Returns the compressed arrays of b in the orientation of this
+     * instance, sharing them when they already match.
+     */
+    private CompressedMatrixD orient(CompressedMatrixD b) {
+        if (b.isRowMajor() == isRowMajor()) {
+            return b;
+        }
+        return compress(b);
+    }
+
+    /**
+     * Multiplies a Matrix to this instance. Matrix A * Matrix B = Matrix C.
+     * A mutable instance is only overwritten when B is square, otherwise a
+     * new Matrix is returned.
+     * @param b Matrix B.
+     * @return Matrix Matrix C.
+     */
+    @Override
+    public MatrixD multiply(Matrix b) {
+        return multiply(b, mutate && b.m == b.n);
+    }
+
+    /**
+     * Multiplies a Matrix to this instance. Matrix A * Matrix B = Matrix C.
+     * A compressed B gives a compressed C computed with Gustavson's row by
+     * row algorithm so the work is proportional to the number of scalar
+     * products that are not structurally zero. Any other B gives a
+     * DenseMatrixD C where every stored a[i,k] adds a[i,k] * B[k,:] to
+     * C[i,:].
+     * @param b Matrix B.
+     * @param mutate flag to specify mutation.
+     * @return Matrix Matrix C.
+     */
+    @Override
+    public MatrixD multiply(Matrix b, boolean mutate) {
+        if (n != b.m) {
+            throw new RuntimeException("Matrix dimensions are incorrect.");
+        }
+        if (mutate && b.n != n) {
+            throw new RuntimeException("Matrix B must be square to multiply in place.");
+        }
+        if (b instanceof CompressedMatrixD) {
+            CompressedMatrixD bc = orient((CompressedMatrixD) b);
+            CompressedMatrixD c;
+            if (isRowMajor()) {
+                c = product(m, b.n, this, bc);
+            } else {
+                // CSC(A * B) is CSR(B' * A') and CSC(X) holds the arrays of CSR(X').
+                c = product(b.n, m, bc, this);
+            }
+            if (mutate) {
+                modified();
+                adopt(c);
+                return this;
+            }
+            return c;
+        }
+        DenseMatrixD c = new DenseMatrixD(m, b.n);
+        accumulate(MultiplyKernel.dense(b), c);
+        if (mutate) {
+            modified();
+            adopt(compress(c));
+            return this;
+        }
+        return c;
+    }
+
+    @Override
+    public MatrixD multiply(Matrix b, MatrixD dest) {
+        dest.modified();
+        if (n != b.m || dest.m != m || dest.n != b.n) {
+            throw new RuntimeException("Matrix dimensions are incorrect.");
+        }
+        if (dest instanceof DenseMatrixD && !(b instanceof CompressedMatrixD)) {
+            DenseMatrixD bd = MultiplyKernel.dense(b);
+            DenseMatrixD d = (DenseMatrixD) dest;
+            if (d.data != bd.data) {
+                for (int i = 0; i < d.m; i++) {
+                    int row = d.offset + i * d.stride;
+                    Arrays.fill(d.data, row, row + d.n, 0D);
+                }
+                accumulate(bd, d);
+                return dest;
+            }
+        }
+        MatrixD c = multiply(b, false);
+        for (int i = 0; i < c.m; i++) {
+            for (int j = 0; j < c.n; j++) {
+                dest.setData(i, j, c.getData(i, j));
+            }
+        }
+        return dest;
+    }
+
+    /**
+     * Computes C += A * B for dense B and C.
+     */
+    private void accumulate(DenseMatrixD b, DenseMatrixD c) {
+        boolean row = isRowMajor();
+        int cols = b.n;
+        for (int o = 0; o < outer(); o++) {
+            for (int k = pointers[o]; k < pointers[o + 1]; k++) {
+                int i = row ? o : indices[k];
+                int p = row ? indices[k] : o;
+                double a = values[k];
+                int bRow = b.offset + p * b.stride;
+                int cRow = c.offset + i * c.stride;
+                for (int j = 0; j < cols; j++) {
+                    c.data[cRow + j] += a * b.data[bRow + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Gustavson's algorithm over compressed slices. Treats x as a rows by
+     * inner CSR matrix and y as an inner by cols CSR matrix and returns the
+     * arrays of their rows by cols product in the orientation of this
+     * instance.
+     */
+    private CompressedMatrixD product(int rows, int cols, CompressedMatrixD x, CompressedMatrixD y) {
+        int[] cp = new int[rows + 1];
+        int capacity = Math.max(16, x.getNonZeroCount() + y.getNonZeroCount());
+        int[] ci = new int[capacity];
+        double[] cx = new double[capacity];
+        double[] work = new double[cols];
+        int[] marker = new int[cols];
+        Arrays.fill(marker, -1);
+        int nnz = 0;
+        for (int i = 0; i < rows; i++) {
+            int start = nnz;
+            for (int ka = x.pointers[i]; ka < x.pointers[i + 1]; ka++) {
+                int p = x.indices[ka];
+                double a = x.values[ka];
+                for (int kb = y.pointers[p]; kb < y.pointers[p + 1]; kb++) {
+                    int j = y.indices[kb];
+                    if (marker[j] != i) {
+                        marker[j] = i;
+                        if (nnz == ci.length) {
+                            ci = Arrays.copyOf(ci, nnz * 2);
+                            cx = Arrays.copyOf(cx, nnz * 2);
+                        }
+                        ci[nnz++] = j;
+                        work[j] = a * y.values[kb];
+                    } else {
+                        work[j] += a * y.values[kb];
+                    }
+                }
+            }
+            Arrays.sort(ci, start, nnz);
+            int end = start;
+            for (int k = start; k < nnz; k++) {
+                double v = work[ci[k]];
+                if (v != 0D) {
+                    ci[end] = ci[k];
+                    cx[end] = v;
+                    end++;
+                }
+            }
+            nnz = end;
+            cp[i + 1] = nnz;
+        }
+        if (isRowMajor()) {
+            return create(rows, cols, cp, ci, cx, mutate);
+        }
+        return create(cols, rows, cp, ci, cx, mutate);
+    }
+
+    /**
+     * Sparse matrix vector product y = A * x.
+     * @param x VectorD of n elements.
+     * @return VectorD of m elements.
+     */
+    public VectorD multiply(VectorD x) {
+        if (x.n != n) {
+            throw new RuntimeException("Vector dimensions are incorrect.");
+        }
+        return VectorD.create(multiply(x.copyTo(new double[n]), new double[m]));
+    }
+
+    /**
+     * Sparse matrix vector product y = A * x on primitive arrays, without
+     * allocating.
+     * @param x array of n elements.
+     * @param y array of m elements to write to.
+     * @return y
+     */
+    public double[] multiply(double[] x, double[] y) {
+        if (x.length < n || y.length < m) {
+            throw new RuntimeException("Vector dimensions are incorrect.");
+        }
+        if (isRowMajor()) {
+            for (int i = 0; i < m; i++) {
+                double sum = 0D;
+                for (int k = pointers[i]; k < pointers[i + 1]; k++) {
+                    sum += values[k] * x[indices[k]];
+                }
+                y[i] = sum;
+            }
+        } else {
+            Arrays.fill(y, 0, m, 0D);
+            for (int j = 0; j < n; j++) {
+                double xj = x[j];
+                if (xj == 0D) {
+                    continue;
+                }
+                for (int k = pointers[j]; k < pointers[j + 1]; k++) {
+                    y[indices[k]] += values[k] * xj;
+                }
+            }
+        }
+        return y;
+    }
+
+    /**
+     * Returns the transpose of this instance in the same orientation. The
+     * elements are redistributed with a counting sort, O(m + n + nnz).
+     * @return Matrix A' which is a transpose of this instance.
+     */
+    @Override
+    public MatrixD transpose() {
+        return transpose(mutate);
+    }
+
+    /**
+     * Returns the transpose of this instance. Matrix A' = transpose(Matrix A)
+     * @param mutate flag to specify mutation.
+     * @return Matrix A' which is a transpose of this instance.
+     */
+    public MatrixD transpose(boolean mutate) {
+        int outer = outer();
+        int inner = inner();
+        int nnz = getNonZeroCount();
+        int[] tp = new int[inner + 1];
+        int[] ti = new int[nnz];
+        double[] tx = new double[nnz];
+        transpose(outer, inner, pointers, indices, values, tp, ti, tx);
+        CompressedMatrixD t = create(n, m, tp, ti, tx, this.mutate);
+        if (mutate) {
+            modified();
+            adopt(t);
+            return this;
+        }
+        return t;
+    }
+
+    /**
+     * Redistributes compressed slices (ap, ai, ax) of outer by inner
+     * elements into inner by outer slices (bp, bi, bx). The inner indices
+     * of the result come out sorted.
+     */
+    static void transpose(int outer, int inner, int[] ap, int[] ai, double[] ax, int[] bp, int[] bi, double[] bx) {
+        Arrays.fill(bp, 0);
+        int nnz = ap[outer];
+        for (int k = 0; k < nnz; k++) {
+            bp[ai[k] + 1]++;
+        }
+        for (int j = 0; j < inner; j++) {
+            bp[j + 1] += bp[j];
+        }
+        int[] next = Arrays.copyOf(bp, inner);
+        for (int o = 0; o < outer; o++) {
+            for (int k = ap[o]; k < ap[o + 1]; k++) {
+                int dest = next[ai[k]]++;
+                bi[dest] = o;
+                bx[dest] = ax[k];
+            }
+        }
+    }
+
+    @Override
+    public MatrixD addScalar(Number v) {
+        return addScalar(v, mutate);
+    }
+
+    /**
+     * Adds a scalar to every element. The result is dense so a DenseMatrixD
+     * is returned unless mutating.
+     * @param v Value to add.
+     * @param mutate flag to specify mutation.
+     * @return Matrix C.
+     */
+    @Override
+    public MatrixD addScalar(Number v, boolean mutate) {
+        DenseMatrixD c = toDenseMatrixD().addScalar(v, true);
+        if (mutate) {
+            modified();
+            adopt(compress(c));
+            return this;
+        }
+        return c;
+    }
+
+    @Override
+    public MatrixD subtractScalar(Number v) {
+        return subtractScalar(v, mutate);
+    }
+
+    @Override
+    public MatrixD subtractScalar(Number v, boolean mutate) {
+        return addScalar(-v.doubleValue(), mutate);
+    }
+
+    @Override
+    public MatrixD multiplyScalar(Number v) {
+        return multiplyScalar(v, mutate);
+    }
+
+    @Override
+    public MatrixD multiplyScalar(Number v, boolean mutate) {
+        double s = v.doubleValue();
+        int nnz = getNonZeroCount();
+        double[] cx = mutate ? values : new double[nnz];
+        for (int k = 0; k < nnz; k++) {
+            cx[k] = values[k] * s;
+        }
+        if (mutate) {
+            modified();
+            return this;
+        }
+        return create(m, n, pointers.clone(), Arrays.copyOf(indices, nnz), cx, this.mutate);
+    }
+
+    @Override
+    public MatrixD divideScalar(Number v) {
+        return divideScalar(v, mutate);
+    }
+
+    @Override
+    public MatrixD divideScalar(Number v, boolean mutate) {
+        double s = v.doubleValue();
+        if (s == 0) {
+            throw new RuntimeException("Divide by Zero");
+        }
+        int nnz = getNonZeroCount();
+        double[] cx = mutate ? values : new double[nnz];
+        for (int k = 0; k < nnz; k++) {
+            cx[k] = values[k] / s;
+        }
+        if (mutate) {
+            modified();
+            return this;
+        }
+        return create(m, n, pointers.clone(), Arrays.copyOf(indices, nnz), cx, this.mutate);
+    }
+
+    @Override
+    public MatrixD invert() {
+        return toDenseMatrixD().invert();
+    }
+
+    @Override
+    public MatrixD solve(Matrix b) {
+        return toDenseMatrixD().solve(b);
+    }
+
+    @Override
+    public Double determinant() {
+        return toDenseMatrixD().determinant();
+    }
+}
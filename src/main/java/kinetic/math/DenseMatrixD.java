@@ -0,0 +1,853 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+import java.util.Arrays;
+import kinetic.math.linear.DecompositionCache;
+
+/**
+ * DenseMatrixD Implementation.
+ *
+ * Holds an m-by-n matrix in a single primitive double[] (row based) where
+ * element a[i,j] is stored at data[offset + i * stride + j],
+ *
+ * <pre>
+ *         n1  n2  n3 ...  nN
+ *      +---------------------
+ *   m1 |[a11 a12 a13 ... aN1] = data[offset + 0 * stride ...]
+ *   m2 |[a21 a22 a23 ... aN1] = data[offset + 1 * stride ...]
+ *   m3 |[a31 a32 a33 ... aN1] = data[offset + 2 * stride ...]
+ *   .. |[... ... ...     ...]
+ *   mN |[aM1 aM2 aM3 ... aMN] = data[offset + m * stride ...]
+ * </pre>
+ *
+ * No element is ever boxed by the arithmetic of this class. The boxed
+ * accessors inherited from Matrix are still provided but always return
+ * copies, so code that wants to avoid allocation should use get(int, int)
+ * and set(int, int, double).
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public class DenseMatrixD extends MatrixD {
+
+    /**
+     * Element storage.
+     */
+    double[] data;
+    /**
+     * Index of a[0,0] within data.
+     */
+    int offset;
+    /**
+     * Distance in data between a[i,j] and a[i+1,j].
+     */
+    int stride;
+
+    public DenseMatrixD(int m, int n) {
+        this(m, n, false);
+    }
+
+    public DenseMatrixD(int m, int n, boolean mutable) {
+        super(m, n, mutable);
+        data = new double[m * n];
+        offset = 0;
+        stride = n;
+    }
+
+    public DenseMatrixD(double[][] data) {
+        this(data, false);
+    }
+
+    public DenseMatrixD(double[][] data, boolean mutable) {
+        this(data.length, data[0].length, mutable);
+        for (int i = 0; i < m; i++) {
+            if (data[i].length != n) {
+                throw new IllegalArgumentException("All rows must have the same length.");
+            }
+            System.arraycopy(data[i], 0, this.data, i * n, n);
+        }
+    }
+
+    public DenseMatrixD(Number[][] data) {
+        this(data, false);
+    }
+
+    public DenseMatrixD(Number[][] data, boolean mutable) {
+        this(data.length, data[0].length, mutable);
+        for (int i = 0; i < m; i++) {
+            if (data[i].length != n) {
+                throw new IllegalArgumentException("All rows must have the same length.");
+            }
+            int row = i * n;
+            for (int j = 0; j < n; j++) {
+                this.data[row + j] = data[i][j].doubleValue();
+            }
+        }
+    }
+
+    /**
+     * Wraps an existing row major array without copying it. Changes made to
+     * the array are visible through the MatrixD and vice versa.
+     * @param m rows in the MatrixD.
+     * @param n columns in the MatrixD.
+     * @param data row major data of at least m * n elements.
+     * @param mutable mutate flag.
+     */
+    public DenseMatrixD(int m, int n, double[] data, boolean mutable) {
+        this(m, n, data, 0, n, mutable);
+    }
+
+    DenseMatrixD(int m, int n, double[] data, int offset, int stride, boolean mutable) {
+        super(m, n, mutable);
+        if (m > 0 && n > 0 && offset + (m - 1) * stride + n > data.length) {
+            throw new IllegalArgumentException("data is too small for the given dimensions.");
+        }
+        this.data = data;
+        this.offset = offset;
+        this.stride = stride;
+    }
+
+    /**
+     * Copy constructor.
+     * @param a Matrix to copy.
+     * @param mutable mutate flag.
+     */
+    public DenseMatrixD(Matrix a, boolean mutable) {
+        this(a.m, a.n, mutable);
+        if (a instanceof DenseMatrixD) {
+            DenseMatrixD d = (DenseMatrixD) a;
+            for (int i = 0; i < m; i++) {
+                System.arraycopy(d.data, d.offset + i * d.stride, data, i * n, n);
+            }
+        } else if (a instanceof RowArrayMatrixD) {
+            Double[][] r = ((RowArrayMatrixD) a).data;
+            for (int i = 0; i < m; i++) {
+                int row = i * n;
+                for (int j = 0; j < n; j++) {
+                    data[row + j] = r[i][j];
+                }
+            }
+        } else if (a instanceof MappedMatrixD) {
+            ((MappedMatrixD) a).getRows(0, m, data);
+        } else if (a instanceof CompressedMatrixD) {
+            ((CompressedMatrixD) a).scatter(data, 0, n);
+        } else if (a instanceof ViewMatrixD) {
+            ViewMatrixD v = (ViewMatrixD) a;
+            for (int i = 0; i < m; i++) {
+                int row = i * n;
+                for (int j = 0; j < n; j++) {
+                    data[row + j] = v.get(i, j);
+                }
+            }
+        } else {
+            for (int i = 0; i < m; i++) {
+                int row = i * n;
+                for (int j = 0; j < n; j++) {
+                    data[row + j] = a.getData(i, j).doubleValue();
+                }
+            }
+        }
+    }
+
+    /**
+     * Primitive element accessor.
+     * @param i The row to extract the data from.
+     * @param j The column to extract the data from.
+     * @return a[i,j]
+     */
+    public final double get(int i, int j) {
+        checkIndex(i, j);
+        return data[offset + i * stride + j];
+    }
+
+    /**
+     * Primitive element mutator.
+     * @param i The row to set the data to.
+     * @param j The column to set the data to.
+     * @param v The value to set.
+     */
+    public final void set(int i, int j, double v) {
+        modified();
+        checkIndex(i, j);
+        data[offset + i * stride + j] = v;
+    }
+
+    private void checkIndex(int i, int j) {
+        if (i < 0 || i >= m) {
+            throw new IndexOutOfBoundsException(String.format("i value of %s is not < then m of %s", i, m));
+        }
+        if (j < 0 || j >= n) {
+            throw new IndexOutOfBoundsException(String.format("j value of %s is not < then n of %s", j, n));
+        }
+    }
+
+    /**
+     * Checks that the elements are laid out back to back with no gaps so
+     * the whole matrix can be walked as one array.
+     * @return true when contiguous.
+     */
+    final boolean isContiguous() {
+        return stride == n || m <= 1;
+    }
+
+    @Override
+    public final Double[][] getData() {
+        Double[][] output = new Double[m][n];
+        for (int i = 0; i < m; i++) {
+            int row = offset + i * stride;
+            for (int j = 0; j < n; j++) {
+                output[i][j] = data[row + j];
+            }
+        }
+        return output;
+    }
+
+    @Override
+    public final Double getData(int i, int j) {
+        return get(i, j);
+    }
+
+    @Override
+    public final void setData(int i, int j, Number data) {
+        set(i, j, data.doubleValue());
+    }
+
+    @Override
+    public final void setData(Number[][] data) {
+        modified();
+        int dm = data.length;
+        int dn = data[0].length;
+        if (dm != m || dn != n) {
+            m = dm;
+            n = dn;
+            this.data = new double[m * n];
+            offset = 0;
+            stride = n;
+        }
+        for (int i = 0; i < m; i++) {
+            int row = offset + i * stride;
+            for (int j = 0; j < n; j++) {
+                this.data[row + j] = data[i][j].doubleValue();
+            }
+        }
+    }
+
+    @Override
+    public final Double[] getRow(int i) {
+        if (i < 0 || i >= m) {
+            throw new IndexOutOfBoundsException();
+        }
+        Double[] output = new Double[n];
+        int row = offset + i * stride;
+        for (int j = 0; j < n; j++) {
+            output[j] = data[row + j];
+        }
+        return output;
+    }
+
+    /**
+     * Copies a row into a caller supplied array.
+     * @param i the row to retrieve (0 <= i < m)
+     * @param dest array of at least n elements.
+     * @return dest
+     */
+    public final double[] getRow(int i, double[] dest) {
+        if (i < 0 || i >= m) {
+            throw new IndexOutOfBoundsException();
+        }
+        System.arraycopy(data, offset + i * stride, dest, 0, n);
+        return dest;
+    }
+
+    /**
+     * Copies a column into a caller supplied array.
+     * @param j the column to retrieve (0 <= j < n)
+     * @param dest array of at least m elements.
+     * @return dest
+     */
+    public final double[] getColumn(int j, double[] dest) {
+        if (j < 0 || j >= n) {
+            throw new IndexOutOfBoundsException();
+        }
+        int index = offset + j;
+        for (int i = 0; i < m; i++) {
+            dest[i] = data[index];
+            index += stride;
+        }
+        return dest;
+    }
+
+    @Override
+    public final double[] getRows(int i, int count, double[] dest) {
+        checkRows(i, count);
+        if (isContiguous()) {
+            System.arraycopy(data, offset + i * stride, dest, 0, count * n);
+        } else {
+            for (int r = 0; r < count; r++) {
+                System.arraycopy(data, offset + (i + r) * stride, dest, r * n, n);
+            }
+        }
+        return dest;
+    }
+
+    @Override
+    public final void setRows(int i, int count, double[] src) {
+        modified();
+        checkRows(i, count);
+        if (isContiguous()) {
+            System.arraycopy(src, 0, data, offset + i * stride, count * n);
+        } else {
+            for (int r = 0; r < count; r++) {
+                System.arraycopy(src, r * n, data, offset + (i + r) * stride, n);
+            }
+        }
+    }
+
+    /**
+     * Copies the elements of this MatrixD into a new row major array.
+     * @return double[] of m * n elements.
+     */
+    public final double[] toArray() {
+        double[] output = new double[m * n];
+        for (int i = 0; i < m; i++) {
+            System.arraycopy(data, offset + i * stride, output, i * n, n);
+        }
+        return output;
+    }
+
+    @Override
+    public boolean equals(Matrix b) {
+        if (m != b.m || n != b.n) {
+            return false;
+        }
+        if (b instanceof DenseMatrixD) {
+            DenseMatrixD d = (DenseMatrixD) b;
+            for (int i = 0; i < m; i++) {
+                int aRow = offset + i * stride;
+                int bRow = d.offset + i * d.stride;
+                for (int j = 0; j < n; j++) {
+                    if (Double.doubleToLongBits(data[aRow + j]) != Double.doubleToLongBits(d.data[bRow + j])) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return super.equals(b);
+    }
+
+    @Override
+    public final DenseMatrixD add(Matrix b) {
+        return add(b, mutate);
+    }
+
+    @Override
+    public final DenseMatrixD add(Matrix b, boolean mutate) {
+        if (m != b.m || n != b.n) {
+            throw new RuntimeException("Matrix dimensions are not equal.");
+        }
+        DenseMatrixD c = mutate ? this : new DenseMatrixD(m, n);
+        if (mutate) {
+            modified();
+            if (overlaps(b)) {
+                // Elements of B would be overwritten before they are read.
+                b = new DenseMatrixD(b, false);
+            }
+        }
+        if (b instanceof DenseMatrixD) {
+            DenseMatrixD d = (DenseMatrixD) b;
+            for (int i = 0; i < m; i++) {
+                int aRow = offset + i * stride;
+                int bRow = d.offset + i * d.stride;
+                int cRow = c.offset + i * c.stride;
+                for (int j = 0; j < n; j++) {
+                    c.data[cRow + j] = data[aRow + j] + d.data[bRow + j];
+                }
+            }
+        } else {
+            for (int i = 0; i < m; i++) {
+                int aRow = offset + i * stride;
+                int cRow = c.offset + i * c.stride;
+                for (int j = 0; j < n; j++) {
+                    c.data[cRow + j] = data[aRow + j] + b.getData(i, j).doubleValue();
+                }
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public final DenseMatrixD subtract(Matrix b) {
+        return subtract(b, mutate);
+    }
+
+    @Override
+    public final DenseMatrixD subtract(Matrix b, boolean mutate) {
+        if (m != b.m || n != b.n) {
+            throw new RuntimeException("Matrix dimensions are not equal.");
+        }
+        DenseMatrixD c = mutate ? this : new DenseMatrixD(m, n);
+        if (mutate) {
+            modified();
+            if (overlaps(b)) {
+                // Elements of B would be overwritten before they are read.
+                b = new DenseMatrixD(b, false);
+            }
+        }
+        if (b instanceof DenseMatrixD) {
+            DenseMatrixD d = (DenseMatrixD) b;
+            for (int i = 0; i < m; i++) {
+                int aRow = offset + i * stride;
+                int bRow = d.offset + i * d.stride;
+                int cRow = c.offset + i * c.stride;
+                for (int j = 0; j < n; j++) {
+                    c.data[cRow + j] = data[aRow + j] - d.data[bRow + j];
+                }
+            }
+        } else {
+            for (int i = 0; i < m; i++) {
+                int aRow = offset + i * stride;
+                int cRow = c.offset + i * c.stride;
+                for (int j = 0; j < n; j++) {
+                    c.data[cRow + j] = data[aRow + j] - b.getData(i, j).doubleValue();
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Matrix vector product y = A * x on primitive arrays, without
+     * allocating.
+     * @param x array of n elements.
+     * @param y array of m elements to write to, distinct from x.
+     * @return y
+     */
+    public double[] multiply(double[] x, double[] y) {
+        if (x.length < n || y.length < m) {
+            throw new RuntimeException("Vector dimensions are incorrect.");
+        }
+        for (int i = 0; i < m; i++) {
+            int row = offset + i * stride;
+            double sum = 0D;
+            for (int j = 0; j < n; j++) {
+                sum += data[row + j] * x[j];
+            }
+            y[i] = sum;
+        }
+        return y;
+    }
+
+    /**
+     * Multiplies a Matrix to this instance. Matrix A * Matrix B = Matrix C.
+     * A mutable instance is only overwritten when B is square, otherwise a
+     * new Matrix is returned.
+     * @param b Matrix B.
+     * @return Matrix Matrix C.
+     */
+    @Override
+    public DenseMatrixD multiply(Matrix b) {
+        return multiply(b, mutate && b.m == b.n);
+    }
+
+    /**
+     * Multiplies a Matrix to this instance. Matrix A * Matrix B = Matrix C.
+     * The product is computed by the cache blocked MultiplyKernel; B is
+     * unboxed once up front when it is not a DenseMatrixD. When mutating B
+     * must be square so that C has the shape of A; C is then accumulated a
+     * panel of rows at a time in scratch storage before being written back
+     * over A.
+     * @param b Matrix B.
+     * @param mutate flag to specify mutation.
+     * @return Matrix Matrix C.
+     */
+    @Override
+    public DenseMatrixD multiply(Matrix b, boolean mutate) {
+        if (n != b.m) {
+            throw new RuntimeException("Matrix dimensions are incorrect.");
+        }
+        DenseMatrixD bd = MultiplyKernel.dense(b);
+        if (mutate) {
+            modified();
+            if (b.n != n) {
+                throw new RuntimeException("Matrix B must be square to multiply in place.");
+            }
+            if (bd.data == data) {
+                bd = new DenseMatrixD(bd, false);
+            }
+            int panel = Math.min(MultiplyKernel.BLOCK_M, m);
+            double[] scratch = new double[panel * n];
+            for (int i = 0; i < m; i += panel) {
+                int rows = Math.min(panel, m - i);
+                Arrays.fill(scratch, 0D);
+                MultiplyKernel.multiply(rows, n, n, 1D,
+                        data, offset + i * stride, stride,
+                        bd.data, bd.offset, bd.stride,
+                        scratch, 0, n);
+                for (int r = 0; r < rows; r++) {
+                    System.arraycopy(scratch, r * n, data, offset + (i + r) * stride, n);
+                }
+            }
+            return this;
+        }
+        DenseMatrixD c = new DenseMatrixD(m, b.n);
+        MultiplyKernel.multiply(this, bd, c);
+        return c;
+    }
+
+    @Override
+    public MatrixD multiply(Matrix b, MatrixD dest) {
+        dest.modified();
+        if (n != b.m || dest.m != m || dest.n != b.n) {
+            throw new RuntimeException("Matrix dimensions are incorrect.");
+        }
+        DenseMatrixD bd = MultiplyKernel.dense(b);
+        if (dest instanceof DenseMatrixD) {
+            DenseMatrixD d = (DenseMatrixD) dest;
+            if (d.data != data && d.data != bd.data) {
+                MultiplyKernel.multiply(this, bd, d);
+                return dest;
+            }
+        }
+        DenseMatrixD c = new DenseMatrixD(m, b.n);
+        MultiplyKernel.multiply(this, bd, c);
+        for (int i = 0; i < c.m; i++) {
+            int row = i * c.n;
+            for (int j = 0; j < c.n; j++) {
+                dest.setData(i, j, c.data[row + j]);
+            }
+        }
+        return dest;
+    }
+
+    @Override
+    public DenseMatrixD transpose() {
+        return transpose(mutate);
+    }
+
+    /**
+     * Returns the transpose of this instance. Matrix A' = transpose(Matrix A)
+     * Square matrices are transposed in place when mutating, otherwise the
+     * transposed elements are copied and adopted by this instance.
+     * @param mutate flag to specify mutation.
+     * @return Matrix A' which is a transpose of this instance.
+     */
+    public DenseMatrixD transpose(boolean mutate) {
+        if (mutate && m == n) {
+            modified();
+            for (int i = 0; i < m; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    int ij = offset + i * stride + j;
+                    int ji = offset + j * stride + i;
+                    double t = data[ij];
+                    data[ij] = data[ji];
+                    data[ji] = t;
+                }
+            }
+            return this;
+        }
+        DenseMatrixD t = new DenseMatrixD(n, m, mutate);
+        for (int i = 0; i < m; i++) {
+            int row = offset + i * stride;
+            for (int j = 0; j < n; j++) {
+                t.data[j * m + i] = data[row + j];
+            }
+        }
+        if (mutate) {
+            modified();
+            data = t.data;
+            offset = 0;
+            m = t.m;
+            n = t.n;
+            stride = n;
+            return this;
+        }
+        return t;
+    }
+
+    @Override
+    public MatrixD addInto(Matrix b, MatrixD dest) {
+        dest.modified();
+        checkElementWise(b, dest);
+        if (dest.overlaps(this)) {
+            // Elements of A would be overwritten before they are read.
+            return new DenseMatrixD(this, false).addInto(b, dest);
+        }
+        if (dest.overlaps(b)) {
+            // Elements of B would be overwritten before they are read.
+            return addInto(new DenseMatrixD(b, false), dest);
+        }
+        if (!(b instanceof DenseMatrixD) || !(dest instanceof DenseMatrixD)) {
+            return super.addInto(b, dest);
+        }
+        DenseMatrixD d = (DenseMatrixD) b;
+        DenseMatrixD c = (DenseMatrixD) dest;
+        for (int i = 0; i < m; i++) {
+            int aRow = offset + i * stride;
+            int bRow = d.offset + i * d.stride;
+            int cRow = c.offset + i * c.stride;
+            for (int j = 0; j < n; j++) {
+                c.data[cRow + j] = data[aRow + j] + d.data[bRow + j];
+            }
+        }
+        return dest;
+    }
+
+    @Override
+    public MatrixD subtractInto(Matrix b, MatrixD dest) {
+        dest.modified();
+        checkElementWise(b, dest);
+        if (dest.overlaps(this)) {
+            // Elements of A would be overwritten before they are read.
+            return new DenseMatrixD(this, false).subtractInto(b, dest);
+        }
+        if (dest.overlaps(b)) {
+            // Elements of B would be overwritten before they are read.
+            return subtractInto(new DenseMatrixD(b, false), dest);
+        }
+        if (!(b instanceof DenseMatrixD) || !(dest instanceof DenseMatrixD)) {
+            return super.subtractInto(b, dest);
+        }
+        DenseMatrixD d = (DenseMatrixD) b;
+        DenseMatrixD c = (DenseMatrixD) dest;
+        for (int i = 0; i < m; i++) {
+            int aRow = offset + i * stride;
+            int bRow = d.offset + i * d.stride;
+            int cRow = c.offset + i * c.stride;
+            for (int j = 0; j < n; j++) {
+                c.data[cRow + j] = data[aRow + j] - d.data[bRow + j];
+            }
+        }
+        return dest;
+    }
+
+    @Override
+    public MatrixD scaleInto(double v, MatrixD dest) {
+        dest.modified();
+        checkElementWise(this, dest);
+        if (dest.overlaps(this)) {
+            // Elements of A would be overwritten before they are read.
+            return new DenseMatrixD(this, false).scaleInto(v, dest);
+        }
+        if (!(dest instanceof DenseMatrixD)) {
+            return super.scaleInto(v, dest);
+        }
+        DenseMatrixD c = (DenseMatrixD) dest;
+        for (int i = 0; i < m; i++) {
+            int aRow = offset + i * stride;
+            int cRow = c.offset + i * c.stride;
+            for (int j = 0; j < n; j++) {
+                c.data[cRow + j] = data[aRow + j] * v;
+            }
+        }
+        return dest;
+    }
+
+    @Override
+    public MatrixD transposeInto(MatrixD dest) {
+        dest.modified();
+        if (dest.m != n || dest.n != m) {
+            throw new RuntimeException("Matrix dimensions are incorrect.");
+        }
+        if (dest == this) {
+            return transpose(true);
+        }
+        if (dest.sharesStorage(this)) {
+            // Elements of A would be overwritten before they are read.
+            return new DenseMatrixD(this, false).transposeInto(dest);
+        }
+        if (!(dest instanceof DenseMatrixD)) {
+            return super.transposeInto(dest);
+        }
+        DenseMatrixD t = (DenseMatrixD) dest;
+        for (int i = 0; i < m; i++) {
+            int row = offset + i * stride;
+            int index = t.offset + i;
+            for (int j = 0; j < n; j++) {
+                t.data[index] = data[row + j];
+                index += t.stride;
+            }
+        }
+        return dest;
+    }
+
+    @Override
+    public DenseMatrixD addScalar(Number v) {
+        return addScalar(v, mutate);
+    }
+
+    @Override
+    public DenseMatrixD addScalar(Number v, boolean mutate) {
+        double s = v.doubleValue();
+        DenseMatrixD c = mutate ? this : new DenseMatrixD(m, n);
+        if (mutate) {
+            modified();
+        }
+        for (int i = 0; i < m; i++) {
+            int aRow = offset + i * stride;
+            int cRow = c.offset + i * c.stride;
+            for (int j = 0; j < n; j++) {
+                c.data[cRow + j] = data[aRow + j] + s;
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public DenseMatrixD subtractScalar(Number v) {
+        return subtractScalar(v, mutate);
+    }
+
+    @Override
+    public DenseMatrixD subtractScalar(Number v, boolean mutate) {
+        double s = v.doubleValue();
+        DenseMatrixD c = mutate ? this : new DenseMatrixD(m, n);
+        if (mutate) {
+            modified();
+        }
+        for (int i = 0; i < m; i++) {
+            int aRow = offset + i * stride;
+            int cRow = c.offset + i * c.stride;
+            for (int j = 0; j < n; j++) {
+                c.data[cRow + j] = data[aRow + j] - s;
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public DenseMatrixD multiplyScalar(Number v) {
+        return multiplyScalar(v, mutate);
+    }
+
+    @Override
+    public DenseMatrixD multiplyScalar(Number v, boolean mutate) {
+        double s = v.doubleValue();
+        DenseMatrixD c = mutate ? this : new DenseMatrixD(m, n);
+        if (mutate) {
+            modified();
+        }
+        for (int i = 0; i < m; i++) {
+            int aRow = offset + i * stride;
+            int cRow = c.offset + i * c.stride;
+            for (int j = 0; j < n; j++) {
+                c.data[cRow + j] = data[aRow + j] * s;
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public DenseMatrixD divideScalar(Number v) {
+        return divideScalar(v, mutate);
+    }
+
+    @Override
+    public DenseMatrixD divideScalar(Number v, boolean mutate) {
+        double s = v.doubleValue();
+        if (s == 0) {
+            throw new RuntimeException("Divide by Zero");
+        }
+        DenseMatrixD c = mutate ? this : new DenseMatrixD(m, n);
+        if (mutate) {
+            modified();
+        }
+        for (int i = 0; i < m; i++) {
+            int aRow = offset + i * stride;
+            int cRow = c.offset + i * c.stride;
+            for (int j = 0; j < n; j++) {
+                c.data[cRow + j] = data[aRow + j] / s;
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Extracts a sub-matrix sA from A without copying. The returned
+     * DenseMatrixD addresses the same array with this instance's stride so
+     * it can be handed straight to the MultiplyKernel.
+     * Operations that change the shape of the sub-matrix, such as a mutating
+     * transpose of a non square one, detach it from this instance.
+     * @param mi The index of the starting row.
+     * @param mj The index of the finishing row (exclusive).
+     * @param ni The index of the starting column.
+     * @param nj The index of the finishing column (exclusive).
+     * @return m by n view where m = mj-mi and n = nj - ni
+     */
+    @Override
+    public DenseMatrixD getSubMatrix(int mi, int mj, int ni, int nj) {
+        checkSubMatrix(mi, mj, ni, nj);
+        DenseMatrixD sub = new DenseMatrixD(mj - mi, nj - ni, data, offset + mi * stride + ni, stride, mutate);
+        sub.owner = owner;
+        return sub;
+    }
+
+    @Override
+    public DenseMatrixD invert() {
+        if (m != n) {
+            throw new RuntimeException("Not a square matrix.");
+        }
+        return DecompositionCache.lu(this).inverse();
+    }
+
+    /**
+     * MatrixD Solver in the form A*X=B where A is this MatrixD and X is the
+     * solutions. Solved through a blocked LUDecompositionD of A, so neither
+     * A nor B are modified and B may have any number of columns. The
+     * decomposition is kept in the shared DecompositionCache, when one is
+     * installed, so solving repeatedly against an unchanged A factors it once.
+     * @param b MatrixD B
+     * @return Solution MatrixD X
+     */
+    @Override
+    public DenseMatrixD solve(Matrix b) {
+        if (m != n || b.m != n) {
+            throw new RuntimeException("Incorrect matrix dimensions.");
+        }
+        return DecompositionCache.lu(this).solve(b);
+    }
+
+    /**
+     * Calculates the determinant of the MatrixD if it is square (n=m)
+     * without boxing any of its elements.
+     * @return double detminant of the MatrixD.
+     */
+    @Override
+    public Double determinant() {
+        if (n != m) {
+            throw new RuntimeException("Not a square matrix.");
+        }
+        int r0 = offset;
+        int r1 = offset + stride;
+        int r2 = offset + 2 * stride;
+        if (n == 1) {
+            return data[r0];
+        } else if (n == 2) {
+            return data[r0] * data[r1 + 1]
+                    - data[r0 + 1] * data[r1];
+        } else if (n == 3) {
+            return data[r0] * data[r1 + 1] * data[r2 + 2]
+                    + data[r0 + 1] * data[r1 + 2] * data[r2]
+                    + data[r0 + 2] * data[r1] * data[r2 + 1]
+                    - data[r0] * data[r1 + 2] * data[r2 + 1]
+                    - data[r0 + 1] * data[r1] * data[r2 + 2]
+                    - data[r0 + 2] * data[r1 + 1] * data[r2];
+        } else {
+            return DecompositionCache.lu(this).determinant();
+        }
+    }
+}
@@ -0,0 +1,883 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+import java.util.Arrays;
+import kinetic.math.linear.LUDecompositionF;
+
+/**
+ * DenseMatrixF Implementation.
+ *
+ * Holds an m-by-n float matrix in a single primitive float[] (row based) where
+ * element a[i,j] is stored at data[offset + i * stride + j],
+ *
+ * <pre>
+ *         n1  n2  n3 ...  nN
+ *      +---------------------
+ *   m1 |[a11 a12 a13 ... aN1] = data[offset + 0 * stride ...]
+ *   m2 |[a21 a22 a23 ... aN1] = data[offset + 1 * stride ...]
+ *   m3 |[a31 a32 a33 ... aN1] = data[offset + 2 * stride ...]
+ *   .. |[... ... ...     ...]
+ *   mN |[aM1 aM2 aM3 ... aMN] = data[offset + m * stride ...]
+ * </pre>
+ *
+ * No element is ever boxed by the arithmetic of this class. The boxed
+ * accessors inherited from Matrix are still provided but always return
+ * copies, so code that wants to avoid allocation should use get(int, int)
+ * and set(int, int, float).
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public class DenseMatrixF extends MatrixF {
+
+    /**
+     * Element storage.
+     */
+    float[] data;
+    /**
+     * Index of a[0,0] within data.
+     */
+    int offset;
+    /**
+     * Distance in data between a[i,j] and a[i+1,j].
+     */
+    int stride;
+
+    public DenseMatrixF(int m, int n) {
+        this(m, n, false);
+    }
+
+    public DenseMatrixF(int m, int n, boolean mutable) {
+        super(m, n, mutable);
+        data = new float[m * n];
+        offset = 0;
+        stride = n;
+    }
+
+    public DenseMatrixF(float[][] data) {
+        this(data, false);
+    }
+
+    public DenseMatrixF(float[][] data, boolean mutable) {
+        this(data.length, data[0].length, mutable);
+        for (int i = 0; i < m; i++) {
+            if (data[i].length != n) {
+                throw new IllegalArgumentException("All rows must have the same length.");
+            }
+            System.arraycopy(data[i], 0, this.data, i * n, n);
+        }
+    }
+
+    public DenseMatrixF(Number[][] data) {
+        this(data, false);
+    }
+
+    public DenseMatrixF(Number[][] data, boolean mutable) {
+        this(data.length, data[0].length, mutable);
+        for (int i = 0; i < m; i++) {
+            if (data[i].length != n) {
+                throw new IllegalArgumentException("All rows must have the same length.");
+            }
+            int row = i * n;
+            for (int j = 0; j < n; j++) {
+                this.data[row + j] = data[i][j].floatValue();
+            }
+        }
+    }
+
+    /**
+     * Wraps an existing row major array without copying it. Changes made to
+     * the array are visible through the MatrixF and vice versa.
+     * @param m rows in the MatrixF.
+     * @param n columns in the MatrixF.
+     * @param data row major data of at least m * n elements.
+     * @param mutable mutate flag.
+     */
+    public DenseMatrixF(int m, int n, float[] data, boolean mutable) {
+        this(m, n, data, 0, n, mutable);
+    }
+
+    DenseMatrixF(int m, int n, float[] data, int offset, int stride, boolean mutable) {
+        super(m, n, mutable);
+        if (m > 0 && n > 0 && offset + (m - 1) * stride + n > data.length) {
+            throw new IllegalArgumentException("data is too small for the given dimensions.");
+        }
+        this.data = data;
+        this.offset = offset;
+        this.stride = stride;
+    }
+
+    /**
+     * Copy constructor.
+     * @param a Matrix to copy.
+     * @param mutable mutate flag.
+     */
+    public DenseMatrixF(Matrix a, boolean mutable) {
+        this(a.m, a.n, mutable);
+        if (a instanceof DenseMatrixF) {
+            DenseMatrixF d = (DenseMatrixF) a;
+            for (int i = 0; i < m; i++) {
+                System.arraycopy(d.data, d.offset + i * d.stride, data, i * n, n);
+            }
+        } else if (a instanceof RowArrayMatrixF) {
+            Float[][] r = ((RowArrayMatrixF) a).data;
+            for (int i = 0; i < m; i++) {
+                int row = i * n;
+                for (int j = 0; j < n; j++) {
+                    data[row + j] = r[i][j];
+                }
+            }
+        } else if (a instanceof ViewMatrixF) {
+            ViewMatrixF v = (ViewMatrixF) a;
+            for (int i = 0; i < m; i++) {
+                int row = i * n;
+                for (int j = 0; j < n; j++) {
+                    data[row + j] = v.get(i, j);
+                }
+            }
+        } else {
+            for (int i = 0; i < m; i++) {
+                int row = i * n;
+                for (int j = 0; j < n; j++) {
+                    data[row + j] = a.getData(i, j).floatValue();
+                }
+            }
+        }
+    }
+
+    /**
+     * Primitive element accessor.
+     * @param i The row to extract the data from.
+     * @param j The column to extract the data from.
+     * @return a[i,j]
+     */
+    public final float get(int i, int j) {
+        checkIndex(i, j);
+        return data[offset + i * stride + j];
+    }
+
+    /**
+     * Primitive element mutator.
+     * @param i The row to set the data to.
+     * @param j The column to set the data to.
+     * @param v The value to set.
+     */
+    public final void set(int i, int j, float v) {
+        modified();
+        checkIndex(i, j);
+        data[offset + i * stride + j] = v;
+    }
+
+    private void checkIndex(int i, int j) {
+        if (i < 0 || i >= m) {
+            throw new IndexOutOfBoundsException(String.format("i value of %s is not < then m of %s", i, m));
+        }
+        if (j < 0 || j >= n) {
+            throw new IndexOutOfBoundsException(String.format("j value of %s is not < then n of %s", j, n));
+        }
+    }
+
+    /**
+     * Checks that the elements are laid out back to back with no gaps so
+     * the whole matrix can be walked as one array.
+     * @return true when contiguous.
+     */
+    final boolean isContiguous() {
+        return stride == n || m <= 1;
+    }
+
+    @Override
+    public final Float[][] getData() {
+        Float[][] output = new Float[m][n];
+        for (int i = 0; i < m; i++) {
+            int row = offset + i * stride;
+            for (int j = 0; j < n; j++) {
+                output[i][j] = data[row + j];
+            }
+        }
+        return output;
+    }
+
+    @Override
+    public final Float getData(int i, int j) {
+        return get(i, j);
+    }
+
+    @Override
+    public final void setData(int i, int j, Number data) {
+        set(i, j, data.floatValue());
+    }
+
+    @Override
+    public final void setData(Number[][] data) {
+        modified();
+        int dm = data.length;
+        int dn = data[0].length;
+        if (dm != m || dn != n) {
+            m = dm;
+            n = dn;
+            this.data = new float[m * n];
+            offset = 0;
+            stride = n;
+        }
+        for (int i = 0; i < m; i++) {
+            int row = offset + i * stride;
+            for (int j = 0; j < n; j++) {
+                this.data[row + j] = data[i][j].floatValue();
+            }
+        }
+    }
+
+    @Override
+    public final Float[] getRow(int i) {
+        if (i < 0 || i >= m) {
+            throw new IndexOutOfBoundsException();
+        }
+        Float[] output = new Float[n];
+        int row = offset + i * stride;
+        for (int j = 0; j < n; j++) {
+            output[j] = data[row + j];
+        }
+        return output;
+    }
+
+    /**
+     * Copies a row into a caller supplied array.
+     * @param i the row to retrieve (0 <= i < m)
+     * @param dest array of at least n elements.
+     * @return dest
+     */
+    public final float[] getRow(int i, float[] dest) {
+        if (i < 0 || i >= m) {
+            throw new IndexOutOfBoundsException();
+        }
+        System.arraycopy(data, offset + i * stride, dest, 0, n);
+        return dest;
+    }
+
+    /**
+     * Copies a column into a caller supplied array.
+     * @param j the column to retrieve (0 <= j < n)
+     * @param dest array of at least m elements.
+     * @return dest
+     */
+    public final float[] getColumn(int j, float[] dest) {
+        if (j < 0 || j >= n) {
+            throw new IndexOutOfBoundsException();
+        }
+        int index = offset + j;
+        for (int i = 0; i < m; i++) {
+            dest[i] = data[index];
+            index += stride;
+        }
+        return dest;
+    }
+
+    /**
+     * Copies the elements of this MatrixF into a new row major array.
+     * @return float[] of m * n elements.
+     */
+    public final float[] toArray() {
+        float[] output = new float[m * n];
+        for (int i = 0; i < m; i++) {
+            System.arraycopy(data, offset + i * stride, output, i * n, n);
+        }
+        return output;
+    }
+
+    @Override
+    public boolean equals(Matrix b) {
+        if (m != b.m || n != b.n) {
+            return false;
+        }
+        if (b instanceof DenseMatrixF) {
+            DenseMatrixF d = (DenseMatrixF) b;
+            for (int i = 0; i < m; i++) {
+                int aRow = offset + i * stride;
+                int bRow = d.offset + i * d.stride;
+                for (int j = 0; j < n; j++) {
+                    if (Float.floatToIntBits(data[aRow + j]) != Float.floatToIntBits(d.data[bRow + j])) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return super.equals(b);
+    }
+
+    @Override
+    public final DenseMatrixF add(Matrix b) {
+        return add(b, mutate);
+    }
+
+    @Override
+    public final DenseMatrixF add(Matrix b, boolean mutate) {
+        if (m != b.m || n != b.n) {
+            throw new RuntimeException("Matrix dimensions are not equal.");
+        }
+        DenseMatrixF c = mutate ? this : new DenseMatrixF(m, n);
+        if (mutate) {
+            modified();
+            if (overlaps(b)) {
+                // Elements of B would be overwritten before they are read.
+                b = new DenseMatrixF(b, false);
+            }
+        }
+        if (b instanceof DenseMatrixF) {
+            DenseMatrixF d = (DenseMatrixF) b;
+            for (int i = 0; i < m; i++) {
+                int aRow = offset + i * stride;
+                int bRow = d.offset + i * d.stride;
+                int cRow = c.offset + i * c.stride;
+                for (int j = 0; j < n; j++) {
+                    c.data[cRow + j] = data[aRow + j] + d.data[bRow + j];
+                }
+            }
+        } else {
+            for (int i = 0; i < m; i++) {
+                int aRow = offset + i * stride;
+                int cRow = c.offset + i * c.stride;
+                for (int j = 0; j < n; j++) {
+                    c.data[cRow + j] = data[aRow + j] + b.getData(i, j).floatValue();
+                }
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public final DenseMatrixF subtract(Matrix b) {
+        return subtract(b, mutate);
+    }
+
+    @Override
+    public final DenseMatrixF subtract(Matrix b, boolean mutate) {
+        if (m != b.m || n != b.n) {
+            throw new RuntimeException("Matrix dimensions are not equal.");
+        }
+        DenseMatrixF c = mutate ? this : new DenseMatrixF(m, n);
+        if (mutate) {
+            modified();
+            if (overlaps(b)) {
+                // Elements of B would be overwritten before they are read.
+                b = new DenseMatrixF(b, false);
+            }
+        }
+        if (b instanceof DenseMatrixF) {
+            DenseMatrixF d = (DenseMatrixF) b;
+            for (int i = 0; i < m; i++) {
+                int aRow = offset + i * stride;
+                int bRow = d.offset + i * d.stride;
+                int cRow = c.offset + i * c.stride;
+                for (int j = 0; j < n; j++) {
+                    c.data[cRow + j] = data[aRow + j] - d.data[bRow + j];
+                }
+            }
+        } else {
+            for (int i = 0; i < m; i++) {
+                int aRow = offset + i * stride;
+                int cRow = c.offset + i * c.stride;
+                for (int j = 0; j < n; j++) {
+                    c.data[cRow + j] = data[aRow + j] - b.getData(i, j).floatValue();
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Multiplies a Matrix to this instance. Matrix A * Matrix B = Matrix C.
+     * A mutable instance is only overwritten when B is square, otherwise a
+     * new Matrix is returned.
+     * @param b Matrix B.
+     * @return Matrix Matrix C.
+     */
+    @Override
+    public DenseMatrixF multiply(Matrix b) {
+        return multiply(b, mutate && b.m == b.n);
+    }
+
+    /**
+     * Multiplies a Matrix to this instance. Matrix A * Matrix B = Matrix C.
+     * The product is computed by the cache blocked MultiplyKernel; B is
+     * unboxed once up front when it is not a DenseMatrixF. When mutating B
+     * must be square so that C has the shape of A; C is then accumulated a
+     * panel of rows at a time in scratch storage before being written back
+     * over A.
+     * @param b Matrix B.
+     * @param mutate flag to specify mutation.
+     * @return Matrix Matrix C.
+     */
+    @Override
+    public DenseMatrixF multiply(Matrix b, boolean mutate) {
+        if (n != b.m) {
+            throw new RuntimeException("Matrix dimensions are incorrect.");
+        }
+        DenseMatrixF bd = MultiplyKernel.denseF(b);
+        if (mutate) {
+            modified();
+            if (b.n != n) {
+                throw new RuntimeException("Matrix B must be square to multiply in place.");
+            }
+            if (bd.data == data) {
+                bd = new DenseMatrixF(bd, false);
+            }
+            int panel = Math.min(MultiplyKernel.BLOCK_M, m);
+            float[] scratch = new float[panel * n];
+            for (int i = 0; i < m; i += panel) {
+                int rows = Math.min(panel, m - i);
+                Arrays.fill(scratch, 0F);
+                MultiplyKernel.multiply(rows, n, n, 1F,
+                        data, offset + i * stride, stride,
+                        bd.data, bd.offset, bd.stride,
+                        scratch, 0, n);
+                for (int r = 0; r < rows; r++) {
+                    System.arraycopy(scratch, r * n, data, offset + (i + r) * stride, n);
+                }
+            }
+            return this;
+        }
+        DenseMatrixF c = new DenseMatrixF(m, b.n);
+        MultiplyKernel.multiply(this, bd, c);
+        return c;
+    }
+
+    @Override
+    public MatrixF multiplyInto(Matrix b, MatrixF dest) {
+        dest.modified();
+        if (n != b.m || dest.m != m || dest.n != b.n) {
+            throw new RuntimeException("Matrix dimensions are incorrect.");
+        }
+        DenseMatrixF bd = MultiplyKernel.denseF(b);
+        if (dest instanceof DenseMatrixF) {
+            DenseMatrixF d = (DenseMatrixF) dest;
+            if (d.data != data && d.data != bd.data) {
+                MultiplyKernel.multiply(this, bd, d);
+                return dest;
+            }
+        }
+        DenseMatrixF c = new DenseMatrixF(m, b.n);
+        MultiplyKernel.multiply(this, bd, c);
+        for (int i = 0; i < c.m; i++) {
+            int row = i * c.n;
+            for (int j = 0; j < c.n; j++) {
+                dest.setData(i, j, c.data[row + j]);
+            }
+        }
+        return dest;
+    }
+
+    @Override
+    public DenseMatrixF transpose() {
+        return transpose(mutate);
+    }
+
+    /**
+     * Returns the transpose of this instance. Matrix A' = transpose(Matrix A)
+     * Square matrices are transposed in place when mutating, otherwise the
+     * transposed elements are copied and adopted by this instance.
+     * @param mutate flag to specify mutation.
+     * @return Matrix A' which is a transpose of this instance.
+     */
+    public DenseMatrixF transpose(boolean mutate) {
+        if (mutate && m == n) {
+            modified();
+            for (int i = 0; i < m; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    int ij = offset + i * stride + j;
+                    int ji = offset + j * stride + i;
+                    float t = data[ij];
+                    data[ij] = data[ji];
+                    data[ji] = t;
+                }
+            }
+            return this;
+        }
+        DenseMatrixF t = new DenseMatrixF(n, m, mutate);
+        for (int i = 0; i < m; i++) {
+            int row = offset + i * stride;
+            for (int j = 0; j < n; j++) {
+                t.data[j * m + i] = data[row + j];
+            }
+        }
+        if (mutate) {
+            modified();
+            data = t.data;
+            offset = 0;
+            m = t.m;
+            n = t.n;
+            stride = n;
+            return this;
+        }
+        return t;
+    }
+
+    @Override
+    public MatrixF addInto(Matrix b, MatrixF dest) {
+        dest.modified();
+        checkElementWise(b, dest);
+        if (dest.overlaps(this)) {
+            // Elements of A would be overwritten before they are read.
+            return new DenseMatrixF(this, false).addInto(b, dest);
+        }
+        if (dest.overlaps(b)) {
+            // Elements of B would be overwritten before they are read.
+            return addInto(new DenseMatrixF(b, false), dest);
+        }
+        if (!(b instanceof DenseMatrixF) || !(dest instanceof DenseMatrixF)) {
+            return super.addInto(b, dest);
+        }
+        DenseMatrixF d = (DenseMatrixF) b;
+        DenseMatrixF c = (DenseMatrixF) dest;
+        for (int i = 0; i < m; i++) {
+            int aRow = offset + i * stride;
+            int bRow = d.offset + i * d.stride;
+            int cRow = c.offset + i * c.stride;
+            for (int j = 0; j < n; j++) {
+                c.data[cRow + j] = data[aRow + j] + d.data[bRow + j];
+            }
+        }
+        return dest;
+    }
+
+    @Override
+    public MatrixF subtractInto(Matrix b, MatrixF dest) {
+        dest.modified();
+        checkElementWise(b, dest);
+        if (dest.overlaps(this)) {
+            // Elements of A would be overwritten before they are read.
+            return new DenseMatrixF(this, false).subtractInto(b, dest);
+        }
+        if (dest.overlaps(b)) {
+            // Elements of B would be overwritten before they are read.
+            return subtractInto(new DenseMatrixF(b, false), dest);
+        }
+        if (!(b instanceof DenseMatrixF) || !(dest instanceof DenseMatrixF)) {
+            return super.subtractInto(b, dest);
+        }
+        DenseMatrixF d = (DenseMatrixF) b;
+        DenseMatrixF c = (DenseMatrixF) dest;
+        for (int i = 0; i < m; i++) {
+            int aRow = offset + i * stride;
+            int bRow = d.offset + i * d.stride;
+            int cRow = c.offset + i * c.stride;
+            for (int j = 0; j < n; j++) {
+                c.data[cRow + j] = data[aRow + j] - d.data[bRow + j];
+            }
+        }
+        return dest;
+    }
+
+    @Override
+    public MatrixF scaleInto(float v, MatrixF dest) {
+        dest.modified();
+        checkElementWise(this, dest);
+        if (dest.overlaps(this)) {
+            // Elements of A would be overwritten before they are read.
+            return new DenseMatrixF(this, false).scaleInto(v, dest);
+        }
+        if (!(dest instanceof DenseMatrixF)) {
+            return super.scaleInto(v, dest);
+        }
+        DenseMatrixF c = (DenseMatrixF) dest;
+        for (int i = 0; i < m; i++) {
+            int aRow = offset + i * stride;
+            int cRow = c.offset + i * c.stride;
+            for (int j = 0; j < n; j++) {
+                c.data[cRow + j] = data[aRow + j] * v;
+            }
+        }
+        return dest;
+    }
+
+    @Override
+    public MatrixF transposeInto(MatrixF dest) {
+        dest.modified();
+        if (dest.m != n || dest.n != m) {
+            throw new RuntimeException("Matrix dimensions are incorrect.");
+        }
+        if (dest == this) {
+            return transpose(true);
+        }
+        if (dest.sharesStorage(this)) {
+            // Elements of A would be overwritten before they are read.
+            return new DenseMatrixF(this, false).transposeInto(dest);
+        }
+        if (!(dest instanceof DenseMatrixF)) {
+            return super.transposeInto(dest);
+        }
+        DenseMatrixF t = (DenseMatrixF) dest;
+        for (int i = 0; i < m; i++) {
+            int row = offset + i * stride;
+            int index = t.offset + i;
+            for (int j = 0; j < n; j++) {
+                t.data[index] = data[row + j];
+                index += t.stride;
+            }
+        }
+        return dest;
+    }
+
+    @Override
+    public DenseMatrixF addScalar(Number v) {
+        return addScalar(v, mutate);
+    }
+
+    @Override
+    public DenseMatrixF addScalar(Number v, boolean mutate) {
+        float s = v.floatValue();
+        DenseMatrixF c = mutate ? this : new DenseMatrixF(m, n);
+        if (mutate) {
+            modified();
+        }
+        for (int i = 0; i < m; i++) {
+            int aRow = offset + i * stride;
+            int cRow = c.offset + i * c.stride;
+            for (int j = 0; j < n; j++) {
+                c.data[cRow + j] = data[aRow + j] + s;
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public DenseMatrixF subtractScalar(Number v) {
+        return subtractScalar(v, mutate);
+    }
+
+    @Override
+    public DenseMatrixF subtractScalar(Number v, boolean mutate) {
+        float s = v.floatValue();
+        DenseMatrixF c = mutate ? this : new DenseMatrixF(m, n);
+        if (mutate) {
+            modified();
+        }
+        for (int i = 0; i < m; i++) {
+            int aRow = offset + i * stride;
+            int cRow = c.offset + i * c.stride;
+            for (int j = 0; j < n; j++) {
+                c.data[cRow + j] = data[aRow + j] - s;
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public DenseMatrixF multiplyScalar(Number v) {
+        return multiplyScalar(v, mutate);
+    }
+
+    @Override
+    public DenseMatrixF multiplyScalar(Number v, boolean mutate) {
+        float s = v.floatValue();
+        DenseMatrixF c = mutate ? this : new DenseMatrixF(m, n);
+        if (mutate) {
+            modified();
+        }
+        for (int i = 0; i < m; i++) {
+            int aRow = offset + i * stride;
+            int cRow = c.offset + i * c.stride;
+            for (int j = 0; j < n; j++) {
+                c.data[cRow + j] = data[aRow + j] * s;
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public DenseMatrixF divideScalar(Number v) {
+        return divideScalar(v, mutate);
+    }
+
+    @Override
+    public DenseMatrixF divideScalar(Number v, boolean mutate) {
+        float s = v.floatValue();
+        if (s == 0) {
+            throw new RuntimeException("Divide by Zero");
+        }
+        DenseMatrixF c = mutate ? this : new DenseMatrixF(m, n);
+        if (mutate) {
+            modified();
+        }
+        for (int i = 0; i < m; i++) {
+            int aRow = offset + i * stride;
+            int cRow = c.offset + i * c.stride;
+            for (int j = 0; j < n; j++) {
+                c.data[cRow + j] = data[aRow + j] / s;
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Transforms the VectorF v by this MatrixF treating v as a column, giving
+     * the m dimensional VectorF A * v.
+     * @param v VectorF of n elements.
+     * @return VectorF the transformed VectorF.
+     */
+    @Override
+    public VectorF transformVector(VectorF v) {
+        if (v.n != n) {
+            throw new RuntimeException("Vector dimensions are incorrect.");
+        }
+        float[] x = new float[n];
+        for (int j = 0; j < n; j++) {
+            x[j] = v.get(j);
+        }
+        float[] y = new float[m];
+        for (int i = 0; i < m; i++) {
+            int row = offset + i * stride;
+            float sum = 0F;
+            for (int j = 0; j < n; j++) {
+                sum += data[row + j] * x[j];
+            }
+            y[i] = sum;
+        }
+        if (m == 3) {
+            return new Vector3F(y[0], y[1], y[2]);
+        }
+        return new DenseVectorF(y);
+    }
+
+    /**
+     * Extracts a sub-matrix sA from A without copying. The returned
+     * DenseMatrixF addresses the same array with this instance's stride so
+     * it can be handed straight to the MultiplyKernel.
+     * Operations that change the shape of the sub-matrix, such as a mutating
+     * transpose of a non square one, detach it from this instance.
+     * @param mi The index of the starting row.
+     * @param mj The index of the finishing row (exclusive).
+     * @param ni The index of the starting column.
+     * @param nj The index of the finishing column (exclusive).
+     * @return m by n view where m = mj-mi and n = nj - ni
+     */
+    @Override
+    public DenseMatrixF getSubMatrix(int mi, int mj, int ni, int nj) {
+        checkSubMatrix(mi, mj, ni, nj);
+        DenseMatrixF sub = new DenseMatrixF(mj - mi, nj - ni, data, offset + mi * stride + ni, stride, mutate);
+        sub.owner = owner;
+        return sub;
+    }
+
+    @Override
+    public DenseMatrixF invert() {
+        if (m != n) {
+            throw new RuntimeException("Not a square matrix.");
+        }
+        return solve(MatrixF.identity(n));
+    }
+
+    /**
+     * MatrixF Solver in the form A*X=B where A is this MatrixF and X is the
+     * solutions. Gaussian elimination with partial pivoting is performed on
+     * private copies so neither A nor B are modified, and B may have any
+     * number of columns.
+     * @param b MatrixF B
+     * @return Solution MatrixF X
+     */
+    @Override
+    public DenseMatrixF solve(Matrix b) {
+        if (m != n || b.m != n) {
+            throw new RuntimeException("Incorrect matrix dimensions.");
+        }
+        int r = b.n;
+        float[] a = toArray();
+        DenseMatrixF x = new DenseMatrixF(b, false);
+        float[] xd = x.data;
+        for (int i = 0; i < n; i++) {
+            int max = i;
+            for (int j = i + 1; j < n; j++) {
+                if (Math.abs(a[j * n + i]) > Math.abs(a[max * n + i])) {
+                    max = j;
+                }
+            }
+            if (max != i) {
+                swapRows(a, n, i, max);
+                swapRows(xd, r, i, max);
+            }
+            float pivot = a[i * n + i];
+            if (pivot == 0) {
+                throw new RuntimeException("Matrix is singular.");
+            }
+            for (int j = i + 1; j < n; j++) {
+                float f = a[j * n + i] / pivot;
+                if (f == 0F) {
+                    continue;
+                }
+                for (int k = i + 1; k < n; k++) {
+                    a[j * n + k] -= a[i * n + k] * f;
+                }
+                a[j * n + i] = 0F;
+                for (int k = 0; k < r; k++) {
+                    xd[j * r + k] -= xd[i * r + k] * f;
+                }
+            }
+        }
+        for (int j = n - 1; j >= 0; j--) {
+            float pivot = a[j * n + j];
+            for (int c = 0; c < r; c++) {
+                float v = 0;
+                for (int k = j + 1; k < n; k++) {
+                    v += a[j * n + k] * xd[k * r + c];
+                }
+                xd[j * r + c] = (xd[j * r + c] - v) / pivot;
+            }
+        }
+        return x;
+    }
+
+    private static void swapRows(float[] a, int n, int i, int j) {
+        int ii = i * n;
+        int jj = j * n;
+        for (int k = 0; k < n; k++) {
+            float t = a[ii + k];
+            a[ii + k] = a[jj + k];
+            a[jj + k] = t;
+        }
+    }
+
+    /**
+     * Calculates the determinant of the MatrixF if it is square (n=m)
+     * without boxing any of its elements.
+     * @return float detminant of the MatrixF.
+     */
+    @Override
+    public Float determinant() {
+        if (n != m) {
+            throw new RuntimeException("Not a square matrix.");
+        }
+        int r0 = offset;
+        int r1 = offset + stride;
+        int r2 = offset + 2 * stride;
+        if (n == 1) {
+            return data[r0];
+        } else if (n == 2) {
+            return data[r0] * data[r1 + 1]
+                    - data[r0 + 1] * data[r1];
+        } else if (n == 3) {
+            return data[r0] * data[r1 + 1] * data[r2 + 2]
+                    + data[r0 + 1] * data[r1 + 2] * data[r2]
+                    + data[r0 + 2] * data[r1] * data[r2 + 1]
+                    - data[r0] * data[r1 + 2] * data[r2 + 1]
+                    - data[r0 + 1] * data[r1] * data[r2 + 2]
+                    - data[r0 + 2] * data[r1 + 1] * data[r2];
+        } else {
+            return (new LUDecompositionF(this)).determinant();
+        }
+    }
+}
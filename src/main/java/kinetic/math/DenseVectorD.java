@@ -0,0 +1,618 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * DenseVectorD Implementation.
+ *
+ * Holds a size n vector in a primitive double[] where element v[i] is
+ * stored at data[i]. No element is ever boxed by the arithmetic of this
+ * class, the boxed accessors inherited from VectorD are still provided but
+ * always return copies.
+ *
+ * Besides the Vector operations it provides the level 1 BLAS operations
+ * axpy, scal, dot, nrm2, asum and iamax. These work in place and never
+ * allocate, and each has an overload taking a MatrixExecutor that splits
+ * long vectors into blocks of at most the executor threshold elements
+ * processed by its pool. A null executor runs the operation sequentially.
+ * Parallel reductions add the partial results of the blocks, so they may
+ * differ from the sequential result in the last bits.
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public class DenseVectorD extends VectorD {
+
+    static final int AXPY = 0;
+    static final int SCAL = 1;
+    static final int DOT = 2;
+    static final int ASUM = 3;
+    static final int SUM_SQUARES = 4;
+    static final int IAMAX = 5;
+    /**
+     * Sum of squares below which nrm2 rescales, as squaring the elements
+     * may have lost precision to underflow.
+     */
+    static final double NRM2_SMALL = 0x1p-900;
+    /**
+     * Element storage.
+     */
+    double[] data;
+
+    public DenseVectorD(int n) {
+        this(n, false);
+    }
+
+    public DenseVectorD(int n, boolean mutable) {
+        super(n, mutable);
+        data = new double[n];
+    }
+
+    /**
+     * Wraps an existing array without copying it. Changes made to the array
+     * are visible through the VectorD and vice versa.
+     * @param data vector data.
+     */
+    public DenseVectorD(double[] data) {
+        this(data, false);
+    }
+
+    /**
+     * Wraps an existing array without copying it. Changes made to the array
+     * are visible through the VectorD and vice versa.
+     * @param data vector data.
+     * @param mutable mutate flag.
+     */
+    public DenseVectorD(double[] data, boolean mutable) {
+        super(data.length, mutable);
+        this.data = data;
+    }
+
+    public DenseVectorD(Number[] data) {
+        this(data, false);
+    }
+
+    public DenseVectorD(Number[] data, boolean mutable) {
+        super(data, mutable);
+        this.data = new double[n];
+        initData(data);
+    }
+
+    /**
+     * Copy constructor.
+     * @param a Vector to copy.
+     * @param mutable mutate flag.
+     */
+    public DenseVectorD(Vector a, boolean mutable) {
+        this(a.n, mutable);
+        a.copyTo(data);
+    }
+
+    @Override
+    protected void initData(Number[] data) {
+        for (int i = 0; i < n; i++) {
+            this.data[i] = data[i].doubleValue();
+        }
+    }
+
+    @Override
+    protected void initData(int i, Number data) {
+        this.data[i] = data.doubleValue();
+    }
+
+    @Override
+    public final Double[] getData() {
+        Double[] output = new Double[n];
+        for (int i = 0; i < n; i++) {
+            output[i] = data[i];
+        }
+        return output;
+    }
+
+    @Override
+    public final Double getData(int i) {
+        return data[i];
+    }
+
+    @Override
+    public final double get(int i) {
+        return data[i];
+    }
+
+    @Override
+    public final void set(int i, double v) {
+        data[i] = v;
+    }
+
+    @Override
+    public final void setData(Number[] data) {
+        if (data.length != n) {
+            n = data.length;
+            this.data = new double[n];
+        }
+        initData(data);
+    }
+
+    @Override
+    public final void setData(int i, Number data) {
+        this.data[i] = data.doubleValue();
+    }
+
+    @Override
+    public final double lengthSquared() {
+        return sumSquares(data, 0, n);
+    }
+
+    @Override
+    public final double dotD(Vector b) {
+        if (n != b.n) {
+            throw new RuntimeException("Vector dimensions are not equal.");
+        }
+        if (b instanceof DenseVectorD) {
+            return dot(data, ((DenseVectorD) b).data, 0, n);
+        }
+        double sum = 0D;
+        for (int i = 0; i < n; i++) {
+            sum += data[i] * valueAt(b, i);
+        }
+        return sum;
+    }
+
+    @Override
+    public final double[] copyTo(double[] dest) {
+        if (dest.length < n) {
+            throw new IllegalArgumentException("Array is shorter than the Vector.");
+        }
+        System.arraycopy(data, 0, dest, 0, n);
+        return dest;
+    }
+
+    @Override
+    public final VectorD negative() {
+        return negative(mutate);
+    }
+
+    @Override
+    public final VectorD negative(boolean mutate) {
+        DenseVectorD c = mutate ? this : new DenseVectorD(n);
+        for (int i = 0; i < n; i++) {
+            c.data[i] = -data[i];
+        }
+        return c;
+    }
+
+    @Override
+    public final VectorD normalise() {
+        return normalise(mutate);
+    }
+
+    @Override
+    public final VectorD normalise(boolean mutate) {
+        double m = Math.sqrt(lengthSquared());
+        if (m == 0) {
+            return mutate ? this : new DenseVectorD(n);
+        }
+        return divide(m, mutate);
+    }
+
+    @Override
+    public final VectorD add(Vector b) {
+        return add(b, mutate);
+    }
+
+    @Override
+    public final VectorD add(Vector b, boolean mutate) {
+        return addInto(b, mutate ? this : new DenseVectorD(n));
+    }
+
+    @Override
+    public final VectorD subtract(Vector b) {
+        return subtract(b, mutate);
+    }
+
+    @Override
+    public final VectorD subtract(Vector b, boolean mutate) {
+        return subtractInto(b, mutate ? this : new DenseVectorD(n));
+    }
+
+    @Override
+    public final VectorD addInto(Vector b, VectorD dest) {
+        if (b instanceof DenseVectorD && dest instanceof DenseVectorD) {
+            checkDimensions(b, dest);
+            double[] bData = ((DenseVectorD) b).data, c = ((DenseVectorD) dest).data;
+            for (int i = 0; i < n; i++) {
+                c[i] = data[i] + bData[i];
+            }
+            return dest;
+        }
+        return super.addInto(b, dest);
+    }
+
+    @Override
+    public final VectorD subtractInto(Vector b, VectorD dest) {
+        if (b instanceof DenseVectorD && dest instanceof DenseVectorD) {
+            checkDimensions(b, dest);
+            double[] bData = ((DenseVectorD) b).data, c = ((DenseVectorD) dest).data;
+            for (int i = 0; i < n; i++) {
+                c[i] = data[i] - bData[i];
+            }
+            return dest;
+        }
+        return super.subtractInto(b, dest);
+    }
+
+    @Override
+    public final VectorD cross(Vector b) {
+        if (n != 3 || b.n != 3) {
+            throw new RuntimeException("Vector dimensions are not both equal to three.");
+        }
+        double x = data[X], y = data[Y], z = data[Z];
+        double bx = valueAt(b, X), by = valueAt(b, Y), bz = valueAt(b, Z);
+        DenseVectorD c = mutate ? this : new DenseVectorD(n);
+        c.data[X] = y * bz - z * by;
+        c.data[Y] = z * bx - x * bz;
+        c.data[Z] = x * by - y * bx;
+        return c;
+    }
+
+    @Override
+    public final VectorD addScalar(Number v) {
+        return addScalar(v, mutate);
+    }
+
+    @Override
+    public final VectorD addScalar(Number v, boolean mutate) {
+        double s = v.doubleValue();
+        DenseVectorD c = mutate ? this : new DenseVectorD(n);
+        for (int i = 0; i < n; i++) {
+            c.data[i] = data[i] + s;
+        }
+        return c;
+    }
+
+    @Override
+    public final VectorD subtractScalar(Number v) {
+        return subtractScalar(v, mutate);
+    }
+
+    @Override
+    public final VectorD subtractScalar(Number v, boolean mutate) {
+        return addScalar(-v.doubleValue(), mutate);
+    }
+
+    @Override
+    public final VectorD multiplyScalar(Number v) {
+        return multiplyScalar(v, mutate);
+    }
+
+    @Override
+    public final VectorD multiplyScalar(Number v, boolean mutate) {
+        double s = v.doubleValue();
+        DenseVectorD c = mutate ? this : new DenseVectorD(n);
+        for (int i = 0; i < n; i++) {
+            c.data[i] = data[i] * s;
+        }
+        return c;
+    }
+
+    @Override
+    public final VectorD divideScalar(Number v) {
+        return divideScalar(v, mutate);
+    }
+
+    @Override
+    public final VectorD divideScalar(Number v, boolean mutate) {
+        if (v.doubleValue() == 0) {
+            throw new RuntimeException("Divide By Zero.");
+        }
+        return divide(v.doubleValue(), mutate);
+    }
+
+    private VectorD divide(double s, boolean mutate) {
+        DenseVectorD c = mutate ? this : new DenseVectorD(n);
+        for (int i = 0; i < n; i++) {
+            c.data[i] = data[i] / s;
+        }
+        return c;
+    }
+
+    /**
+     * Computes this = alpha * x + this.
+     * @param alpha scalar value.
+     * @param x DenseVectorD X of the same dimension.
+     * @return this instance.
+     */
+    public final DenseVectorD axpy(double alpha, DenseVectorD x) {
+        checkDimensions(x, this);
+        axpy(alpha, x.data, data, 0, n);
+        return this;
+    }
+
+    /**
+     * Computes this = alpha * x + this, in parallel for long vectors.
+     * @param alpha scalar value.
+     * @param x DenseVectorD X of the same dimension.
+     * @param executor MatrixExecutor to run on, or null.
+     * @return this instance.
+     */
+    public final DenseVectorD axpy(double alpha, DenseVectorD x, MatrixExecutor executor) {
+        checkDimensions(x, this);
+        if (isSequential(executor)) {
+            axpy(alpha, x.data, data, 0, n);
+        } else {
+            execute(new Block(AXPY, alpha, x.data, data, 0, n, executor.getThreshold()), executor);
+        }
+        return this;
+    }
+
+    /**
+     * Computes this = alpha * this.
+     * @param alpha scalar value.
+     * @return this instance.
+     */
+    public final DenseVectorD scal(double alpha) {
+        scal(alpha, data, 0, n);
+        return this;
+    }
+
+    /**
+     * Computes this = alpha * this, in parallel for long vectors.
+     * @param alpha scalar value.
+     * @param executor MatrixExecutor to run on, or null.
+     * @return this instance.
+     */
+    public final DenseVectorD scal(double alpha, MatrixExecutor executor) {
+        if (isSequential(executor)) {
+            scal(alpha, data, 0, n);
+        } else {
+            execute(new Block(SCAL, alpha, null, data, 0, n, executor.getThreshold()), executor);
+        }
+        return this;
+    }
+
+    /**
+     * Dot product with x, in parallel for long vectors.
+     * @param x DenseVectorD X of the same dimension.
+     * @param executor MatrixExecutor to run on, or null.
+     * @return sum of a[i] * x[i].
+     */
+    public final double dotD(DenseVectorD x, MatrixExecutor executor) {
+        if (n != x.n) {
+            throw new RuntimeException("Vector dimensions are not equal.");
+        }
+        if (isSequential(executor)) {
+            return dot(data, x.data, 0, n);
+        }
+        return execute(new Block(DOT, 0D, x.data, data, 0, n, executor.getThreshold()), executor).result;
+    }
+
+    /**
+     * Euclidean norm, computed without overflow or underflow of the
+     * intermediate sum of squares.
+     * @return sqrt of the sum of a[i] * a[i].
+     */
+    public final double nrm2() {
+        return nrm2(null);
+    }
+
+    /**
+     * Euclidean norm, in parallel for long vectors.
+     * @param executor MatrixExecutor to run on, or null.
+     * @return sqrt of the sum of a[i] * a[i].
+     */
+    public final double nrm2(MatrixExecutor executor) {
+        if (n == 0) {
+            return 0D;
+        }
+        double sum = isSequential(executor) ? sumSquares(data, 0, n)
+                : execute(new Block(SUM_SQUARES, 1D, null, data, 0, n, executor.getThreshold()), executor).result;
+        if (sum >= NRM2_SMALL && sum < Double.POSITIVE_INFINITY || Double.isNaN(sum)) {
+            return Math.sqrt(sum);
+        }
+        // Overflow or underflow, scale the elements by the largest one.
+        double scale = Math.abs(data[iamax(executor)]);
+        if (scale == 0 || scale == Double.POSITIVE_INFINITY) {
+            return scale;
+        }
+        if (isSequential(executor)) {
+            sum = scaledSumSquares(1D / scale, data, 0, n);
+        } else {
+            sum = execute(new Block(SUM_SQUARES, 1D / scale, null, data, 0, n, executor.getThreshold()), executor).result;
+        }
+        return scale * Math.sqrt(sum);
+    }
+
+    /**
+     * Sum of the absolute values of the elements.
+     * @return sum of |a[i]|.
+     */
+    public final double asum() {
+        return asum(data, 0, n);
+    }
+
+    /**
+     * Sum of the absolute values of the elements, in parallel for long
+     * vectors.
+     * @param executor MatrixExecutor to run on, or null.
+     * @return sum of |a[i]|.
+     */
+    public final double asum(MatrixExecutor executor) {
+        if (isSequential(executor)) {
+            return asum(data, 0, n);
+        }
+        return execute(new Block(ASUM, 0D, null, data, 0, n, executor.getThreshold()), executor).result;
+    }
+
+    /**
+     * Index of the first element with the largest absolute value.
+     * @return index i of max |a[i]| or -1 when n is 0.
+     */
+    public final int iamax() {
+        return iamax(data, 0, n);
+    }
+
+    /**
+     * Index of the first element with the largest absolute value, in
+     * parallel for long vectors.
+     * @param executor MatrixExecutor to run on, or null.
+     * @return index i of max |a[i]| or -1 when n is 0.
+     */
+    public final int iamax(MatrixExecutor executor) {
+        if (isSequential(executor)) {
+            return iamax(data, 0, n);
+        }
+        return execute(new Block(IAMAX, 0D, null, data, 0, n, executor.getThreshold()), executor).index;
+    }
+
+    private boolean isSequential(MatrixExecutor executor) {
+        return executor == null || n <= executor.getThreshold();
+    }
+
+    private static Block execute(Block task, MatrixExecutor executor) {
+        executor.getPool().invoke(task);
+        return task;
+    }
+
+    static void axpy(double alpha, double[] x, double[] y, int lo, int hi) {
+        for (int i = lo; i < hi; i++) {
+            y[i] += alpha * x[i];
+        }
+    }
+
+    static void scal(double alpha, double[] x, int lo, int hi) {
+        for (int i = lo; i < hi; i++) {
+            x[i] *= alpha;
+        }
+    }
+
+    static double dot(double[] x, double[] y, int lo, int hi) {
+        double sum = 0D;
+        for (int i = lo; i < hi; i++) {
+            sum += x[i] * y[i];
+        }
+        return sum;
+    }
+
+    static double asum(double[] x, int lo, int hi) {
+        double sum = 0D;
+        for (int i = lo; i < hi; i++) {
+            sum += Math.abs(x[i]);
+        }
+        return sum;
+    }
+
+    static double sumSquares(double[] x, int lo, int hi) {
+        double sum = 0D;
+        for (int i = lo; i < hi; i++) {
+            sum += x[i] * x[i];
+        }
+        return sum;
+    }
+
+    static double scaledSumSquares(double s, double[] x, int lo, int hi) {
+        double sum = 0D;
+        for (int i = lo; i < hi; i++) {
+            double v = x[i] * s;
+            sum += v * v;
+        }
+        return sum;
+    }
+
+    static int iamax(double[] x, int lo, int hi) {
+        int index = -1;
+        double max = -1D;
+        for (int i = lo; i < hi; i++) {
+            double v = Math.abs(x[i]);
+            if (v > max) {
+                max = v;
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Level 1 operation over the elements lo to hi, split in halves until
+     * each part holds no more than threshold elements. Reductions leave
+     * their value in result, or index for IAMAX.
+     */
+    static final class Block extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        final int op;
+        final double alpha;
+        final double[] x, y;
+        final int lo, hi, threshold;
+        double result;
+        int index;
+
+        Block(int op, double alpha, double[] x, double[] y, int lo, int hi, int threshold) {
+            this.op = op;
+            this.alpha = alpha;
+            this.x = x;
+            this.y = y;
+            this.lo = lo;
+            this.hi = hi;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= threshold) {
+                run();
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            Block left = new Block(op, alpha, x, y, lo, mid, threshold);
+            Block right = new Block(op, alpha, x, y, mid, hi, threshold);
+            invokeAll(left, right);
+            result = left.result + right.result;
+            if (op == IAMAX) {
+                boolean r = right.index >= 0 && (left.index < 0
+                        || Math.abs(y[right.index]) > Math.abs(y[left.index]));
+                index = r ? right.index : left.index;
+            }
+        }
+
+        private void run() {
+            switch (op) {
+                case AXPY:
+                    axpy(alpha, x, y, lo, hi);
+                    break;
+                case SCAL:
+                    scal(alpha, y, lo, hi);
+                    break;
+                case DOT:
+                    result = dot(x, y, lo, hi);
+                    break;
+                case ASUM:
+                    result = asum(y, lo, hi);
+                    break;
+                case SUM_SQUARES:
+                    result = (alpha == 1D) ? sumSquares(y, lo, hi) : scaledSumSquares(alpha, y, lo, hi);
+                    break;
+                case IAMAX:
+                    index = iamax(y, lo, hi);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown operation " + op);
+            }
+        }
+    }
+}
@@ -0,0 +1,582 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * DenseVectorF Implementation.
+ *
+ * Holds a size n vector in a primitive float[] where element v[i] is
+ * stored at data[i]. No element is ever boxed by the arithmetic of this
+ * class, the boxed accessors inherited from VectorF are still provided but
+ * always return copies.
+ *
+ * Besides the Vector operations it provides the level 1 BLAS operations
+ * axpy, scal, dot, nrm2, asum and iamax. These work in place and never
+ * allocate, and each has an overload taking a MatrixExecutor that splits
+ * long vectors into blocks of at most the executor threshold elements
+ * processed by its pool. A null executor runs the operation sequentially.
+ * Reductions accumulate in double and parallel reductions add the partial results of the blocks, so they may
+ * differ from the sequential result in the last bits.
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public class DenseVectorF extends VectorF {
+
+    static final int AXPY = 0;
+    static final int SCAL = 1;
+    static final int DOT = 2;
+    static final int ASUM = 3;
+    static final int SUM_SQUARES = 4;
+    static final int IAMAX = 5;
+    /**
+     * Element storage.
+     */
+    float[] data;
+
+    public DenseVectorF(int n) {
+        this(n, false);
+    }
+
+    public DenseVectorF(int n, boolean mutable) {
+        super(n, mutable);
+        data = new float[n];
+    }
+
+    /**
+     * Wraps an existing array without copying it. Changes made to the array
+     * are visible through the VectorF and vice versa.
+     * @param data vector data.
+     */
+    public DenseVectorF(float[] data) {
+        this(data, false);
+    }
+
+    /**
+     * Wraps an existing array without copying it. Changes made to the array
+     * are visible through the VectorF and vice versa.
+     * @param data vector data.
+     * @param mutable mutate flag.
+     */
+    public DenseVectorF(float[] data, boolean mutable) {
+        super(data.length, mutable);
+        this.data = data;
+    }
+
+    public DenseVectorF(Number[] data) {
+        this(data, false);
+    }
+
+    public DenseVectorF(Number[] data, boolean mutable) {
+        super(data, mutable);
+        this.data = new float[n];
+        setData(data);
+    }
+
+    /**
+     * Copy constructor.
+     * @param a Vector to copy.
+     * @param mutable mutate flag.
+     */
+    public DenseVectorF(Vector a, boolean mutable) {
+        this(a.n, mutable);
+        for (int i = 0; i < n; i++) {
+            data[i] = (float) valueAt(a, i);
+        }
+    }
+
+    @Override
+    public final Float[] getData() {
+        Float[] output = new Float[n];
+        for (int i = 0; i < n; i++) {
+            output[i] = data[i];
+        }
+        return output;
+    }
+
+    @Override
+    public final Float getData(int i) {
+        return data[i];
+    }
+
+    @Override
+    public final float get(int i) {
+        return data[i];
+    }
+
+    @Override
+    public final void set(int i, float v) {
+        data[i] = v;
+    }
+
+    @Override
+    public final void setData(Number[] data) {
+        if (data.length != n) {
+            n = data.length;
+            this.data = new float[n];
+        }
+        for (int i = 0; i < n; i++) {
+            this.data[i] = data[i].floatValue();
+        }
+    }
+
+    @Override
+    public final void setData(int i, Number data) {
+        this.data[i] = data.floatValue();
+    }
+
+    @Override
+    public final double lengthSquared() {
+        return sumSquares(data, 0, n);
+    }
+
+    @Override
+    public final double dotD(Vector b) {
+        if (n != b.n) {
+            throw new RuntimeException("Vector dimensions are not equal.");
+        }
+        if (b instanceof DenseVectorF) {
+            return dot(data, ((DenseVectorF) b).data, 0, n);
+        }
+        double sum = 0D;
+        for (int i = 0; i < n; i++) {
+            sum += data[i] * valueAt(b, i);
+        }
+        return sum;
+    }
+
+    @Override
+    public final float[] copyTo(float[] dest) {
+        if (dest.length < n) {
+            throw new IllegalArgumentException("Array is shorter than the Vector.");
+        }
+        System.arraycopy(data, 0, dest, 0, n);
+        return dest;
+    }
+
+    @Override
+    public final VectorF negative() {
+        return negative(mutate);
+    }
+
+    @Override
+    public final VectorF negative(boolean mutate) {
+        DenseVectorF c = mutate ? this : new DenseVectorF(n);
+        for (int i = 0; i < n; i++) {
+            c.data[i] = -data[i];
+        }
+        return c;
+    }
+
+    @Override
+    public final VectorF normalise() {
+        return normalise(mutate);
+    }
+
+    @Override
+    public final VectorF normalise(boolean mutate) {
+        float m = (float) Math.sqrt(lengthSquared());
+        if (m == 0) {
+            return mutate ? this : new DenseVectorF(n);
+        }
+        return divide(m, mutate);
+    }
+
+    @Override
+    public final VectorF add(Vector b) {
+        return add(b, mutate);
+    }
+
+    @Override
+    public final VectorF add(Vector b, boolean mutate) {
+        return addInto(b, mutate ? this : new DenseVectorF(n));
+    }
+
+    @Override
+    public final VectorF subtract(Vector b) {
+        return subtract(b, mutate);
+    }
+
+    @Override
+    public final VectorF subtract(Vector b, boolean mutate) {
+        return subtractInto(b, mutate ? this : new DenseVectorF(n));
+    }
+
+    @Override
+    public final VectorF addInto(Vector b, VectorF dest) {
+        if (b instanceof DenseVectorF && dest instanceof DenseVectorF) {
+            checkDimensions(b, dest);
+            float[] bData = ((DenseVectorF) b).data, c = ((DenseVectorF) dest).data;
+            for (int i = 0; i < n; i++) {
+                c[i] = data[i] + bData[i];
+            }
+            return dest;
+        }
+        return super.addInto(b, dest);
+    }
+
+    @Override
+    public final VectorF subtractInto(Vector b, VectorF dest) {
+        if (b instanceof DenseVectorF && dest instanceof DenseVectorF) {
+            checkDimensions(b, dest);
+            float[] bData = ((DenseVectorF) b).data, c = ((DenseVectorF) dest).data;
+            for (int i = 0; i < n; i++) {
+                c[i] = data[i] - bData[i];
+            }
+            return dest;
+        }
+        return super.subtractInto(b, dest);
+    }
+
+    @Override
+    public final VectorF cross(Vector b) {
+        if (n != 3 || b.n != 3) {
+            throw new RuntimeException("Vector dimensions are not both equal to three.");
+        }
+        float x = data[X], y = data[Y], z = data[Z];
+        float bx = (float) valueAt(b, X), by = (float) valueAt(b, Y), bz = (float) valueAt(b, Z);
+        DenseVectorF c = mutate ? this : new DenseVectorF(n);
+        c.data[X] = y * bz - z * by;
+        c.data[Y] = z * bx - x * bz;
+        c.data[Z] = x * by - y * bx;
+        return c;
+    }
+
+    @Override
+    public final VectorF addScalar(Number v) {
+        return addScalar(v, mutate);
+    }
+
+    @Override
+    public final VectorF addScalar(Number v, boolean mutate) {
+        float s = v.floatValue();
+        DenseVectorF c = mutate ? this : new DenseVectorF(n);
+        for (int i = 0; i < n; i++) {
+            c.data[i] = data[i] + s;
+        }
+        return c;
+    }
+
+    @Override
+    public final VectorF subtractScalar(Number v) {
+        return subtractScalar(v, mutate);
+    }
+
+    @Override
+    public final VectorF subtractScalar(Number v, boolean mutate) {
+        return addScalar(-v.floatValue(), mutate);
+    }
+
+    @Override
+    public final VectorF multiplyScalar(Number v) {
+        return multiplyScalar(v, mutate);
+    }
+
+    @Override
+    public final VectorF multiplyScalar(Number v, boolean mutate) {
+        float s = v.floatValue();
+        DenseVectorF c = mutate ? this : new DenseVectorF(n);
+        for (int i = 0; i < n; i++) {
+            c.data[i] = data[i] * s;
+        }
+        return c;
+    }
+
+    @Override
+    public final VectorF divideScalar(Number v) {
+        return divideScalar(v, mutate);
+    }
+
+    @Override
+    public final VectorF divideScalar(Number v, boolean mutate) {
+        if (v.floatValue() == 0) {
+            throw new RuntimeException("Divide By Zero.");
+        }
+        return divide(v.floatValue(), mutate);
+    }
+
+    private VectorF divide(float s, boolean mutate) {
+        DenseVectorF c = mutate ? this : new DenseVectorF(n);
+        for (int i = 0; i < n; i++) {
+            c.data[i] = data[i] / s;
+        }
+        return c;
+    }
+
+    /**
+     * Computes this = alpha * x + this.
+     * @param alpha scalar value.
+     * @param x DenseVectorF X of the same dimension.
+     * @return this instance.
+     */
+    public final DenseVectorF axpy(float alpha, DenseVectorF x) {
+        checkDimensions(x, this);
+        axpy(alpha, x.data, data, 0, n);
+        return this;
+    }
+
+    /**
+     * Computes this = alpha * x + this, in parallel for long vectors.
+     * @param alpha scalar value.
+     * @param x DenseVectorF X of the same dimension.
+     * @param executor MatrixExecutor to run on, or null.
+     * @return this instance.
+     */
+    public final DenseVectorF axpy(float alpha, DenseVectorF x, MatrixExecutor executor) {
+        checkDimensions(x, this);
+        if (isSequential(executor)) {
+            axpy(alpha, x.data, data, 0, n);
+        } else {
+            execute(new Block(AXPY, alpha, x.data, data, 0, n, executor.getThreshold()), executor);
+        }
+        return this;
+    }
+
+    /**
+     * Computes this = alpha * this.
+     * @param alpha scalar value.
+     * @return this instance.
+     */
+    public final DenseVectorF scal(float alpha) {
+        scal(alpha, data, 0, n);
+        return this;
+    }
+
+    /**
+     * Computes this = alpha * this, in parallel for long vectors.
+     * @param alpha scalar value.
+     * @param executor MatrixExecutor to run on, or null.
+     * @return this instance.
+     */
+    public final DenseVectorF scal(float alpha, MatrixExecutor executor) {
+        if (isSequential(executor)) {
+            scal(alpha, data, 0, n);
+        } else {
+            execute(new Block(SCAL, alpha, null, data, 0, n, executor.getThreshold()), executor);
+        }
+        return this;
+    }
+
+    /**
+     * Dot product with x, in parallel for long vectors.
+     * @param x DenseVectorF X of the same dimension.
+     * @param executor MatrixExecutor to run on, or null.
+     * @return sum of a[i] * x[i].
+     */
+    public final double dotD(DenseVectorF x, MatrixExecutor executor) {
+        if (n != x.n) {
+            throw new RuntimeException("Vector dimensions are not equal.");
+        }
+        if (isSequential(executor)) {
+            return dot(data, x.data, 0, n);
+        }
+        return execute(new Block(DOT, 0F, x.data, data, 0, n, executor.getThreshold()), executor).result;
+    }
+
+    /**
+     * Euclidean norm. The squares are summed in double so the sum can not
+     * overflow or underflow.
+     * @return sqrt of the sum of a[i] * a[i].
+     */
+    public final float nrm2() {
+        return (float) Math.sqrt(sumSquares(data, 0, n));
+    }
+
+    /**
+     * Euclidean norm, in parallel for long vectors.
+     * @param executor MatrixExecutor to run on, or null.
+     * @return sqrt of the sum of a[i] * a[i].
+     */
+    public final float nrm2(MatrixExecutor executor) {
+        if (isSequential(executor)) {
+            return nrm2();
+        }
+        return (float) Math.sqrt(execute(new Block(SUM_SQUARES, 0F, null, data, 0, n, executor.getThreshold()), executor).result);
+    }
+
+    /**
+     * Sum of the absolute values of the elements.
+     * @return sum of |a[i]|.
+     */
+    public final float asum() {
+        return (float) asum(data, 0, n);
+    }
+
+    /**
+     * Sum of the absolute values of the elements, in parallel for long
+     * vectors.
+     * @param executor MatrixExecutor to run on, or null.
+     * @return sum of |a[i]|.
+     */
+    public final float asum(MatrixExecutor executor) {
+        if (isSequential(executor)) {
+            return asum();
+        }
+        return (float) execute(new Block(ASUM, 0F, null, data, 0, n, executor.getThreshold()), executor).result;
+    }
+
+    /**
+     * Index of the first element with the largest absolute value.
+     * @return index i of max |a[i]| or -1 when n is 0.
+     */
+    public final int iamax() {
+        return iamax(data, 0, n);
+    }
+
+    /**
+     * Index of the first element with the largest absolute value, in
+     * parallel for long vectors.
+     * @param executor MatrixExecutor to run on, or null.
+     * @return index i of max |a[i]| or -1 when n is 0.
+     */
+    public final int iamax(MatrixExecutor executor) {
+        if (isSequential(executor)) {
+            return iamax(data, 0, n);
+        }
+        return execute(new Block(IAMAX, 0F, null, data, 0, n, executor.getThreshold()), executor).index;
+    }
+
+    private boolean isSequential(MatrixExecutor executor) {
+        return executor == null || n <= executor.getThreshold();
+    }
+
+    private static Block execute(Block task, MatrixExecutor executor) {
+        executor.getPool().invoke(task);
+        return task;
+    }
+
+    static void axpy(float alpha, float[] x, float[] y, int lo, int hi) {
+        for (int i = lo; i < hi; i++) {
+            y[i] += alpha * x[i];
+        }
+    }
+
+    static void scal(float alpha, float[] x, int lo, int hi) {
+        for (int i = lo; i < hi; i++) {
+            x[i] *= alpha;
+        }
+    }
+
+    static double dot(float[] x, float[] y, int lo, int hi) {
+        double sum = 0D;
+        for (int i = lo; i < hi; i++) {
+            sum += (double) x[i] * y[i];
+        }
+        return sum;
+    }
+
+    static double asum(float[] x, int lo, int hi) {
+        double sum = 0D;
+        for (int i = lo; i < hi; i++) {
+            sum += Math.abs(x[i]);
+        }
+        return sum;
+    }
+
+    static double sumSquares(float[] x, int lo, int hi) {
+        double sum = 0D;
+        for (int i = lo; i < hi; i++) {
+            double v = x[i];
+            sum += v * v;
+        }
+        return sum;
+    }
+
+    static int iamax(float[] x, int lo, int hi) {
+        int index = -1;
+        float max = -1F;
+        for (int i = lo; i < hi; i++) {
+            float v = Math.abs(x[i]);
+            if (v > max) {
+                max = v;
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Level 1 operation over the elements lo to hi, split in halves until
+     * each part holds no more than threshold elements. Reductions leave
+     * their value in result, or index for IAMAX.
+     */
+    static final class Block extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        final int op;
+        final float alpha;
+        final float[] x, y;
+        final int lo, hi, threshold;
+        double result;
+        int index;
+
+        Block(int op, float alpha, float[] x, float[] y, int lo, int hi, int threshold) {
+            this.op = op;
+            this.alpha = alpha;
+            this.x = x;
+            this.y = y;
+            this.lo = lo;
+            this.hi = hi;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= threshold) {
+                run();
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            Block left = new Block(op, alpha, x, y, lo, mid, threshold);
+            Block right = new Block(op, alpha, x, y, mid, hi, threshold);
+            invokeAll(left, right);
+            result = left.result + right.result;
+            if (op == IAMAX) {
+                boolean r = right.index >= 0 && (left.index < 0
+                        || Math.abs(y[right.index]) > Math.abs(y[left.index]));
+                index = r ? right.index : left.index;
+            }
+        }
+
+        private void run() {
+            switch (op) {
+                case AXPY:
+                    axpy(alpha, x, y, lo, hi);
+                    break;
+                case SCAL:
+                    scal(alpha, y, lo, hi);
+                    break;
+                case DOT:
+                    result = dot(x, y, lo, hi);
+                    break;
+                case ASUM:
+                    result = asum(y, lo, hi);
+                    break;
+                case SUM_SQUARES:
+                    result = sumSquares(y, lo, hi);
+                    break;
+                case IAMAX:
+                    index = iamax(y, lo, hi);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown operation " + op);
+            }
+        }
+    }
+}
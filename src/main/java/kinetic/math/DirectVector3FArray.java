@@ -0,0 +1,177 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * Fixed length array of 3 dimensional float vectors stored off heap in a
+ * direct ByteBuffer, interleaved as x0 y0 z0 x1 y1 z1 ... in the native byte
+ * order.
+ *
+ * The storage is outside the Java heap, so the garbage collector never
+ * scans or moves it, and it can be passed to native renderers, shared
+ * memory or NIO channels as it is through getByteBuffer() and
+ * getFloatBuffer(). Elements are read and written with absolute indexing so
+ * the position and limit of the buffers are never changed.
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public final class DirectVector3FArray {
+
+    private final ByteBuffer bytes;
+    private final FloatBuffer floats;
+    private final int length;
+
+    /**
+     * Allocates a direct array of zero vectors.
+     * @param length number of vectors.
+     */
+    public DirectVector3FArray(int length) {
+        this(ByteBuffer.allocateDirect(length * 12).order(ByteOrder.nativeOrder()));
+    }
+
+    /**
+     * Creates an array over the remaining bytes of an existing buffer, for
+     * example a mapped file or memory shared with native code. The buffer's
+     * byte order is used as it is.
+     * @param bytes buffer of at least 12 bytes per vector.
+     */
+    public DirectVector3FArray(ByteBuffer bytes) {
+        this.bytes = bytes.slice().order(bytes.order());
+        this.floats = this.bytes.asFloatBuffer();
+        this.length = floats.capacity() / 3;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Buffer over the bytes of all vectors, positioned at the first one.
+     * Each call returns a new view so that channels and native code can
+     * consume it without affecting other users.
+     * @return ByteBuffer sharing the storage of this array.
+     */
+    public ByteBuffer getByteBuffer() {
+        ByteBuffer view = bytes.duplicate().order(bytes.order());
+        view.limit(length * 12);
+        return view;
+    }
+
+    /**
+     * Buffer over the floats of all vectors, positioned at the first one.
+     * @return FloatBuffer sharing the storage of this array.
+     */
+    public FloatBuffer getFloatBuffer() {
+        FloatBuffer view = floats.duplicate();
+        view.limit(length * 3);
+        return view;
+    }
+
+    public float getX(int i) {
+        return floats.get(check(i));
+    }
+
+    public float getY(int i) {
+        return floats.get(check(i) + 1);
+    }
+
+    public float getZ(int i) {
+        return floats.get(check(i) + 2);
+    }
+
+    /**
+     * Copies vector i into dest.
+     * @param i index of the vector.
+     * @param dest Vector3F to write to.
+     * @return dest
+     */
+    public Vector3F get(int i, Vector3F dest) {
+        int p = check(i);
+        dest.x = floats.get(p);
+        dest.y = floats.get(p + 1);
+        dest.z = floats.get(p + 2);
+        return dest;
+    }
+
+    public void set(int i, Vector3F v) {
+        set(i, v.x, v.y, v.z);
+    }
+
+    public void set(int i, float x, float y, float z) {
+        int p = check(i);
+        floats.put(p, x);
+        floats.put(p + 1, y);
+        floats.put(p + 2, z);
+    }
+
+    /**
+     * Copies count vectors of a Vector3FBuffer, starting at from, into this
+     * array starting at offset.
+     * @param source Vector3FBuffer to copy from.
+     * @param from first index in the source.
+     * @param offset first index in this array.
+     * @param count number of vectors.
+     */
+    public void load(Vector3FBuffer source, int from, int offset, int count) {
+        checkRange(from, count, source.length);
+        checkRange(offset, count, length);
+        float[] xs = source.xs, ys = source.ys, zs = source.zs;
+        int p = offset * 3;
+        for (int i = from; i < from + count; i++, p += 3) {
+            floats.put(p, xs[i]);
+            floats.put(p + 1, ys[i]);
+            floats.put(p + 2, zs[i]);
+        }
+    }
+
+    /**
+     * Copies count vectors of this array, starting at offset, into a
+     * Vector3FBuffer starting at from.
+     * @param dest Vector3FBuffer to copy to.
+     * @param from first index in dest.
+     * @param offset first index in this array.
+     * @param count number of vectors.
+     */
+    public void store(Vector3FBuffer dest, int from, int offset, int count) {
+        checkRange(from, count, dest.length);
+        checkRange(offset, count, length);
+        float[] xs = dest.xs, ys = dest.ys, zs = dest.zs;
+        int p = offset * 3;
+        for (int i = from; i < from + count; i++, p += 3) {
+            xs[i] = floats.get(p);
+            ys[i] = floats.get(p + 1);
+            zs[i] = floats.get(p + 2);
+        }
+    }
+
+    private int check(int i) {
+        if (i < 0 || i >= length) {
+            throw new IndexOutOfBoundsException("index i must be 0 <= i < " + length);
+        }
+        return i * 3;
+    }
+
+    private static void checkRange(int start, int count, int length) {
+        if (start < 0 || count < 0 || start + count > length) {
+            throw new IllegalArgumentException("Range exceeds the array length.");
+        }
+    }
+}
@@ -0,0 +1,689 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * MappedMatrixD Implementation.
+ *
+ * An m-by-n MatrixD whose elements live in a file that is memory mapped
+ * rather than read onto the heap, so matrices larger than the heap can be
+ * processed. The file is a fixed header followed by the elements in row
+ * major order, all little endian,
+ *
+ * <pre>
+ *   offset  size  field
+ *        0     4  magic "KMAT" (0x4B4D4154)
+ *        4     4  version (1)
+ *        8     4  element type (TYPE_DOUBLE or TYPE_FLOAT)
+ *       12     4  m
+ *       16     4  n
+ *       20    12  kind and reserved (zero)
+ *       32   m*n  elements, a[i,j] at 32 + (i * n + j) * element size
+ * </pre>
+ *
+ * This is the MatrixCodec layout, so files written by either can be read
+ * by the other.
+ *
+ * A single mapping is limited to 2GB so the file is mapped as a series of
+ * segments holding whole rows. Float files are widened to double on read.
+ *
+ * Every operation streams the file a block of rows at a time (see
+ * getRowBlockSize) through the MultiplyKernel or a simple loop, so heap use
+ * is bounded by the block and by the other operand. Results that are not
+ * written back into this instance are returned as a DenseMatrixD; to keep a
+ * large result on disk pass another MappedMatrixD as the destination of
+ * multiply(Matrix, MatrixD) or transposeInto(MatrixD), or use
+ * transpose(File).
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public class MappedMatrixD extends MatrixD implements Closeable {
+
+    public static final int MAGIC = MatrixCodec.MAGIC;
+    public static final int VERSION = MatrixCodec.VERSION;
+    public static final int TYPE_DOUBLE = MatrixCodec.TYPE_DOUBLE;
+    public static final int TYPE_FLOAT = MatrixCodec.TYPE_FLOAT;
+    public static final int HEADER_SIZE = MatrixCodec.HEADER_SIZE;
+    /**
+     * Largest number of bytes mapped by one segment.
+     */
+    static final long SEGMENT_SIZE = 1L << 30;
+
+    final FileChannel channel;
+    final int type;
+    final int rowsPerSegment;
+    final DoubleBuffer[] doubles;
+    final FloatBuffer[] floats;
+    int rowBlockSize;
+
+    private MappedMatrixD(FileChannel channel, int m, int n, int type, boolean writable) throws IOException {
+        super(m, n, writable);
+        this.channel = channel;
+        this.type = type;
+        int size = elementSize(type);
+        long rowBytes = Math.max(1L, (long) n * size);
+        rowsPerSegment = (int) Math.max(1L, Math.min(Integer.MAX_VALUE, SEGMENT_SIZE / rowBytes));
+        int segments = (m == 0) ? 0 : (m + rowsPerSegment - 1) / rowsPerSegment;
+        doubles = (type == TYPE_DOUBLE) ? new DoubleBuffer[segments] : null;
+        floats = (type == TYPE_FLOAT) ? new FloatBuffer[segments] : null;
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        for (int s = 0; s < segments; s++) {
+            int rows = Math.min(rowsPerSegment, m - s * rowsPerSegment);
+            long position = HEADER_SIZE + (long) s * rowsPerSegment * n * size;
+            MappedByteBuffer buffer = channel.map(mode, position, (long) rows * n * size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (type == TYPE_DOUBLE) {
+                doubles[s] = buffer.asDoubleBuffer();
+            } else {
+                floats[s] = buffer.asFloatBuffer();
+            }
+        }
+        rowBlockSize = super.getRowBlockSize();
+    }
+
+    static int elementSize(int type) {
+        return MatrixCodec.elementSize(type);
+    }
+
+    /**
+     * Creates (or truncates) a file holding an m by n matrix of zeros and
+     * maps it read write.
+     * @param file file to create.
+     * @param m rows in the MatrixD.
+     * @param n columns in the MatrixD.
+     * @return mutable MappedMatrixD.
+     * @throws IOException when the file can not be created.
+     */
+    public static MappedMatrixD create(File file, int m, int n) throws IOException {
+        return create(file, m, n, TYPE_DOUBLE);
+    }
+
+    /**
+     * Creates (or truncates) a file holding an m by n matrix of zeros of the
+     * given element type and maps it read write.
+     * @param file file to create.
+     * @param m rows in the MatrixD.
+     * @param n columns in the MatrixD.
+     * @param type TYPE_DOUBLE or TYPE_FLOAT.
+     * @return mutable MappedMatrixD.
+     * @throws IOException when the file can not be created.
+     */
+    public static MappedMatrixD create(File file, int m, int n, int type) throws IOException {
+        if (m < 0 || n < 0) {
+            throw new IllegalArgumentException("Dimensions must not be negative.");
+        }
+        long length = HEADER_SIZE + (long) m * n * elementSize(type);
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            FileChannel channel = raf.getChannel();
+            channel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            MatrixCodec.putHeader(header, type, MatrixCodec.KIND_MATRIX, m, n);
+            header.clear();
+            channel.write(header, 0);
+            raf.setLength(length);
+            return new MappedMatrixD(channel, m, n, type, true);
+        } catch (IOException e) {
+            raf.close();
+            throw e;
+        } catch (RuntimeException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an existing matrix file.
+     * @param file file to open.
+     * @param writable map read write when true, read only otherwise.
+     * @return MappedMatrixD which mutates when writable.
+     * @throws IOException when the file can not be read or is not a matrix
+     * file.
+     */
+    public static MappedMatrixD open(File file, boolean writable) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, writable ? "rw" : "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("File is too short to hold a matrix header.");
+                }
+            }
+            header.flip();
+            MatrixCodec.Header h;
+            try {
+                h = MatrixCodec.getHeader(header);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage());
+            }
+            int type = h.type;
+            int m = h.m;
+            int n = h.n;
+            if (channel.size() < HEADER_SIZE + h.dataSize()) {
+                throw new IOException("File is too short for a " + m + " by " + n + " matrix.");
+            }
+            return new MappedMatrixD(channel, m, n, type, writable);
+        } catch (IOException e) {
+            raf.close();
+            throw e;
+        } catch (RuntimeException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes any Matrix to a new matrix file a block of rows at a time.
+     * @param file file to create.
+     * @param a Matrix to write.
+     * @return mutable MappedMatrixD over the new file.
+     * @throws IOException when the file can not be created.
+     */
+    public static MappedMatrixD write(File file, Matrix a) throws IOException {
+        MappedMatrixD c = create(file, a.m, a.n);
+        MatrixD d = (a instanceof MatrixD) ? (MatrixD) a : new DenseMatrixD(a, false);
+        int block = c.getRowBlockSize();
+        double[] buffer = new double[block * c.n];
+        for (int i = 0; i < c.m; i += block) {
+            int rows = Math.min(block, c.m - i);
+            c.setRows(i, rows, d.getRows(i, rows, buffer));
+        }
+        return c;
+    }
+
+    /**
+     * Element type of the backing file.
+     * @return TYPE_DOUBLE or TYPE_FLOAT.
+     */
+    public final int getType() {
+        return type;
+    }
+
+    @Override
+    public int getRowBlockSize() {
+        return rowBlockSize;
+    }
+
+    /**
+     * Sets the number of rows read per block by the streaming operations.
+     * @param rows rows per block, at least one.
+     */
+    public void setRowBlockSize(int rows) {
+        if (rows < 1) {
+            throw new IllegalArgumentException("rows must be at least one.");
+        }
+        rowBlockSize = rows;
+    }
+
+    /**
+     * Flushes changes to the file.
+     * @throws IOException when the channel can not be forced.
+     */
+    public void flush() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Closes the file channel. The mapped segments stay valid until they are
+     * garbage collected but must not be used after closing.
+     * @throws IOException when the channel can not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Primitive element accessor.
+     * @param i The row to extract the data from.
+     * @param j The column to extract the data from.
+     * @return a[i,j]
+     */
+    public final double get(int i, int j) {
+        checkIndex(i, j);
+        int s = i / rowsPerSegment;
+        int index = (i - s * rowsPerSegment) * n + j;
+        return (doubles != null) ? doubles[s].get(index) : floats[s].get(index);
+    }
+
+    /**
+     * Primitive element mutator.
+     * @param i The row to set the data to.
+     * @param j The column to set the data to.
+     * @param v The value to set.
+     */
+    public final void set(int i, int j, double v) {
+        modified();
+        checkIndex(i, j);
+        int s = i / rowsPerSegment;
+        int index = (i - s * rowsPerSegment) * n + j;
+        if (doubles != null) {
+            doubles[s].put(index, v);
+        } else {
+            floats[s].put(index, (float) v);
+        }
+    }
+
+    private void checkIndex(int i, int j) {
+        if (i < 0 || i >= m) {
+            throw new IndexOutOfBoundsException(String.format("i value of %s is not < then m of %s", i, m));
+        }
+        if (j < 0 || j >= n) {
+            throw new IndexOutOfBoundsException(String.format("j value of %s is not < then n of %s", j, n));
+        }
+    }
+
+    /**
+     * Copies count consecutive rows starting at row i with bulk buffer
+     * reads, one per segment touched.
+     */
+    @Override
+    public final double[] getRows(int i, int count, double[] dest) {
+        checkRows(i, count);
+        int done = 0;
+        while (done < count) {
+            int row = i + done;
+            int s = row / rowsPerSegment;
+            int first = row - s * rowsPerSegment;
+            int rows = Math.min(count - done, rowsPerSegment - first);
+            if (doubles != null) {
+                DoubleBuffer b = doubles[s].duplicate();
+                b.position(first * n);
+                b.get(dest, done * n, rows * n);
+            } else {
+                FloatBuffer b = floats[s].duplicate();
+                b.position(first * n);
+                int start = done * n;
+                for (int k = 0; k < rows * n; k++) {
+                    dest[start + k] = b.get();
+                }
+            }
+            done += rows;
+        }
+        return dest;
+    }
+
+    @Override
+    public final void setRows(int i, int count, double[] src) {
+        modified();
+        checkRows(i, count);
+        int done = 0;
+        while (done < count) {
+            int row = i + done;
+            int s = row / rowsPerSegment;
+            int first = row - s * rowsPerSegment;
+            int rows = Math.min(count - done, rowsPerSegment - first);
+            if (doubles != null) {
+                DoubleBuffer b = doubles[s].duplicate();
+                b.position(first * n);
+                b.put(src, done * n, rows * n);
+            } else {
+                FloatBuffer b = floats[s].duplicate();
+                b.position(first * n);
+                int start = done * n;
+                for (int k = 0; k < rows * n; k++) {
+                    b.put((float) src[start + k]);
+                }
+            }
+            done += rows;
+        }
+    }
+
+    @Override
+    public final Double[][] getData() {
+        Double[][] output = new Double[m][n];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                output[i][j] = get(i, j);
+            }
+        }
+        return output;
+    }
+
+    @Override
+    public final Double getData(int i, int j) {
+        return get(i, j);
+    }
+
+    @Override
+    public final void setData(Number[][] data) {
+        modified();
+        if (data.length != m || data[0].length != n) {
+            throw new IllegalArgumentException("The dimensions of a mapped matrix can not change.");
+        }
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                set(i, j, data[i][j].doubleValue());
+            }
+        }
+    }
+
+    @Override
+    public final void setData(int i, int j, Number data) {
+        set(i, j, data.doubleValue());
+    }
+
+    @Override
+    public final Double[] getRow(int i) {
+        if (i < 0 || i >= m) {
+            throw new IndexOutOfBoundsException();
+        }
+        Double[] output = new Double[n];
+        for (int j = 0; j < n; j++) {
+            output[j] = get(i, j);
+        }
+        return output;
+    }
+
+    private static final int ADD = 0, SUBTRACT = 1, ADD_SCALAR = 2, MULTIPLY_SCALAR = 3, DIVIDE_SCALAR = 4;
+
+    /**
+     * Streams an element wise operation a block of rows at a time, writing
+     * back into this instance or into a new DenseMatrixD.
+     */
+    private MatrixD elementWise(int op, Matrix b, double v, boolean mutate) {
+        MatrixD bd = null;
+        if (b != null) {
+            if (m != b.m || n != b.n) {
+                throw new RuntimeException("Matrix dimensions are not equal.");
+            }
+            bd = (b instanceof MatrixD) ? (MatrixD) b : new DenseMatrixD(b, false);
+        }
+        MatrixD c = mutate ? this : new DenseMatrixD(m, n);
+        if (mutate) {
+            modified();
+        }
+        int block = getRowBlockSize();
+        double[] a = new double[block * n];
+        double[] x = (bd == null) ? null : new double[block * n];
+        for (int i = 0; i < m; i += block) {
+            int rows = Math.min(block, m - i);
+            int size = rows * n;
+            getRows(i, rows, a);
+            if (bd != null) {
+                bd.getRows(i, rows, x);
+            }
+            switch (op) {
+                case ADD:
+                    for (int k = 0; k < size; k++) {
+                        a[k] += x[k];
+                    }
+                    break;
+                case SUBTRACT:
+                    for (int k = 0; k < size; k++) {
+                        a[k] -= x[k];
+                    }
+                    break;
+                case ADD_SCALAR:
+                    for (int k = 0; k < size; k++) {
+                        a[k] += v;
+                    }
+                    break;
+                case MULTIPLY_SCALAR:
+                    for (int k = 0; k < size; k++) {
+                        a[k] *= v;
+                    }
+                    break;
+                default:
+                    for (int k = 0; k < size; k++) {
+                        a[k] /= v;
+                    }
+                    break;
+            }
+            c.setRows(i, rows, a);
+        }
+        return c;
+    }
+
+    @Override
+    public MatrixD add(Matrix b) {
+        return add(b, mutate);
+    }
+
+    @Override
+    public MatrixD add(Matrix b, boolean mutate) {
+        return elementWise(ADD, b, 0D, mutate);
+    }
+
+    @Override
+    public MatrixD subtract(Matrix b) {
+        return subtract(b, mutate);
+    }
+
+    @Override
+    public MatrixD subtract(Matrix b, boolean mutate) {
+        return elementWise(SUBTRACT, b, 0D, mutate);
+    }
+
+    /**
+     * Multiplies a Matrix to this instance. Matrix A * Matrix B = Matrix C.
+     * A mutable instance is only overwritten when B is square, otherwise a
+     * new DenseMatrixD is returned.
+     * @param b Matrix B.
+     * @return Matrix Matrix C.
+     */
+    @Override
+    public MatrixD multiply(Matrix b) {
+        return multiply(b, mutate && b.m == b.n);
+    }
+
+    /**
+     * Multiplies a Matrix to this instance. Matrix A * Matrix B = Matrix C.
+     * B is held in memory and A is streamed a block of rows at a time
+     * through the MultiplyKernel. Each block of C only depends on the same
+     * block of A so mutating writes it straight back over A.
+     * @param b Matrix B.
+     * @param mutate flag to specify mutation.
+     * @return Matrix Matrix C.
+     */
+    @Override
+    public MatrixD multiply(Matrix b, boolean mutate) {
+        if (mutate && b.n != n) {
+            throw new RuntimeException("Matrix B must be square to multiply in place.");
+        }
+        return multiply(b, mutate ? this : new DenseMatrixD(m, b.n));
+    }
+
+    @Override
+    public MatrixD multiply(Matrix b, MatrixD dest) {
+        dest.modified();
+        if (n != b.m || dest.m != m || dest.n != b.n) {
+            throw new RuntimeException("Matrix dimensions are incorrect.");
+        }
+        DenseMatrixD bd = MultiplyKernel.dense(b);
+        int p = b.n;
+        int block = getRowBlockSize();
+        double[] a = new double[block * n];
+        double[] c = new double[block * p];
+        for (int i = 0; i < m; i += block) {
+            int rows = Math.min(block, m - i);
+            getRows(i, rows, a);
+            Arrays.fill(c, 0, rows * p, 0D);
+            MultiplyKernel.multiply(rows, n, p, 1D,
+                    a, 0, n,
+                    bd.data, bd.offset, bd.stride,
+                    c, 0, p);
+            dest.setRows(i, rows, c);
+        }
+        return dest;
+    }
+
+    /**
+     * Returns the transpose of this instance. Square mutable instances are
+     * transposed in place, otherwise the transpose is returned as a
+     * DenseMatrixD.
+     * @return Matrix A' which is a transpose of this instance.
+     */
+    @Override
+    public MatrixD transpose() {
+        if (mutate && m == n) {
+            modified();
+            for (int i = 0; i < m; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    double t = get(i, j);
+                    set(i, j, get(j, i));
+                    set(j, i, t);
+                }
+            }
+            return this;
+        }
+        return transposeInto(new DenseMatrixD(n, m));
+    }
+
+    /**
+     * Writes the transpose of this instance to a new matrix file.
+     * @param file file to create.
+     * @return MappedMatrixD A'.
+     * @throws IOException when the file can not be created.
+     */
+    public MappedMatrixD transpose(File file) throws IOException {
+        MappedMatrixD t = create(file, n, m, type);
+        transposeInto(t);
+        return t;
+    }
+
+    /**
+     * Transposes this instance into dest a block of rows at a time. Each
+     * block of rows of A becomes a block of columns of A', written as one
+     * row segment per column.
+     * @param dest n by m MatrixD to write to.
+     * @return dest
+     */
+    @Override
+    public MatrixD transposeInto(MatrixD dest) {
+        dest.modified();
+        if (dest == this) {
+            return transpose();
+        }
+        if (dest.m != n || dest.n != m) {
+            throw new RuntimeException("Matrix dimensions are incorrect.");
+        }
+        int block = getRowBlockSize();
+        double[] a = new double[block * n];
+        double[] segment = new double[block];
+        for (int i = 0; i < m; i += block) {
+            int rows = Math.min(block, m - i);
+            getRows(i, rows, a);
+            for (int j = 0; j < n; j++) {
+                for (int r = 0; r < rows; r++) {
+                    segment[r] = a[r * n + j];
+                }
+                if (dest instanceof MappedMatrixD) {
+                    ((MappedMatrixD) dest).putSegment(j, i, segment, rows);
+                } else {
+                    for (int r = 0; r < rows; r++) {
+                        dest.setData(j, i + r, segment[r]);
+                    }
+                }
+            }
+        }
+        return dest;
+    }
+
+    /**
+     * Writes count values into row i starting at column j.
+     */
+    private void putSegment(int i, int j, double[] src, int count) {
+        int s = i / rowsPerSegment;
+        int index = (i - s * rowsPerSegment) * n + j;
+        if (doubles != null) {
+            DoubleBuffer b = doubles[s].duplicate();
+            b.position(index);
+            b.put(src, 0, count);
+        } else {
+            for (int k = 0; k < count; k++) {
+                floats[s].put(index + k, (float) src[k]);
+            }
+        }
+    }
+
+    @Override
+    public MatrixD addScalar(Number v) {
+        return addScalar(v, mutate);
+    }
+
+    @Override
+    public MatrixD addScalar(Number v, boolean mutate) {
+        return elementWise(ADD_SCALAR, null, v.doubleValue(), mutate);
+    }
+
+    @Override
+    public MatrixD subtractScalar(Number v) {
+        return subtractScalar(v, mutate);
+    }
+
+    @Override
+    public MatrixD subtractScalar(Number v, boolean mutate) {
+        return elementWise(ADD_SCALAR, null, -v.doubleValue(), mutate);
+    }
+
+    @Override
+    public MatrixD multiplyScalar(Number v) {
+        return multiplyScalar(v, mutate);
+    }
+
+    @Override
+    public MatrixD multiplyScalar(Number v, boolean mutate) {
+        return elementWise(MULTIPLY_SCALAR, null, v.doubleValue(), mutate);
+    }
+
+    @Override
+    public MatrixD divideScalar(Number v) {
+        return divideScalar(v, mutate);
+    }
+
+    @Override
+    public MatrixD divideScalar(Number v, boolean mutate) {
+        if (v.doubleValue() == 0) {
+            throw new RuntimeException("Divide by Zero");
+        }
+        return elementWise(DIVIDE_SCALAR, null, v.doubleValue(), mutate);
+    }
+
+    /**
+     * Return the invert of the MatrixD A. The matrix is loaded into a
+     * DenseMatrixD first, so it must fit on the heap.
+     * @return MatrixD A^-1
+     */
+    @Override
+    public MatrixD invert() {
+        return new DenseMatrixD(this, false).invert();
+    }
+
+    @Override
+    public MatrixD solve(Matrix b) {
+        return new DenseMatrixD(this, false).solve(b);
+    }
+
+    @Override
+    public Double determinant() {
+        return new DenseMatrixD(this, false).determinant();
+    }
+}
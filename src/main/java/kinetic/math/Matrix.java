@@ -52,6 +52,16 @@ public abstract class Matrix {
      * mutate flag
      */
     boolean mutate = false;
+    /**
+     * Matrix whose storage this instance shares, this unless it is a view
+     * or sub-matrix. Modifications are counted on the owner so that a
+     * change through any view is seen by all of them.
+     */
+    Matrix owner = this;
+    /**
+     * Modification count, only used on the owner.
+     */
+    private int modifications;
 
     /**
      * matrix data
@@ -88,6 +98,72 @@ public abstract class Matrix {
         this.mutate = mutate;
     }
 
+    /**
+     * Number of times the elements or shape of this Matrix have been changed
+     * through its methods, including mutating operations and changes made
+     * through views sharing its storage. Cached results such as
+     * decompositions compare it to detect that they are stale. Writes made
+     * directly to an array the Matrix was constructed around are not seen.
+     * @return modification count.
+     */
+    public final int getModificationCount() {
+        return owner.modifications;
+    }
+
+    /**
+     * Records a modification, to be called by every mutator.
+     */
+    final void modified() {
+        owner.modifications++;
+    }
+
+    /**
+     * Does this Matrix share its storage with b, by being b, a view or
+     * sub-matrix of the same Matrix, or wrapping the same array. Operations
+     * writing into a destination use it to detect that the destination
+     * aliases one of their operands.
+     * @param b Matrix B.
+     * @return true when a write to one may change the other.
+     */
+    final boolean sharesStorage(Matrix b) {
+        if (owner == b.owner) {
+            return true;
+        }
+        if (this instanceof DenseMatrixD && b instanceof DenseMatrixD) {
+            return ((DenseMatrixD) this).data == ((DenseMatrixD) b).data;
+        }
+        if (this instanceof DenseMatrixF && b instanceof DenseMatrixF) {
+            return ((DenseMatrixF) this).data == ((DenseMatrixF) b).data;
+        }
+        if (this instanceof RowArrayMatrixD && b instanceof RowArrayMatrixD) {
+            return ((RowArrayMatrixD) this).data == ((RowArrayMatrixD) b).data;
+        }
+        return false;
+    }
+
+    /**
+     * Does writing element (i,j) of this Matrix possibly change an element
+     * of b other than (i,j), as with a transpose view or a shifted
+     * sub-matrix of the same storage. Element wise operations writing into
+     * this then have to read b from a copy.
+     * @param b Matrix B with the dimensions of this Matrix.
+     * @return true when b shares the storage of this laid out differently.
+     */
+    final boolean overlaps(Matrix b) {
+        if (b == this || !sharesStorage(b)) {
+            return false;
+        }
+        if (this instanceof DenseMatrixD && b instanceof DenseMatrixD) {
+            DenseMatrixD x = (DenseMatrixD) this, y = (DenseMatrixD) b;
+            return x.offset != y.offset || x.stride != y.stride;
+        }
+        if (this instanceof DenseMatrixF && b instanceof DenseMatrixF) {
+            DenseMatrixF x = (DenseMatrixF) this, y = (DenseMatrixF) b;
+            return x.offset != y.offset || x.stride != y.stride;
+        }
+        return !(this instanceof RowArrayMatrixD && b instanceof RowArrayMatrixD);
+    }
+
     /**
      * Retrieve the data from the Matrix. This will be unsupported on some
      * implementations.
@@ -92,6 +92,7 @@ public class Matrix3F extends MatrixF {
 
     @Override
     public void setData(Number[][] data) {
+        modified();
         m = data.length;
         if (m > 0) {
             n = data[0].length;
@@ -114,6 +115,7 @@ public class Matrix3F extends MatrixF {
 
     @Override
     public void setData(int i, int j, Number data) {
+        modified();
         if (i > 2 || j > 2) {
             throw new IllegalArgumentException("i and j must be <= 2");
         }
@@ -157,6 +159,7 @@ public class Matrix3F extends MatrixF {
             throw new RuntimeException("Matrix dimensions are not equal.");
         }
         if (mutate) {
+            modified();
             m00 += b.getData(0, 0).floatValue();
             m01 += b.getData(0, 1).floatValue();
             m02 += b.getData(0, 2).floatValue();
@@ -183,6 +186,7 @@ public class Matrix3F extends MatrixF {
             throw new RuntimeException("Matrix dimensions are not equal.");
         }
         if (mutate) {
+            modified();
             m00 += b.m00;
             m01 += b.m01;
             m02 += b.m02;
@@ -211,6 +215,7 @@ public class Matrix3F extends MatrixF {
             throw new RuntimeException("Matrix dimensions are not equal.");
         }
         if (mutate) {
+            modified();
             m00 -= b.getData(0, 0).floatValue();
             m01 -= b.getData(0, 1).floatValue();
             m02 -= b.getData(0, 2).floatValue();
@@ -237,6 +242,7 @@ public class Matrix3F extends MatrixF {
             throw new RuntimeException("Matrix dimensions are not equal.");
         }
         if (mutate) {
+            modified();
             m00 -= b.m00;
             m01 -= b.m01;
             m02 -= b.m02;
@@ -299,6 +305,7 @@ public class Matrix3F extends MatrixF {
     @Override
     public Matrix3F transpose() {
         if (mutate) {
+            modified();
             /**
              * TODO: Figure out transpose.
              */
@@ -338,6 +345,7 @@ public class Matrix3F extends MatrixF {
 
     public final Matrix3F addScalar3F(float f, boolean mutate) {
         if (mutate) {
+            modified();
             m00 = m00 + f;
             m01 = m01 + f;
             m02 = m02 + f;
@@ -373,6 +381,7 @@ public class Matrix3F extends MatrixF {
 
     public final Matrix3F subtractScalar3F(float f, boolean mutate) {
         if (mutate) {
+            modified();
             m00 = m00 - f;
             m01 = m01 - f;
             m02 = m02 - f;
@@ -408,6 +417,7 @@ public class Matrix3F extends MatrixF {
 
     public final Matrix3F multiplyScalar3F(float f, boolean mutate) {
         if (mutate) {
+            modified();
             m00 = m00 * f;
             m01 = m01 * f;
             m02 = m02 * f;
@@ -452,6 +462,7 @@ public class Matrix3F extends MatrixF {
             throw new RuntimeException("Divide By Zero.");
         }
         if (mutate) {
+            modified();
             m00 = m00 / f;
             m01 = m01 / f;
             m02 = m02 / f;
@@ -15,6 +15,10 @@
  **/
 package kinetic.math;
 
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.FloatBuffer;
+
 /**
  * Performance optimised 4 dimensional float matrix. This class can be mutable
  * or immutable.
@@ -161,6 +165,7 @@ public class Matrix4F extends MatrixF {
 
     @Override
     public void setData(Number[][] data) {
+        modified();
         m = data.length;
         if (m > 0) {
             n = data[0].length;
@@ -190,17 +195,22 @@ public class Matrix4F extends MatrixF {
 
     @Override
     public void setData(int i, int j, Number data) {
+        modified();
         switch (i) {
             case 0:
                 switch (j) {
                     case 0:
                         m00 = data.floatValue();
+                        return;
                     case 1:
                         m01 = data.floatValue();
+                        return;
                     case 2:
                         m02 = data.floatValue();
+                        return;
                     case 3:
                         m03 = data.floatValue();
+                        return;
                     default:
                         throw new IllegalArgumentException("j must be < 4");
                 }
@@ -208,12 +218,16 @@ public class Matrix4F extends MatrixF {
                 switch (j) {
                     case 0:
                         m10 = data.floatValue();
+                        return;
                     case 1:
                         m11 = data.floatValue();
+                        return;
                     case 2:
                         m12 = data.floatValue();
+                        return;
                     case 3:
                         m13 = data.floatValue();
+                        return;
                     default:
                         throw new IllegalArgumentException("j must be < 4");
                 }
@@ -221,12 +235,16 @@ public class Matrix4F extends MatrixF {
                 switch (j) {
                     case 0:
                         m20 = data.floatValue();
+                        return;
                     case 1:
                         m21 = data.floatValue();
+                        return;
                     case 2:
                         m22 = data.floatValue();
+                        return;
                     case 3:
                         m23 = data.floatValue();
+                        return;
                     default:
                         throw new IllegalArgumentException("j must be < 4");
                 }
@@ -234,12 +252,16 @@ public class Matrix4F extends MatrixF {
                 switch (j) {
                     case 0:
                         m30 = data.floatValue();
+                        return;
                     case 1:
                         m31 = data.floatValue();
+                        return;
                     case 2:
                         m32 = data.floatValue();
+                        return;
                     case 3:
                         m33 = data.floatValue();
+                        return;
                     default:
                         throw new IllegalArgumentException("j must be < 4");
                 }
@@ -271,6 +293,7 @@ public class Matrix4F extends MatrixF {
             throw new RuntimeException("Matrix dimensions are not equal.");
         }
         if (mutate) {
+            modified();
             m00 += b.getData(0, 0).floatValue();
             m01 += b.getData(0, 1).floatValue();
             m02 += b.getData(0, 2).floatValue();
@@ -314,6 +337,7 @@ public class Matrix4F extends MatrixF {
 
     public final Matrix4F add4F(Matrix4F b, boolean mutate) {
         if (mutate) {
+            modified();
             m00 += b.m00;
             m01 += b.m01;
             m02 += b.m02;
@@ -350,6 +374,7 @@ public class Matrix4F extends MatrixF {
             throw new RuntimeException("Matrix dimensions are not equal.");
         }
         if (mutate) {
+            modified();
             m00 -= b.getData(0, 0).floatValue();
             m01 -= b.getData(0, 1).floatValue();
             m02 -= b.getData(0, 2).floatValue();
@@ -393,6 +418,7 @@ public class Matrix4F extends MatrixF {
 
     public final Matrix4F subtract4F(Matrix4F b, boolean mutate) {
         if (mutate) {
+            modified();
             m00 -= b.m00;
             m01 -= b.m01;
             m02 -= b.m02;
@@ -440,30 +466,180 @@ public class Matrix4F extends MatrixF {
     }
 
     public Matrix4F multiply4F(Matrix4F b) {
-        /**
-         * TODO: Optimise
-         */
-        if (n != b.m) {
-            throw new RuntimeException("Matrix dimensions are incorrect.");
-        }
-        Matrix4F c = new Matrix4F();
-        for (int i = 0; i < c.m; i++) {
-            for (int j = 0; j < c.n; j++) {
-                for (int k = 0; k < n; k++) {
-                    c.setData(i, j, getData(i, j) * b.getData(k, j).floatValue());
-                }
-            }
-        }
-        return c;
+        return multiplyInto(b, new Matrix4F(false));
     }
 
     public Matrix4F multiply4F(Matrix b, boolean mutate) {
         throw new UnsupportedOperationException("Not supported yet.");
     }
 
+    /**
+     * Adds a Matrix4F to this instance writing the result into a
+     * pre-allocated destination. Matrix A + Matrix B = Matrix C.
+     * @param b Matrix4F B.
+     * @param dest Matrix4F C to write to.
+     * @return dest
+     */
+    public final Matrix4F addInto(Matrix4F b, Matrix4F dest) {
+        dest.modified();
+        dest.m00 = m00 + b.m00;
+        dest.m01 = m01 + b.m01;
+        dest.m02 = m02 + b.m02;
+        dest.m03 = m03 + b.m03;
+        dest.m10 = m10 + b.m10;
+        dest.m11 = m11 + b.m11;
+        dest.m12 = m12 + b.m12;
+        dest.m13 = m13 + b.m13;
+        dest.m20 = m20 + b.m20;
+        dest.m21 = m21 + b.m21;
+        dest.m22 = m22 + b.m22;
+        dest.m23 = m23 + b.m23;
+        dest.m30 = m30 + b.m30;
+        dest.m31 = m31 + b.m31;
+        dest.m32 = m32 + b.m32;
+        dest.m33 = m33 + b.m33;
+        return dest;
+    }
+
+    /**
+     * Subtracts a Matrix4F from this instance writing the result into a
+     * pre-allocated destination. Matrix A - Matrix B = Matrix C.
+     * @param b Matrix4F B.
+     * @param dest Matrix4F C to write to.
+     * @return dest
+     */
+    public final Matrix4F subtractInto(Matrix4F b, Matrix4F dest) {
+        dest.modified();
+        dest.m00 = m00 - b.m00;
+        dest.m01 = m01 - b.m01;
+        dest.m02 = m02 - b.m02;
+        dest.m03 = m03 - b.m03;
+        dest.m10 = m10 - b.m10;
+        dest.m11 = m11 - b.m11;
+        dest.m12 = m12 - b.m12;
+        dest.m13 = m13 - b.m13;
+        dest.m20 = m20 - b.m20;
+        dest.m21 = m21 - b.m21;
+        dest.m22 = m22 - b.m22;
+        dest.m23 = m23 - b.m23;
+        dest.m30 = m30 - b.m30;
+        dest.m31 = m31 - b.m31;
+        dest.m32 = m32 - b.m32;
+        dest.m33 = m33 - b.m33;
+        return dest;
+    }
+
+    /**
+     * Multiplies this instance by a scalar writing the result into a
+     * pre-allocated destination. Matrix C = C(c[i,j]) = a[i,j]*v.
+     * @param v Value to multiply.
+     * @param dest Matrix4F C to write to.
+     * @return dest
+     */
+    public final Matrix4F scaleInto(float v, Matrix4F dest) {
+        dest.modified();
+        dest.m00 = m00 * v;
+        dest.m01 = m01 * v;
+        dest.m02 = m02 * v;
+        dest.m03 = m03 * v;
+        dest.m10 = m10 * v;
+        dest.m11 = m11 * v;
+        dest.m12 = m12 * v;
+        dest.m13 = m13 * v;
+        dest.m20 = m20 * v;
+        dest.m21 = m21 * v;
+        dest.m22 = m22 * v;
+        dest.m23 = m23 * v;
+        dest.m30 = m30 * v;
+        dest.m31 = m31 * v;
+        dest.m32 = m32 * v;
+        dest.m33 = m33 * v;
+        return dest;
+    }
+
+    /**
+     * Multiplies a Matrix4F to this instance writing the result into a
+     * pre-allocated destination. Matrix A * Matrix B = Matrix C. The
+     * destination may be this instance or B.
+     * @param b Matrix4F B.
+     * @param dest Matrix4F C to write to.
+     * @return dest
+     */
+    public final Matrix4F multiplyInto(Matrix4F b, Matrix4F dest) {
+        dest.modified();
+        float c00 = m00 * b.m00 + m01 * b.m10 + m02 * b.m20 + m03 * b.m30;
+        float c01 = m00 * b.m01 + m01 * b.m11 + m02 * b.m21 + m03 * b.m31;
+        float c02 = m00 * b.m02 + m01 * b.m12 + m02 * b.m22 + m03 * b.m32;
+        float c03 = m00 * b.m03 + m01 * b.m13 + m02 * b.m23 + m03 * b.m33;
+        float c10 = m10 * b.m00 + m11 * b.m10 + m12 * b.m20 + m13 * b.m30;
+        float c11 = m10 * b.m01 + m11 * b.m11 + m12 * b.m21 + m13 * b.m31;
+        float c12 = m10 * b.m02 + m11 * b.m12 + m12 * b.m22 + m13 * b.m32;
+        float c13 = m10 * b.m03 + m11 * b.m13 + m12 * b.m23 + m13 * b.m33;
+        float c20 = m20 * b.m00 + m21 * b.m10 + m22 * b.m20 + m23 * b.m30;
+        float c21 = m20 * b.m01 + m21 * b.m11 + m22 * b.m21 + m23 * b.m31;
+        float c22 = m20 * b.m02 + m21 * b.m12 + m22 * b.m22 + m23 * b.m32;
+        float c23 = m20 * b.m03 + m21 * b.m13 + m22 * b.m23 + m23 * b.m33;
+        float c30 = m30 * b.m00 + m31 * b.m10 + m32 * b.m20 + m33 * b.m30;
+        float c31 = m30 * b.m01 + m31 * b.m11 + m32 * b.m21 + m33 * b.m31;
+        float c32 = m30 * b.m02 + m31 * b.m12 + m32 * b.m22 + m33 * b.m32;
+        float c33 = m30 * b.m03 + m31 * b.m13 + m32 * b.m23 + m33 * b.m33;
+        dest.m00 = c00;
+        dest.m01 = c01;
+        dest.m02 = c02;
+        dest.m03 = c03;
+        dest.m10 = c10;
+        dest.m11 = c11;
+        dest.m12 = c12;
+        dest.m13 = c13;
+        dest.m20 = c20;
+        dest.m21 = c21;
+        dest.m22 = c22;
+        dest.m23 = c23;
+        dest.m30 = c30;
+        dest.m31 = c31;
+        dest.m32 = c32;
+        dest.m33 = c33;
+        return dest;
+    }
+
+    /**
+     * Transposes this instance writing the result into a pre-allocated
+     * destination. The destination may be this instance.
+     * @param dest Matrix4F C to write to.
+     * @return dest
+     */
+    public final Matrix4F transposeInto(Matrix4F dest) {
+        dest.modified();
+        float t;
+        dest.m00 = m00;
+        dest.m11 = m11;
+        dest.m22 = m22;
+        dest.m33 = m33;
+        t = m01;
+        dest.m01 = m10;
+        dest.m10 = t;
+        t = m02;
+        dest.m02 = m20;
+        dest.m20 = t;
+        t = m03;
+        dest.m03 = m30;
+        dest.m30 = t;
+        t = m12;
+        dest.m12 = m21;
+        dest.m21 = t;
+        t = m13;
+        dest.m13 = m31;
+        dest.m31 = t;
+        t = m23;
+        dest.m23 = m32;
+        dest.m32 = t;
+        return dest;
+    }
+
     @Override
     public Matrix4F transpose() {
         if (mutate) {
+            modified();
             /**
              * TODO: Figure out transpose.
              */
@@ -501,6 +677,7 @@ public class Matrix4F extends MatrixF {
 
     public final Matrix4F addScalar4F(float f, boolean mutate) {
         if (mutate) {
+            modified();
             m00 = m00 + f;
             m01 = m01 + f;
             m02 = m02 + f;
@@ -542,6 +719,7 @@ public class Matrix4F extends MatrixF {
 
     public final Matrix4F subtractScalar4F(float f, boolean mutate) {
         if (mutate) {
+            modified();
             m00 = m00 - f;
             m01 = m01 - f;
             m02 = m02 - f;
@@ -583,6 +761,7 @@ public class Matrix4F extends MatrixF {
 
     public final Matrix4F multiplyScalar4F(float f, boolean mutate) {
         if (mutate) {
+            modified();
             m00 = m00 * f;
             m01 = m01 * f;
             m02 = m02 * f;
@@ -627,6 +806,7 @@ public class Matrix4F extends MatrixF {
             throw new RuntimeException("Divide By Zero.");
         }
         if (mutate) {
+            modified();
             m00 = m00 / f;
             m01 = m01 / f;
             m02 = m02 / f;
@@ -667,6 +847,179 @@ public class Matrix4F extends MatrixF {
         throw new UnsupportedOperationException("Not supported yet.");
     }
 
+    /**
+     * Transforms every point of in by this matrix, treating each as the
+     * column (x, y, z, 1), and writes the results to out. When the last row
+     * is not (0, 0, 0, 1) the results are divided by w. out may be in.
+     * @param in Vector3FBuffer of points.
+     * @param out Vector3FBuffer to write to.
+     * @return out
+     */
+    public final Vector3FBuffer transformBatch(Vector3FBuffer in, Vector3FBuffer out) {
+        return transformBatch(in, out, 0, in.length);
+    }
+
+    /**
+     * Transforms the points from to to of in by this matrix, treating each
+     * as the column (x, y, z, 1), and writes the results to the same
+     * indices of out. When the last row is not (0, 0, 0, 1) the results are
+     * divided by w. out may be in.
+     * @param in Vector3FBuffer of points.
+     * @param out Vector3FBuffer to write to.
+     * @param from first index.
+     * @param to index after the last.
+     * @return out
+     */
+    public final Vector3FBuffer transformBatch(Vector3FBuffer in, Vector3FBuffer out, int from, int to) {
+        if (from < 0 || from > to || to > in.length || to > out.length) {
+            throw new IllegalArgumentException("Range must be 0 <= from <= to <= length.");
+        }
+        float[] ax = in.xs, ay = in.ys, az = in.zs, cx = out.xs, cy = out.ys, cz = out.zs;
+        float a00 = m00, a01 = m01, a02 = m02, a03 = m03;
+        float a10 = m10, a11 = m11, a12 = m12, a13 = m13;
+        float a20 = m20, a21 = m21, a22 = m22, a23 = m23;
+        float a30 = m30, a31 = m31, a32 = m32, a33 = m33;
+        if (a30 == 0F && a31 == 0F && a32 == 0F && a33 == 1F) {
+            for (int i = from; i < to; i++) {
+                float x = ax[i], y = ay[i], z = az[i];
+                cx[i] = a00 * x + a01 * y + a02 * z + a03;
+                cy[i] = a10 * x + a11 * y + a12 * z + a13;
+                cz[i] = a20 * x + a21 * y + a22 * z + a23;
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                float x = ax[i], y = ay[i], z = az[i];
+                float w = 1F / (a30 * x + a31 * y + a32 * z + a33);
+                cx[i] = (a00 * x + a01 * y + a02 * z + a03) * w;
+                cy[i] = (a10 * x + a11 * y + a12 * z + a13) * w;
+                cz[i] = (a20 * x + a21 * y + a22 * z + a23) * w;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Stores this matrix into the buffer in row major order, see
+     * store(FloatBuffer, boolean).
+     * @param buffer FloatBuffer with at least 16 floats remaining.
+     * @return buffer
+     */
+    public final FloatBuffer store(FloatBuffer buffer) {
+        return store(buffer, false);
+    }
+
+    /**
+     * Stores the 16 elements of this matrix at the position of the buffer,
+     * which is advanced past them. Column major order is the layout used by
+     * OpenGL and most native renderers. The buffer may be direct, so that
+     * the matrix can be handed to native code without another copy.
+     * @param buffer FloatBuffer with at least 16 floats remaining.
+     * @param columnMajor true to store column by column, otherwise row by row.
+     * @return buffer
+     */
+    public final FloatBuffer store(FloatBuffer buffer, boolean columnMajor) {
+        if (buffer.remaining() < 16) {
+            throw new BufferOverflowException();
+        }
+        if (columnMajor) {
+            buffer.put(m00);
+            buffer.put(m10);
+            buffer.put(m20);
+            buffer.put(m30);
+            buffer.put(m01);
+            buffer.put(m11);
+            buffer.put(m21);
+            buffer.put(m31);
+            buffer.put(m02);
+            buffer.put(m12);
+            buffer.put(m22);
+            buffer.put(m32);
+            buffer.put(m03);
+            buffer.put(m13);
+            buffer.put(m23);
+            buffer.put(m33);
+        } else {
+            buffer.put(m00);
+            buffer.put(m01);
+            buffer.put(m02);
+            buffer.put(m03);
+            buffer.put(m10);
+            buffer.put(m11);
+            buffer.put(m12);
+            buffer.put(m13);
+            buffer.put(m20);
+            buffer.put(m21);
+            buffer.put(m22);
+            buffer.put(m23);
+            buffer.put(m30);
+            buffer.put(m31);
+            buffer.put(m32);
+            buffer.put(m33);
+        }
+        return buffer;
+    }
+
+    /**
+     * Loads this matrix from the buffer in row major order, see
+     * load(FloatBuffer, boolean).
+     * @param buffer FloatBuffer with at least 16 floats remaining.
+     * @return this
+     */
+    public final Matrix4F load(FloatBuffer buffer) {
+        return load(buffer, false);
+    }
+
+    /**
+     * Loads the 16 elements of this matrix from the position of the buffer,
+     * which is advanced past them. Like setData the matrix is overwritten
+     * whether or not it is mutable.
+     * @param buffer FloatBuffer with at least 16 floats remaining.
+     * @param columnMajor true to read column by column, otherwise row by row.
+     * @return this
+     */
+    public final Matrix4F load(FloatBuffer buffer, boolean columnMajor) {
+        if (buffer.remaining() < 16) {
+            throw new BufferUnderflowException();
+        }
+        modified();
+        if (columnMajor) {
+            m00 = buffer.get();
+            m10 = buffer.get();
+            m20 = buffer.get();
+            m30 = buffer.get();
+            m01 = buffer.get();
+            m11 = buffer.get();
+            m21 = buffer.get();
+            m31 = buffer.get();
+            m02 = buffer.get();
+            m12 = buffer.get();
+            m22 = buffer.get();
+            m32 = buffer.get();
+            m03 = buffer.get();
+            m13 = buffer.get();
+            m23 = buffer.get();
+            m33 = buffer.get();
+        } else {
+            m00 = buffer.get();
+            m01 = buffer.get();
+            m02 = buffer.get();
+            m03 = buffer.get();
+            m10 = buffer.get();
+            m11 = buffer.get();
+            m12 = buffer.get();
+            m13 = buffer.get();
+            m20 = buffer.get();
+            m21 = buffer.get();
+            m22 = buffer.get();
+            m23 = buffer.get();
+            m30 = buffer.get();
+            m31 = buffer.get();
+            m32 = buffer.get();
+            m33 = buffer.get();
+        }
+        return this;
+    }
+
     /**
      * Creates an identity n by n Matrix4F
      * @return Matrix4F constructed identity Matrix4F.
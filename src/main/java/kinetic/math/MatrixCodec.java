@@ -0,0 +1,491 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Binary codec for Matrix and Vector instances.
+ *
+ * Every encoding is a fixed 32 byte header followed by the elements in row
+ * major order, all little endian,
+ *
+ * <pre>
+ *   offset  size  field
+ *        0     4  magic "KMAT" (0x4B4D4154)
+ *        4     4  version (1)
+ *        8     4  element type (TYPE_DOUBLE or TYPE_FLOAT)
+ *       12     4  m (vector length for vectors)
+ *       16     4  n (1 for vectors)
+ *       20     4  kind (KIND_MATRIX or KIND_VECTOR)
+ *       24     8  reserved (zero)
+ *       32        elements, 8 bytes for TYPE_DOUBLE, 4 for TYPE_FLOAT
+ * </pre>
+ *
+ * This is the same layout MappedMatrixD maps, so a matrix written to a
+ * file with this codec can be opened out of core and vice versa.
+ *
+ * MatrixD and VectorD are written as TYPE_DOUBLE, MatrixF and VectorF as
+ * TYPE_FLOAT. Either element type can be read back into either precision.
+ * Dense matrices are copied with bulk buffer transfers; nothing is boxed
+ * except where the source Matrix only stores boxed values. The byte order
+ * of buffers passed in is restored before returning.
+ *
+ * Channel methods stream through a bounded buffer so arbitrarily large
+ * matrices can be written and read; see MatrixRowReader for row at a time
+ * consumption.
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public final class MatrixCodec {
+
+    public static final int MAGIC = 0x4B4D4154;
+    public static final int VERSION = 1;
+    public static final int TYPE_DOUBLE = 0;
+    public static final int TYPE_FLOAT = 1;
+    public static final int KIND_MATRIX = 0;
+    public static final int KIND_VECTOR = 1;
+    public static final int HEADER_SIZE = 32;
+    /**
+     * Smallest buffer used when streaming through a channel.
+     */
+    static final int CHUNK_SIZE = 1 << 16;
+
+    private MatrixCodec() {
+    }
+
+    /**
+     * Decoded header fields.
+     */
+    static final class Header {
+
+        int type;
+        int kind;
+        int m;
+        int n;
+
+        long elements() {
+            return (long) m * n;
+        }
+
+        long dataSize() {
+            return elements() * elementSize(type);
+        }
+    }
+
+    static int elementSize(int type) {
+        switch (type) {
+            case TYPE_DOUBLE:
+                return 8;
+            case TYPE_FLOAT:
+                return 4;
+            default:
+                throw new IllegalArgumentException("Unknown element type " + type);
+        }
+    }
+
+    static void putHeader(ByteBuffer out, int type, int kind, int m, int n) {
+        out.putInt(MAGIC).putInt(VERSION).putInt(type).putInt(m).putInt(n).putInt(kind).putLong(0L);
+    }
+
+    /**
+     * Reads and validates a header from a little endian buffer.
+     * @throws IllegalArgumentException when the header is not valid.
+     */
+    static Header getHeader(ByteBuffer in) {
+        if (in.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Data is not an encoded matrix.");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported matrix encoding version " + version);
+        }
+        Header h = new Header();
+        h.type = in.getInt();
+        h.m = in.getInt();
+        h.n = in.getInt();
+        h.kind = in.getInt();
+        in.getLong();
+        elementSize(h.type);
+        if (h.m < 0 || h.n < 0) {
+            throw new IllegalArgumentException("Negative dimensions in matrix header.");
+        }
+        if (h.kind != KIND_MATRIX && h.kind != KIND_VECTOR) {
+            throw new IllegalArgumentException("Unknown kind " + h.kind);
+        }
+        return h;
+    }
+
+    static int typeOf(Matrix a) {
+        return (a instanceof MatrixF) ? TYPE_FLOAT : TYPE_DOUBLE;
+    }
+
+    static int typeOf(Vector v) {
+        return (v instanceof VectorF) ? TYPE_FLOAT : TYPE_DOUBLE;
+    }
+
+    /**
+     * Number of bytes needed to encode a.
+     * @param a Matrix to encode.
+     * @return encoded size in bytes.
+     */
+    public static long encodedSize(Matrix a) {
+        return HEADER_SIZE + (long) a.m * a.n * elementSize(typeOf(a));
+    }
+
+    /**
+     * Number of bytes needed to encode v.
+     * @param v Vector to encode.
+     * @return encoded size in bytes.
+     */
+    public static long encodedSize(Vector v) {
+        return HEADER_SIZE + (long) v.n * elementSize(typeOf(v));
+    }
+
+    /**
+     * Encodes a Matrix at the position of out, advancing it.
+     * @param a Matrix to encode.
+     * @param out buffer with at least encodedSize(a) bytes remaining.
+     * @return out
+     */
+    public static ByteBuffer write(Matrix a, ByteBuffer out) {
+        if (out.remaining() < encodedSize(a)) {
+            throw new IllegalArgumentException("Buffer is too small for the encoded matrix.");
+        }
+        ByteOrder order = out.order();
+        out.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            int type = typeOf(a);
+            putHeader(out, type, KIND_MATRIX, a.m, a.n);
+            double[] rowD = (type == TYPE_DOUBLE) ? new double[a.n] : null;
+            for (int i = 0; i < a.m; i++) {
+                putRow(a, i, out, rowD);
+            }
+        } finally {
+            out.order(order);
+        }
+        return out;
+    }
+
+    /**
+     * Encodes a Vector at the position of out, advancing it.
+     * @param v Vector to encode.
+     * @param out buffer with at least encodedSize(v) bytes remaining.
+     * @return out
+     */
+    public static ByteBuffer write(Vector v, ByteBuffer out) {
+        if (out.remaining() < encodedSize(v)) {
+            throw new IllegalArgumentException("Buffer is too small for the encoded vector.");
+        }
+        ByteOrder order = out.order();
+        out.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            int type = typeOf(v);
+            putHeader(out, type, KIND_VECTOR, v.n, 1);
+            putVector(v, type, out);
+        } finally {
+            out.order(order);
+        }
+        return out;
+    }
+
+    /**
+     * Encodes a Matrix to a channel, a bounded chunk of rows at a time.
+     * @param a Matrix to encode.
+     * @param channel channel to write to.
+     * @throws IOException when the channel can not be written.
+     */
+    public static void write(Matrix a, WritableByteChannel channel) throws IOException {
+        int type = typeOf(a);
+        int rowBytes = a.n * elementSize(type);
+        ByteBuffer out = ByteBuffer.allocate(Math.max(CHUNK_SIZE, rowBytes)).order(ByteOrder.LITTLE_ENDIAN);
+        putHeader(out, type, KIND_MATRIX, a.m, a.n);
+        double[] rowD = (type == TYPE_DOUBLE) ? new double[a.n] : null;
+        for (int i = 0; i < a.m; i++) {
+            if (out.remaining() < rowBytes) {
+                drain(out, channel);
+            }
+            putRow(a, i, out, rowD);
+        }
+        drain(out, channel);
+    }
+
+    /**
+     * Encodes a Vector to a channel.
+     * @param v Vector to encode.
+     * @param channel channel to write to.
+     * @throws IOException when the channel can not be written.
+     */
+    public static void write(Vector v, WritableByteChannel channel) throws IOException {
+        ByteBuffer out = ByteBuffer.allocate((int) encodedSize(v));
+        write(v, out);
+        drain(out, channel);
+    }
+
+    private static void drain(ByteBuffer out, WritableByteChannel channel) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * Writes row i of a in its own precision. rowD is scratch space of n
+     * elements for MatrixD sources.
+     */
+    private static void putRow(Matrix a, int i, ByteBuffer out, double[] rowD) {
+        int n = a.n;
+        if (a instanceof DenseMatrixD) {
+            DenseMatrixD d = (DenseMatrixD) a;
+            out.asDoubleBuffer().put(d.data, d.offset + i * d.stride, n);
+            out.position(out.position() + n * 8);
+        } else if (a instanceof MatrixD) {
+            ((MatrixD) a).getRows(i, 1, rowD);
+            out.asDoubleBuffer().put(rowD, 0, n);
+            out.position(out.position() + n * 8);
+        } else if (a instanceof DenseMatrixF) {
+            DenseMatrixF f = (DenseMatrixF) a;
+            out.asFloatBuffer().put(f.data, f.offset + i * f.stride, n);
+            out.position(out.position() + n * 4);
+        } else {
+            for (int j = 0; j < n; j++) {
+                out.putFloat(a.getData(i, j).floatValue());
+            }
+        }
+    }
+
+    private static void putVector(Vector v, int type, ByteBuffer out) {
+        if (type == TYPE_DOUBLE) {
+            for (int i = 0; i < v.n; i++) {
+                out.putDouble(Vector.valueAt(v, i));
+            }
+        } else if (v instanceof Vector3F) {
+            Vector3F v3 = (Vector3F) v;
+            out.putFloat(v3.x).putFloat(v3.y).putFloat(v3.z);
+        } else {
+            for (int i = 0; i < v.n; i++) {
+                out.putFloat((float) Vector.valueAt(v, i));
+            }
+        }
+    }
+
+    /**
+     * Decodes a Matrix of either precision at the position of in, advancing
+     * it. Double data gives a DenseMatrixD, float data a DenseMatrixF.
+     * @param in buffer holding an encoded matrix.
+     * @return decoded Matrix.
+     */
+    public static Matrix readMatrix(ByteBuffer in) {
+        ByteOrder order = in.order();
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            Header h = getHeader(in);
+            if (h.type == TYPE_DOUBLE) {
+                return getMatrixD(h, in);
+            }
+            return getMatrixF(h, in);
+        } finally {
+            in.order(order);
+        }
+    }
+
+    /**
+     * Decodes a MatrixD at the position of in, advancing it. Float data is
+     * widened.
+     * @param in buffer holding an encoded matrix.
+     * @return decoded DenseMatrixD.
+     */
+    public static DenseMatrixD readMatrixD(ByteBuffer in) {
+        ByteOrder order = in.order();
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            return getMatrixD(getHeader(in), in);
+        } finally {
+            in.order(order);
+        }
+    }
+
+    /**
+     * Decodes a MatrixF at the position of in, advancing it. Double data is
+     * narrowed.
+     * @param in buffer holding an encoded matrix.
+     * @return decoded DenseMatrixF.
+     */
+    public static DenseMatrixF readMatrixF(ByteBuffer in) {
+        ByteOrder order = in.order();
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            return getMatrixF(getHeader(in), in);
+        } finally {
+            in.order(order);
+        }
+    }
+
+    /**
+     * Decodes a VectorD at the position of in, advancing it. The elements
+     * are read straight into the double[] of a DenseVectorD.
+     * @param in buffer holding an encoded vector.
+     * @return decoded VectorD.
+     */
+    public static VectorD readVectorD(ByteBuffer in) {
+        ByteOrder order = in.order();
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            Header h = getVectorHeader(in);
+            double[] data = new double[h.m];
+            getElements(h, in, data);
+            return new DenseVectorD(data, true);
+        } finally {
+            in.order(order);
+        }
+    }
+
+    /**
+     * Decodes a VectorF at the position of in, advancing it. Three element
+     * vectors are returned as a Vector3F, others as a DenseVectorF.
+     * @param in buffer holding an encoded vector.
+     * @return decoded VectorF.
+     */
+    public static VectorF readVectorF(ByteBuffer in) {
+        ByteOrder order = in.order();
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            Header h = getVectorHeader(in);
+            float[] data = new float[h.m];
+            getElements(h, in, data);
+            if (data.length == 3) {
+                return new Vector3F(data[0], data[1], data[2]);
+            }
+            return new DenseVectorF(data);
+        } finally {
+            in.order(order);
+        }
+    }
+
+    private static Header getVectorHeader(ByteBuffer in) {
+        Header h = getHeader(in);
+        if (h.kind != KIND_VECTOR || h.n != 1) {
+            throw new IllegalArgumentException("Data is not an encoded vector.");
+        }
+        checkData(h, in);
+        return h;
+    }
+
+    /**
+     * Checks that the elements described by h fit in an array and are all
+     * held by in.
+     */
+    private static void checkData(Header h, ByteBuffer in) {
+        checkArraySize(h);
+        if (in.remaining() < h.dataSize()) {
+            throw new IllegalArgumentException("Buffer is too short for a " + h.m + " by " + h.n + " matrix.");
+        }
+    }
+
+    /**
+     * Checks that the elements described by h fit in a single array.
+     * @throws IllegalArgumentException when m * n overflows an int.
+     */
+    static void checkArraySize(Header h) {
+        if (h.elements() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A " + h.m + " by " + h.n + " matrix does not fit in an array.");
+        }
+    }
+
+    private static DenseMatrixD getMatrixD(Header h, ByteBuffer in) {
+        checkData(h, in);
+        DenseMatrixD c = new DenseMatrixD(h.m, h.n);
+        getElements(h, in, c.data);
+        return c;
+    }
+
+    private static DenseMatrixF getMatrixF(Header h, ByteBuffer in) {
+        checkData(h, in);
+        DenseMatrixF c = new DenseMatrixF(h.m, h.n, true);
+        getElements(h, in, c.data);
+        return c;
+    }
+
+    private static void getElements(Header h, ByteBuffer in, double[] dest) {
+        int size = dest.length;
+        if (h.type == TYPE_DOUBLE) {
+            in.asDoubleBuffer().get(dest, 0, size);
+            in.position(in.position() + size * 8);
+        } else {
+            for (int k = 0; k < size; k++) {
+                dest[k] = in.getFloat();
+            }
+        }
+    }
+
+    private static void getElements(Header h, ByteBuffer in, float[] dest) {
+        int size = dest.length;
+        if (h.type == TYPE_FLOAT) {
+            in.asFloatBuffer().get(dest, 0, size);
+            in.position(in.position() + size * 4);
+        } else {
+            for (int k = 0; k < size; k++) {
+                dest[k] = (float) in.getDouble();
+            }
+        }
+    }
+
+    /**
+     * Decodes a MatrixD from a channel, streaming the rows straight into
+     * the result.
+     * @param channel channel positioned at an encoded matrix.
+     * @return decoded DenseMatrixD.
+     * @throws IOException when the channel can not be read or does not hold
+     * a matrix.
+     */
+    public static DenseMatrixD readMatrixD(ReadableByteChannel channel) throws IOException {
+        MatrixRowReader reader = new MatrixRowReader(channel);
+        checkArraySize(reader.header);
+        DenseMatrixD c = new DenseMatrixD(reader.getM(), reader.getN());
+        double[] row = new double[c.n];
+        for (int i = 0; i < c.m; i++) {
+            reader.nextRow(row);
+            System.arraycopy(row, 0, c.data, i * c.n, c.n);
+        }
+        return c;
+    }
+
+    /**
+     * Decodes a MatrixF from a channel, streaming the rows straight into
+     * the result.
+     * @param channel channel positioned at an encoded matrix.
+     * @return decoded DenseMatrixF.
+     * @throws IOException when the channel can not be read or does not hold
+     * a matrix.
+     */
+    public static DenseMatrixF readMatrixF(ReadableByteChannel channel) throws IOException {
+        MatrixRowReader reader = new MatrixRowReader(channel);
+        checkArraySize(reader.header);
+        DenseMatrixF c = new DenseMatrixF(reader.getM(), reader.getN(), true);
+        float[] row = new float[c.n];
+        for (int i = 0; i < c.m; i++) {
+            reader.nextRow(row);
+            System.arraycopy(row, 0, c.data, i * c.n, c.n);
+        }
+        return c;
+    }
+}
@@ -15,7 +15,8 @@
  **/
 package kinetic.math;
 
-import kinetic.math.linear.LUDecompositionD;
+import java.util.Arrays;
+import kinetic.math.linear.DecompositionCache;
 
 /**
  * Abstract m by n Double Matrix in the following form.
@@ -36,6 +37,20 @@ import kinetic.math.linear.LUDecompositionD;
  */
 public abstract class MatrixD extends Matrix {
 
+    /**
+     * Target number of elements in one block of rows, see getRowBlockSize.
+     */
+    public static final int ROW_BLOCK_ELEMENTS = 1 << 16;
+    /**
+     * Multiply algorithm of multiply(Matrix), the cache blocked MultiplyKernel.
+     */
+    public static final int MULTIPLY_BLOCKED = 0;
+    /**
+     * Strassen-Winograd multiply algorithm, see StrassenKernel for its
+     * accuracy trade-off.
+     */
+    public static final int MULTIPLY_STRASSEN = 1;
+
     /**
      * Default constructor to specify the dimensions of the m by n MatrixD
      * @param m rows in the MatrixD.
@@ -107,6 +122,57 @@ public abstract class MatrixD extends Matrix {
         return result;
     }
 
+    /**
+     * Number of rows handed out at a time by algorithms that stream a
+     * MatrixD in row blocks. Sized so a block is around ROW_BLOCK_ELEMENTS
+     * values.
+     * @return rows per block, at least one.
+     */
+    public int getRowBlockSize() {
+        return Math.max(1, ROW_BLOCK_ELEMENTS / Math.max(1, n));
+    }
+
+    /**
+     * Copies count consecutive rows starting at row i into a row major
+     * array. This is the unit of work for streaming algorithms, so
+     * implementations should override it with a bulk copy.
+     * @param i first row to copy.
+     * @param count number of rows.
+     * @param dest array of at least count * n elements.
+     * @return dest
+     */
+    public double[] getRows(int i, int count, double[] dest) {
+        checkRows(i, count);
+        for (int r = 0; r < count; r++) {
+            for (int j = 0; j < n; j++) {
+                dest[r * n + j] = getData(i + r, j);
+            }
+        }
+        return dest;
+    }
+
+    /**
+     * Overwrites count consecutive rows starting at row i from a row major
+     * array.
+     * @param i first row to write.
+     * @param count number of rows.
+     * @param src array of at least count * n elements.
+     */
+    public void setRows(int i, int count, double[] src) {
+        checkRows(i, count);
+        for (int r = 0; r < count; r++) {
+            for (int j = 0; j < n; j++) {
+                setData(i + r, j, src[r * n + j]);
+            }
+        }
+    }
+
+    final void checkRows(int i, int count) {
+        if (i < 0 || count < 0 || i + count > m) {
+            throw new IndexOutOfBoundsException(String.format("rows %s to %s are not < then m of %s", i, i + count, m));
+        }
+    }
+
     /**
      * MatrixD equality check. True when A = B, (a[i,j]) = (b[i,j]) where
      * 0 <= i < m and 0 <= j < n.
@@ -154,6 +220,40 @@ public abstract class MatrixD extends Matrix {
 
     public abstract MatrixD multiply(Matrix b, boolean mutate);
 
+    /**
+     * Multiplies a Matrix to this instance writing the result into a
+     * pre-allocated destination. Matrix A * Matrix B = Matrix C.
+     * @param b Matrix B.
+     * @param dest m by b.n MatrixD C to write to.
+     * @return dest
+     */
+    public abstract MatrixD multiply(Matrix b, MatrixD dest);
+
+    /**
+     * Multiplies a Matrix to this instance with the given algorithm.
+     * Matrix A * Matrix B = Matrix C. MULTIPLY_STRASSEN only pays off for
+     * large dense products, past about twice StrassenKernel.DEFAULT_CUTOVER
+     * in every dimension, and is less accurate for badly scaled matrices.
+     * @param b Matrix B.
+     * @param algorithm MULTIPLY_BLOCKED or MULTIPLY_STRASSEN.
+     * @return new DenseMatrixD C.
+     */
+    public DenseMatrixD multiply(Matrix b, int algorithm) {
+        if (n != b.m) {
+            throw new RuntimeException("Matrix dimensions are incorrect.");
+        }
+        DenseMatrixD c = new DenseMatrixD(m, b.n);
+        if (algorithm == MULTIPLY_BLOCKED) {
+            MultiplyKernel.multiply(MultiplyKernel.dense(this), MultiplyKernel.dense(b), c);
+        } else if (algorithm == MULTIPLY_STRASSEN) {
+            StrassenKernel.multiply(MultiplyKernel.dense(this), MultiplyKernel.dense(b), c,
+                    StrassenKernel.DEFAULT_CUTOVER, null);
+        } else {
+            throw new IllegalArgumentException("Unknown multiply algorithm.");
+        }
+        return c;
+    }
+
     /**
      * Returns the transpose of this instance. Matrix A' = transpose(Matrix A)
      * @return Matrix A' which is a transpose of this instance.
@@ -197,74 +297,150 @@ public abstract class MatrixD extends Matrix {
     public abstract MatrixD divideScalar(Number v, boolean mutate);
 
     /**
-     * Return the invert of the MatrixD A.
-     * @return MatrixD A^-1
+     * Adds a Matrix to this instance writing the result into a
+     * pre-allocated destination. Matrix A + Matrix B = Matrix C. The
+     * destination may be this instance, B, or a view sharing their storage,
+     * in which case the overlapping operand is read from a copy.
+     * @param b Matrix B.
+     * @param dest m by n MatrixD C to write to.
+     * @return dest
      */
-    public abstract MatrixD invert();
+    public MatrixD addInto(Matrix b, MatrixD dest) {
+        dest.modified();
+        checkElementWise(b, dest);
+        if (dest.overlaps(this)) {
+            // Elements of A would be overwritten before they are read.
+            return new DenseMatrixD(this, false).addInto(b, dest);
+        }
+        if (dest.overlaps(b)) {
+            // Elements of B would be overwritten before they are read.
+            return addInto(new DenseMatrixD(b, false), dest);
+        }
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                dest.setData(i, j, getData(i, j) + b.getData(i, j).doubleValue());
+            }
+        }
+        return dest;
+    }
 
     /**
-     * MatrixD Solver in the form A*X=B where A is this MatrixD and X is the
-     * solutions.
-     * @param b MatrixD B
-     * @return Solution MatrixD X
+     * Subtracts a Matrix from this instance writing the result into a
+     * pre-allocated destination. Matrix A - Matrix B = Matrix C. The
+     * destination may be this instance, B, or a view sharing their storage,
+     * in which case the overlapping operand is read from a copy.
+     * @param b Matrix B.
+     * @param dest m by n MatrixD C to write to.
+     * @return dest
      */
-    public MatrixD solve(Matrix b) {
-        if (m != n || b.getM() != n || b.getN() != 1) {
-            throw new RuntimeException("Incorrect matrix dimensions.");
+    public MatrixD subtractInto(Matrix b, MatrixD dest) {
+        dest.modified();
+        checkElementWise(b, dest);
+        if (dest.overlaps(this)) {
+            // Elements of A would be overwritten before they are read.
+            return new DenseMatrixD(this, false).subtractInto(b, dest);
         }
-        for (int i = 0; i < n; i++) {
-            int max = i;
-            for (int j = i + 1; j < n; j++) {
-                if (Math.abs(getData(j, i)) > Math.abs(getData(max, i))) {
-                    max = j;
-                }
-            }
-            /**
-             * Swap i and max
-             */
-            double tmp;
+        if (dest.overlaps(b)) {
+            // Elements of B would be overwritten before they are read.
+            return subtractInto(new DenseMatrixD(b, false), dest);
+        }
+        for (int i = 0; i < m; i++) {
             for (int j = 0; j < n; j++) {
-                tmp = getData(i, j).doubleValue();
-                setData(i, j, getData(max, j));
-                setData(max, j, tmp);
+                dest.setData(i, j, getData(i, j) - b.getData(i, j).doubleValue());
             }
-            for (int j = 0; j < b.getN(); j++) {
-                tmp = b.getData(i, j).doubleValue();
-                b.setData(i, j, b.getData(max, j));
-                b.setData(max, j, tmp);
-            }
-            /**
-             * Check Singular
-             */
-            if (getData(i, i) == 0) {
-                throw new RuntimeException("Matrix is singular.");
-            }
-            /**
-             * Pivot B
-             */
-            for (int j = i + 1; j < n; j++) {
-                b.setData(j, 0, (b.getData(j, 0).doubleValue() - (b.getData(i, 0).doubleValue() * getData(j, i).doubleValue() / getData(i, i).doubleValue())));
+        }
+        return dest;
+    }
+
+    /**
+     * Multiplies this instance by a scalar writing the result into a
+     * pre-allocated destination. Matrix C = C(c[i,j]) = a[i,j]*v. The
+     * destination may be this instance or a view sharing its storage, in
+     * which case this instance is read from a copy.
+     * @param v Value to multiply.
+     * @param dest m by n MatrixD C to write to.
+     * @return dest
+     */
+    public MatrixD scaleInto(double v, MatrixD dest) {
+        dest.modified();
+        checkElementWise(this, dest);
+        if (dest.overlaps(this)) {
+            // Elements of A would be overwritten before they are read.
+            return new DenseMatrixD(this, false).scaleInto(v, dest);
+        }
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                dest.setData(i, j, getData(i, j) * v);
             }
-            /**
-             * Pivot A
-             */
-            for (int j = i + 1; j < n; j++) {
-                Double f = getData(j, i) / getData(i, i);
-                for (int k = i + 1; k < n; k++) {
-                    setData(j, k, (getData(j, k) - getData(i, k) * f));
+        }
+        return dest;
+    }
+
+    /**
+     * Transposes this instance writing the result into a pre-allocated
+     * n by m destination. Matrix C = transpose(Matrix A). The destination
+     * may be this instance when it is square, any other destination sharing
+     * storage with this instance is written through a copy of it.
+     * @param dest n by m MatrixD C to write to.
+     * @return dest
+     */
+    public MatrixD transposeInto(MatrixD dest) {
+        dest.modified();
+        if (dest.m != n || dest.n != m) {
+            throw new RuntimeException("Matrix dimensions are incorrect.");
+        }
+        if (dest == this) {
+            for (int i = 0; i < m; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    double t = getData(i, j);
+                    setData(i, j, getData(j, i));
+                    setData(j, i, t);
                 }
-                setData(j, i, 0);
             }
+            return dest;
+        }
+        if (dest.sharesStorage(this)) {
+            // Elements of A would be overwritten before they are read.
+            return new DenseMatrixD(this, false).transposeInto(dest);
         }
-        MatrixD x = MatrixD.empty(n, 1);
-        for(int j = n - 1; j >= 0; j--) {
-            double v = 0;
-            for(int k = j + 1; k < n; k++) {
-                v += getData(j,k).doubleValue() * x.getData(k, 0).doubleValue();
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                dest.setData(j, i, getData(i, j));
             }
-            x.setData(j, 0, ((b.getData(j, 0).doubleValue() - v) / getData(j, j).doubleValue()));
         }
-        return x;
+        return dest;
+    }
+
+    /**
+     * Checks B and the destination of an element wise operation both have
+     * the dimensions of this instance.
+     */
+    final void checkElementWise(Matrix b, Matrix dest) {
+        if (m != b.m || n != b.n || m != dest.m || n != dest.n) {
+            throw new RuntimeException("Matrix dimensions are not equal.");
+        }
+    }
+
+    /**
+     * Return the invert of the MatrixD A.
+     * @return MatrixD A^-1
+     */
+    public abstract MatrixD invert();
+
+    /**
+     * MatrixD Solver in the form A*X=B where A is this MatrixD and X is the
+     * solutions. Delegates to LUDecompositionD so neither A nor B are
+     * modified and B may have any number of columns. The decomposition is
+     * kept in the shared DecompositionCache, when one is installed, until A
+     * is modified.
+     * @param b MatrixD B
+     * @return Solution MatrixD X
+     */
+    public MatrixD solve(Matrix b) {
+        if (m != n || b.getM() != n) {
+            throw new RuntimeException("Incorrect matrix dimensions.");
+        }
+        return DecompositionCache.lu(this).solve(b);
     }
 
     /**
@@ -291,13 +467,63 @@ public abstract class MatrixD extends Matrix {
                     - data[0][1] * data[1][0] * data[2][2]
                     - data[0][2] * data[1][1] * data[2][0];
         } else {
-            return (new LUDecompositionD(this)).determinant();
+            return DecompositionCache.lu(this).determinant();
         }
     }
 
+    /**
+     * Extracts a sub-matrix sA from A without copying. The returned MatrixD
+     * shares storage with this instance so writes through either are seen
+     * by both.
+     * @param mi The index of the starting row.
+     * @param mj The index of the finishing row (exclusive).
+     * @param ni The index of the starting column.
+     * @param nj The index of the finishing column (exclusive).
+     * @return m by n view where m = mj-mi and n = nj - ni
+     */
     @Override
-    public Matrix getSubMatrix(int mi, int mj, int ni, int nj) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public MatrixD getSubMatrix(int mi, int mj, int ni, int nj) {
+        checkSubMatrix(mi, mj, ni, nj);
+        return new ViewMatrixD(this, mi, ni, mj - mi, nj - ni, false);
+    }
+
+    final void checkSubMatrix(int mi, int mj, int ni, int nj) {
+        if (mi < 0 || ni < 0 || mj > m || nj > n || mi >= mj || ni >= nj) {
+            throw new IndexOutOfBoundsException(String.format("[%s:%s, %s:%s] is not inside a %s by %s matrix", mi, mj, ni, nj, m, n));
+        }
+    }
+
+    /**
+     * Returns the transpose of this instance without copying. The returned
+     * MatrixD shares storage with this instance.
+     * @return n by m view of A'.
+     */
+    public MatrixD transposeView() {
+        return new ViewMatrixD(this, 0, 0, n, m, true);
+    }
+
+    /**
+     * Returns row i of this instance as a VectorD sharing its storage.
+     * @param i the row to view (0 <= i < m)
+     * @return VectorD of n elements.
+     */
+    public VectorD rowView(int i) {
+        if (i < 0 || i >= m) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new ViewVectorD(this, i, 0, 0, 1, n);
+    }
+
+    /**
+     * Returns column j of this instance as a VectorD sharing its storage.
+     * @param j the column to view (0 <= j < n)
+     * @return VectorD of m elements.
+     */
+    public VectorD columnView(int j) {
+        if (j < 0 || j >= n) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new ViewVectorD(this, 0, j, 1, 0, m);
     }
 
     /**
@@ -306,33 +532,26 @@ public abstract class MatrixD extends Matrix {
      */
     @Override
     public String toString() {
-        String dataString = "{";
+        StringBuilder dataString = new StringBuilder(super.toString()).append(" {");
         for (int i = 0; i < m; i++) {
-            dataString += "{";
+            dataString.append('{');
             for (int j = 0; j < n; j++) {
-                dataString += getData(i, j) + ((j < n - 1) ? "," : "");
+                dataString.append(getData(i, j)).append((j < n - 1) ? "," : "");
             }
-            dataString += "}" + ((i < m - 1) ? "," : "");
+            dataString.append('}').append((i < m - 1) ? "," : "");
         }
-        dataString += "}";
-        return String.format("%s %s", super.toString(), dataString);
+        return dataString.append('}').toString();
     }
 
     /**
      * Create an empty m by n MatrixD. All values are set to zero. Returns a
-     * MutableMatrixD instance.
+     * mutable DenseMatrixD instance.
      * @param m row count for the MatrixD.
      * @param n column count for the MatrixD.
      * @return MatrixD the constructed MatrixD.
      */
     public static MatrixD empty(int m, int n) {
-        MatrixD e = new RowArrayMatrixD(m, n, true);
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < n; j++) {
-                e.setData(i, j, 0D);
-            }
-        }
-        return e;
+        return new DenseMatrixD(m, n, true);
     }
 
     /**
@@ -341,6 +560,18 @@ public abstract class MatrixD extends Matrix {
      * @return MatrixD the constructed MatrixD.
      */
     public static MatrixD create(double[][] data) {
+        return create(data, false);
+    }
+
+    /**
+     * Create a primitive backed MatrixD for the specified Data. Allows the
+     * construction of a Mutable MatrixD.
+     * @param data datum for the MatrixD.
+     * @param mutable flag when true a mutable MatrixD is created. Otherwise
+     * creates an immutable MatrixD.
+     * @return MatrixD the constructed MatrixD.
+     */
+    public static MatrixD create(double[][] data, boolean mutable) {
         int m = data.length;
         if (m == 0) {
             throw new RuntimeException("Invalid Argument.");
@@ -349,13 +580,7 @@ public abstract class MatrixD extends Matrix {
         if (n == 0) {
             throw new RuntimeException("Invalid Argument.");
         }
-        MatrixD c = MatrixD.empty(m, n);
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < n; j++) {
-                c.setData(i, j, data[i][j]);
-            }
-        }
-        return c;
+        return new DenseMatrixD(data, mutable);
     }
 
     /**
@@ -387,10 +612,13 @@ public abstract class MatrixD extends Matrix {
      * @return MatrixD A' which is a transpose of this instance.
      */
     public static MatrixD transpose(MatrixD a) {
-        MatrixD t = new RowArrayMatrixD(a.n, a.m);
+        if (a instanceof DenseMatrixD) {
+            return ((DenseMatrixD) a).transpose(false);
+        }
+        DenseMatrixD t = new DenseMatrixD(a.n, a.m);
         for (int i = 0; i < a.m; i++) {
             for (int j = 0; j < a.n; j++) {
-                t.setData(j, i, a.getData(i, j));
+                t.set(j, i, a.getData(i, j).doubleValue());
             }
         }
         return t;
@@ -402,9 +630,9 @@ public abstract class MatrixD extends Matrix {
      * @return MatrixD constructed identity MatrixD.
      */
     public static MatrixD identity(int n) {
-        MatrixD i = new RowArrayMatrixD(n, n);
+        DenseMatrixD i = new DenseMatrixD(n, n);
         for (int j = 0; j < n; j++) {
-            i.setData(j, j, 1D);
+            i.data[j * n + j] = 1D;
         }
         return i;
     }
@@ -417,11 +645,10 @@ public abstract class MatrixD extends Matrix {
      * @return MatrixD R.
      */
     public static MatrixD random(int m, int n) {
-        MatrixD r = new RowArrayMatrixD(m, n);
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < n; j++) {
-                r.setData(i, j, QuickMath.random());
-            }
+        DenseMatrixD r = new DenseMatrixD(m, n);
+        double[] data = r.data;
+        for (int i = 0; i < data.length; i++) {
+            data[i] = QuickMath.random();
         }
         return r;
     }
@@ -436,11 +663,10 @@ public abstract class MatrixD extends Matrix {
      * @return MatrixD R.
      */
     public static MatrixD random(int m, int n, double lowerBound, double higherBound) {
-        MatrixD r = new RowArrayMatrixD(m, n);
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < n; j++) {
-                r.setData(i, j, (QuickMath.random() * (higherBound - lowerBound)) + lowerBound);
-            }
+        DenseMatrixD r = new DenseMatrixD(m, n);
+        double[] data = r.data;
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (QuickMath.random() * (higherBound - lowerBound)) + lowerBound;
         }
         return r;
     }
@@ -454,12 +680,8 @@ public abstract class MatrixD extends Matrix {
      * @return MatrixD G.
      */
     public static MatrixD generate(int m, int n, double v) {
-        MatrixD g = new RowArrayMatrixD(m, n);
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < n; j++) {
-                g.setData(i, j, v);
-            }
-        }
+        DenseMatrixD g = new DenseMatrixD(m, n);
+        Arrays.fill(g.data, v);
         return g;
     }
 
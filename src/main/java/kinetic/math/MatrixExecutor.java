@@ -0,0 +1,657 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel executor for dense Matrix operations.
+ *
+ * Operations are split into blocks of rows which are processed by a
+ * ForkJoinPool. Every element of the result is computed by exactly one task
+ * using the same arithmetic, and in the same order, as the sequential
+ * implementation so the results are identical to the ones produced by
+ * DenseMatrixD and DenseMatrixF.
+ *
+ * Operations whose work (multiply-adds for products, elements for
+ * everything else) does not exceed the threshold are run sequentially on
+ * the calling thread, and row blocks are never split below the threshold.
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public class MatrixExecutor {
+
+    /**
+     * Default amount of work below which operations are not split.
+     */
+    public static final int DEFAULT_THRESHOLD = 1 << 16;
+    static final int ADD = 0;
+    static final int SUBTRACT = 1;
+    static final int ADD_SCALAR = 2;
+    static final int MULTIPLY_SCALAR = 3;
+    static final int DIVIDE_SCALAR = 4;
+    static final int TRANSPOSE = 5;
+    static final int MULTIPLY = 6;
+    static MatrixExecutor defaultExecutor = null;
+    /**
+     * Pool used to run the row block tasks.
+     */
+    final ForkJoinPool pool;
+    /**
+     * Work below which an operation or block is not split.
+     */
+    int threshold;
+
+    /**
+     * Creates an executor using a new ForkJoinPool sized to the available
+     * processors and the default threshold.
+     */
+    public MatrixExecutor() {
+        this(new ForkJoinPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates an executor using the given pool and threshold.
+     * @param pool ForkJoinPool to run tasks on.
+     * @param threshold work below which operations run sequentially.
+     */
+    public MatrixExecutor(ForkJoinPool pool, int threshold) {
+        if (pool == null) {
+            throw new NullPointerException("pool cannot be null.");
+        }
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be > 0");
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Find the shared executor, creating it on first use.
+     * @return MatrixExecutor the shared executor.
+     */
+    public static synchronized MatrixExecutor getDefault() {
+        if (defaultExecutor == null) {
+            defaultExecutor = new MatrixExecutor();
+        }
+        return defaultExecutor;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be > 0");
+        }
+        this.threshold = threshold;
+    }
+
+    /**
+     * Multiplies Matrix A by Matrix B in parallel. Matrix A * Matrix B = Matrix C.
+     * @param a MatrixD A.
+     * @param b Matrix B.
+     * @return MatrixD Matrix C.
+     */
+    public DenseMatrixD multiply(MatrixD a, Matrix b) {
+        if (a.n != b.m) {
+            throw new RuntimeException("Matrix dimensions are incorrect.");
+        }
+        DenseMatrixD c = new DenseMatrixD(a.m, b.n);
+        run(new TaskD(MULTIPLY, MultiplyKernel.dense(a), MultiplyKernel.dense(b), c, 0D,
+                (long) a.n * b.n, threshold, 0, a.m));
+        return c;
+    }
+
+    /**
+     * Multiplies Matrix A by Matrix B in parallel with the given algorithm.
+     * With MULTIPLY_STRASSEN the 7 products of the top level of the
+     * recursion run on the pool.
+     * @param a MatrixD A.
+     * @param b Matrix B.
+     * @param algorithm MatrixD.MULTIPLY_BLOCKED or MatrixD.MULTIPLY_STRASSEN.
+     * @return MatrixD Matrix C.
+     */
+    public DenseMatrixD multiply(MatrixD a, Matrix b, int algorithm) {
+        if (algorithm == MatrixD.MULTIPLY_BLOCKED) {
+            return multiply(a, b);
+        }
+        if (algorithm != MatrixD.MULTIPLY_STRASSEN) {
+            throw new IllegalArgumentException("Unknown multiply algorithm.");
+        }
+        if (a.n != b.m) {
+            throw new RuntimeException("Matrix dimensions are incorrect.");
+        }
+        DenseMatrixD c = new DenseMatrixD(a.m, b.n);
+        StrassenKernel.multiply(MultiplyKernel.dense(a), MultiplyKernel.dense(b), c,
+                StrassenKernel.DEFAULT_CUTOVER, pool);
+        return c;
+    }
+
+    /**
+     * Adds Matrix B to Matrix A in parallel. Matrix A + Matrix B = Matrix C.
+     * @param a MatrixD A.
+     * @param b Matrix B.
+     * @return MatrixD Matrix C.
+     */
+    public MatrixD add(MatrixD a, Matrix b) {
+        return add(a, b, a.mutate);
+    }
+
+    public MatrixD add(MatrixD a, Matrix b, boolean mutate) {
+        if (a.m != b.m || a.n != b.n) {
+            throw new RuntimeException("Matrix dimensions are not equal.");
+        }
+        if (mutate && !(a instanceof DenseMatrixD)) {
+            return a.add(b, true);
+        }
+        return elementWise(ADD, a, MultiplyKernel.dense(b), 0D, mutate);
+    }
+
+    /**
+     * Subtracts Matrix B from Matrix A in parallel. Matrix A - Matrix B = Matrix C.
+     * @param a MatrixD A.
+     * @param b Matrix B.
+     * @return MatrixD Matrix C.
+     */
+    public MatrixD subtract(MatrixD a, Matrix b) {
+        return subtract(a, b, a.mutate);
+    }
+
+    public MatrixD subtract(MatrixD a, Matrix b, boolean mutate) {
+        if (a.m != b.m || a.n != b.n) {
+            throw new RuntimeException("Matrix dimensions are not equal.");
+        }
+        if (mutate && !(a instanceof DenseMatrixD)) {
+            return a.subtract(b, true);
+        }
+        return elementWise(SUBTRACT, a, MultiplyKernel.dense(b), 0D, mutate);
+    }
+
+    /**
+     * Adds a scalar to Matrix A in parallel. Matrix C = C(c[i,j]) = a[i,j]+v
+     * @param a MatrixD A.
+     * @param v Value to add.
+     * @return MatrixD Matrix C.
+     */
+    public MatrixD addScalar(MatrixD a, double v) {
+        return addScalar(a, v, a.mutate);
+    }
+
+    public MatrixD addScalar(MatrixD a, double v, boolean mutate) {
+        if (mutate && !(a instanceof DenseMatrixD)) {
+            return a.addScalar(v, true);
+        }
+        return elementWise(ADD_SCALAR, a, null, v, mutate);
+    }
+
+    /**
+     * Subtracts a scalar from Matrix A in parallel. Matrix C = C(c[i,j]) = a[i,j]-v
+     * @param a MatrixD A.
+     * @param v Value to subtract.
+     * @return MatrixD Matrix C.
+     */
+    public MatrixD subtractScalar(MatrixD a, double v) {
+        return subtractScalar(a, v, a.mutate);
+    }
+
+    public MatrixD subtractScalar(MatrixD a, double v, boolean mutate) {
+        if (mutate && !(a instanceof DenseMatrixD)) {
+            return a.subtractScalar(v, true);
+        }
+        return elementWise(ADD_SCALAR, a, null, -v, mutate);
+    }
+
+    /**
+     * Multiplies Matrix A by a scalar in parallel. Matrix C = C(c[i,j]) = a[i,j]*v
+     * @param a MatrixD A.
+     * @param v Value to multiply.
+     * @return MatrixD Matrix C.
+     */
+    public MatrixD multiplyScalar(MatrixD a, double v) {
+        return multiplyScalar(a, v, a.mutate);
+    }
+
+    public MatrixD multiplyScalar(MatrixD a, double v, boolean mutate) {
+        if (mutate && !(a instanceof DenseMatrixD)) {
+            return a.multiplyScalar(v, true);
+        }
+        return elementWise(MULTIPLY_SCALAR, a, null, v, mutate);
+    }
+
+    /**
+     * Divides Matrix A by a scalar in parallel. Matrix C = C(c[i,j]) = a[i,j]/v
+     * @param a MatrixD A.
+     * @param v Value to divide.
+     * @return MatrixD Matrix C.
+     */
+    public MatrixD divideScalar(MatrixD a, double v) {
+        return divideScalar(a, v, a.mutate);
+    }
+
+    public MatrixD divideScalar(MatrixD a, double v, boolean mutate) {
+        if (v == 0) {
+            throw new RuntimeException("Divide by Zero");
+        }
+        if (mutate && !(a instanceof DenseMatrixD)) {
+            return a.divideScalar(v, true);
+        }
+        return elementWise(DIVIDE_SCALAR, a, null, v, mutate);
+    }
+
+    /**
+     * Transposes Matrix A in parallel. Matrix A' = transpose(Matrix A)
+     * @param a MatrixD A.
+     * @return MatrixD A'.
+     */
+    public DenseMatrixD transpose(MatrixD a) {
+        DenseMatrixD t = new DenseMatrixD(a.n, a.m);
+        run(new TaskD(TRANSPOSE, MultiplyKernel.dense(a), null, t, 0D,
+                a.n, threshold, 0, a.m));
+        return t;
+    }
+
+    private DenseMatrixD elementWise(int op, MatrixD a, DenseMatrixD b, double s, boolean mutate) {
+        DenseMatrixD ad = MultiplyKernel.dense(a);
+        DenseMatrixD c = mutate ? ad : new DenseMatrixD(a.m, a.n);
+        if (mutate) {
+            a.modified();
+        }
+        run(new TaskD(op, ad, b, c, s, a.n, threshold, 0, a.m));
+        return c;
+    }
+
+    /**
+     * Multiplies Matrix A by Matrix B in parallel. Matrix A * Matrix B = Matrix C.
+     * @param a MatrixF A.
+     * @param b Matrix B.
+     * @return MatrixF Matrix C.
+     */
+    public DenseMatrixF multiply(MatrixF a, Matrix b) {
+        if (a.n != b.m) {
+            throw new RuntimeException("Matrix dimensions are incorrect.");
+        }
+        DenseMatrixF c = new DenseMatrixF(a.m, b.n);
+        run(new TaskF(MULTIPLY, MultiplyKernel.denseF(a), MultiplyKernel.denseF(b), c, 0F,
+                (long) a.n * b.n, threshold, 0, a.m));
+        return c;
+    }
+
+    /**
+     * Adds Matrix B to Matrix A in parallel. Matrix A + Matrix B = Matrix C.
+     * @param a MatrixF A.
+     * @param b Matrix B.
+     * @return MatrixF Matrix C.
+     */
+    public MatrixF add(MatrixF a, Matrix b) {
+        return add(a, b, a.mutate);
+    }
+
+    public MatrixF add(MatrixF a, Matrix b, boolean mutate) {
+        if (a.m != b.m || a.n != b.n) {
+            throw new RuntimeException("Matrix dimensions are not equal.");
+        }
+        if (mutate && !(a instanceof DenseMatrixF)) {
+            return a.add(b, true);
+        }
+        return elementWise(ADD, a, MultiplyKernel.denseF(b), 0F, mutate);
+    }
+
+    /**
+     * Subtracts Matrix B from Matrix A in parallel. Matrix A - Matrix B = Matrix C.
+     * @param a MatrixF A.
+     * @param b Matrix B.
+     * @return MatrixF Matrix C.
+     */
+    public MatrixF subtract(MatrixF a, Matrix b) {
+        return subtract(a, b, a.mutate);
+    }
+
+    public MatrixF subtract(MatrixF a, Matrix b, boolean mutate) {
+        if (a.m != b.m || a.n != b.n) {
+            throw new RuntimeException("Matrix dimensions are not equal.");
+        }
+        if (mutate && !(a instanceof DenseMatrixF)) {
+            return a.subtract(b, true);
+        }
+        return elementWise(SUBTRACT, a, MultiplyKernel.denseF(b), 0F, mutate);
+    }
+
+    /**
+     * Adds a scalar to Matrix A in parallel. Matrix C = C(c[i,j]) = a[i,j]+v
+     * @param a MatrixF A.
+     * @param v Value to add.
+     * @return MatrixF Matrix C.
+     */
+    public MatrixF addScalar(MatrixF a, float v) {
+        return addScalar(a, v, a.mutate);
+    }
+
+    public MatrixF addScalar(MatrixF a, float v, boolean mutate) {
+        if (mutate && !(a instanceof DenseMatrixF)) {
+            return a.addScalar(v, true);
+        }
+        return elementWise(ADD_SCALAR, a, null, v, mutate);
+    }
+
+    /**
+     * Subtracts a scalar from Matrix A in parallel. Matrix C = C(c[i,j]) = a[i,j]-v
+     * @param a MatrixF A.
+     * @param v Value to subtract.
+     * @return MatrixF Matrix C.
+     */
+    public MatrixF subtractScalar(MatrixF a, float v) {
+        return subtractScalar(a, v, a.mutate);
+    }
+
+    public MatrixF subtractScalar(MatrixF a, float v, boolean mutate) {
+        if (mutate && !(a instanceof DenseMatrixF)) {
+            return a.subtractScalar(v, true);
+        }
+        return elementWise(ADD_SCALAR, a, null, -v, mutate);
+    }
+
+    /**
+     * Multiplies Matrix A by a scalar in parallel. Matrix C = C(c[i,j]) = a[i,j]*v
+     * @param a MatrixF A.
+     * @param v Value to multiply.
+     * @return MatrixF Matrix C.
+     */
+    public MatrixF multiplyScalar(MatrixF a, float v) {
+        return multiplyScalar(a, v, a.mutate);
+    }
+
+    public MatrixF multiplyScalar(MatrixF a, float v, boolean mutate) {
+        if (mutate && !(a instanceof DenseMatrixF)) {
+            return a.multiplyScalar(v, true);
+        }
+        return elementWise(MULTIPLY_SCALAR, a, null, v, mutate);
+    }
+
+    /**
+     * Divides Matrix A by a scalar in parallel. Matrix C = C(c[i,j]) = a[i,j]/v
+     * @param a MatrixF A.
+     * @param v Value to divide.
+     * @return MatrixF Matrix C.
+     */
+    public MatrixF divideScalar(MatrixF a, float v) {
+        return divideScalar(a, v, a.mutate);
+    }
+
+    public MatrixF divideScalar(MatrixF a, float v, boolean mutate) {
+        if (v == 0) {
+            throw new RuntimeException("Divide by Zero");
+        }
+        if (mutate && !(a instanceof DenseMatrixF)) {
+            return a.divideScalar(v, true);
+        }
+        return elementWise(DIVIDE_SCALAR, a, null, v, mutate);
+    }
+
+    /**
+     * Transposes Matrix A in parallel. Matrix A' = transpose(Matrix A)
+     * @param a MatrixF A.
+     * @return MatrixF A'.
+     */
+    public DenseMatrixF transpose(MatrixF a) {
+        DenseMatrixF t = new DenseMatrixF(a.n, a.m);
+        run(new TaskF(TRANSPOSE, MultiplyKernel.denseF(a), null, t, 0F,
+                a.n, threshold, 0, a.m));
+        return t;
+    }
+
+    private DenseMatrixF elementWise(int op, MatrixF a, DenseMatrixF b, float s, boolean mutate) {
+        DenseMatrixF ad = MultiplyKernel.denseF(a);
+        DenseMatrixF c = mutate ? ad : new DenseMatrixF(a.m, a.n);
+        if (mutate) {
+            a.modified();
+        }
+        run(new TaskF(op, ad, b, c, s, a.n, threshold, 0, a.m));
+        return c;
+    }
+
+    /**
+     * Runs small tasks on the calling thread and everything else in the pool.
+     */
+    private void run(RowBlock task) {
+        if (task.isSmall()) {
+            task.rows(task.lo, task.hi);
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    /**
+     * Recursive task splitting a range of rows in half until the work of a
+     * block drops to the threshold.
+     */
+    abstract static class RowBlock extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        final int op;
+        final long rowWork;
+        final int threshold;
+        final int lo, hi;
+
+        RowBlock(int op, long rowWork, int threshold, int lo, int hi) {
+            this.op = op;
+            this.rowWork = rowWork;
+            this.threshold = threshold;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        final boolean isSmall() {
+            return hi - lo <= 1 || (hi - lo) * rowWork <= threshold;
+        }
+
+        @Override
+        protected final void compute() {
+            if (isSmall()) {
+                rows(lo, hi);
+            } else {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(split(lo, mid), split(mid, hi));
+            }
+        }
+
+        abstract RowBlock split(int lo, int hi);
+
+        abstract void rows(int lo, int hi);
+    }
+
+    static final class TaskD extends RowBlock {
+
+        private static final long serialVersionUID = 1L;
+
+        final DenseMatrixD a, b, c;
+        final double s;
+
+        TaskD(int op, DenseMatrixD a, DenseMatrixD b, DenseMatrixD c, double s,
+                long rowWork, int threshold, int lo, int hi) {
+            super(op, rowWork, threshold, lo, hi);
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.s = s;
+        }
+
+        @Override
+        RowBlock split(int lo, int hi) {
+            return new TaskD(op, a, b, c, s, rowWork, threshold, lo, hi);
+        }
+
+        @Override
+        void rows(int lo, int hi) {
+            int n = a.n;
+            double[] ad = a.data;
+            double[] cd = c.data;
+            if (op == MULTIPLY) {
+                for (int i = lo; i < hi; i++) {
+                    int cRow = c.offset + i * c.stride;
+                    for (int j = 0; j < c.n; j++) {
+                        cd[cRow + j] = 0D;
+                    }
+                }
+                MultiplyKernel.multiply(hi - lo, a.n, b.n, 1D,
+                        ad, a.offset + lo * a.stride, a.stride,
+                        b.data, b.offset, b.stride,
+                        cd, c.offset + lo * c.stride, c.stride);
+                return;
+            }
+            for (int i = lo; i < hi; i++) {
+                int aRow = a.offset + i * a.stride;
+                int cRow = c.offset + i * c.stride;
+                switch (op) {
+                    case ADD: {
+                        int bRow = b.offset + i * b.stride;
+                        for (int j = 0; j < n; j++) {
+                            cd[cRow + j] = ad[aRow + j] + b.data[bRow + j];
+                        }
+                        break;
+                    }
+                    case SUBTRACT: {
+                        int bRow = b.offset + i * b.stride;
+                        for (int j = 0; j < n; j++) {
+                            cd[cRow + j] = ad[aRow + j] - b.data[bRow + j];
+                        }
+                        break;
+                    }
+                    case ADD_SCALAR:
+                        for (int j = 0; j < n; j++) {
+                            cd[cRow + j] = ad[aRow + j] + s;
+                        }
+                        break;
+                    case MULTIPLY_SCALAR:
+                        for (int j = 0; j < n; j++) {
+                            cd[cRow + j] = ad[aRow + j] * s;
+                        }
+                        break;
+                    case DIVIDE_SCALAR:
+                        for (int j = 0; j < n; j++) {
+                            cd[cRow + j] = ad[aRow + j] / s;
+                        }
+                        break;
+                    case TRANSPOSE: {
+                        int index = c.offset + i;
+                        for (int j = 0; j < n; j++) {
+                            cd[index] = ad[aRow + j];
+                            index += c.stride;
+                        }
+                        break;
+                    }
+                    default:
+                        throw new IllegalStateException("Unknown operation " + op);
+                }
+            }
+        }
+    }
+
+    static final class TaskF extends RowBlock {
+
+        private static final long serialVersionUID = 1L;
+
+        final DenseMatrixF a, b, c;
+        final float s;
+
+        TaskF(int op, DenseMatrixF a, DenseMatrixF b, DenseMatrixF c, float s,
+                long rowWork, int threshold, int lo, int hi) {
+            super(op, rowWork, threshold, lo, hi);
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.s = s;
+        }
+
+        @Override
+        RowBlock split(int lo, int hi) {
+            return new TaskF(op, a, b, c, s, rowWork, threshold, lo, hi);
+        }
+
+        @Override
+        void rows(int lo, int hi) {
+            int n = a.n;
+            float[] ad = a.data;
+            float[] cd = c.data;
+            if (op == MULTIPLY) {
+                for (int i = lo; i < hi; i++) {
+                    int cRow = c.offset + i * c.stride;
+                    for (int j = 0; j < c.n; j++) {
+                        cd[cRow + j] = 0F;
+                    }
+                }
+                MultiplyKernel.multiply(hi - lo, a.n, b.n, 1F,
+                        ad, a.offset + lo * a.stride, a.stride,
+                        b.data, b.offset, b.stride,
+                        cd, c.offset + lo * c.stride, c.stride);
+                return;
+            }
+            for (int i = lo; i < hi; i++) {
+                int aRow = a.offset + i * a.stride;
+                int cRow = c.offset + i * c.stride;
+                switch (op) {
+                    case ADD: {
+                        int bRow = b.offset + i * b.stride;
+                        for (int j = 0; j < n; j++) {
+                            cd[cRow + j] = ad[aRow + j] + b.data[bRow + j];
+                        }
+                        break;
+                    }
+                    case SUBTRACT: {
+                        int bRow = b.offset + i * b.stride;
+                        for (int j = 0; j < n; j++) {
+                            cd[cRow + j] = ad[aRow + j] - b.data[bRow + j];
+                        }
+                        break;
+                    }
+                    case ADD_SCALAR:
+                        for (int j = 0; j < n; j++) {
+                            cd[cRow + j] = ad[aRow + j] + s;
+                        }
+                        break;
+                    case MULTIPLY_SCALAR:
+                        for (int j = 0; j < n; j++) {
+                            cd[cRow + j] = ad[aRow + j] * s;
+                        }
+                        break;
+                    case DIVIDE_SCALAR:
+                        for (int j = 0; j < n; j++) {
+                            cd[cRow + j] = ad[aRow + j] / s;
+                        }
+                        break;
+                    case TRANSPOSE: {
+                        int index = c.offset + i;
+                        for (int j = 0; j < n; j++) {
+                            cd[index] = ad[aRow + j];
+                            index += c.stride;
+                        }
+                        break;
+                    }
+                    default:
+                        throw new IllegalStateException("Unknown operation " + op);
+                }
+            }
+        }
+    }
+}
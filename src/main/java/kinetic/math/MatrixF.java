@@ -15,6 +15,7 @@
  **/
 package kinetic.math;
 
+import java.util.Arrays;
 import kinetic.math.linear.LUDecompositionF;
 
 /**
@@ -178,6 +179,168 @@ public abstract class MatrixF extends Matrix {
 
     public abstract VectorF transformVector(VectorF v);
 
+    /**
+     * Adds a Matrix to this instance writing the result into a
+     * pre-allocated destination. Matrix A + Matrix B = Matrix C. The
+     * destination may be this instance, B, or a view sharing their storage,
+     * in which case the overlapping operand is read from a copy.
+     * @param b Matrix B.
+     * @param dest m by n MatrixF C to write to.
+     * @return dest
+     */
+    public MatrixF addInto(Matrix b, MatrixF dest) {
+        dest.modified();
+        checkElementWise(b, dest);
+        if (dest.overlaps(this)) {
+            // Elements of A would be overwritten before they are read.
+            return new DenseMatrixF(this, false).addInto(b, dest);
+        }
+        if (dest.overlaps(b)) {
+            // Elements of B would be overwritten before they are read.
+            return addInto(new DenseMatrixF(b, false), dest);
+        }
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                dest.setData(i, j, getData(i, j) + b.getData(i, j).floatValue());
+            }
+        }
+        return dest;
+    }
+
+    /**
+     * Subtracts a Matrix from this instance writing the result into a
+     * pre-allocated destination. Matrix A - Matrix B = Matrix C. The
+     * destination may be this instance, B, or a view sharing their storage,
+     * in which case the overlapping operand is read from a copy.
+     * @param b Matrix B.
+     * @param dest m by n MatrixF C to write to.
+     * @return dest
+     */
+    public MatrixF subtractInto(Matrix b, MatrixF dest) {
+        dest.modified();
+        checkElementWise(b, dest);
+        if (dest.overlaps(this)) {
+            // Elements of A would be overwritten before they are read.
+            return new DenseMatrixF(this, false).subtractInto(b, dest);
+        }
+        if (dest.overlaps(b)) {
+            // Elements of B would be overwritten before they are read.
+            return subtractInto(new DenseMatrixF(b, false), dest);
+        }
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                dest.setData(i, j, getData(i, j) - b.getData(i, j).floatValue());
+            }
+        }
+        return dest;
+    }
+
+    /**
+     * Multiplies this instance by a scalar writing the result into a
+     * pre-allocated destination. Matrix C = C(c[i,j]) = a[i,j]*v. The
+     * destination may be this instance or a view sharing its storage, in
+     * which case this instance is read from a copy.
+     * @param v Value to multiply.
+     * @param dest m by n MatrixF C to write to.
+     * @return dest
+     */
+    public MatrixF scaleInto(float v, MatrixF dest) {
+        dest.modified();
+        checkElementWise(this, dest);
+        if (dest.overlaps(this)) {
+            // Elements of A would be overwritten before they are read.
+            return new DenseMatrixF(this, false).scaleInto(v, dest);
+        }
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                dest.setData(i, j, getData(i, j) * v);
+            }
+        }
+        return dest;
+    }
+
+    /**
+     * Transposes this instance writing the result into a pre-allocated
+     * n by m destination. Matrix C = transpose(Matrix A). The destination
+     * may be this instance when it is square, any other destination sharing
+     * storage with this instance is written through a copy of it.
+     * @param dest n by m MatrixF C to write to.
+     * @return dest
+     */
+    public MatrixF transposeInto(MatrixF dest) {
+        dest.modified();
+        if (dest.m != n || dest.n != m) {
+            throw new RuntimeException("Matrix dimensions are incorrect.");
+        }
+        if (dest == this) {
+            for (int i = 0; i < m; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    float t = getData(i, j);
+                    setData(i, j, getData(j, i));
+                    setData(j, i, t);
+                }
+            }
+            return dest;
+        }
+        if (dest.sharesStorage(this)) {
+            // Elements of A would be overwritten before they are read.
+            return new DenseMatrixF(this, false).transposeInto(dest);
+        }
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                dest.setData(j, i, getData(i, j));
+            }
+        }
+        return dest;
+    }
+
+    /**
+     * Checks B and the destination of an element wise operation both have
+     * the dimensions of this instance.
+     */
+    final void checkElementWise(Matrix b, Matrix dest) {
+        if (m != b.m || n != b.n || m != dest.m || n != dest.n) {
+            throw new RuntimeException("Matrix dimensions are not equal.");
+        }
+    }
+
+    /**
+     * Multiplies a Matrix to this instance writing the result into a
+     * pre-allocated destination. Matrix A * Matrix B = Matrix C. The
+     * destination may be this instance, B, or share their storage, in which
+     * case the product is formed in a temporary and then copied into it.
+     * @param b Matrix B.
+     * @param dest m by b.n MatrixF C to write to.
+     * @return dest
+     */
+    public MatrixF multiplyInto(Matrix b, MatrixF dest) {
+        dest.modified();
+        if (n != b.m || dest.m != m || dest.n != b.n) {
+            throw new RuntimeException("Matrix dimensions are incorrect.");
+        }
+        if (dest.sharesStorage(this) || dest.sharesStorage(b)) {
+            // Elements of A or B would be overwritten before they are read.
+            DenseMatrixF c = new DenseMatrixF(m, b.n);
+            multiplyInto(b, c);
+            for (int i = 0; i < m; i++) {
+                for (int j = 0; j < b.n; j++) {
+                    dest.setData(i, j, c.get(i, j));
+                }
+            }
+            return dest;
+        }
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < b.n; j++) {
+                float sum = 0F;
+                for (int k = 0; k < n; k++) {
+                    sum += getData(i, k) * b.getData(k, j).floatValue();
+                }
+                dest.setData(i, j, sum);
+            }
+        }
+        return dest;
+    }
+
     /**
      * Return the invert of the Matrix A.
      * @return Matrix A^-1
@@ -277,9 +440,59 @@ public abstract class MatrixF extends Matrix {
         }
     }
 
+    /**
+     * Extracts a sub-matrix sA from A without copying. The returned MatrixF
+     * shares storage with this instance so writes through either are seen
+     * by both.
+     * @param mi The index of the starting row.
+     * @param mj The index of the finishing row (exclusive).
+     * @param ni The index of the starting column.
+     * @param nj The index of the finishing column (exclusive).
+     * @return m by n view where m = mj-mi and n = nj - ni
+     */
     @Override
-    public Matrix getSubMatrix(int mi, int mj, int ni, int nj) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public MatrixF getSubMatrix(int mi, int mj, int ni, int nj) {
+        checkSubMatrix(mi, mj, ni, nj);
+        return new ViewMatrixF(this, mi, ni, mj - mi, nj - ni, false);
+    }
+
+    final void checkSubMatrix(int mi, int mj, int ni, int nj) {
+        if (mi < 0 || ni < 0 || mj > m || nj > n || mi >= mj || ni >= nj) {
+            throw new IndexOutOfBoundsException(String.format("[%s:%s, %s:%s] is not inside a %s by %s matrix", mi, mj, ni, nj, m, n));
+        }
+    }
+
+    /**
+     * Returns the transpose of this instance without copying. The returned
+     * MatrixF shares storage with this instance.
+     * @return n by m view of A'.
+     */
+    public MatrixF transposeView() {
+        return new ViewMatrixF(this, 0, 0, n, m, true);
+    }
+
+    /**
+     * Returns row i of this instance as a VectorF sharing its storage.
+     * @param i the row to view (0 <= i < m)
+     * @return VectorF of n elements.
+     */
+    public VectorF rowView(int i) {
+        if (i < 0 || i >= m) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new ViewVectorF(this, i, 0, 0, 1, n);
+    }
+
+    /**
+     * Returns column j of this instance as a VectorF sharing its storage.
+     * @param j the column to view (0 <= j < n)
+     * @return VectorF of m elements.
+     */
+    public VectorF columnView(int j) {
+        if (j < 0 || j >= n) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new ViewVectorF(this, 0, j, 1, 0, m);
     }
 
     /**
@@ -288,33 +501,26 @@ public abstract class MatrixF extends Matrix {
      */
     @Override
     public String toString() {
-        String dataString = "{";
+        StringBuilder dataString = new StringBuilder(super.toString()).append(" {");
         for (int i = 0; i < m; i++) {
-            dataString += "{";
+            dataString.append('{');
             for (int j = 0; j < n; j++) {
-                dataString += getData(i, j) + ((j < n - 1) ? "F," : "F");
+                dataString.append(getData(i, j)).append((j < n - 1) ? "F," : "F");
             }
-            dataString += "}" + ((i < m - 1) ? "," : "");
+            dataString.append('}').append((i < m - 1) ? "," : "");
         }
-        dataString += "}";
-        return String.format("%s %s", super.toString(), dataString);
+        return dataString.append('}').toString();
     }
 
     /**
      * Create an empty m by n MatrixF. All values are set to zero. Returns a
-     * MutableMatrixF instance.
+     * mutable DenseMatrixF instance.
      * @param m row count for the MatrixF.
      * @param n column count for the MatrixF.
      * @return MatrixD the constructed MatrixF.
      */
     public static MatrixF empty(int m, int n) {
-        MatrixF e = new RowArrayMatrixF(m, n);
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < n; j++) {
-                e.setData(i, j, 0F);
-            }
-        }
-        return e;
+        return new DenseMatrixF(m, n, true);
     }
 
     /**
@@ -351,10 +557,13 @@ public abstract class MatrixF extends Matrix {
      * @return MatrixF A' which is a transpose of this instance.
      */
     public static MatrixF transpose(MatrixF a) {
-        MatrixF t = new RowArrayMatrixF(a.n, a.m);
+        if (a instanceof DenseMatrixF) {
+            return ((DenseMatrixF) a).transpose(false);
+        }
+        DenseMatrixF t = new DenseMatrixF(a.n, a.m, true);
         for (int i = 0; i < a.m; i++) {
             for (int j = 0; j < a.n; j++) {
-                t.setData(j, i, a.getData(i, j));
+                t.set(j, i, a.getData(i, j).floatValue());
             }
         }
         return t;
@@ -366,9 +575,9 @@ public abstract class MatrixF extends Matrix {
      * @return MatrixF constructed identity MatrixF.
      */
     public static MatrixF identity(int n) {
-        MatrixF i = new RowArrayMatrixF(n, n);
+        DenseMatrixF i = new DenseMatrixF(n, n, true);
         for (int j = 0; j < n; j++) {
-            i.setData(j, j, 1F);
+            i.data[j * n + j] = 1F;
         }
         return i;
     }
@@ -381,11 +590,10 @@ public abstract class MatrixF extends Matrix {
      * @return MatrixF R.
      */
     public static MatrixF random(int m, int n) {
-        MatrixF r = new RowArrayMatrixF(m, n);
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < n; j++) {
-                r.setData(i, j, QuickMath.random());
-            }
+        DenseMatrixF r = new DenseMatrixF(m, n, true);
+        float[] data = r.data;
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (float) QuickMath.random();
         }
         return r;
     }
@@ -400,11 +608,10 @@ public abstract class MatrixF extends Matrix {
      * @return MatrixF R.
      */
     public static MatrixF random(int m, int n, float lowerBound, float higherBound) {
-        MatrixF r = new RowArrayMatrixF(m, n);
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < n; j++) {
-                r.setData(i, j, (QuickMath.random() * (higherBound - lowerBound)) + lowerBound);
-            }
+        DenseMatrixF r = new DenseMatrixF(m, n, true);
+        float[] data = r.data;
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (float) (QuickMath.random() * (higherBound - lowerBound)) + lowerBound;
         }
         return r;
     }
@@ -418,12 +625,8 @@ public abstract class MatrixF extends Matrix {
      * @return MatrixF G.
      */
     public static MatrixF generate(int m, int n, float v) {
-        MatrixF g = new RowArrayMatrixF(m, n);
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < n; j++) {
-                g.setData(i, j, v);
-            }
-        }
+        DenseMatrixF g = new DenseMatrixF(m, n, true);
+        Arrays.fill(g.data, v);
         return g;
     }
 
@@ -15,57 +15,429 @@
  **/
 package kinetic.math;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
 import java.text.FieldPosition;
 import java.text.Format;
 import java.text.NumberFormat;
+import java.text.ParseException;
 import java.text.ParsePosition;
+import java.util.Arrays;
+import java.util.Locale;
 
 /**
+ * MatrixFormat Implementation.
+ *
+ * Formats a Matrix or Vector as text, one row per line with each column
+ * right aligned to its widest cell, and parses text back into a primitive
+ * backed DenseMatrixD or DenseMatrixF.
+ *
+ * The parser accepts this format's own output as well as CSV and MATLAB
+ * style text. Cells are separated by commas or whitespace; a row ends at a
+ * newline, a ';' or a closing ']' or '}', so "1,2\n3,4", "[1 2; 3 4]" and
+ * "{{1,2},{3,4}}" all give the same 2 by 2 matrix. Empty rows are ignored,
+ * as is anything from '%' or '#' to the end of the line. Every row must
+ * have the same number of cells. Numbers are read straight into a double
+ * array with an exact fast path for short decimals; only long or unusual
+ * numbers go through Double.parseDouble.
+ *
+ * Numbers are formatted with the root locale so text written on one
+ * machine parses on another.
  *
  * @author openecho
  */
 public class MatrixFormat extends Format {
-    
+
+    /**
+     * Powers of ten that are exact in a double.
+     */
+    private static final double[] POWERS = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
     String rowPrefix;
     String rowSuffix;
+    String rowSeparator;
     String cellSeparator;
     NumberFormat cellFormat;
 
     public MatrixFormat() {
-        rowPrefix = "[";
-        rowSuffix = " ]";
-        cellSeparator = ", ";
-        cellFormat = new DecimalFormat(" ####0.0000;-####0.0000");
+        this("[", " ]", ", ", new DecimalFormat(" ####0.0000;-####0.0000", DecimalFormatSymbols.getInstance(Locale.ROOT)));
     }
 
+    public MatrixFormat(String rowPrefix, String rowSuffix, String cellSeparator, NumberFormat cellFormat) {
+        this.rowPrefix = rowPrefix;
+        this.rowSuffix = rowSuffix;
+        this.rowSeparator = "\r\n";
+        this.cellSeparator = cellSeparator;
+        this.cellFormat = cellFormat;
+    }
+
+    /**
+     * Widest formatted cell in each column of a.
+     * @param a Matrix to measure.
+     * @return width in characters of each of the n columns.
+     */
     public int[] getColumnCharacterWidths(Matrix a) {
-        return null;
+        int[] widths = new int[a.n];
+        double[] row = new double[a.n];
+        for (int i = 0; i < a.m; i++) {
+            getRow(a, i, row);
+            for (int j = 0; j < a.n; j++) {
+                widths[j] = Math.max(widths[j], cellFormat.format(row[j]).length());
+            }
+        }
+        return widths;
     }
 
     @Override
     public StringBuffer format(Object obj, StringBuffer toAppendTo, FieldPosition pos) {
-//        if(obj instanceof ImmutableMatrixD) {
-//            ImmutableMatrixD a = (ImmutableMatrixD) obj;
-//            double[][] data = a.getData();
-//            for(int i=0;i<a.getM();i++) {
-//                toAppendTo.append(rowPrefix);
-//                for(int j=0;j<a.getN();j++) {
-//                    toAppendTo.append(cellFormat.format(data[i][j])).append((j<a.getN()-1) ? cellSeparator : "");
-//                }
-//                toAppendTo.append(rowSuffix).append("\r\n");
-//            }
-//        }
+        try {
+            if (obj instanceof Matrix) {
+                format((Matrix) obj, toAppendTo);
+            } else if (obj instanceof Vector) {
+                format((Vector) obj, toAppendTo);
+            } else {
+                throw new IllegalArgumentException("Cannot format " + obj + " as a matrix.");
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
         return toAppendTo;
     }
 
+    /**
+     * Formats a Matrix to out, padding each column to its widest cell.
+     * Every cell is formatted once and held only until the widths are known.
+     * @param a Matrix to format.
+     * @param out destination of the text.
+     * @return out
+     * @throws IOException when out can not be written.
+     */
+    public Appendable format(Matrix a, Appendable out) throws IOException {
+        int m = a.m;
+        int n = a.n;
+        String[] cells = new String[m * n];
+        int[] widths = new int[n];
+        double[] row = new double[n];
+        for (int i = 0; i < m; i++) {
+            getRow(a, i, row);
+            for (int j = 0; j < n; j++) {
+                String cell = cellFormat.format(row[j]);
+                cells[i * n + j] = cell;
+                widths[j] = Math.max(widths[j], cell.length());
+            }
+        }
+        for (int i = 0; i < m; i++) {
+            out.append(rowPrefix);
+            for (int j = 0; j < n; j++) {
+                String cell = cells[i * n + j];
+                for (int k = cell.length(); k < widths[j]; k++) {
+                    out.append(' ');
+                }
+                out.append(cell);
+                if (j < n - 1) {
+                    out.append(cellSeparator);
+                }
+            }
+            out.append(rowSuffix).append(rowSeparator);
+        }
+        return out;
+    }
+
+    /**
+     * Formats a Vector to out as a single row.
+     * @param v Vector to format.
+     * @param out destination of the text.
+     * @return out
+     * @throws IOException when out can not be written.
+     */
+    public Appendable format(Vector v, Appendable out) throws IOException {
+        out.append(rowPrefix);
+        for (int i = 0; i < v.n; i++) {
+            out.append(cellFormat.format(Vector.valueAt(v, i)));
+            if (i < v.n - 1) {
+                out.append(cellSeparator);
+            }
+        }
+        return out.append(rowSuffix).append(rowSeparator);
+    }
+
+    /**
+     * Copies row i of a into row without boxing where a stores primitives.
+     */
+    static void getRow(Matrix a, int i, double[] row) {
+        if (a instanceof MatrixD) {
+            ((MatrixD) a).getRows(i, 1, row);
+        } else if (a instanceof DenseMatrixF) {
+            DenseMatrixF f = (DenseMatrixF) a;
+            int start = f.offset + i * f.stride;
+            for (int j = 0; j < a.n; j++) {
+                row[j] = f.data[start + j];
+            }
+        } else {
+            for (int j = 0; j < a.n; j++) {
+                row[j] = a.getData(i, j).doubleValue();
+            }
+        }
+    }
+
+    /**
+     * Parses a matrix from the text at pos. On failure pos is left unchanged,
+     * its error index is set and null is returned.
+     * @param source text holding a matrix.
+     * @param pos position to start parsing from.
+     * @return DenseMatrixD or null.
+     */
     @Override
     public Object parseObject(String source, ParsePosition pos) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        int start = pos.getIndex();
+        try {
+            DenseMatrixD a = parse(new StringReader(source.substring(start)));
+            pos.setIndex(source.length());
+            return a;
+        } catch (ParseException e) {
+            pos.setErrorIndex(start + e.getErrorOffset());
+            return null;
+        } catch (IOException e) {
+            pos.setErrorIndex(start);
+            return null;
+        }
+    }
+
+    /**
+     * Parses a matrix, reading in to the end of the stream.
+     * @param in text holding a matrix.
+     * @return parsed DenseMatrixD.
+     * @throws IOException when in can not be read.
+     * @throws ParseException when the text is not a matrix.
+     */
+    public DenseMatrixD parse(Reader in) throws IOException, ParseException {
+        return new Parser(in).parse();
+    }
+
+    /**
+     * Parses a matrix, narrowing the values to float.
+     * @param in text holding a matrix.
+     * @return parsed DenseMatrixF.
+     * @throws IOException when in can not be read.
+     * @throws ParseException when the text is not a matrix.
+     */
+    public DenseMatrixF parseMatrixF(Reader in) throws IOException, ParseException {
+        DenseMatrixD a = parse(in);
+        DenseMatrixF f = new DenseMatrixF(a.m, a.n, true);
+        for (int k = 0; k < a.data.length; k++) {
+            f.data[k] = (float) a.data[k];
+        }
+        return f;
     }
 
     public static String format(Object obj, String title) {
         MatrixFormat format = new MatrixFormat();
         return String.format("%s:\r\n%s", title, format.format(obj));
     }
+
+    /**
+     * Reads characters a block at a time, collecting the cells of each row
+     * into a growing double array.
+     */
+    static final class Parser {
+
+        final Reader in;
+        final char[] block = new char[8192];
+        int blockLength;
+        int blockIndex;
+        int offset;
+        char[] token = new char[32];
+        double[] values = new double[256];
+        int count;
+        int n = -1;
+        int rowCells;
+
+        Parser(Reader in) {
+            this.in = in;
+        }
+
+        private int read() throws IOException {
+            if (blockIndex == blockLength) {
+                blockLength = in.read(block);
+                blockIndex = 0;
+                if (blockLength <= 0) {
+                    blockLength = 0;
+                    return -1;
+                }
+            }
+            offset++;
+            return block[blockIndex++];
+        }
+
+        private void unread() {
+            blockIndex--;
+            offset--;
+        }
+
+        DenseMatrixD parse() throws IOException, ParseException {
+            int c;
+            while ((c = read()) >= 0) {
+                switch (c) {
+                    case '\n':
+                    case '\r':
+                    case ';':
+                    case ']':
+                    case '}':
+                        endRow();
+                        break;
+                    case '%':
+                    case '#':
+                        while ((c = read()) >= 0 && c != '\n' && c != '\r') {
+                        }
+                        endRow();
+                        break;
+                    case ',':
+                    case ' ':
+                    case '\t':
+                    case '[':
+                    case '{':
+                        break;
+                    default:
+                        unread();
+                        readCell();
+                }
+            }
+            endRow();
+            int m = (n < 0) ? 0 : count / n;
+            return new DenseMatrixD(m, Math.max(n, 0), (values.length == count) ? values : Arrays.copyOf(values, count), true);
+        }
+
+        private void endRow() throws ParseException {
+            if (rowCells == 0) {
+                return;
+            }
+            if (n < 0) {
+                n = rowCells;
+            } else if (n != rowCells) {
+                throw new ParseException("Row has " + rowCells + " cells, expected " + n + ".", offset);
+            }
+            rowCells = 0;
+        }
+
+        private void readCell() throws IOException, ParseException {
+            int start = offset;
+            int length = 0;
+            int c;
+            while ((c = read()) >= 0 && !isDelimiter(c)) {
+                if (length == token.length) {
+                    token = Arrays.copyOf(token, length * 2);
+                }
+                token[length++] = (char) c;
+            }
+            if (c >= 0) {
+                unread();
+            }
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            try {
+                values[count++] = parseNumber(token, length);
+            } catch (NumberFormatException e) {
+                throw new ParseException("Not a number: " + new String(token, 0, length), start);
+            }
+            rowCells++;
+        }
+
+        private static boolean isDelimiter(int c) {
+            switch (c) {
+                case ' ':
+                case '\t':
+                case '\n':
+                case '\r':
+                case ',':
+                case ';':
+                case '[':
+                case ']':
+                case '{':
+                case '}':
+                case '%':
+                case '#':
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
+    /**
+     * Parses the first length characters of s as a double. Decimals with at
+     * most 15 significant digits and a small exponent are converted with one
+     * exact multiply or divide, which is correctly rounded; anything else
+     * falls back to Double.parseDouble.
+     */
+    static double parseNumber(char[] s, int length) {
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (s[0] == '-' || s[0] == '+')) {
+            negative = s[0] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean any = false;
+        boolean point = false;
+        boolean fast = true;
+        for (; i < length; i++) {
+            char c = s[i];
+            if (c >= '0' && c <= '9') {
+                any = true;
+                if (mantissa != 0 || c != '0') {
+                    if (++digits > 15) {
+                        fast = false;
+                        break;
+                    }
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+                if (point) {
+                    scale--;
+                }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        if (fast && any && i < length && (s[i] == 'e' || s[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < length && (s[i] == '-' || s[i] == '+')) {
+                negativeExponent = s[i] == '-';
+                i++;
+            }
+            int exponent = 0;
+            int start = i;
+            for (; i < length && s[i] >= '0' && s[i] <= '9' && exponent < 1000; i++) {
+                exponent = exponent * 10 + (s[i] - '0');
+            }
+            if (i == start) {
+                fast = false;
+            }
+            scale += negativeExponent ? -exponent : exponent;
+        }
+        if (fast && any && i == length) {
+            double value;
+            if (mantissa == 0) {
+                value = 0D;
+            } else if (scale >= 0 && scale < POWERS.length) {
+                value = mantissa * POWERS[scale];
+            } else if (scale < 0 && -scale < POWERS.length) {
+                value = mantissa / POWERS[-scale];
+            } else {
+                return Double.parseDouble(new String(s, 0, length));
+            }
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(new String(s, 0, length));
+    }
 }
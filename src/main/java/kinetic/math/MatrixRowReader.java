@@ -0,0 +1,212 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * MatrixRowReader Implementation.
+ *
+ * Reads a MatrixCodec encoding one row at a time into a caller supplied
+ * primitive array so a matrix can be consumed without holding all of it in
+ * memory. Rows are converted to the precision of the array passed to
+ * nextRow. Reading from a channel buffers at most a bounded chunk of rows.
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public class MatrixRowReader implements Closeable {
+
+    final ReadableByteChannel channel;
+    final ByteBuffer buffer;
+    final MatrixCodec.Header header;
+    final int rowBytes;
+    int row;
+
+    /**
+     * Creates a reader over a channel positioned at an encoded matrix or
+     * vector and reads its header.
+     * @param channel channel to read from.
+     * @throws IOException when the channel can not be read or does not hold
+     * a matrix.
+     */
+    public MatrixRowReader(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        ByteBuffer first = ByteBuffer.allocate(MatrixCodec.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        fill(first);
+        first.flip();
+        header = decode(first);
+        rowBytes = header.n * MatrixCodec.elementSize(header.type);
+        buffer = ByteBuffer.allocate(Math.max(MatrixCodec.CHUNK_SIZE, rowBytes)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+        row = 0;
+    }
+
+    /**
+     * Creates a reader over the remaining bytes of source and reads the
+     * header. The position of source is not changed.
+     * @param source buffer holding an encoded matrix or vector.
+     * @throws IOException when source does not hold a matrix.
+     */
+    public MatrixRowReader(ByteBuffer source) throws IOException {
+        channel = null;
+        buffer = source.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < MatrixCodec.HEADER_SIZE) {
+            throw new EOFException("Buffer is too short to hold a matrix header.");
+        }
+        header = decode(buffer);
+        rowBytes = header.n * MatrixCodec.elementSize(header.type);
+        row = 0;
+    }
+
+    private static MatrixCodec.Header decode(ByteBuffer in) throws IOException {
+        try {
+            return MatrixCodec.getHeader(in);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+    }
+
+    private void fill(ByteBuffer dest) throws IOException {
+        while (dest.hasRemaining()) {
+            if (channel.read(dest) < 0) {
+                throw new EOFException("Unexpected end of matrix data.");
+            }
+        }
+    }
+
+    /**
+     * Makes sure the next row is in buffer, refilling from the channel.
+     */
+    private void require() throws IOException {
+        if (!hasNext()) {
+            throw new IllegalStateException("No rows remain.");
+        }
+        if (buffer.remaining() >= rowBytes) {
+            return;
+        }
+        if (channel == null) {
+            throw new EOFException("Unexpected end of matrix data.");
+        }
+        buffer.compact();
+        // never read past the end of this matrix so the channel can hold more
+        long left = (long) (header.m - row) * rowBytes;
+        if (left < buffer.capacity()) {
+            buffer.limit((int) left);
+        }
+        while (buffer.position() < rowBytes) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of matrix data.");
+            }
+        }
+        buffer.flip();
+    }
+
+    public int getM() {
+        return header.m;
+    }
+
+    public int getN() {
+        return header.n;
+    }
+
+    /**
+     * @return MatrixCodec.TYPE_DOUBLE or MatrixCodec.TYPE_FLOAT.
+     */
+    public int getType() {
+        return header.type;
+    }
+
+    /**
+     * @return true when the encoding holds a vector, read as a single column.
+     */
+    public boolean isVector() {
+        return header.kind == MatrixCodec.KIND_VECTOR;
+    }
+
+    /**
+     * @return index of the row the next call to nextRow returns.
+     */
+    public int getRow() {
+        return row;
+    }
+
+    public boolean hasNext() {
+        return row < header.m;
+    }
+
+    /**
+     * Reads the next row.
+     * @param dest array of at least n elements, or null to allocate one.
+     * @return dest
+     * @throws IOException when the data ends early.
+     */
+    public double[] nextRow(double[] dest) throws IOException {
+        require();
+        int n = header.n;
+        if (dest == null) {
+            dest = new double[n];
+        }
+        if (header.type == MatrixCodec.TYPE_DOUBLE) {
+            buffer.asDoubleBuffer().get(dest, 0, n);
+            buffer.position(buffer.position() + rowBytes);
+        } else {
+            for (int j = 0; j < n; j++) {
+                dest[j] = buffer.getFloat();
+            }
+        }
+        row++;
+        return dest;
+    }
+
+    /**
+     * Reads the next row.
+     * @param dest array of at least n elements, or null to allocate one.
+     * @return dest
+     * @throws IOException when the data ends early.
+     */
+    public float[] nextRow(float[] dest) throws IOException {
+        require();
+        int n = header.n;
+        if (dest == null) {
+            dest = new float[n];
+        }
+        if (header.type == MatrixCodec.TYPE_FLOAT) {
+            buffer.asFloatBuffer().get(dest, 0, n);
+            buffer.position(buffer.position() + rowBytes);
+        } else {
+            for (int j = 0; j < n; j++) {
+                dest[j] = (float) buffer.getDouble();
+            }
+        }
+        row++;
+        return dest;
+    }
+
+    /**
+     * Closes the underlying channel, if any.
+     */
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+/**
+ * Cache blocked matrix multiply kernel working on primitive row major
+ * double and float storage.
+ *
+ * The product C += alpha * A * B is computed tile by tile. For each tile the
+ * loops run in i-k-j order so that the innermost loop walks a row of B and
+ * a row of C with unit stride, which keeps the working set of B in cache and
+ * lets the JIT vectorise the inner loop.
+ *
+ * All arrays are addressed as data[offset + row * stride + column] which is
+ * the layout used by DenseMatrixD and DenseMatrixF, so sub matrices can be
+ * multiplied in place without copying.
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public final class MultiplyKernel {
+
+    /**
+     * Rows of A (and C) processed per tile.
+     */
+    public static final int BLOCK_M = 64;
+    /**
+     * Columns of A (rows of B) processed per tile.
+     */
+    public static final int BLOCK_K = 64;
+    /**
+     * Columns of B (and C) processed per tile.
+     */
+    public static final int BLOCK_N = 256;
+
+    private MultiplyKernel() {
+    }
+
+    /**
+     * Computes C += alpha * A * B where A is m by k, B is k by n and C is
+     * m by n.
+     * @param m rows of A and C.
+     * @param k columns of A and rows of B.
+     * @param n columns of B and C.
+     * @param alpha scale applied to the product.
+     * @param a storage of A.
+     * @param aOffset index of a[0,0].
+     * @param aStride row stride of A.
+     * @param b storage of B.
+     * @param bOffset index of b[0,0].
+     * @param bStride row stride of B.
+     * @param c storage of C.
+     * @param cOffset index of c[0,0].
+     * @param cStride row stride of C.
+     */
+    public static void multiply(int m, int k, int n, double alpha,
+            double[] a, int aOffset, int aStride,
+            double[] b, int bOffset, int bStride,
+            double[] c, int cOffset, int cStride) {
+        for (int ii = 0; ii < m; ii += BLOCK_M) {
+            int iEnd = Math.min(ii + BLOCK_M, m);
+            for (int kk = 0; kk < k; kk += BLOCK_K) {
+                int kEnd = Math.min(kk + BLOCK_K, k);
+                for (int jj = 0; jj < n; jj += BLOCK_N) {
+                    int jEnd = Math.min(jj + BLOCK_N, n);
+                    for (int i = ii; i < iEnd; i++) {
+                        int aRow = aOffset + i * aStride;
+                        int cRow = cOffset + i * cStride;
+                        for (int p = kk; p < kEnd; p++) {
+                            double aip = alpha * a[aRow + p];
+                            if (aip == 0D) {
+                                continue;
+                            }
+                            int bRow = bOffset + p * bStride;
+                            for (int j = jj; j < jEnd; j++) {
+                                c[cRow + j] += aip * b[bRow + j];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes C += alpha * A * B where A is m by k, B is k by n and C is
+     * m by n, for float storage.
+     * @param m rows of A and C.
+     * @param k columns of A and rows of B.
+     * @param n columns of B and C.
+     * @param alpha scale applied to the product.
+     * @param a storage of A.
+     * @param aOffset index of a[0,0].
+     * @param aStride row stride of A.
+     * @param b storage of B.
+     * @param bOffset index of b[0,0].
+     * @param bStride row stride of B.
+     * @param c storage of C.
+     * @param cOffset index of c[0,0].
+     * @param cStride row stride of C.
+     */
+    public static void multiply(int m, int k, int n, float alpha,
+            float[] a, int aOffset, int aStride,
+            float[] b, int bOffset, int bStride,
+            float[] c, int cOffset, int cStride) {
+        for (int ii = 0; ii < m; ii += BLOCK_M) {
+            int iEnd = Math.min(ii + BLOCK_M, m);
+            for (int kk = 0; kk < k; kk += BLOCK_K) {
+                int kEnd = Math.min(kk + BLOCK_K, k);
+                for (int jj = 0; jj < n; jj += BLOCK_N) {
+                    int jEnd = Math.min(jj + BLOCK_N, n);
+                    for (int i = ii; i < iEnd; i++) {
+                        int aRow = aOffset + i * aStride;
+                        int cRow = cOffset + i * cStride;
+                        for (int p = kk; p < kEnd; p++) {
+                            float aip = alpha * a[aRow + p];
+                            if (aip == 0F) {
+                                continue;
+                            }
+                            int bRow = bOffset + p * bStride;
+                            for (int j = jj; j < jEnd; j++) {
+                                c[cRow + j] += aip * b[bRow + j];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes C = A * B for a DenseMatrixD C of the right dimensions. C
+     * must not share storage with A or B.
+     * @param a MatrixD A.
+     * @param b MatrixD B.
+     * @param c MatrixD C.
+     */
+    static void multiply(DenseMatrixD a, DenseMatrixD b, DenseMatrixD c) {
+        c.modified();
+        for (int i = 0; i < c.m; i++) {
+            int row = c.offset + i * c.stride;
+            for (int j = 0; j < c.n; j++) {
+                c.data[row + j] = 0D;
+            }
+        }
+        multiply(a.m, a.n, b.n, 1D,
+                a.data, a.offset, a.stride,
+                b.data, b.offset, b.stride,
+                c.data, c.offset, c.stride);
+    }
+
+    /**
+     * Computes C = A * B for a DenseMatrixF C of the right dimensions. C
+     * must not share storage with A or B.
+     * @param a MatrixF A.
+     * @param b MatrixF B.
+     * @param c MatrixF C.
+     */
+    static void multiply(DenseMatrixF a, DenseMatrixF b, DenseMatrixF c) {
+        c.modified();
+        for (int i = 0; i < c.m; i++) {
+            int row = c.offset + i * c.stride;
+            for (int j = 0; j < c.n; j++) {
+                c.data[row + j] = 0F;
+            }
+        }
+        multiply(a.m, a.n, b.n, 1F,
+                a.data, a.offset, a.stride,
+                b.data, b.offset, b.stride,
+                c.data, c.offset, c.stride);
+    }
+
+    /**
+     * Unboxes any Matrix into a new row major double[] so that it can be fed
+     * to the kernel. DenseMatrixD instances are returned as they are.
+     * @param a Matrix to convert.
+     * @return DenseMatrixD sharing or copying the data of a.
+     */
+    static DenseMatrixD dense(Matrix a) {
+        if (a instanceof DenseMatrixD) {
+            return (DenseMatrixD) a;
+        }
+        return new DenseMatrixD(a, false);
+    }
+
+    /**
+     * Unboxes any Matrix into a new row major float[] so that it can be fed
+     * to the kernel. DenseMatrixF instances are returned as they are.
+     * @param a Matrix to convert.
+     * @return DenseMatrixF sharing or copying the data of a.
+     */
+    static DenseMatrixF denseF(Matrix a) {
+        if (a instanceof DenseMatrixF) {
+            return (DenseMatrixF) a;
+        }
+        return new DenseMatrixF(a, false);
+    }
+}
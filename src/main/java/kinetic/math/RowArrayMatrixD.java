@@ -15,6 +15,9 @@
  **/
 package kinetic.math;
 
+import java.util.Arrays;
+import kinetic.math.linear.DecompositionCache;
+
 /**
  * RowArrayMatrixD Implementation.
  *
@@ -35,10 +38,6 @@ package kinetic.math;
  */
 public class RowArrayMatrixD extends MatrixD {
 
-    /**
-     * TODO: Scalar functions need to be mutate aware.
-     */
-
     Double[][] data;
 
     public RowArrayMatrixD(int m, int n) {
@@ -100,6 +99,7 @@ public class RowArrayMatrixD extends MatrixD {
 
     @Override
     public final void setData(int i, int j, Number data) {
+        modified();
         if (data instanceof Double) {
             this.data[i][j] = (Double) data;
         } else {
@@ -109,6 +109,7 @@ public class RowArrayMatrixD extends MatrixD {
 
     @Override
     public final void setData(Number[][] data) {
+        modified();
         m = data.length;
         n = data[0].length;
         if (data instanceof Double[][]) {
@@ -155,7 +156,12 @@ public class RowArrayMatrixD extends MatrixD {
         }
         RowArrayMatrixD c;
         if (mutate) {
+            modified();
             c = this;
+            if (overlaps(b)) {
+                // Elements of B would be overwritten before they are read.
+                b = new DenseMatrixD(b, false);
+            }
         } else {
             c = new RowArrayMatrixD(m, n);
         }
@@ -180,7 +186,12 @@ public class RowArrayMatrixD extends MatrixD {
         }
         RowArrayMatrixD c;
         if (mutate) {
+            modified();
             c = this;
+            if (overlaps(b)) {
+                // Elements of B would be overwritten before they are read.
+                b = new DenseMatrixD(b, false);
+            }
         } else {
             c = new RowArrayMatrixD(m, n);
         }
@@ -192,52 +203,183 @@ public class RowArrayMatrixD extends MatrixD {
         return c;
     }
 
+    /**
+     * Multiplies a Matrix to this instance. Matrix A * Matrix B = Matrix C.
+     * A mutable instance is only overwritten when B is square, otherwise a
+     * new Matrix is returned.
+     * @param b Matrix B.
+     * @return Matrix Matrix C.
+     */
     @Override
     public RowArrayMatrixD multiply(Matrix b) {
+        return multiply(b, mutate && b.m == b.n);
+    }
+
+    /**
+     * Multiplies a Matrix to this instance. Matrix A * Matrix B = Matrix C.
+     * When mutating B must be square so that C has the shape of A and C is
+     * written over A.
+     * @param b Matrix B.
+     * @param mutate flag to specify mutation.
+     * @return Matrix Matrix C.
+     */
+    @Override
+    public RowArrayMatrixD multiply(Matrix b, boolean mutate) {
         RowArrayMatrixD a = this;
         if (a.n != b.m) {
             throw new RuntimeException("Matrix dimensions are incorrect.");
         }
-        RowArrayMatrixD c = new RowArrayMatrixD(a.m, b.n);
-        for (int i = 0; i < c.m; i++) {
-            for (int j = 0; j < c.n; j++) {
-                for (int k = 0; k < a.n; k++) {
-                    c.data[i][j] += (a.data[i][k] * b.getData(k, j).doubleValue());
-                }
+        if (mutate && b.n != n) {
+            throw new RuntimeException("Matrix B must be square to multiply in place.");
+        }
+        if (!mutate) {
+            RowArrayMatrixD c = new RowArrayMatrixD(m, b.n);
+            multiplyRows(b, c);
+            return c;
+        }
+        modified();
+        // Rows of B would be overwritten before they are read.
+        Matrix bb = sharesStorage(b) ? new DenseMatrixD(b, false) : b;
+        double[] row = new double[n];
+        for (int i = 0; i < m; i++) {
+            Double[] ai = data[i];
+            Arrays.fill(row, 0D);
+            accumulateRow(ai, bb, row, 0);
+            for (int j = 0; j < n; j++) {
+                ai[j] = row[j];
             }
         }
-        return c;
+        return this;
     }
 
+    /**
+     * Multiplies a Matrix to this instance writing the result into a
+     * pre-allocated destination. Matrix A * Matrix B = Matrix C. No copy of
+     * A, B or C is made unless dest shares its storage with A or B, in which
+     * case C is computed in a temporary first.
+     * @param b Matrix B.
+     * @param dest m by b.n MatrixD C to write to.
+     * @return dest
+     */
     @Override
-    public RowArrayMatrixD multiply(Matrix b, boolean mutate) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public MatrixD multiply(Matrix b, MatrixD dest) {
+        dest.modified();
+        if (n != b.m || dest.m != m || dest.n != b.n) {
+            throw new RuntimeException("Matrix dimensions are incorrect.");
+        }
+        if (dest.sharesStorage(this) || dest.sharesStorage(b)) {
+            RowArrayMatrixD c = multiply(b, false);
+            for (int i = 0; i < dest.m; i++) {
+                for (int j = 0; j < dest.n; j++) {
+                    dest.setData(i, j, c.data[i][j]);
+                }
+            }
+            return dest;
+        }
+        multiplyRows(b, dest);
+        return dest;
     }
 
-    @Override
-    public MatrixD transpose() {
-        if (mutate) {
-            /**
-             * TODO: Figure this out
-             */
-            RowArrayMatrixD a = this;
-            RowArrayMatrixD t = new RowArrayMatrixD(a.n, a.m);
-            for (int i = 0; i < a.m; i++) {
-                for (int j = 0; j < a.n; j++) {
-                    t.data[j][i] = a.data[i][j];
+    /**
+     * Writes A * B into dest, which must not share storage with A or B,
+     * reading A straight from its rows. A DenseMatrixD dest is accumulated
+     * in place, other destinations a row at a time through one scratch row.
+     */
+    private void multiplyRows(Matrix b, MatrixD dest) {
+        if (dest instanceof DenseMatrixD) {
+            DenseMatrixD d = (DenseMatrixD) dest;
+            for (int i = 0; i < m; i++) {
+                int row = d.offset + i * d.stride;
+                Arrays.fill(d.data, row, row + d.n, 0D);
+                accumulateRow(data[i], b, d.data, row);
+            }
+            return;
+        }
+        Double[][] c = (dest instanceof RowArrayMatrixD) ? ((RowArrayMatrixD) dest).data : null;
+        double[] row = new double[b.n];
+        for (int i = 0; i < m; i++) {
+            Arrays.fill(row, 0D);
+            accumulateRow(data[i], b, row, 0);
+            for (int j = 0; j < b.n; j++) {
+                if (c != null) {
+                    c[i][j] = row[j];
+                } else {
+                    dest.setData(i, j, row[j]);
                 }
             }
-            return t;
-        } else {
-            RowArrayMatrixD a = this;
-            RowArrayMatrixD t = new RowArrayMatrixD(a.n, a.m);
-            for (int i = 0; i < a.m; i++) {
-                for (int j = 0; j < a.n; j++) {
-                    t.data[j][i] = a.data[i][j];
+        }
+    }
+
+    /**
+     * Accumulates the row ai of A times B into out starting at outOffset
+     * using an i-k-j ordering so that B is walked along its rows.
+     */
+    private static void accumulateRow(Double[] ai, Matrix b, double[] out, int outOffset) {
+        int bn = b.n;
+        for (int k = 0; k < ai.length; k++) {
+            double aik = ai[k];
+            if (aik == 0D) {
+                continue;
+            }
+            if (b instanceof DenseMatrixD) {
+                DenseMatrixD bd = (DenseMatrixD) b;
+                int bRow = bd.offset + k * bd.stride;
+                for (int j = 0; j < bn; j++) {
+                    out[outOffset + j] += aik * bd.data[bRow + j];
+                }
+            } else if (b instanceof RowArrayMatrixD) {
+                Double[] bk = ((RowArrayMatrixD) b).data[k];
+                for (int j = 0; j < bn; j++) {
+                    out[outOffset + j] += aik * bk[j];
+                }
+            } else {
+                for (int j = 0; j < bn; j++) {
+                    out[outOffset + j] += aik * b.getData(k, j).doubleValue();
+                }
+            }
+        }
+    }
+
+
+    @Override
+    public RowArrayMatrixD transpose() {
+        return transpose(mutate);
+    }
+
+    /**
+     * Returns the transpose of this instance. Matrix A' = transpose(Matrix A)
+     * Square matrices are transposed in place when mutating by swapping
+     * elements; other shapes have their rows rebuilt and m and n swapped.
+     * @param mutate flag to specify mutation.
+     * @return Matrix A' which is a transpose of this instance.
+     */
+    public RowArrayMatrixD transpose(boolean mutate) {
+        RowArrayMatrixD a = this;
+        if (mutate && m == n) {
+            modified();
+            for (int i = 0; i < m; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    Double t = data[i][j];
+                    data[i][j] = data[j][i];
+                    data[j][i] = t;
                 }
             }
-            return t;
+            return this;
         }
+        Double[][] t = new Double[a.n][a.m];
+        for (int i = 0; i < a.m; i++) {
+            for (int j = 0; j < a.n; j++) {
+                t[j][i] = a.data[i][j];
+            }
+        }
+        if (mutate) {
+            modified();
+            data = t;
+            m = t.length;
+            n = t[0].length;
+            return this;
+        }
+        return new RowArrayMatrixD(t);
     }
 
     @Override
@@ -248,10 +390,17 @@ public class RowArrayMatrixD extends MatrixD {
     @Override
     public RowArrayMatrixD addScalar(Number v, boolean mutate) {
         RowArrayMatrixD a = this;
-        RowArrayMatrixD c = new RowArrayMatrixD(m, n);
+        RowArrayMatrixD c;
+        if (mutate) {
+            modified();
+            c = this;
+        } else {
+            c = new RowArrayMatrixD(m, n);
+        }
+        double s = v.doubleValue();
         for (int i = 0; i < m; i++) {
             for (int j = 0; j < n; j++) {
-                c.data[i][j] = a.data[i][j] + v.doubleValue();
+                c.data[i][j] = a.data[i][j] + s;
             }
         }
         return c;
@@ -265,10 +414,17 @@ public class RowArrayMatrixD extends MatrixD {
     @Override
     public RowArrayMatrixD subtractScalar(Number v, boolean mutate) {
         RowArrayMatrixD a = this;
-        RowArrayMatrixD c = new RowArrayMatrixD(m, n);
+        RowArrayMatrixD c;
+        if (mutate) {
+            modified();
+            c = this;
+        } else {
+            c = new RowArrayMatrixD(m, n);
+        }
+        double s = v.doubleValue();
         for (int i = 0; i < m; i++) {
             for (int j = 0; j < n; j++) {
-                c.data[i][j] = a.data[i][j] - v.doubleValue();
+                c.data[i][j] = a.data[i][j] - s;
             }
         }
         return c;
@@ -282,10 +438,17 @@ public class RowArrayMatrixD extends MatrixD {
     @Override
     public RowArrayMatrixD multiplyScalar(Number v, boolean mutate) {
         RowArrayMatrixD a = this;
-        RowArrayMatrixD c = new RowArrayMatrixD(m, n);
+        RowArrayMatrixD c;
+        if (mutate) {
+            modified();
+            c = this;
+        } else {
+            c = new RowArrayMatrixD(m, n);
+        }
+        double s = v.doubleValue();
         for (int i = 0; i < m; i++) {
             for (int j = 0; j < n; j++) {
-                c.data[i][j] = a.data[i][j] * v.doubleValue();
+                c.data[i][j] = a.data[i][j] * s;
             }
         }
         return c;
@@ -302,10 +465,17 @@ public class RowArrayMatrixD extends MatrixD {
             throw new RuntimeException("Divide by Zero");
         }
         RowArrayMatrixD a = this;
-        RowArrayMatrixD c = new RowArrayMatrixD(m, n);
+        RowArrayMatrixD c;
+        if (mutate) {
+            modified();
+            c = this;
+        } else {
+            c = new RowArrayMatrixD(m, n);
+        }
+        double s = v.doubleValue();
         for (int i = 0; i < m; i++) {
             for (int j = 0; j < n; j++) {
-                c.data[i][j] = a.data[i][j] / v.doubleValue();
+                c.data[i][j] = a.data[i][j] / s;
             }
         }
         return c;
@@ -313,7 +483,10 @@ public class RowArrayMatrixD extends MatrixD {
 
     @Override
     public MatrixD invert() {
-        throw new UnsupportedOperationException("Not supported yet.");
+        if (m != n) {
+            throw new RuntimeException("Not a square matrix.");
+        }
+        return DecompositionCache.lu(this).inverse();
     }
 
     @Override
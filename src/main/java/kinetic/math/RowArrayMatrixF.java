@@ -83,6 +83,7 @@ public class RowArrayMatrixF extends MatrixF {
 
     @Override
     public final void setData(int i, int j, Number data) {
+        modified();
         if (data instanceof Float) {
             this.data[i][j] = (Float) data;
         } else {
@@ -92,6 +93,7 @@ public class RowArrayMatrixF extends MatrixF {
 
     @Override
     public final void setData(Number[][] data) {
+        modified();
         m = data.length;
         n = data[0].length;
         if (data instanceof Float[][]) {
@@ -128,7 +130,12 @@ public class RowArrayMatrixF extends MatrixF {
         }
         RowArrayMatrixF c;
         if (mutate) {
+            modified();
             c = this;
+            if (overlaps(b)) {
+                // Elements of B would be overwritten before they are read.
+                b = new DenseMatrixF(b, false);
+            }
         } else {
             c = new RowArrayMatrixF(m, n);
         }
@@ -153,7 +160,12 @@ public class RowArrayMatrixF extends MatrixF {
         }
         RowArrayMatrixF c;
         if (mutate) {
+            modified();
             c = this;
+            if (overlaps(b)) {
+                // Elements of B would be overwritten before they are read.
+                b = new DenseMatrixF(b, false);
+            }
         } else {
             c = new RowArrayMatrixF(m, n);
         }
@@ -190,6 +202,7 @@ public class RowArrayMatrixF extends MatrixF {
     @Override
     public RowArrayMatrixF transpose() {
         if (mutate) {
+            modified();
             /**
              * TODO: Transpose!
              */
@@ -0,0 +1,219 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+import java.util.Arrays;
+
+/**
+ * SparseMatrixBuilderD Implementation.
+ *
+ * Collects the elements of a sparse MatrixD as coordinate (COO) triplets
+ * (i, j, v) in any order and compresses them into a CompressedRowMatrixD or
+ * CompressedColumnMatrixD. Triplets for the same position are summed and
+ * positions that sum to zero are dropped.
+ *
+ * <pre>
+ *   SparseMatrixBuilderD builder = new SparseMatrixBuilderD(1000, 1000);
+ *   builder.add(0, 0, 4D).add(0, 1, -1D).add(1, 0, -1D);
+ *   CompressedRowMatrixD a = builder.toCompressedRow();
+ * </pre>
+ *
+ * Building is O(m + n + triplets) using two stable counting sorts.
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public final class SparseMatrixBuilderD {
+
+    final int m, n;
+    int size;
+    int[] rows;
+    int[] columns;
+    double[] values;
+
+    public SparseMatrixBuilderD(int m, int n) {
+        this(m, n, 16);
+    }
+
+    /**
+     * Constructor with an initial triplet capacity.
+     * @param m rows in the MatrixD.
+     * @param n columns in the MatrixD.
+     * @param capacity number of triplets to allocate room for.
+     */
+    public SparseMatrixBuilderD(int m, int n, int capacity) {
+        if (m < 0 || n < 0 || capacity < 0) {
+            throw new IllegalArgumentException("Dimensions and capacity must not be negative.");
+        }
+        this.m = m;
+        this.n = n;
+        rows = new int[capacity];
+        columns = new int[capacity];
+        values = new double[capacity];
+    }
+
+    public int getM() {
+        return m;
+    }
+
+    public int getN() {
+        return n;
+    }
+
+    /**
+     * Number of triplets added so far, including duplicates.
+     * @return triplet count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds v to element a[i,j].
+     * @param i row of the element.
+     * @param j column of the element.
+     * @param v value to add.
+     * @return this builder.
+     */
+    public SparseMatrixBuilderD add(int i, int j, double v) {
+        if (i < 0 || i >= m) {
+            throw new IndexOutOfBoundsException(String.format("i value of %s is not < then m of %s", i, m));
+        }
+        if (j < 0 || j >= n) {
+            throw new IndexOutOfBoundsException(String.format("j value of %s is not < then n of %s", j, n));
+        }
+        if (size == rows.length) {
+            int capacity = Math.max(16, size * 2);
+            rows = Arrays.copyOf(rows, capacity);
+            columns = Arrays.copyOf(columns, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        rows[size] = i;
+        columns[size] = j;
+        values[size] = v;
+        size++;
+        return this;
+    }
+
+    /**
+     * Removes every triplet so the builder can be reused.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public CompressedRowMatrixD toCompressedRow() {
+        return toCompressedRow(false);
+    }
+
+    /**
+     * Compresses the triplets into CSR form.
+     * @param mutable mutate flag of the result.
+     * @return CompressedRowMatrixD
+     */
+    public CompressedRowMatrixD toCompressedRow(boolean mutable) {
+        int[] pointers = new int[m + 1];
+        int[] indices = new int[size];
+        double[] data = new double[size];
+        int nnz = compress(m, n, rows, columns, pointers, indices, data);
+        return new CompressedRowMatrixD(m, n, pointers, Arrays.copyOf(indices, nnz), Arrays.copyOf(data, nnz), mutable);
+    }
+
+    public CompressedColumnMatrixD toCompressedColumn() {
+        return toCompressedColumn(false);
+    }
+
+    /**
+     * Compresses the triplets into CSC form.
+     * @param mutable mutate flag of the result.
+     * @return CompressedColumnMatrixD
+     */
+    public CompressedColumnMatrixD toCompressedColumn(boolean mutable) {
+        int[] pointers = new int[n + 1];
+        int[] indices = new int[size];
+        double[] data = new double[size];
+        int nnz = compress(n, m, columns, rows, pointers, indices, data);
+        return new CompressedColumnMatrixD(m, n, pointers, Arrays.copyOf(indices, nnz), Arrays.copyOf(data, nnz), mutable);
+    }
+
+    /**
+     * Sorts the triplets by inner then (stably) by outer index, and merges
+     * duplicates while writing the compressed slices.
+     * @return number of stored elements.
+     */
+    private int compress(int outer, int inner, int[] outerIndex, int[] innerIndex, int[] pointers, int[] indices, double[] data) {
+        int[] byInner = sort(inner, innerIndex, null);
+        int[] order = sort(outer, outerIndex, byInner);
+        int nnz = 0;
+        int o = 0;
+        for (int k = 0; k < size; k++) {
+            int t = order[k];
+            int slice = outerIndex[t];
+            while (o < slice) {
+                pointers[++o] = nnz;
+            }
+            if (nnz > pointers[o] && indices[nnz - 1] == innerIndex[t]) {
+                data[nnz - 1] += values[t];
+            } else {
+                indices[nnz] = innerIndex[t];
+                data[nnz] = values[t];
+                nnz++;
+            }
+        }
+        while (o < outer) {
+            pointers[++o] = nnz;
+        }
+        // Drop positions whose duplicates cancelled out.
+        int end = 0;
+        for (int s = 0; s < outer; s++) {
+            int start = pointers[s];
+            int stop = pointers[s + 1];
+            pointers[s] = end;
+            for (int k = start; k < stop; k++) {
+                if (data[k] != 0D) {
+                    indices[end] = indices[k];
+                    data[end] = data[k];
+                    end++;
+                }
+            }
+        }
+        pointers[outer] = end;
+        return end;
+    }
+
+    /**
+     * Stable counting sort of triplet numbers by key.
+     * @param range keys are in [0, range).
+     * @param key key of each triplet.
+     * @param input triplet order to sort, or null for 0..size-1.
+     * @return sorted triplet order.
+     */
+    private int[] sort(int range, int[] key, int[] input) {
+        int[] count = new int[range + 1];
+        for (int k = 0; k < size; k++) {
+            count[key[k] + 1]++;
+        }
+        for (int r = 0; r < range; r++) {
+            count[r + 1] += count[r];
+        }
+        int[] output = new int[size];
+        for (int k = 0; k < size; k++) {
+            int t = (input == null) ? k : input[k];
+            output[count[key[t]]++] = t;
+        }
+        return output;
+    }
+}
@@ -0,0 +1,301 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Strassen-Winograd recursive matrix multiply on primitive row major
+ * double storage, for very large dense products.
+ *
+ * Each level splits A, B and C into quadrants and forms the product with 7
+ * quadrant products and 15 quadrant additions instead of 8 products,
+ * reducing the work from O(n^3) to O(n^2.81). Recursion stops once a
+ * dimension is at or below the cutover, where the blocked MultiplyKernel is
+ * faster than the extra additions. Odd dimensions are handled by peeling
+ * the last row, column or inner index off and adding it with the kernel.
+ * The sequential schedule is the one of Boyer, Dumas, Pernet and Zhou,
+ * which needs two temporary quadrants per level.
+ *
+ * Accuracy: the error only satisfies a normwise bound,
+ * ||C - AB|| <= f(n) eps ||A|| ||B|| with f growing like n^log2(18) for the
+ * Winograd variant, instead of the componentwise bound of the classical
+ * product. Elements of C much smaller than ||A|| ||B|| therefore lose
+ * relative accuracy; use it for matrices whose entries are of similar
+ * magnitude, not for badly scaled ones.
+ *
+ * With a ForkJoinPool the 7 products of the top level are computed in
+ * parallel, each by a sequential recursion; this keeps 11 quadrant
+ * temporaries alive at once instead of 2.
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public final class StrassenKernel {
+
+    /**
+     * Dimension at or below which the blocked kernel is used. Measured on
+     * square products, the recursion starts paying for itself from about
+     * twice this size.
+     */
+    public static final int DEFAULT_CUTOVER = 256;
+
+    private StrassenKernel() {
+    }
+
+    /**
+     * Computes C = A * B where A is m by k, B is k by n and C is m by n.
+     * Unlike MultiplyKernel C is overwritten, not accumulated into, and
+     * must not share storage with A or B.
+     * @param m rows of A and C.
+     * @param k columns of A and rows of B.
+     * @param n columns of B and C.
+     * @param a storage of A.
+     * @param aOffset index of a[0,0].
+     * @param aStride row stride of A.
+     * @param b storage of B.
+     * @param bOffset index of b[0,0].
+     * @param bStride row stride of B.
+     * @param c storage of C.
+     * @param cOffset index of c[0,0].
+     * @param cStride row stride of C.
+     * @param cutover dimension at or below which the blocked kernel is used.
+     */
+    public static void multiply(int m, int k, int n,
+            double[] a, int aOffset, int aStride,
+            double[] b, int bOffset, int bStride,
+            double[] c, int cOffset, int cStride, int cutover) {
+        if (cutover < 1) {
+            throw new IllegalArgumentException("cutover must be > 0");
+        }
+        strassen(m, k, n, a, aOffset, aStride, b, bOffset, bStride, c, cOffset, cStride, cutover);
+    }
+
+    /**
+     * Computes C = A * B for a DenseMatrixD C of the right dimensions. C
+     * must not share storage with A or B.
+     * @param a MatrixD A.
+     * @param b MatrixD B.
+     * @param c MatrixD C.
+     * @param cutover dimension at or below which the blocked kernel is used.
+     * @param pool pool to compute the top level products on, or null.
+     */
+    static void multiply(DenseMatrixD a, DenseMatrixD b, DenseMatrixD c, int cutover, ForkJoinPool pool) {
+        c.modified();
+        if (pool == null || a.m <= cutover || a.n <= cutover || b.n <= cutover) {
+            multiply(a.m, a.n, b.n, a.data, a.offset, a.stride,
+                    b.data, b.offset, b.stride, c.data, c.offset, c.stride, cutover);
+        } else {
+            parallel(a.m, a.n, b.n, a.data, a.offset, a.stride,
+                    b.data, b.offset, b.stride, c.data, c.offset, c.stride, cutover, pool);
+        }
+    }
+
+    private static void strassen(int m, int k, int n,
+            double[] a, int ao, int as,
+            double[] b, int bo, int bs,
+            double[] c, int co, int cs, int cutover) {
+        if (m <= cutover || k <= cutover || n <= cutover) {
+            fill(m, n, c, co, cs);
+            MultiplyKernel.multiply(m, k, n, 1D, a, ao, as, b, bo, bs, c, co, cs);
+            return;
+        }
+        int m2 = m >> 1, k2 = k >> 1, n2 = n >> 1;
+        int a11 = ao, a12 = ao + k2, a21 = ao + m2 * as, a22 = a21 + k2;
+        int b11 = bo, b12 = bo + n2, b21 = bo + k2 * bs, b22 = b21 + n2;
+        int c11 = co, c12 = co + n2, c21 = co + m2 * cs, c22 = c21 + n2;
+        double[] x = new double[m2 * Math.max(k2, n2)];
+        double[] y = new double[k2 * n2];
+        // S3 = A11 - A21, T3 = B22 - B12, P7 = S3 T3 in C21.
+        subtract(m2, k2, a, a11, as, a, a21, as, x, 0, k2);
+        subtract(k2, n2, b, b22, bs, b, b12, bs, y, 0, n2);
+        strassen(m2, k2, n2, x, 0, k2, y, 0, n2, c, c21, cs, cutover);
+        // S1 = A21 + A22, T1 = B12 - B11, P5 = S1 T1 in C22.
+        add(m2, k2, a, a21, as, a, a22, as, x, 0, k2);
+        subtract(k2, n2, b, b12, bs, b, b11, bs, y, 0, n2);
+        strassen(m2, k2, n2, x, 0, k2, y, 0, n2, c, c22, cs, cutover);
+        // S2 = S1 - A11, T2 = B22 - T1, P6 = S2 T2 in C12.
+        subtract(m2, k2, x, 0, k2, a, a11, as, x, 0, k2);
+        subtract(k2, n2, b, b22, bs, y, 0, n2, y, 0, n2);
+        strassen(m2, k2, n2, x, 0, k2, y, 0, n2, c, c12, cs, cutover);
+        // S4 = A12 - S2, P3 = S4 B22 in C11.
+        subtract(m2, k2, a, a12, as, x, 0, k2, x, 0, k2);
+        strassen(m2, k2, n2, x, 0, k2, b, b22, bs, c, c11, cs, cutover);
+        // P1 = A11 B11 in X.
+        strassen(m2, k2, n2, a, a11, as, b, b11, bs, x, 0, n2, cutover);
+        // U2 = P1 + P6, U3 = U2 + P7, U4 = U2 + P5, U7 = U3 + P5, U5 = U4 + P3.
+        add(m2, n2, c, c12, cs, x, 0, n2, c, c12, cs);
+        add(m2, n2, c, c12, cs, c, c21, cs, c, c21, cs);
+        add(m2, n2, c, c12, cs, c, c22, cs, c, c12, cs);
+        add(m2, n2, c, c21, cs, c, c22, cs, c, c22, cs);
+        add(m2, n2, c, c12, cs, c, c11, cs, c, c12, cs);
+        // T4 = T2 - B21, P4 = A22 T4 in C11, U6 = U3 - P4.
+        subtract(k2, n2, y, 0, n2, b, b21, bs, y, 0, n2);
+        strassen(m2, k2, n2, a, a22, as, y, 0, n2, c, c11, cs, cutover);
+        subtract(m2, n2, c, c21, cs, c, c11, cs, c, c21, cs);
+        // P2 = A12 B21 in C11, U1 = P1 + P2.
+        strassen(m2, k2, n2, a, a12, as, b, b21, bs, c, c11, cs, cutover);
+        add(m2, n2, x, 0, n2, c, c11, cs, c, c11, cs);
+        peel(m, k, n, a, ao, as, b, bo, bs, c, co, cs);
+    }
+
+    /**
+     * Top level with the 7 products computed in parallel.
+     */
+    private static void parallel(int m, int k, int n,
+            double[] a, int ao, int as,
+            double[] b, int bo, int bs,
+            double[] c, int co, int cs, int cutover, ForkJoinPool pool) {
+        int m2 = m >> 1, k2 = k >> 1, n2 = n >> 1;
+        int a11 = ao, a12 = ao + k2, a21 = ao + m2 * as, a22 = a21 + k2;
+        int b11 = bo, b12 = bo + n2, b21 = bo + k2 * bs, b22 = b21 + n2;
+        int c11 = co, c12 = co + n2, c21 = co + m2 * cs, c22 = c21 + n2;
+        double[] s1 = new double[m2 * k2], s2 = new double[m2 * k2];
+        double[] s3 = new double[m2 * k2], s4 = new double[m2 * k2];
+        double[] t1 = new double[k2 * n2], t2 = new double[k2 * n2];
+        double[] t3 = new double[k2 * n2], t4 = new double[k2 * n2];
+        double[] p1 = new double[m2 * n2], p2 = new double[m2 * n2], p4 = new double[m2 * n2];
+        add(m2, k2, a, a21, as, a, a22, as, s1, 0, k2);
+        subtract(m2, k2, s1, 0, k2, a, a11, as, s2, 0, k2);
+        subtract(m2, k2, a, a11, as, a, a21, as, s3, 0, k2);
+        subtract(m2, k2, a, a12, as, s2, 0, k2, s4, 0, k2);
+        subtract(k2, n2, b, b12, bs, b, b11, bs, t1, 0, n2);
+        subtract(k2, n2, b, b22, bs, t1, 0, n2, t2, 0, n2);
+        subtract(k2, n2, b, b22, bs, b, b12, bs, t3, 0, n2);
+        subtract(k2, n2, t2, 0, n2, b, b21, bs, t4, 0, n2);
+        pool.invoke(new Products(new Product[]{
+                    new Product(m2, k2, n2, a, a11, as, b, b11, bs, p1, 0, n2, cutover),
+                    new Product(m2, k2, n2, a, a12, as, b, b21, bs, p2, 0, n2, cutover),
+                    new Product(m2, k2, n2, s4, 0, k2, b, b22, bs, c, c11, cs, cutover),
+                    new Product(m2, k2, n2, a, a22, as, t4, 0, n2, p4, 0, n2, cutover),
+                    new Product(m2, k2, n2, s1, 0, k2, t1, 0, n2, c, c22, cs, cutover),
+                    new Product(m2, k2, n2, s2, 0, k2, t2, 0, n2, c, c12, cs, cutover),
+                    new Product(m2, k2, n2, s3, 0, k2, t3, 0, n2, c, c21, cs, cutover)}));
+        // C11 = P3, C22 = P5, C12 = P6 and C21 = P7.
+        add(m2, n2, c, c12, cs, p1, 0, n2, c, c12, cs);
+        add(m2, n2, c, c12, cs, c, c21, cs, c, c21, cs);
+        add(m2, n2, c, c12, cs, c, c22, cs, c, c12, cs);
+        add(m2, n2, c, c21, cs, c, c22, cs, c, c22, cs);
+        add(m2, n2, c, c12, cs, c, c11, cs, c, c12, cs);
+        subtract(m2, n2, c, c21, cs, p4, 0, n2, c, c21, cs);
+        add(m2, n2, p1, 0, n2, p2, 0, n2, c, c11, cs);
+        peel(m, k, n, a, ao, as, b, bo, bs, c, co, cs);
+    }
+
+    /**
+     * Adds the contributions of the last row, column and inner index that
+     * an odd dimension leaves out of the even sized recursion.
+     */
+    private static void peel(int m, int k, int n,
+            double[] a, int ao, int as,
+            double[] b, int bo, int bs,
+            double[] c, int co, int cs) {
+        int me = m & ~1, ke = k & ~1, ne = n & ~1;
+        if (ke < k) {
+            MultiplyKernel.multiply(me, 1, ne, 1D, a, ao + ke, as, b, bo + ke * bs, bs, c, co, cs);
+        }
+        if (ne < n) {
+            fill(me, 1, c, co + ne, cs);
+            MultiplyKernel.multiply(me, k, 1, 1D, a, ao, as, b, bo + ne, bs, c, co + ne, cs);
+        }
+        if (me < m) {
+            fill(1, n, c, co + me * cs, cs);
+            MultiplyKernel.multiply(1, k, n, 1D, a, ao + me * as, as, b, bo, bs, c, co + me * cs, cs);
+        }
+    }
+
+    private static void fill(int m, int n, double[] c, int co, int cs) {
+        for (int i = 0; i < m; i++) {
+            int row = co + i * cs;
+            for (int j = 0; j < n; j++) {
+                c[row + j] = 0D;
+            }
+        }
+    }
+
+    private static void add(int m, int n,
+            double[] a, int ao, int as,
+            double[] b, int bo, int bs,
+            double[] c, int co, int cs) {
+        for (int i = 0; i < m; i++) {
+            int aRow = ao + i * as, bRow = bo + i * bs, cRow = co + i * cs;
+            for (int j = 0; j < n; j++) {
+                c[cRow + j] = a[aRow + j] + b[bRow + j];
+            }
+        }
+    }
+
+    private static void subtract(int m, int n,
+            double[] a, int ao, int as,
+            double[] b, int bo, int bs,
+            double[] c, int co, int cs) {
+        for (int i = 0; i < m; i++) {
+            int aRow = ao + i * as, bRow = bo + i * bs, cRow = co + i * cs;
+            for (int j = 0; j < n; j++) {
+                c[cRow + j] = a[aRow + j] - b[bRow + j];
+            }
+        }
+    }
+
+    private static final class Products extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        final Product[] products;
+
+        Products(Product[] products) {
+            this.products = products;
+        }
+
+        @Override
+        protected void compute() {
+            invokeAll(products);
+        }
+    }
+
+    private static final class Product extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        final int m, k, n, ao, as, bo, bs, co, cs, cutover;
+        final double[] a, b, c;
+
+        Product(int m, int k, int n,
+                double[] a, int ao, int as,
+                double[] b, int bo, int bs,
+                double[] c, int co, int cs, int cutover) {
+            this.m = m;
+            this.k = k;
+            this.n = n;
+            this.a = a;
+            this.ao = ao;
+            this.as = as;
+            this.b = b;
+            this.bo = bo;
+            this.bs = bs;
+            this.c = c;
+            this.co = co;
+            this.cs = cs;
+            this.cutover = cutover;
+        }
+
+        @Override
+        protected void compute() {
+            strassen(m, k, n, a, ao, as, b, bo, bs, c, co, cs, cutover);
+        }
+    }
+}
@@ -75,6 +75,66 @@ public abstract class Vector {
 
     public abstract Number magnitude();
 
+    /**
+     * Squared length of this Vector, without boxing for the primitive
+     * vector types.
+     * @return sum of the squared elements.
+     */
+    public double lengthSquared() {
+        double sum = 0D;
+        for (int i = 0; i < n; i++) {
+            double v = valueAt(this, i);
+            sum += v * v;
+        }
+        return sum;
+    }
+
+    /**
+     * Dot product with any Vector as a primitive double, without boxing for
+     * the primitive vector types.
+     * @param b Vector B of the same dimension.
+     * @return sum of a[i] * b[i].
+     */
+    public double dotD(Vector b) {
+        if (n != b.n) {
+            throw new RuntimeException("Vector dimensions are not equal.");
+        }
+        double sum = 0D;
+        for (int i = 0; i < n; i++) {
+            sum += valueAt(this, i) * valueAt(b, i);
+        }
+        return sum;
+    }
+
+    /**
+     * Copies the elements of this Vector into dest.
+     * @param dest array of at least n elements.
+     * @return dest
+     */
+    public double[] copyTo(double[] dest) {
+        if (dest.length < n) {
+            throw new IllegalArgumentException("Array is shorter than the Vector.");
+        }
+        for (int i = 0; i < n; i++) {
+            dest[i] = valueAt(this, i);
+        }
+        return dest;
+    }
+
+    /**
+     * Element i of any Vector read through the primitive accessor of
+     * VectorD and VectorF when it has one.
+     */
+    static double valueAt(Vector v, int i) {
+        if (v instanceof VectorD) {
+            return ((VectorD) v).get(i);
+        }
+        if (v instanceof VectorF) {
+            return ((VectorF) v).get(i);
+        }
+        return v.getData(i).doubleValue();
+    }
+
     public Number length() {
         return magnitude();
     }
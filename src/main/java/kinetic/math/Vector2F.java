@@ -129,6 +129,42 @@ public class Vector2F extends VectorF {
         }
     }
 
+    @Override
+    public final float get(int i) {
+        if (i == X) {
+            return x;
+        } else if (i == Y) {
+            return y;
+        } else {
+            throw new IllegalArgumentException("index i must be 0 <= i < 2");
+        }
+    }
+
+    @Override
+    public final void set(int i, float v) {
+        if (i == X) {
+            x = v;
+        } else if (i == Y) {
+            y = v;
+        } else {
+            throw new IllegalArgumentException("index i must be 0 <= i < 2");
+        }
+    }
+
+    @Override
+    public final double lengthSquared() {
+        return (double) x * x + (double) y * y;
+    }
+
+    @Override
+    public final double dotD(Vector b) {
+        if (b instanceof Vector2F) {
+            Vector2F v = (Vector2F) b;
+            return (double) x * v.x + (double) y * v.y;
+        }
+        return super.dotD(b);
+    }
+
     @Override
     public final void setData(Number[] data) {
         if (Array.getLength(data) != 2) {
@@ -151,42 +187,17 @@ public class Vector2F extends VectorF {
 
     @Override
     public final Vector2F negative() {
-        if (mutate) {
-            x *= -1;
-            y *= -1;
-            return this;
-        } else {
-            return new Vector2F(x * -1, y * -1);
-        }
+        return negative(mutate);
     }
 
     @Override
     public final Vector2F normalise() {
-        float m = magnitude();
-        if (m == 0) {
-            return Vector2F.zero();
-        }
-        if (mutate) {
-            x = x / m;
-            y = y / m;
-            return this;
-        } else {
-            return new Vector2F(x / m, y / m);
-        }
+        return normalise(mutate);
     }
 
     @Override
     public final Vector2F add(Vector b) {
-        if (n != b.n) {
-            throw new RuntimeException("Vector dimensions are not equal.");
-        }
-        if (mutate) {
-            x += b.getData(X).floatValue();
-            y += b.getData(Y).floatValue();
-            return this;
-        } else {
-            return new Vector2F(x + b.getData(X).floatValue(), y + b.getData(Y).floatValue());
-        }
+        return add(b, mutate);
     }
 
     public final Vector2F add(Vector2F b) {
@@ -205,16 +216,7 @@ public class Vector2F extends VectorF {
 
     @Override
     public final Vector2F subtract(Vector b) {
-        if (n != b.n) {
-            throw new RuntimeException("Vector dimensions are not equal.");
-        }
-        if (mutate) {
-            x -= b.getData(X).floatValue();
-            y -= b.getData(Y).floatValue();
-            return this;
-        } else {
-            return new Vector2F(x - b.getData(X).floatValue(), y - b.getData(Y).floatValue());
-        }
+        return subtract(b, mutate);
     }
 
     public final Vector2F subtract(Vector2F b) {
@@ -238,13 +240,7 @@ public class Vector2F extends VectorF {
 
     @Override
     public final Vector2F addScalar(Number v) {
-        if (mutate) {
-            x += v.floatValue();
-            y += v.floatValue();
-            return this;
-        } else {
-            return new Vector2F(x + v.floatValue(), y + v.floatValue());
-        }
+        return addScalar2F(v.floatValue());
     }
 
     public final Vector2F addScalar(float v) {
@@ -263,13 +259,7 @@ public class Vector2F extends VectorF {
 
     @Override
     public final Vector2F subtractScalar(Number v) {
-        if (mutate) {
-            x -= v.floatValue();
-            y -= v.floatValue();
-            return this;
-        } else {
-            return new Vector2F(x - v.floatValue(), y - v.floatValue());
-        }
+        return subtractScalar2F(v.floatValue());
     }
 
     public final Vector2F subtractScalar(float v) {
@@ -288,13 +278,7 @@ public class Vector2F extends VectorF {
 
     @Override
     public final Vector2F multiplyScalar(Number v) {
-        if (mutate) {
-            x *= v.floatValue();
-            y *= v.floatValue();
-            return this;
-        } else {
-            return new Vector2F(x * v.floatValue(), y * v.floatValue());
-        }
+        return multiplyScalar2F(v.floatValue());
     }
 
     public final Vector2F multiplyScalar(float v) {
@@ -313,16 +297,7 @@ public class Vector2F extends VectorF {
 
     @Override
     public final Vector2F divideScalar(Number v) {
-        if (v.intValue() == 0) {
-            throw new RuntimeException("Divide By Zero.");
-        }
-        if (mutate) {
-            x /= v.floatValue();
-            y /= v.floatValue();
-            return this;
-        } else {
-            return new Vector2F(x / v.floatValue(), y / v.floatValue());
-        }
+        return divideScalar(v, mutate);
     }
 
     public final Vector2F divideScalar(float v) {
@@ -342,47 +317,194 @@ public class Vector2F extends VectorF {
         }
     }
 
+    /**
+     * @return new zero Vector2F, which unlike ZERO is free to modify.
+     */
     public static Vector2F zero() {
-        return ZERO;
+        return new Vector2F();
     }
 
     @Override
-    public Vector negative(boolean mutate) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public final Vector2F negative(boolean mutate) {
+        if (mutate) {
+            x = -x;
+            y = -y;
+            return this;
+        }
+        return new Vector2F(-x, -y);
     }
 
+    /**
+     * Normalises this instance. A zero length vector stays zero.
+     * @param mutate flag to specify mutation.
+     * @return Vector2F unit vector.
+     */
     @Override
-    public Vector normalise(boolean mutate) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public final Vector2F normalise(boolean mutate) {
+        float m = magnitude();
+        if (m == 0) {
+            return mutate ? this : new Vector2F();
+        }
+        if (mutate) {
+            x /= m;
+            y /= m;
+            return this;
+        }
+        return new Vector2F(x / m, y / m);
     }
 
     @Override
-    public Vector add(Vector b, boolean mutate) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public final Vector2F add(Vector b, boolean mutate) {
+        if (b instanceof Vector2F) {
+            Vector2F v = (Vector2F) b;
+            return mutate ? addLocal(v) : new Vector2F(x + v.x, y + v.y);
+        }
+        if (n != b.n) {
+            throw new RuntimeException("Vector dimensions are not equal.");
+        }
+        float bx = b.getData(X).floatValue();
+        float by = b.getData(Y).floatValue();
+        if (mutate) {
+            x += bx;
+            y += by;
+            return this;
+        }
+        return new Vector2F(x + bx, y + by);
     }
 
     @Override
-    public Vector subtract(Vector b, boolean mutate) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public final Vector2F subtract(Vector b, boolean mutate) {
+        if (b instanceof Vector2F) {
+            Vector2F v = (Vector2F) b;
+            return mutate ? subtractLocal(v) : new Vector2F(x - v.x, y - v.y);
+        }
+        if (n != b.n) {
+            throw new RuntimeException("Vector dimensions are not equal.");
+        }
+        float bx = b.getData(X).floatValue();
+        float by = b.getData(Y).floatValue();
+        if (mutate) {
+            x -= bx;
+            y -= by;
+            return this;
+        }
+        return new Vector2F(x - bx, y - by);
     }
 
     @Override
-    public Vector addScalar(Number v, boolean mutate) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public final Vector2F addScalar(Number v, boolean mutate) {
+        float f = v.floatValue();
+        if (mutate) {
+            x += f;
+            y += f;
+            return this;
+        }
+        return new Vector2F(x + f, y + f);
     }
 
     @Override
-    public Vector subtractScalar(Number v, boolean mutate) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public final Vector2F subtractScalar(Number v, boolean mutate) {
+        float f = v.floatValue();
+        if (mutate) {
+            x -= f;
+            y -= f;
+            return this;
+        }
+        return new Vector2F(x - f, y - f);
     }
 
     @Override
-    public Vector multiplyScalar(Number v, boolean mutate) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public final Vector2F multiplyScalar(Number v, boolean mutate) {
+        float f = v.floatValue();
+        if (mutate) {
+            return scaleLocal(f);
+        }
+        return new Vector2F(x * f, y * f);
     }
 
     @Override
-    public Vector divideScalar(Number v, boolean mutate) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public final Vector2F divideScalar(Number v, boolean mutate) {
+        if (v.floatValue() == 0F) {
+            throw new RuntimeException("Divide By Zero.");
+        }
+        float f = v.floatValue();
+        if (mutate) {
+            x /= f;
+            y /= f;
+            return this;
+        }
+        return new Vector2F(x / f, y / f);
+    }
+
+    /**
+     * Adds b to this instance in place, whatever the mutate flag.
+     * @param b Vector2F B.
+     * @return this
+     */
+    public final Vector2F addLocal(Vector2F b) {
+        x += b.x;
+        y += b.y;
+        return this;
+    }
+
+    /**
+     * Subtracts b from this instance in place, whatever the mutate flag.
+     * @param b Vector2F B.
+     * @return this
+     */
+    public final Vector2F subtractLocal(Vector2F b) {
+        x -= b.x;
+        y -= b.y;
+        return this;
+    }
+
+    /**
+     * Multiplies this instance by v in place, whatever the mutate flag.
+     * @param v scalar value.
+     * @return this
+     */
+    public final Vector2F scaleLocal(float v) {
+        x *= v;
+        y *= v;
+        return this;
+    }
+
+    /**
+     * Adds v * b to this instance in place, the usual integration step
+     * position += dt * velocity.
+     * @param v scalar value.
+     * @param b Vector2F B.
+     * @return this
+     */
+    public final Vector2F scaleAdd(float v, Vector2F b) {
+        x += v * b.x;
+        y += v * b.y;
+        return this;
+    }
+
+    /**
+     * Moves this instance in place a fraction t of the way towards b,
+     * this + t * (b - this).
+     * @param b Vector2F B.
+     * @param t interpolation parameter, 0 leaves this unchanged and 1 gives b.
+     * @return this
+     */
+    public final Vector2F lerpLocal(Vector2F b, float t) {
+        x += t * (b.x - x);
+        y += t * (b.y - y);
+        return this;
+    }
+
+    /**
+     * Normalises this instance in place. A zero length vector stays zero.
+     * @return this
+     */
+    public final Vector2F normaliseLocal() {
+        float m = magnitude();
+        if (m != 0) {
+            x /= m;
+            y /= m;
+        }
+        return this;
     }
 }
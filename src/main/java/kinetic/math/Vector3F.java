@@ -149,6 +149,46 @@ public final class Vector3F extends VectorF {
         }
     }
 
+    @Override
+    public final float get(int i) {
+        if (i == X) {
+            return x;
+        } else if (i == Y) {
+            return y;
+        } else if (i == Z) {
+            return z;
+        } else {
+            throw new IllegalArgumentException("index i must be 0 <= i < 3");
+        }
+    }
+
+    @Override
+    public final void set(int i, float v) {
+        if (i == X) {
+            x = v;
+        } else if (i == Y) {
+            y = v;
+        } else if (i == Z) {
+            z = v;
+        } else {
+            throw new IllegalArgumentException("index i must be 0 <= i < 3");
+        }
+    }
+
+    @Override
+    public final double lengthSquared() {
+        return (double) x * x + (double) y * y + (double) z * z;
+    }
+
+    @Override
+    public final double dotD(Vector b) {
+        if (b instanceof Vector3F) {
+            Vector3F v = (Vector3F) b;
+            return (double) x * v.x + (double) y * v.y + (double) z * v.z;
+        }
+        return super.dotD(b);
+    }
+
     @Override
     public final void setData(Number[] data) {
         if (Array.getLength(data) != 3) {
@@ -174,45 +214,17 @@ public final class Vector3F extends VectorF {
 
     @Override
     public final Vector3F negative() {
-        if (mutate) {
-            x *= -1;
-            y *= -1;
-            z *= -1;
-            return this;
-        } else {
-            return new Vector3F(x * -1, y * -1, z * -1);
-        }
+        return negative(mutate);
     }
 
     @Override
     public final Vector3F normalise() {
-        float m = magnitude();
-        if (m == 0) {
-            return Vector3F.zero();
-        }
-        if (mutate) {
-            x = x / m;
-            y = y / m;
-            z = z / m;
-            return this;
-        } else {
-            return new Vector3F(x / m, y / m, z / m);
-        }
+        return normalise(mutate);
     }
 
     @Override
     public final Vector3F add(Vector b) {
-        if (n != b.n) {
-            throw new RuntimeException("Vector dimensions are not equal.");
-        }
-        if (mutate) {
-            x += b.getData(X).floatValue();
-            y += b.getData(Y).floatValue();
-            z += b.getData(Z).floatValue();
-            return this;
-        } else {
-            return new Vector3F(x + b.getData(X).floatValue(), y + b.getData(Y).floatValue(), z + b.getData(Z).floatValue());
-        }
+        return add(b, mutate);
     }
 
     public final Vector3F add(Vector3F b) {
@@ -223,7 +235,7 @@ public final class Vector3F extends VectorF {
         if (mutate) {
             x += b.x;
             y += b.y;
-            z += b.y;
+            z += b.z;
             return this;
         } else {
             return new Vector3F(x + b.x, y + b.y, z + b.z);
@@ -232,17 +244,7 @@ public final class Vector3F extends VectorF {
 
     @Override
     public final Vector3F subtract(Vector b) {
-        if (n != b.n) {
-            throw new RuntimeException("Vector dimensions are not equal.");
-        }
-        if (mutate) {
-            x -= b.getData(X).floatValue();
-            y -= b.getData(Y).floatValue();
-            z -= b.getData(Z).floatValue();
-            return this;
-        } else {
-            return new Vector3F(x - b.getData(X).floatValue(), y - b.getData(Y).floatValue(), z - b.getData(Z).floatValue());
-        }
+        return subtract(b, mutate);
     }
 
     public final Vector3F subtract(Vector3F b) {
@@ -253,7 +255,7 @@ public final class Vector3F extends VectorF {
         if (mutate) {
             x -= b.x;
             y -= b.y;
-            z -= b.y;
+            z -= b.z;
             return this;
         } else {
             return new Vector3F(x - b.x, y - b.y, z - b.z);
@@ -300,14 +302,7 @@ public final class Vector3F extends VectorF {
 
     @Override
     public final Vector3F addScalar(Number v) {
-        if (mutate) {
-            x += v.floatValue();
-            y += v.floatValue();
-            z += v.floatValue();
-            return this;
-        } else {
-            return new Vector3F(x + v.floatValue(), y + v.floatValue(), z + v.floatValue());
-        }
+        return addScalar3F(v.floatValue());
     }
 
     public final Vector3F addScalar(float v) {
@@ -327,14 +322,7 @@ public final class Vector3F extends VectorF {
 
     @Override
     public final Vector3F subtractScalar(Number v) {
-        if (mutate) {
-            x -= v.floatValue();
-            y -= v.floatValue();
-            z -= v.floatValue();
-            return this;
-        } else {
-            return new Vector3F(x - v.floatValue(), y - v.floatValue(), z - v.floatValue());
-        }
+        return subtractScalar3F(v.floatValue());
     }
 
     public final Vector3F subtractScalar(float v) {
@@ -354,14 +342,7 @@ public final class Vector3F extends VectorF {
 
     @Override
     public final Vector3F multiplyScalar(Number v) {
-        if (mutate) {
-            x *= v.floatValue();
-            y *= v.floatValue();
-            z *= v.floatValue();
-            return this;
-        } else {
-            return new Vector3F(x * v.floatValue(), y * v.floatValue(), z * v.floatValue());
-        }
+        return multiplyScalar3F(v.floatValue());
     }
 
     public final Vector3F multiplyScalar(float v) {
@@ -381,17 +362,7 @@ public final class Vector3F extends VectorF {
 
     @Override
     public final Vector3F divideScalar(Number v) {
-        if (v.intValue() == 0) {
-            throw new RuntimeException("Divide By Zero.");
-        }
-        if (mutate) {
-            x /= v.floatValue();
-            y /= v.floatValue();
-            z /= v.floatValue();
-            return this;
-        } else {
-            return new Vector3F(x / v.floatValue(), y / v.floatValue(), z / v.floatValue());
-        }
+        return divideScalar(v, mutate);
     }
 
     public final Vector3F divideScalar(float v) {
@@ -412,47 +383,303 @@ public final class Vector3F extends VectorF {
         }
     }
 
+    /**
+     * Adds b to this instance writing the result into dest. dest may be this
+     * instance or b.
+     * @param b Vector3F B.
+     * @param dest Vector3F to write to.
+     * @return dest
+     */
+    public final Vector3F addInto(Vector3F b, Vector3F dest) {
+        dest.x = x + b.x;
+        dest.y = y + b.y;
+        dest.z = z + b.z;
+        return dest;
+    }
+
+    /**
+     * Subtracts b from this instance writing the result into dest. dest may
+     * be this instance or b.
+     * @param b Vector3F B.
+     * @param dest Vector3F to write to.
+     * @return dest
+     */
+    public final Vector3F subtractInto(Vector3F b, Vector3F dest) {
+        dest.x = x - b.x;
+        dest.y = y - b.y;
+        dest.z = z - b.z;
+        return dest;
+    }
+
+    /**
+     * Cross product of this instance and b written into dest. dest may be
+     * this instance or b.
+     * @param b Vector3F B.
+     * @param dest Vector3F to write to.
+     * @return dest
+     */
+    public final Vector3F crossInto(Vector3F b, Vector3F dest) {
+        float xCross, yCross, zCross;
+        xCross = y * b.z - z * b.y;
+        yCross = z * b.x - x * b.z;
+        zCross = x * b.y - y * b.x;
+        dest.x = xCross;
+        dest.y = yCross;
+        dest.z = zCross;
+        return dest;
+    }
+
+    /**
+     * Multiplies this instance by v writing the result into dest.
+     * @param v scalar value.
+     * @param dest Vector3F to write to.
+     * @return dest
+     */
+    public final Vector3F scaleInto(float v, Vector3F dest) {
+        dest.x = x * v;
+        dest.y = y * v;
+        dest.z = z * v;
+        return dest;
+    }
+
+    /**
+     * Normalises this instance writing the result into dest. A zero length
+     * vector writes zero.
+     * @param dest Vector3F to write to.
+     * @return dest
+     */
+    public final Vector3F normaliseInto(Vector3F dest) {
+        float m = magnitude();
+        if (m == 0) {
+            dest.x = 0F;
+            dest.y = 0F;
+            dest.z = 0F;
+        } else {
+            dest.x = x / m;
+            dest.y = y / m;
+            dest.z = z / m;
+        }
+        return dest;
+    }
+
+    /**
+     * @return new zero Vector3F, which unlike ZERO is free to modify.
+     */
     public static Vector3F zero() {
-        return ZERO;
+        return new Vector3F();
     }
 
     @Override
-    public Vector negative(boolean mutate) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public final Vector3F negative(boolean mutate) {
+        if (mutate) {
+            x = -x;
+            y = -y;
+            z = -z;
+            return this;
+        }
+        return new Vector3F(-x, -y, -z);
     }
 
+    /**
+     * Normalises this instance. A zero length vector stays zero.
+     * @param mutate flag to specify mutation.
+     * @return Vector3F unit vector.
+     */
     @Override
-    public Vector normalise(boolean mutate) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public final Vector3F normalise(boolean mutate) {
+        float m = magnitude();
+        if (m == 0) {
+            return mutate ? this : new Vector3F();
+        }
+        if (mutate) {
+            x /= m;
+            y /= m;
+            z /= m;
+            return this;
+        }
+        return new Vector3F(x / m, y / m, z / m);
     }
 
     @Override
-    public Vector add(Vector b, boolean mutate) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public final Vector3F add(Vector b, boolean mutate) {
+        if (b instanceof Vector3F) {
+            Vector3F v = (Vector3F) b;
+            return mutate ? addLocal(v) : new Vector3F(x + v.x, y + v.y, z + v.z);
+        }
+        if (n != b.n) {
+            throw new RuntimeException("Vector dimensions are not equal.");
+        }
+        float bx = b.getData(X).floatValue();
+        float by = b.getData(Y).floatValue();
+        float bz = b.getData(Z).floatValue();
+        if (mutate) {
+            x += bx;
+            y += by;
+            z += bz;
+            return this;
+        }
+        return new Vector3F(x + bx, y + by, z + bz);
     }
 
     @Override
-    public Vector subtract(Vector b, boolean mutate) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public final Vector3F subtract(Vector b, boolean mutate) {
+        if (b instanceof Vector3F) {
+            Vector3F v = (Vector3F) b;
+            return mutate ? subtractLocal(v) : new Vector3F(x - v.x, y - v.y, z - v.z);
+        }
+        if (n != b.n) {
+            throw new RuntimeException("Vector dimensions are not equal.");
+        }
+        float bx = b.getData(X).floatValue();
+        float by = b.getData(Y).floatValue();
+        float bz = b.getData(Z).floatValue();
+        if (mutate) {
+            x -= bx;
+            y -= by;
+            z -= bz;
+            return this;
+        }
+        return new Vector3F(x - bx, y - by, z - bz);
     }
 
     @Override
-    public Vector addScalar(Number v, boolean mutate) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public final Vector3F addScalar(Number v, boolean mutate) {
+        float f = v.floatValue();
+        if (mutate) {
+            x += f;
+            y += f;
+            z += f;
+            return this;
+        }
+        return new Vector3F(x + f, y + f, z + f);
     }
 
     @Override
-    public Vector subtractScalar(Number v, boolean mutate) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public final Vector3F subtractScalar(Number v, boolean mutate) {
+        float f = v.floatValue();
+        if (mutate) {
+            x -= f;
+            y -= f;
+            z -= f;
+            return this;
+        }
+        return new Vector3F(x - f, y - f, z - f);
     }
 
     @Override
-    public Vector multiplyScalar(Number v, boolean mutate) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public final Vector3F multiplyScalar(Number v, boolean mutate) {
+        float f = v.floatValue();
+        if (mutate) {
+            return scaleLocal(f);
+        }
+        return new Vector3F(x * f, y * f, z * f);
     }
 
     @Override
-    public Vector divideScalar(Number v, boolean mutate) {
-        throw new UnsupportedOperationException("Not supported yet.");
+    public final Vector3F divideScalar(Number v, boolean mutate) {
+        if (v.floatValue() == 0F) {
+            throw new RuntimeException("Divide By Zero.");
+        }
+        float f = v.floatValue();
+        if (mutate) {
+            x /= f;
+            y /= f;
+            z /= f;
+            return this;
+        }
+        return new Vector3F(x / f, y / f, z / f);
+    }
+
+    /**
+     * Adds b to this instance in place, whatever the mutate flag.
+     * @param b Vector3F B.
+     * @return this
+     */
+    public final Vector3F addLocal(Vector3F b) {
+        x += b.x;
+        y += b.y;
+        z += b.z;
+        return this;
+    }
+
+    /**
+     * Subtracts b from this instance in place, whatever the mutate flag.
+     * @param b Vector3F B.
+     * @return this
+     */
+    public final Vector3F subtractLocal(Vector3F b) {
+        x -= b.x;
+        y -= b.y;
+        z -= b.z;
+        return this;
+    }
+
+    /**
+     * Multiplies this instance by v in place, whatever the mutate flag.
+     * @param v scalar value.
+     * @return this
+     */
+    public final Vector3F scaleLocal(float v) {
+        x *= v;
+        y *= v;
+        z *= v;
+        return this;
+    }
+
+    /**
+     * Adds v * b to this instance in place, the usual integration step
+     * position += dt * velocity.
+     * @param v scalar value.
+     * @param b Vector3F B.
+     * @return this
+     */
+    public final Vector3F scaleAdd(float v, Vector3F b) {
+        x += v * b.x;
+        y += v * b.y;
+        z += v * b.z;
+        return this;
+    }
+
+    /**
+     * Moves this instance in place a fraction t of the way towards b,
+     * this + t * (b - this).
+     * @param b Vector3F B.
+     * @param t interpolation parameter, 0 leaves this unchanged and 1 gives b.
+     * @return this
+     */
+    public final Vector3F lerpLocal(Vector3F b, float t) {
+        x += t * (b.x - x);
+        y += t * (b.y - y);
+        z += t * (b.z - z);
+        return this;
+    }
+
+    /**
+     * Normalises this instance in place. A zero length vector stays zero.
+     * @return this
+     */
+    public final Vector3F normaliseLocal() {
+        float m = magnitude();
+        if (m != 0) {
+            x /= m;
+            y /= m;
+            z /= m;
+        }
+        return this;
+    }
+
+    /**
+     * Replaces this instance in place by the cross product of this and b.
+     * @param b Vector3F B.
+     * @return this
+     */
+    public final Vector3F crossLocal(Vector3F b) {
+        float xCross = y * b.z - z * b.y;
+        float yCross = z * b.x - x * b.z;
+        float zCross = x * b.y - y * b.x;
+        x = xCross;
+        y = yCross;
+        z = zCross;
+        return this;
     }
 }
@@ -0,0 +1,381 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+/**
+ * Fixed length array of 3 dimensional float vectors stored as a structure
+ * of arrays, one float[] each for the x, y and z components.
+ *
+ * Bulk operations work over a range of indices of whole buffers without
+ * creating any objects, and each is a single loop over the index with unit
+ * stride accesses so that the JIT compiler can vectorise it. The result
+ * is written to a destination buffer, which may be this buffer or the
+ * other operand to work in place.
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public final class Vector3FBuffer {
+
+    final float[] xs, ys, zs;
+    final int length;
+
+    /**
+     * Creates a buffer of zero vectors.
+     * @param length number of vectors.
+     */
+    public Vector3FBuffer(int length) {
+        this(new float[length], new float[length], new float[length]);
+    }
+
+    /**
+     * Creates a buffer over existing component arrays without copying them.
+     * @param xs x components.
+     * @param ys y components.
+     * @param zs z components.
+     */
+    public Vector3FBuffer(float[] xs, float[] ys, float[] zs) {
+        if (xs.length != ys.length || xs.length != zs.length) {
+            throw new IllegalArgumentException("Component arrays must have the same length.");
+        }
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+        this.length = xs.length;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Backing array of the x components, shared with this buffer.
+     * @return x components.
+     */
+    public float[] getXs() {
+        return xs;
+    }
+
+    /**
+     * Backing array of the y components, shared with this buffer.
+     * @return y components.
+     */
+    public float[] getYs() {
+        return ys;
+    }
+
+    /**
+     * Backing array of the z components, shared with this buffer.
+     * @return z components.
+     */
+    public float[] getZs() {
+        return zs;
+    }
+
+    /**
+     * Copies vector i into dest.
+     * @param i index of the vector.
+     * @param dest Vector3F to write to.
+     * @return dest
+     */
+    public Vector3F get(int i, Vector3F dest) {
+        dest.x = xs[i];
+        dest.y = ys[i];
+        dest.z = zs[i];
+        return dest;
+    }
+
+    public void set(int i, Vector3F v) {
+        xs[i] = v.x;
+        ys[i] = v.y;
+        zs[i] = v.z;
+    }
+
+    public void set(int i, float x, float y, float z) {
+        xs[i] = x;
+        ys[i] = y;
+        zs[i] = z;
+    }
+
+    /**
+     * dest[i] = this[i] + b[i] for every vector.
+     * @param b Vector3FBuffer B.
+     * @param dest Vector3FBuffer to write to.
+     * @return dest
+     */
+    public Vector3FBuffer add(Vector3FBuffer b, Vector3FBuffer dest) {
+        return add(b, dest, 0, length);
+    }
+
+    /**
+     * dest[i] = this[i] + b[i] for from <= i < to.
+     * @param b Vector3FBuffer B.
+     * @param dest Vector3FBuffer to write to.
+     * @param from first index.
+     * @param to index after the last.
+     * @return dest
+     */
+    public Vector3FBuffer add(Vector3FBuffer b, Vector3FBuffer dest, int from, int to) {
+        check(from, to, b, dest);
+        float[] ax = xs, ay = ys, az = zs, bx = b.xs, by = b.ys, bz = b.zs;
+        float[] cx = dest.xs, cy = dest.ys, cz = dest.zs;
+        for (int i = from; i < to; i++) {
+            cx[i] = ax[i] + bx[i];
+        }
+        for (int i = from; i < to; i++) {
+            cy[i] = ay[i] + by[i];
+        }
+        for (int i = from; i < to; i++) {
+            cz[i] = az[i] + bz[i];
+        }
+        return dest;
+    }
+
+    /**
+     * dest[i] = this[i] + v for every vector.
+     * @param v Vector3F to add.
+     * @param dest Vector3FBuffer to write to.
+     * @return dest
+     */
+    public Vector3FBuffer add(Vector3F v, Vector3FBuffer dest) {
+        return add(v, dest, 0, length);
+    }
+
+    /**
+     * dest[i] = this[i] + v for from <= i < to.
+     * @param v Vector3F to add.
+     * @param dest Vector3FBuffer to write to.
+     * @param from first index.
+     * @param to index after the last.
+     * @return dest
+     */
+    public Vector3FBuffer add(Vector3F v, Vector3FBuffer dest, int from, int to) {
+        check(from, to, this, dest);
+        float x = v.x, y = v.y, z = v.z;
+        float[] ax = xs, ay = ys, az = zs, cx = dest.xs, cy = dest.ys, cz = dest.zs;
+        for (int i = from; i < to; i++) {
+            cx[i] = ax[i] + x;
+        }
+        for (int i = from; i < to; i++) {
+            cy[i] = ay[i] + y;
+        }
+        for (int i = from; i < to; i++) {
+            cz[i] = az[i] + z;
+        }
+        return dest;
+    }
+
+    /**
+     * dest[i] = this[i] - b[i] for every vector.
+     * @param b Vector3FBuffer B.
+     * @param dest Vector3FBuffer to write to.
+     * @return dest
+     */
+    public Vector3FBuffer subtract(Vector3FBuffer b, Vector3FBuffer dest) {
+        return subtract(b, dest, 0, length);
+    }
+
+    /**
+     * dest[i] = this[i] - b[i] for from <= i < to.
+     * @param b Vector3FBuffer B.
+     * @param dest Vector3FBuffer to write to.
+     * @param from first index.
+     * @param to index after the last.
+     * @return dest
+     */
+    public Vector3FBuffer subtract(Vector3FBuffer b, Vector3FBuffer dest, int from, int to) {
+        check(from, to, b, dest);
+        float[] ax = xs, ay = ys, az = zs, bx = b.xs, by = b.ys, bz = b.zs;
+        float[] cx = dest.xs, cy = dest.ys, cz = dest.zs;
+        for (int i = from; i < to; i++) {
+            cx[i] = ax[i] - bx[i];
+        }
+        for (int i = from; i < to; i++) {
+            cy[i] = ay[i] - by[i];
+        }
+        for (int i = from; i < to; i++) {
+            cz[i] = az[i] - bz[i];
+        }
+        return dest;
+    }
+
+    /**
+     * dest[i] = this[i] * v for every vector.
+     * @param v scalar value.
+     * @param dest Vector3FBuffer to write to.
+     * @return dest
+     */
+    public Vector3FBuffer scale(float v, Vector3FBuffer dest) {
+        return scale(v, dest, 0, length);
+    }
+
+    /**
+     * dest[i] = this[i] * v for from <= i < to.
+     * @param v scalar value.
+     * @param dest Vector3FBuffer to write to.
+     * @param from first index.
+     * @param to index after the last.
+     * @return dest
+     */
+    public Vector3FBuffer scale(float v, Vector3FBuffer dest, int from, int to) {
+        check(from, to, this, dest);
+        float[] ax = xs, ay = ys, az = zs, cx = dest.xs, cy = dest.ys, cz = dest.zs;
+        for (int i = from; i < to; i++) {
+            cx[i] = ax[i] * v;
+        }
+        for (int i = from; i < to; i++) {
+            cy[i] = ay[i] * v;
+        }
+        for (int i = from; i < to; i++) {
+            cz[i] = az[i] * v;
+        }
+        return dest;
+    }
+
+    /**
+     * dest[i] = this[i] . b[i] for every vector.
+     * @param b Vector3FBuffer B.
+     * @param dest array of at least length() dot products.
+     * @return dest
+     */
+    public float[] dot(Vector3FBuffer b, float[] dest) {
+        return dot(b, dest, 0, length);
+    }
+
+    /**
+     * dest[i] = this[i] . b[i] for from <= i < to.
+     * @param b Vector3FBuffer B.
+     * @param dest array of dot products.
+     * @param from first index.
+     * @param to index after the last.
+     * @return dest
+     */
+    public float[] dot(Vector3FBuffer b, float[] dest, int from, int to) {
+        check(from, to, b, this);
+        check(to, dest.length);
+        float[] ax = xs, ay = ys, az = zs, bx = b.xs, by = b.ys, bz = b.zs;
+        for (int i = from; i < to; i++) {
+            dest[i] = ax[i] * bx[i] + ay[i] * by[i] + az[i] * bz[i];
+        }
+        return dest;
+    }
+
+    /**
+     * dest[i] = this[i] x b[i] for every vector.
+     * @param b Vector3FBuffer B.
+     * @param dest Vector3FBuffer to write to.
+     * @return dest
+     */
+    public Vector3FBuffer cross(Vector3FBuffer b, Vector3FBuffer dest) {
+        return cross(b, dest, 0, length);
+    }
+
+    /**
+     * dest[i] = this[i] x b[i] for from <= i < to.
+     * @param b Vector3FBuffer B.
+     * @param dest Vector3FBuffer to write to.
+     * @param from first index.
+     * @param to index after the last.
+     * @return dest
+     */
+    public Vector3FBuffer cross(Vector3FBuffer b, Vector3FBuffer dest, int from, int to) {
+        check(from, to, b, dest);
+        float[] ax = xs, ay = ys, az = zs, bx = b.xs, by = b.ys, bz = b.zs;
+        float[] cx = dest.xs, cy = dest.ys, cz = dest.zs;
+        for (int i = from; i < to; i++) {
+            float x = ay[i] * bz[i] - az[i] * by[i];
+            float y = az[i] * bx[i] - ax[i] * bz[i];
+            float z = ax[i] * by[i] - ay[i] * bx[i];
+            cx[i] = x;
+            cy[i] = y;
+            cz[i] = z;
+        }
+        return dest;
+    }
+
+    /**
+     * dest[i] = |this[i]| for every vector.
+     * @param dest array of at least length() lengths.
+     * @return dest
+     */
+    public float[] lengths(float[] dest) {
+        return lengths(dest, 0, length);
+    }
+
+    /**
+     * dest[i] = |this[i]| for from <= i < to.
+     * @param dest array of lengths.
+     * @param from first index.
+     * @param to index after the last.
+     * @return dest
+     */
+    public float[] lengths(float[] dest, int from, int to) {
+        check(from, to, this, this);
+        check(to, dest.length);
+        float[] ax = xs, ay = ys, az = zs;
+        for (int i = from; i < to; i++) {
+            dest[i] = (float) Math.sqrt(ax[i] * ax[i] + ay[i] * ay[i] + az[i] * az[i]);
+        }
+        return dest;
+    }
+
+    /**
+     * dest[i] = this[i] / |this[i]| for every vector. Zero length vectors
+     * are written as zero.
+     * @param dest Vector3FBuffer to write to.
+     * @return dest
+     */
+    public Vector3FBuffer normalise(Vector3FBuffer dest) {
+        return normalise(dest, 0, length);
+    }
+
+    /**
+     * dest[i] = this[i] / |this[i]| for from <= i < to. Zero length vectors
+     * are written as zero.
+     * @param dest Vector3FBuffer to write to.
+     * @param from first index.
+     * @param to index after the last.
+     * @return dest
+     */
+    public Vector3FBuffer normalise(Vector3FBuffer dest, int from, int to) {
+        check(from, to, this, dest);
+        float[] ax = xs, ay = ys, az = zs, cx = dest.xs, cy = dest.ys, cz = dest.zs;
+        for (int i = from; i < to; i++) {
+            float x = ax[i], y = ay[i], z = az[i];
+            float m = (float) Math.sqrt(x * x + y * y + z * z);
+            float f = (m == 0F) ? 0F : 1F / m;
+            cx[i] = x * f;
+            cy[i] = y * f;
+            cz[i] = z * f;
+        }
+        return dest;
+    }
+
+    private void check(int from, int to, Vector3FBuffer b, Vector3FBuffer dest) {
+        if (from < 0 || from > to) {
+            throw new IllegalArgumentException("Range must be 0 <= from <= to.");
+        }
+        check(to, length);
+        check(to, b.length);
+        check(to, dest.length);
+    }
+
+    private static void check(int to, int length) {
+        if (to > length) {
+            throw new IllegalArgumentException("Range exceeds the buffer length.");
+        }
+    }
+}
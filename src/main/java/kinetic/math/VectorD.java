@@ -57,13 +57,28 @@ public abstract class VectorD extends Vector {
 
     public abstract void setData(int i, Number data);
 
+    /**
+     * Primitive element accessor, overridden by implementations that can
+     * read the element without boxing it.
+     * @param i index of the element (0 <= i < n)
+     * @return v[i]
+     */
+    public double get(int i) {
+        return getData(i);
+    }
+
+    /**
+     * Primitive element mutator, overridden by implementations that can
+     * write the element without boxing it.
+     * @param i index of the element (0 <= i < n)
+     * @param v value to set.
+     */
+    public void set(int i, double v) {
+        setData(i, v);
+    }
+
     public final Double magnitude() {
-        VectorD a = this;
-        double squaredSum = 0;
-        for (int i = 0; i < n; i++) {
-            squaredSum += Math.pow(a.getData(i), 2);
-        }
-        return Math.sqrt(squaredSum);
+        return Math.sqrt(lengthSquared());
     }
 
     @Override
@@ -90,14 +105,7 @@ public abstract class VectorD extends Vector {
     public abstract VectorD subtract(Vector b);
 
     public Double dot(Vector b) {
-        if (n != b.n) {
-            throw new RuntimeException("Vector dimensions are not equal.");
-        }
-        double dotProduct = 0;
-        for (int i = 0; i < n; i++) {
-            dotProduct += getData(i) * b.getData(i).doubleValue();
-        }
-        return dotProduct;
+        return dotD(b);
     }
 
     public abstract VectorD cross(Vector b);
@@ -110,37 +118,78 @@ public abstract class VectorD extends Vector {
 
     public abstract VectorD divideScalar(Number v);
 
+    /**
+     * Adds b to this instance writing the result into dest. dest may be this
+     * instance or b.
+     * @param b Vector B.
+     * @param dest VectorD to write to.
+     * @return dest
+     */
+    public VectorD addInto(Vector b, VectorD dest) {
+        checkDimensions(b, dest);
+        for (int i = 0; i < n; i++) {
+            dest.set(i, get(i) + valueAt(b, i));
+        }
+        return dest;
+    }
+
+    /**
+     * Subtracts b from this instance writing the result into dest. dest may
+     * be this instance or b.
+     * @param b Vector B.
+     * @param dest VectorD to write to.
+     * @return dest
+     */
+    public VectorD subtractInto(Vector b, VectorD dest) {
+        checkDimensions(b, dest);
+        for (int i = 0; i < n; i++) {
+            dest.set(i, get(i) - valueAt(b, i));
+        }
+        return dest;
+    }
+
+    /**
+     * Multiplies this instance by v writing the result into dest. dest may
+     * be this instance.
+     * @param v scalar value.
+     * @param dest VectorD to write to.
+     * @return dest
+     */
+    public VectorD scaleInto(double v, VectorD dest) {
+        checkDimensions(this, dest);
+        for (int i = 0; i < n; i++) {
+            dest.set(i, get(i) * v);
+        }
+        return dest;
+    }
+
+    final void checkDimensions(Vector b, Vector dest) {
+        if (n != b.n || n != dest.n) {
+            throw new RuntimeException("Vector dimensions are not equal.");
+        }
+    }
+
     @Override
     public String toString() {
-        String dataString = "{";
+        StringBuilder dataString = new StringBuilder(super.toString()).append(" {");
         for (int i = 0; i < n; i++) {
-            dataString += getData(i) + ((i < n - 1) ? ", " : "");
+            dataString.append(getData(i)).append((i < n - 1) ? ", " : "");
         }
-        dataString += "}";
-        return String.format("%s %s", super.toString(), dataString);
+        return dataString.append('}').toString();
     }
 
     public static VectorD empty(int i) {
-        VectorD e = new ArrayVectorD(i);
-        for(int j=0;j<i;j++) {
-            e.setData(i, 0D);
-        }
-        return e;
+        return new DenseVectorD(i);
     }
 
     public static VectorD create(double[] data) {
-        int i = data.length;
-        VectorD e = new ArrayVectorD(i, true);
-        for(int j=0;j<i;j++) {
-            e.setData(j, data[j]);
-        }
-        return e;
+        return new DenseVectorD(data.clone(), true);
     }
 
     public static VectorD random(int i) {
-        VectorD r = new ArrayVectorD(i);
+        DenseVectorD r = new DenseVectorD(i);
         for(int j=0;j<i;j++) {
-            r.setData(j, QuickMath.random());
+            r.data[j] = QuickMath.random();
         }
         return r;
     }
@@ -50,13 +50,28 @@ public abstract class VectorF extends Vector {
 
     public abstract void setData(int i, Number data);
 
+    /**
+     * Primitive element accessor, overridden by implementations that can
+     * read the element without boxing it.
+     * @param i index of the element (0 <= i < n)
+     * @return v[i]
+     */
+    public float get(int i) {
+        return getData(i);
+    }
+
+    /**
+     * Primitive element mutator, overridden by implementations that can
+     * write the element without boxing it.
+     * @param i index of the element (0 <= i < n)
+     * @param v value to set.
+     */
+    public void set(int i, float v) {
+        setData(i, v);
+    }
+
     public final Float magnitude() {
-        VectorF a = this;
-        double squaredSum = 0;
-        for (int i = 0; i < n; i++) {
-            squaredSum += Math.pow(a.getData(i), 2);
-        }
-        return (float) Math.sqrt(squaredSum);
+        return (float) Math.sqrt(lengthSquared());
     }
 
     @Override
@@ -73,14 +88,22 @@ public abstract class VectorF extends Vector {
     public abstract VectorF subtract(Vector b);
 
     public Float dot(Vector b) {
-        if (n != b.n) {
-            throw new RuntimeException("Vector dimensions are not equal.");
+        return (float) dotD(b);
+    }
+
+    /**
+     * Copies the elements of this Vector into dest.
+     * @param dest array of at least n elements.
+     * @return dest
+     */
+    public float[] copyTo(float[] dest) {
+        if (dest.length < n) {
+            throw new IllegalArgumentException("Array is shorter than the Vector.");
         }
-        float dotProduct = 0;
         for (int i = 0; i < n; i++) {
-            dotProduct += getData(i) * b.getData(i).doubleValue();
+            dest[i] = get(i);
         }
-        return dotProduct;
+        return dest;
     }
 
     public abstract VectorF cross(Vector b);
@@ -93,37 +116,82 @@ public abstract class VectorF extends Vector {
 
     public abstract VectorF divideScalar(Number v);
 
+    /**
+     * Adds b to this instance writing the result into dest. dest may be this
+     * instance or b.
+     * @param b Vector B.
+     * @param dest VectorF to write to.
+     * @return dest
+     */
+    public VectorF addInto(Vector b, VectorF dest) {
+        checkDimensions(b, dest);
+        for (int i = 0; i < n; i++) {
+            dest.set(i, get(i) + (float) valueAt(b, i));
+        }
+        return dest;
+    }
+
+    /**
+     * Subtracts b from this instance writing the result into dest. dest may
+     * be this instance or b.
+     * @param b Vector B.
+     * @param dest VectorF to write to.
+     * @return dest
+     */
+    public VectorF subtractInto(Vector b, VectorF dest) {
+        checkDimensions(b, dest);
+        for (int i = 0; i < n; i++) {
+            dest.set(i, get(i) - (float) valueAt(b, i));
+        }
+        return dest;
+    }
+
+    /**
+     * Multiplies this instance by v writing the result into dest. dest may
+     * be this instance.
+     * @param v scalar value.
+     * @param dest VectorF to write to.
+     * @return dest
+     */
+    public VectorF scaleInto(float v, VectorF dest) {
+        checkDimensions(this, dest);
+        for (int i = 0; i < n; i++) {
+            dest.set(i, get(i) * v);
+        }
+        return dest;
+    }
+
+    final void checkDimensions(Vector b, Vector dest) {
+        if (n != b.n || n != dest.n) {
+            throw new RuntimeException("Vector dimensions are not equal.");
+        }
+    }
+
     @Override
     public String toString() {
-        String dataString = "{";
+        StringBuilder dataString = new StringBuilder(super.toString()).append(" {");
         for (int i = 0; i < n; i++) {
-            dataString += getData(i) + ((i < n - 1) ? ", " : "");
+            dataString.append(getData(i)).append((i < n - 1) ? ", " : "");
         }
-        dataString += "}";
-        return String.format("%s %s", super.toString(), dataString);
+        return dataString.append('}').toString();
     }
 
     public static VectorF empty(int i) {
-        VectorF e = null;
         switch(i) {
             case 2:
-                e = new Vector2F(true);
+                return new Vector2F(true);
             case 3:
-                e = new Vector3F(true);
+                return new Vector3F(true);
             default:
-                e = new ArrayVectorF(i,true);
-        }
-        for(int j=0;j<i;j++) {
-            e.setData(i, 0D);
+                return new DenseVectorF(i, true);
         }
-        return e;
     }
 
     public static VectorF random(int i) {
         VectorF r = empty(i);
         for(int j=0;j<i;j++) {
-            r.setData(i, QuickMath.random());
+            r.set(j, (float) QuickMath.random());
         }
-        return null;
+        return r;
     }
 }
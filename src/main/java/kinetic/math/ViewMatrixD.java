@@ -0,0 +1,342 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+/**
+ * ViewMatrixD Implementation.
+ *
+ * A window onto another MatrixD that shares its storage. The view covers an
+ * m-by-n block of the parent starting at [rowOffset, colOffset] and may be
+ * transposed, in which case element a[i,j] of the view is element
+ * p[rowOffset + j, colOffset + i] of the parent.
+ *
+ * Writes through the view always reach the parent. Operations that return a
+ * new Matrix return a DenseMatrixD copy, mutating operations write straight
+ * into the parent. The shape of a view can not change, so a mutating
+ * transpose of a non square view returns a copy.
+ *
+ * Views are created by MatrixD.getSubMatrix and MatrixD.transposeView.
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public class ViewMatrixD extends MatrixD {
+
+    /**
+     * MatrixD holding the elements.
+     */
+    final MatrixD parent;
+    /**
+     * Parent as a DenseMatrixD when it is one, otherwise null.
+     */
+    final DenseMatrixD dense;
+    /**
+     * Parent row of the first element of the view.
+     */
+    final int rowOffset;
+    /**
+     * Parent column of the first element of the view.
+     */
+    final int colOffset;
+    /**
+     * Flag indicating that rows of the view are columns of the parent.
+     */
+    final boolean transposed;
+
+    ViewMatrixD(MatrixD parent, int rowOffset, int colOffset, int m, int n, boolean transposed) {
+        super(m, n, parent.mutate);
+        int pm = transposed ? n : m;
+        int pn = transposed ? m : n;
+        if (rowOffset < 0 || colOffset < 0 || rowOffset + pm > parent.m || colOffset + pn > parent.n) {
+            throw new IndexOutOfBoundsException("View does not fit inside the parent matrix.");
+        }
+        this.parent = parent;
+        this.owner = parent.owner;
+        this.dense = (parent instanceof DenseMatrixD) ? (DenseMatrixD) parent : null;
+        this.rowOffset = rowOffset;
+        this.colOffset = colOffset;
+        this.transposed = transposed;
+    }
+
+    /**
+     * MatrixD whose storage this view shares.
+     * @return parent MatrixD.
+     */
+    public final MatrixD getParent() {
+        return parent;
+    }
+
+    /**
+     * Primitive element accessor.
+     * @param i The row to extract the data from.
+     * @param j The column to extract the data from.
+     * @return a[i,j]
+     */
+    public final double get(int i, int j) {
+        checkIndex(i, j);
+        int r = transposed ? rowOffset + j : rowOffset + i;
+        int c = transposed ? colOffset + i : colOffset + j;
+        if (dense != null) {
+            return dense.data[dense.offset + r * dense.stride + c];
+        }
+        return parent.getData(r, c);
+    }
+
+    /**
+     * Primitive element mutator.
+     * @param i The row to set the data to.
+     * @param j The column to set the data to.
+     * @param v The value to set.
+     */
+    public final void set(int i, int j, double v) {
+        modified();
+        checkIndex(i, j);
+        int r = transposed ? rowOffset + j : rowOffset + i;
+        int c = transposed ? colOffset + i : colOffset + j;
+        if (dense != null) {
+            dense.data[dense.offset + r * dense.stride + c] = v;
+        } else {
+            parent.setData(r, c, v);
+        }
+    }
+
+    private void checkIndex(int i, int j) {
+        if (i < 0 || i >= m) {
+            throw new IndexOutOfBoundsException(String.format("i value of %s is not < then m of %s", i, m));
+        }
+        if (j < 0 || j >= n) {
+            throw new IndexOutOfBoundsException(String.format("j value of %s is not < then n of %s", j, n));
+        }
+    }
+
+    @Override
+    public final Double[][] getData() {
+        Double[][] output = new Double[m][n];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                output[i][j] = get(i, j);
+            }
+        }
+        return output;
+    }
+
+    @Override
+    public final Double getData(int i, int j) {
+        return get(i, j);
+    }
+
+    @Override
+    public final void setData(Number[][] data) {
+        if (data.length != m || data[0].length != n) {
+            throw new IllegalArgumentException("The dimensions of a view can not change.");
+        }
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                set(i, j, data[i][j].doubleValue());
+            }
+        }
+    }
+
+    @Override
+    public final void setData(int i, int j, Number data) {
+        set(i, j, data.doubleValue());
+    }
+
+    @Override
+    public final Double[] getRow(int i) {
+        Double[] output = new Double[n];
+        for (int j = 0; j < n; j++) {
+            output[j] = get(i, j);
+        }
+        return output;
+    }
+
+    @Override
+    public MatrixD getSubMatrix(int mi, int mj, int ni, int nj) {
+        checkSubMatrix(mi, mj, ni, nj);
+        if (transposed) {
+            return new ViewMatrixD(parent, rowOffset + ni, colOffset + mi, mj - mi, nj - ni, true);
+        }
+        return parent.getSubMatrix(rowOffset + mi, rowOffset + mj, colOffset + ni, colOffset + nj);
+    }
+
+    @Override
+    public MatrixD transposeView() {
+        return new ViewMatrixD(parent, rowOffset, colOffset, n, m, !transposed);
+    }
+
+    @Override
+    public VectorD rowView(int i) {
+        if (i < 0 || i >= m) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (transposed) {
+            return new ViewVectorD(parent, rowOffset, colOffset + i, 1, 0, n);
+        }
+        return new ViewVectorD(parent, rowOffset + i, colOffset, 0, 1, n);
+    }
+
+    @Override
+    public VectorD columnView(int j) {
+        if (j < 0 || j >= n) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (transposed) {
+            return new ViewVectorD(parent, rowOffset + j, colOffset, 0, 1, m);
+        }
+        return new ViewVectorD(parent, rowOffset, colOffset + j, 1, 0, m);
+    }
+
+    @Override
+    public MatrixD add(Matrix b) {
+        return add(b, mutate);
+    }
+
+    @Override
+    public MatrixD add(Matrix b, boolean mutate) {
+        return addInto(b, mutate ? this : new DenseMatrixD(m, n));
+    }
+
+    @Override
+    public MatrixD subtract(Matrix b) {
+        return subtract(b, mutate);
+    }
+
+    @Override
+    public MatrixD subtract(Matrix b, boolean mutate) {
+        return subtractInto(b, mutate ? this : new DenseMatrixD(m, n));
+    }
+
+    /**
+     * Multiplies a Matrix to this instance. Matrix A * Matrix B = Matrix C.
+     * The view is copied into a DenseMatrixD once so that the product runs
+     * through the MultiplyKernel.
+     * @param b Matrix B.
+     * @return Matrix Matrix C.
+     */
+    @Override
+    public MatrixD multiply(Matrix b) {
+        return multiply(b, mutate && b.m == b.n);
+    }
+
+    @Override
+    public MatrixD multiply(Matrix b, boolean mutate) {
+        DenseMatrixD c = new DenseMatrixD(this, false).multiply(b, false);
+        if (mutate) {
+            if (b.n != n) {
+                throw new RuntimeException("Matrix B must be square to multiply in place.");
+            }
+            copyFrom(c);
+            return this;
+        }
+        return c;
+    }
+
+    @Override
+    public MatrixD multiply(Matrix b, MatrixD dest) {
+        dest.modified();
+        return new DenseMatrixD(this, false).multiply(b, dest);
+    }
+
+    @Override
+    public MatrixD transpose() {
+        if (mutate && m == n) {
+            return transposeInto(this);
+        }
+        return new DenseMatrixD(transposeView(), false);
+    }
+
+    @Override
+    public MatrixD addScalar(Number v) {
+        return addScalar(v, mutate);
+    }
+
+    @Override
+    public MatrixD addScalar(Number v, boolean mutate) {
+        double s = v.doubleValue();
+        MatrixD c = mutate ? this : new DenseMatrixD(m, n);
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                c.setData(i, j, get(i, j) + s);
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public MatrixD subtractScalar(Number v) {
+        return subtractScalar(v, mutate);
+    }
+
+    @Override
+    public MatrixD subtractScalar(Number v, boolean mutate) {
+        return addScalar(-v.doubleValue(), mutate);
+    }
+
+    @Override
+    public MatrixD multiplyScalar(Number v) {
+        return multiplyScalar(v, mutate);
+    }
+
+    @Override
+    public MatrixD multiplyScalar(Number v, boolean mutate) {
+        return scaleInto(v.doubleValue(), mutate ? this : new DenseMatrixD(m, n));
+    }
+
+    @Override
+    public MatrixD divideScalar(Number v) {
+        return divideScalar(v, mutate);
+    }
+
+    @Override
+    public MatrixD divideScalar(Number v, boolean mutate) {
+        double s = v.doubleValue();
+        if (s == 0) {
+            throw new RuntimeException("Divide by Zero");
+        }
+        MatrixD c = mutate ? this : new DenseMatrixD(m, n);
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                c.setData(i, j, get(i, j) / s);
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public MatrixD invert() {
+        return new DenseMatrixD(this, false).invert();
+    }
+
+    @Override
+    public MatrixD solve(Matrix b) {
+        return new DenseMatrixD(this, false).solve(b);
+    }
+
+    @Override
+    public Double determinant() {
+        return new DenseMatrixD(this, false).determinant();
+    }
+
+    private void copyFrom(DenseMatrixD c) {
+        for (int i = 0; i < m; i++) {
+            int row = c.offset + i * c.stride;
+            for (int j = 0; j < n; j++) {
+                set(i, j, c.data[row + j]);
+            }
+        }
+    }
+}
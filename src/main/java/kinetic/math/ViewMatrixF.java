@@ -0,0 +1,347 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+/**
+ * ViewMatrixF Implementation.
+ *
+ * A window onto another MatrixF that shares its storage. The view covers an
+ * m-by-n block of the parent starting at [rowOffset, colOffset] and may be
+ * transposed, in which case element a[i,j] of the view is element
+ * p[rowOffset + j, colOffset + i] of the parent.
+ *
+ * Writes through the view always reach the parent. Operations that return a
+ * new Matrix return a DenseMatrixF copy, mutating operations write straight
+ * into the parent. The shape of a view can not change, so a mutating
+ * transpose of a non square view returns a copy.
+ *
+ * Views are created by MatrixF.getSubMatrix and MatrixF.transposeView.
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public class ViewMatrixF extends MatrixF {
+
+    /**
+     * MatrixF holding the elements.
+     */
+    final MatrixF parent;
+    /**
+     * Parent as a DenseMatrixF when it is one, otherwise null.
+     */
+    final DenseMatrixF dense;
+    /**
+     * Parent row of the first element of the view.
+     */
+    final int rowOffset;
+    /**
+     * Parent column of the first element of the view.
+     */
+    final int colOffset;
+    /**
+     * Flag indicating that rows of the view are columns of the parent.
+     */
+    final boolean transposed;
+
+    ViewMatrixF(MatrixF parent, int rowOffset, int colOffset, int m, int n, boolean transposed) {
+        super(m, n, parent.mutate);
+        int pm = transposed ? n : m;
+        int pn = transposed ? m : n;
+        if (rowOffset < 0 || colOffset < 0 || rowOffset + pm > parent.m || colOffset + pn > parent.n) {
+            throw new IndexOutOfBoundsException("View does not fit inside the parent matrix.");
+        }
+        this.parent = parent;
+        this.owner = parent.owner;
+        this.dense = (parent instanceof DenseMatrixF) ? (DenseMatrixF) parent : null;
+        this.rowOffset = rowOffset;
+        this.colOffset = colOffset;
+        this.transposed = transposed;
+    }
+
+    /**
+     * MatrixF whose storage this view shares.
+     * @return parent MatrixF.
+     */
+    public final MatrixF getParent() {
+        return parent;
+    }
+
+    /**
+     * Primitive element accessor.
+     * @param i The row to extract the data from.
+     * @param j The column to extract the data from.
+     * @return a[i,j]
+     */
+    public final float get(int i, int j) {
+        checkIndex(i, j);
+        int r = transposed ? rowOffset + j : rowOffset + i;
+        int c = transposed ? colOffset + i : colOffset + j;
+        if (dense != null) {
+            return dense.data[dense.offset + r * dense.stride + c];
+        }
+        return parent.getData(r, c);
+    }
+
+    /**
+     * Primitive element mutator.
+     * @param i The row to set the data to.
+     * @param j The column to set the data to.
+     * @param v The value to set.
+     */
+    public final void set(int i, int j, float v) {
+        modified();
+        checkIndex(i, j);
+        int r = transposed ? rowOffset + j : rowOffset + i;
+        int c = transposed ? colOffset + i : colOffset + j;
+        if (dense != null) {
+            dense.data[dense.offset + r * dense.stride + c] = v;
+        } else {
+            parent.setData(r, c, v);
+        }
+    }
+
+    private void checkIndex(int i, int j) {
+        if (i < 0 || i >= m) {
+            throw new IndexOutOfBoundsException(String.format("i value of %s is not < then m of %s", i, m));
+        }
+        if (j < 0 || j >= n) {
+            throw new IndexOutOfBoundsException(String.format("j value of %s is not < then n of %s", j, n));
+        }
+    }
+
+    @Override
+    public final Float[][] getData() {
+        Float[][] output = new Float[m][n];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                output[i][j] = get(i, j);
+            }
+        }
+        return output;
+    }
+
+    @Override
+    public final Float getData(int i, int j) {
+        return get(i, j);
+    }
+
+    @Override
+    public final void setData(Number[][] data) {
+        if (data.length != m || data[0].length != n) {
+            throw new IllegalArgumentException("The dimensions of a view can not change.");
+        }
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                set(i, j, data[i][j].floatValue());
+            }
+        }
+    }
+
+    @Override
+    public final void setData(int i, int j, Number data) {
+        set(i, j, data.floatValue());
+    }
+
+    @Override
+    public final Float[] getRow(int i) {
+        Float[] output = new Float[n];
+        for (int j = 0; j < n; j++) {
+            output[j] = get(i, j);
+        }
+        return output;
+    }
+
+    @Override
+    public MatrixF getSubMatrix(int mi, int mj, int ni, int nj) {
+        checkSubMatrix(mi, mj, ni, nj);
+        if (transposed) {
+            return new ViewMatrixF(parent, rowOffset + ni, colOffset + mi, mj - mi, nj - ni, true);
+        }
+        return parent.getSubMatrix(rowOffset + mi, rowOffset + mj, colOffset + ni, colOffset + nj);
+    }
+
+    @Override
+    public MatrixF transposeView() {
+        return new ViewMatrixF(parent, rowOffset, colOffset, n, m, !transposed);
+    }
+
+    @Override
+    public VectorF rowView(int i) {
+        if (i < 0 || i >= m) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (transposed) {
+            return new ViewVectorF(parent, rowOffset, colOffset + i, 1, 0, n);
+        }
+        return new ViewVectorF(parent, rowOffset + i, colOffset, 0, 1, n);
+    }
+
+    @Override
+    public VectorF columnView(int j) {
+        if (j < 0 || j >= n) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (transposed) {
+            return new ViewVectorF(parent, rowOffset + j, colOffset, 0, 1, m);
+        }
+        return new ViewVectorF(parent, rowOffset, colOffset + j, 1, 0, m);
+    }
+
+    @Override
+    public MatrixF add(Matrix b) {
+        return add(b, mutate);
+    }
+
+    @Override
+    public MatrixF add(Matrix b, boolean mutate) {
+        return addInto(b, mutate ? this : new DenseMatrixF(m, n));
+    }
+
+    @Override
+    public MatrixF subtract(Matrix b) {
+        return subtract(b, mutate);
+    }
+
+    @Override
+    public MatrixF subtract(Matrix b, boolean mutate) {
+        return subtractInto(b, mutate ? this : new DenseMatrixF(m, n));
+    }
+
+    /**
+     * Multiplies a Matrix to this instance. Matrix A * Matrix B = Matrix C.
+     * The view is copied into a DenseMatrixF once so that the product runs
+     * through the MultiplyKernel.
+     * @param b Matrix B.
+     * @return Matrix Matrix C.
+     */
+    @Override
+    public MatrixF multiply(Matrix b) {
+        return multiply(b, mutate && b.m == b.n);
+    }
+
+    @Override
+    public MatrixF multiply(Matrix b, boolean mutate) {
+        DenseMatrixF c = new DenseMatrixF(this, false).multiply(b, false);
+        if (mutate) {
+            if (b.n != n) {
+                throw new RuntimeException("Matrix B must be square to multiply in place.");
+            }
+            copyFrom(c);
+            return this;
+        }
+        return c;
+    }
+
+    @Override
+    public MatrixF multiplyInto(Matrix b, MatrixF dest) {
+        dest.modified();
+        return new DenseMatrixF(this, false).multiplyInto(b, dest);
+    }
+
+    @Override
+    public MatrixF transpose() {
+        if (mutate && m == n) {
+            return transposeInto(this);
+        }
+        return new DenseMatrixF(transposeView(), false);
+    }
+
+    @Override
+    public MatrixF addScalar(Number v) {
+        return addScalar(v, mutate);
+    }
+
+    @Override
+    public MatrixF addScalar(Number v, boolean mutate) {
+        float s = v.floatValue();
+        MatrixF c = mutate ? this : new DenseMatrixF(m, n);
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                c.setData(i, j, get(i, j) + s);
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public MatrixF subtractScalar(Number v) {
+        return subtractScalar(v, mutate);
+    }
+
+    @Override
+    public MatrixF subtractScalar(Number v, boolean mutate) {
+        return addScalar(-v.floatValue(), mutate);
+    }
+
+    @Override
+    public MatrixF multiplyScalar(Number v) {
+        return multiplyScalar(v, mutate);
+    }
+
+    @Override
+    public MatrixF multiplyScalar(Number v, boolean mutate) {
+        return scaleInto(v.floatValue(), mutate ? this : new DenseMatrixF(m, n));
+    }
+
+    @Override
+    public MatrixF divideScalar(Number v) {
+        return divideScalar(v, mutate);
+    }
+
+    @Override
+    public MatrixF divideScalar(Number v, boolean mutate) {
+        float s = v.floatValue();
+        if (s == 0) {
+            throw new RuntimeException("Divide by Zero");
+        }
+        MatrixF c = mutate ? this : new DenseMatrixF(m, n);
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                c.setData(i, j, get(i, j) / s);
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public VectorF transformVector(VectorF v) {
+        return new DenseMatrixF(this, false).transformVector(v);
+    }
+
+    @Override
+    public MatrixF invert() {
+        return new DenseMatrixF(this, false).invert();
+    }
+
+    @Override
+    public MatrixF solve(Matrix b) {
+        return new DenseMatrixF(this, false).solve(b);
+    }
+
+    @Override
+    public Float determinant() {
+        return new DenseMatrixF(this, false).determinant();
+    }
+
+    private void copyFrom(DenseMatrixF c) {
+        for (int i = 0; i < m; i++) {
+            int row = c.offset + i * c.stride;
+            for (int j = 0; j < n; j++) {
+                set(i, j, c.data[row + j]);
+            }
+        }
+    }
+}
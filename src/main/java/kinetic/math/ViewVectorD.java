@@ -0,0 +1,264 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+/**
+ * ViewVectorD Implementation.
+ *
+ * A row or column of a MatrixD seen as a VectorD without copying. Element k
+ * of the vector is element p[row + k * rowStep, column + k * columnStep] of
+ * the parent, so a row view steps along columns and a column view steps
+ * along rows.
+ *
+ * Writes through the view always reach the parent. Operations that return a
+ * new Vector return a DenseVectorD copy, mutating operations write straight
+ * into the parent.
+ *
+ * Views are created by MatrixD.rowView and MatrixD.columnView.
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public class ViewVectorD extends VectorD {
+
+    /**
+     * MatrixD holding the elements.
+     */
+    final MatrixD parent;
+    /**
+     * Parent as a DenseMatrixD when it is one, otherwise null.
+     */
+    final DenseMatrixD dense;
+    /**
+     * Parent position of element 0.
+     */
+    final int row, column;
+    /**
+     * Parent position step between consecutive elements.
+     */
+    final int rowStep, columnStep;
+
+    ViewVectorD(MatrixD parent, int row, int column, int rowStep, int columnStep, int n) {
+        super(n, parent.mutate);
+        this.parent = parent;
+        this.dense = (parent instanceof DenseMatrixD) ? (DenseMatrixD) parent : null;
+        this.row = row;
+        this.column = column;
+        this.rowStep = rowStep;
+        this.columnStep = columnStep;
+    }
+
+    /**
+     * MatrixD whose storage this view shares.
+     * @return parent MatrixD.
+     */
+    public final MatrixD getParent() {
+        return parent;
+    }
+
+    /**
+     * Primitive element accessor.
+     * @param i index of the element (0 <= i < n)
+     * @return v[i]
+     */
+    @Override
+    public final double get(int i) {
+        checkIndex(i);
+        int r = row + i * rowStep;
+        int c = column + i * columnStep;
+        if (dense != null) {
+            return dense.data[dense.offset + r * dense.stride + c];
+        }
+        return parent.getData(r, c);
+    }
+
+    /**
+     * Primitive element mutator.
+     * @param i index of the element (0 <= i < n)
+     * @param v value to set.
+     */
+    @Override
+    public final void set(int i, double v) {
+        checkIndex(i);
+        int r = row + i * rowStep;
+        int c = column + i * columnStep;
+        if (dense != null) {
+            dense.data[dense.offset + r * dense.stride + c] = v;
+            dense.modified();
+        } else {
+            parent.setData(r, c, v);
+        }
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= n) {
+            throw new IndexOutOfBoundsException(String.format("i value of %s is not < then n of %s", i, n));
+        }
+    }
+
+    @Override
+    protected void initData(Number[] data) {
+        setData(data);
+    }
+
+    @Override
+    protected void initData(int i, Number data) {
+        set(i, data.doubleValue());
+    }
+
+    @Override
+    public final Double[] getData() {
+        Double[] output = new Double[n];
+        for (int i = 0; i < n; i++) {
+            output[i] = get(i);
+        }
+        return output;
+    }
+
+    @Override
+    public final Double getData(int i) {
+        return get(i);
+    }
+
+    @Override
+    public final void setData(Number[] data) {
+        if (data.length != n) {
+            throw new IllegalArgumentException("The dimensions of a view can not change.");
+        }
+        for (int i = 0; i < n; i++) {
+            set(i, data[i].doubleValue());
+        }
+    }
+
+    @Override
+    public final void setData(int i, Number data) {
+        set(i, data.doubleValue());
+    }
+
+    @Override
+    public final VectorD negative() {
+        return negative(mutate);
+    }
+
+    @Override
+    public final VectorD negative(boolean mutate) {
+        return scaleInto(-1D, mutate ? this : new DenseVectorD(n));
+    }
+
+    @Override
+    public final VectorD normalise() {
+        return normalise(mutate);
+    }
+
+    @Override
+    public final VectorD normalise(boolean mutate) {
+        double m = magnitude();
+        if (m == 0) {
+            return mutate ? this : new DenseVectorD(n);
+        }
+        return divide(m, mutate);
+    }
+
+    @Override
+    public final VectorD add(Vector b) {
+        return add(b, mutate);
+    }
+
+    @Override
+    public final VectorD add(Vector b, boolean mutate) {
+        return addInto(b, mutate ? this : new DenseVectorD(n));
+    }
+
+    @Override
+    public final VectorD subtract(Vector b) {
+        return subtract(b, mutate);
+    }
+
+    @Override
+    public final VectorD subtract(Vector b, boolean mutate) {
+        return subtractInto(b, mutate ? this : new DenseVectorD(n));
+    }
+
+    @Override
+    public final VectorD cross(Vector b) {
+        if (n != 3 || b.n != 3) {
+            throw new RuntimeException("Vector dimensions are not both equal to three.");
+        }
+        double x = get(X), y = get(Y), z = get(Z);
+        double bx = b.getData(X).doubleValue(), by = b.getData(Y).doubleValue(), bz = b.getData(Z).doubleValue();
+        VectorD c = mutate ? this : new DenseVectorD(n);
+        c.setData(X, y * bz - z * by);
+        c.setData(Y, z * bx - x * bz);
+        c.setData(Z, x * by - y * bx);
+        return c;
+    }
+
+    @Override
+    public final VectorD addScalar(Number v) {
+        return addScalar(v, mutate);
+    }
+
+    @Override
+    public final VectorD addScalar(Number v, boolean mutate) {
+        double s = v.doubleValue();
+        VectorD c = mutate ? this : new DenseVectorD(n);
+        for (int i = 0; i < n; i++) {
+            c.setData(i, get(i) + s);
+        }
+        return c;
+    }
+
+    @Override
+    public final VectorD subtractScalar(Number v) {
+        return subtractScalar(v, mutate);
+    }
+
+    @Override
+    public final VectorD subtractScalar(Number v, boolean mutate) {
+        return addScalar(-v.doubleValue(), mutate);
+    }
+
+    @Override
+    public final VectorD multiplyScalar(Number v) {
+        return multiplyScalar(v, mutate);
+    }
+
+    @Override
+    public final VectorD multiplyScalar(Number v, boolean mutate) {
+        return scaleInto(v.doubleValue(), mutate ? this : new DenseVectorD(n));
+    }
+
+    @Override
+    public final VectorD divideScalar(Number v) {
+        return divideScalar(v, mutate);
+    }
+
+    @Override
+    public final VectorD divideScalar(Number v, boolean mutate) {
+        if (v.doubleValue() == 0) {
+            throw new RuntimeException("Divide By Zero.");
+        }
+        return divide(v.doubleValue(), mutate);
+    }
+
+    private VectorD divide(double s, boolean mutate) {
+        VectorD c = mutate ? this : new DenseVectorD(n);
+        for (int i = 0; i < n; i++) {
+            c.setData(i, get(i) / s);
+        }
+        return c;
+    }
+}
@@ -0,0 +1,254 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math;
+
+/**
+ * ViewVectorF Implementation.
+ *
+ * A row or column of a MatrixF seen as a VectorF without copying. Element k
+ * of the vector is element p[row + k * rowStep, column + k * columnStep] of
+ * the parent, so a row view steps along columns and a column view steps
+ * along rows.
+ *
+ * Writes through the view always reach the parent. Operations that return a
+ * new Vector return a DenseVectorF copy, mutating operations write straight
+ * into the parent.
+ *
+ * Views are created by MatrixF.rowView and MatrixF.columnView.
+ *
+ * @author openecho
+ * @version 1.0.0
+ */
+public class ViewVectorF extends VectorF {
+
+    /**
+     * MatrixF holding the elements.
+     */
+    final MatrixF parent;
+    /**
+     * Parent as a DenseMatrixF when it is one, otherwise null.
+     */
+    final DenseMatrixF dense;
+    /**
+     * Parent position of element 0.
+     */
+    final int row, column;
+    /**
+     * Parent position step between consecutive elements.
+     */
+    final int rowStep, columnStep;
+
+    ViewVectorF(MatrixF parent, int row, int column, int rowStep, int columnStep, int n) {
+        super(n, parent.mutate);
+        this.parent = parent;
+        this.dense = (parent instanceof DenseMatrixF) ? (DenseMatrixF) parent : null;
+        this.row = row;
+        this.column = column;
+        this.rowStep = rowStep;
+        this.columnStep = columnStep;
+    }
+
+    /**
+     * MatrixF whose storage this view shares.
+     * @return parent MatrixF.
+     */
+    public final MatrixF getParent() {
+        return parent;
+    }
+
+    /**
+     * Primitive element accessor.
+     * @param i index of the element (0 <= i < n)
+     * @return v[i]
+     */
+    @Override
+    public final float get(int i) {
+        checkIndex(i);
+        int r = row + i * rowStep;
+        int c = column + i * columnStep;
+        if (dense != null) {
+            return dense.data[dense.offset + r * dense.stride + c];
+        }
+        return parent.getData(r, c);
+    }
+
+    /**
+     * Primitive element mutator.
+     * @param i index of the element (0 <= i < n)
+     * @param v value to set.
+     */
+    @Override
+    public final void set(int i, float v) {
+        checkIndex(i);
+        int r = row + i * rowStep;
+        int c = column + i * columnStep;
+        if (dense != null) {
+            dense.data[dense.offset + r * dense.stride + c] = v;
+            dense.modified();
+        } else {
+            parent.setData(r, c, v);
+        }
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= n) {
+            throw new IndexOutOfBoundsException(String.format("i value of %s is not < then n of %s", i, n));
+        }
+    }
+
+    @Override
+    public final Float[] getData() {
+        Float[] output = new Float[n];
+        for (int i = 0; i < n; i++) {
+            output[i] = get(i);
+        }
+        return output;
+    }
+
+    @Override
+    public final Float getData(int i) {
+        return get(i);
+    }
+
+    @Override
+    public final void setData(Number[] data) {
+        if (data.length != n) {
+            throw new IllegalArgumentException("The dimensions of a view can not change.");
+        }
+        for (int i = 0; i < n; i++) {
+            set(i, data[i].floatValue());
+        }
+    }
+
+    @Override
+    public final void setData(int i, Number data) {
+        set(i, data.floatValue());
+    }
+
+    @Override
+    public final VectorF negative() {
+        return negative(mutate);
+    }
+
+    @Override
+    public final VectorF negative(boolean mutate) {
+        return scaleInto(-1F, mutate ? this : new DenseVectorF(n));
+    }
+
+    @Override
+    public final VectorF normalise() {
+        return normalise(mutate);
+    }
+
+    @Override
+    public final VectorF normalise(boolean mutate) {
+        float m = magnitude();
+        if (m == 0) {
+            return mutate ? this : new DenseVectorF(n);
+        }
+        return divide(m, mutate);
+    }
+
+    @Override
+    public final VectorF add(Vector b) {
+        return add(b, mutate);
+    }
+
+    @Override
+    public final VectorF add(Vector b, boolean mutate) {
+        return addInto(b, mutate ? this : new DenseVectorF(n));
+    }
+
+    @Override
+    public final VectorF subtract(Vector b) {
+        return subtract(b, mutate);
+    }
+
+    @Override
+    public final VectorF subtract(Vector b, boolean mutate) {
+        return subtractInto(b, mutate ? this : new DenseVectorF(n));
+    }
+
+    @Override
+    public final VectorF cross(Vector b) {
+        if (n != 3 || b.n != 3) {
+            throw new RuntimeException("Vector dimensions are not both equal to three.");
+        }
+        float x = get(X), y = get(Y), z = get(Z);
+        float bx = b.getData(X).floatValue(), by = b.getData(Y).floatValue(), bz = b.getData(Z).floatValue();
+        VectorF c = mutate ? this : new DenseVectorF(n);
+        c.setData(X, y * bz - z * by);
+        c.setData(Y, z * bx - x * bz);
+        c.setData(Z, x * by - y * bx);
+        return c;
+    }
+
+    @Override
+    public final VectorF addScalar(Number v) {
+        return addScalar(v, mutate);
+    }
+
+    @Override
+    public final VectorF addScalar(Number v, boolean mutate) {
+        float s = v.floatValue();
+        VectorF c = mutate ? this : new DenseVectorF(n);
+        for (int i = 0; i < n; i++) {
+            c.setData(i, get(i) + s);
+        }
+        return c;
+    }
+
+    @Override
+    public final VectorF subtractScalar(Number v) {
+        return subtractScalar(v, mutate);
+    }
+
+    @Override
+    public final VectorF subtractScalar(Number v, boolean mutate) {
+        return addScalar(-v.floatValue(), mutate);
+    }
+
+    @Override
+    public final VectorF multiplyScalar(Number v) {
+        return multiplyScalar(v, mutate);
+    }
+
+    @Override
+    public final VectorF multiplyScalar(Number v, boolean mutate) {
+        return scaleInto(v.floatValue(), mutate ? this : new DenseVectorF(n));
+    }
+
+    @Override
+    public final VectorF divideScalar(Number v) {
+        return divideScalar(v, mutate);
+    }
+
+    @Override
+    public final VectorF divideScalar(Number v, boolean mutate) {
+        if (v.floatValue() == 0) {
+            throw new RuntimeException("Divide By Zero.");
+        }
+        return divide(v.floatValue(), mutate);
+    }
+
+    private VectorF divide(float s, boolean mutate) {
+        VectorF c = mutate ? this : new DenseVectorF(n);
+        for (int i = 0; i < n; i++) {
+            c.setData(i, get(i) / s);
+        }
+        return c;
+    }
+}
@@ -0,0 +1,340 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math.linear;
+
+import kinetic.math.DenseMatrixD;
+import kinetic.math.Matrix;
+import kinetic.math.MatrixD;
+import kinetic.math.MultiplyKernel;
+import kinetic.math.QuickMath;
+
+/**
+ * Cholesky Decomposition of a symmetric positive definite matrix, A = L*L'.
+ *
+ * Only the lower triangle of A is read, so a covariance matrix whose upper
+ * and lower triangles differ in the last bit still factors. The
+ * factorisation is right looking and blocked: each diagonal block of
+ * BLOCK_SIZE columns is factored directly, the panel below it is found by
+ * triangular solve and the lower triangle of the trailing submatrix is
+ * updated a block row at a time through the MultiplyKernel. L is held in a
+ * row major double array.
+ *
+ * If A is not positive definite the factorisation stops and isSPD returns
+ * false. Once factored, update and downdate modify L in O(n^2) so that it
+ * factors A + x*x' or A - x*x' without refactoring.
+ *
+ * @author openecho
+ */
+public class CholeskyDecompositionD extends MatrixDecomposition {
+
+    /**
+     * Columns factored per block.
+     */
+    public static final int BLOCK_SIZE = 64;
+    /**
+     * Row major n by n lower triangular factor, zero above the diagonal.
+     */
+    double[] l;
+    int n;
+    boolean spd;
+
+    public CholeskyDecompositionD(Matrix a) {
+        super(a);
+    }
+
+    @Override
+    protected boolean handleDecompose() {
+        n = a.getN();
+        if (a.getM() != n) {
+            throw new IllegalArgumentException("Matrix must be square. m != n.");
+        }
+        l = new double[n * n];
+        if (a instanceof MatrixD) {
+            ((MatrixD) a).getRows(0, n, l);
+        } else {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j <= i; j++) {
+                    l[i * n + j] = a.getData(i, j).doubleValue();
+                }
+            }
+        }
+        spd = true;
+        double[] panel = new double[BLOCK_SIZE * n];
+        for (int k0 = 0; k0 < n && spd; k0 += BLOCK_SIZE) {
+            int k1 = QuickMath.min(k0 + BLOCK_SIZE, n);
+            int nb = k1 - k0;
+            // L11 L11' = A11
+            for (int j = k0; j < k1 && spd; j++) {
+                int rowJ = j * n;
+                double d = l[rowJ + j];
+                for (int k = k0; k < j; k++) {
+                    d -= l[rowJ + k] * l[rowJ + k];
+                }
+                if (!(d > 0D)) {
+                    spd = false;
+                    break;
+                }
+                d = Math.sqrt(d);
+                l[rowJ + j] = d;
+                for (int i = j + 1; i < k1; i++) {
+                    int rowI = i * n;
+                    double s = l[rowI + j];
+                    for (int k = k0; k < j; k++) {
+                        s -= l[rowI + k] * l[rowJ + k];
+                    }
+                    l[rowI + j] = s / d;
+                }
+            }
+            if (!spd || k1 == n) {
+                break;
+            }
+            // L21 = A21 L11'^-1
+            for (int i = k1; i < n; i++) {
+                int rowI = i * n;
+                for (int j = k0; j < k1; j++) {
+                    int rowJ = j * n;
+                    double s = l[rowI + j];
+                    for (int k = k0; k < j; k++) {
+                        s -= l[rowI + k] * l[rowJ + k];
+                    }
+                    l[rowI + j] = s / l[rowJ + j];
+                }
+            }
+            // lower(A22) -= L21 L21', one block row at a time
+            int rest = n - k1;
+            for (int p = 0; p < nb; p++) {
+                for (int i = k1; i < n; i++) {
+                    panel[p * rest + (i - k1)] = l[i * n + k0 + p];
+                }
+            }
+            for (int i0 = k1; i0 < n; i0 += BLOCK_SIZE) {
+                int i1 = QuickMath.min(i0 + BLOCK_SIZE, n);
+                MultiplyKernel.multiply(i1 - i0, nb, i1 - k1, -1D,
+                        l, i0 * n + k0, n,
+                        panel, 0, rest,
+                        l, i0 * n + k1, n);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                l[i * n + j] = 0D;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Is the matrix symmetric positive definite.
+     * @return true if the factorisation completed.
+     */
+    public boolean isSPD() {
+        if (!isDecomposed()) {
+            decompose();
+        }
+        return spd;
+    }
+
+    public MatrixD getL() {
+        checkSPD();
+        return new DenseMatrixD(n, n, l.clone(), false);
+    }
+
+    /**
+     * Decomposes if needed and checks a complete factor is available.
+     */
+    private void checkSPD() {
+        if (!isSPD()) {
+            throw new RuntimeException("Matrix is not symmetric positive definite.");
+        }
+    }
+
+    /**
+     * Determinant of A, the square of the product of the diagonal of L.
+     * @return det(A)
+     */
+    public double determinant() {
+        checkSPD();
+        double d = 1D;
+        for (int j = 0; j < n; j++) {
+            d *= l[j * n + j];
+        }
+        return d * d;
+    }
+
+    /**
+     * Natural log of the determinant of A, which does not overflow for
+     * large matrices.
+     * @return log(det(A))
+     */
+    public double logDeterminant() {
+        checkSPD();
+        double d = 0D;
+        for (int j = 0; j < n; j++) {
+            d += Math.log(l[j * n + j]);
+        }
+        return 2D * d;
+    }
+
+    /**
+     * Solves A*X = B for X reusing the factorisation. B may have any number
+     * of columns and is not modified.
+     * @param b Matrix B with n rows.
+     * @return X such that L*L'*X = B
+     */
+    public DenseMatrixD solve(Matrix b) {
+        checkSPD();
+        if (b.getM() != n) {
+            throw new IllegalArgumentException("Matrix row dimensions must agree.");
+        }
+        int r = b.getN();
+        double[] x = new double[n * r];
+        if (b instanceof MatrixD) {
+            ((MatrixD) b).getRows(0, n, x);
+        } else {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < r; j++) {
+                    x[i * r + j] = b.getData(i, j).doubleValue();
+                }
+            }
+        }
+        solveInPlace(x, r);
+        return new DenseMatrixD(n, r, x, false);
+    }
+
+    /**
+     * Solves A*x = b for a single right hand side.
+     * @param b right hand side of length n.
+     * @return x
+     */
+    public double[] solve(double[] b) {
+        checkSPD();
+        if (b.length != n) {
+            throw new IllegalArgumentException("Matrix row dimensions must agree.");
+        }
+        double[] x = b.clone();
+        solveInPlace(x, 1);
+        return x;
+    }
+
+    /**
+     * A^-1 from the factorisation.
+     * @return DenseMatrixD inverse of A.
+     */
+    public DenseMatrixD inverse() {
+        checkSPD();
+        double[] x = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            x[i * n + i] = 1D;
+        }
+        solveInPlace(x, n);
+        return new DenseMatrixD(n, n, x, false);
+    }
+
+    /**
+     * Forward substitution with L then back substitution with L' of the n
+     * by r right hand sides held row major in x.
+     */
+    private void solveInPlace(double[] x, int r) {
+        // Solve L*Y = B;
+        for (int k = 0; k < n; k++) {
+            int rowK = k * r;
+            double d = l[k * n + k];
+            for (int j = 0; j < r; j++) {
+                x[rowK + j] /= d;
+            }
+            for (int i = k + 1; i < n; i++) {
+                double f = l[i * n + k];
+                if (f != 0D) {
+                    int rowI = i * r;
+                    for (int j = 0; j < r; j++) {
+                        x[rowI + j] -= x[rowK + j] * f;
+                    }
+                }
+            }
+        }
+        // Solve L'*X = Y;
+        for (int k = n - 1; k >= 0; k--) {
+            int rowK = k * r;
+            double d = l[k * n + k];
+            for (int j = 0; j < r; j++) {
+                x[rowK + j] /= d;
+            }
+            for (int i = 0; i < k; i++) {
+                double f = l[k * n + i];
+                if (f != 0D) {
+                    int rowI = i * r;
+                    for (int j = 0; j < r; j++) {
+                        x[rowI + j] -= x[rowK + j] * f;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Rank one update. Afterwards this decomposition factors A + x*x', where
+     * A is the matrix currently factored, for example to add an observation
+     * to a covariance matrix. x is not modified.
+     * @param x vector of length n.
+     * @throws UnsupportedOperationException if this decomposition came from
+     * a DecompositionCache.
+     */
+    public void update(double[] x) {
+        rotate(x, 1D);
+    }
+
+    /**
+     * Rank one downdate. Afterwards this decomposition factors A - x*x',
+     * where A is the matrix currently factored. x is not modified.
+     * @param x vector of length n.
+     * @throws RuntimeException if A - x*x' is not positive definite, in
+     * which case the factor is left unusable and isSPD returns false.
+     * @throws UnsupportedOperationException if this decomposition came from
+     * a DecompositionCache.
+     */
+    public void downdate(double[] x) {
+        rotate(x, -1D);
+    }
+
+    private void rotate(double[] x, double sign) {
+        if (cached) {
+            throw new UnsupportedOperationException("Cached decompositions cannot be updated.");
+        }
+        checkSPD();
+        if (x.length != n) {
+            throw new IllegalArgumentException("Vector length must equal n.");
+        }
+        double[] w = x.clone();
+        for (int k = 0; k < n; k++) {
+            int rowK = k * n;
+            double lkk = l[rowK + k];
+            double rr = lkk * lkk + sign * w[k] * w[k];
+            if (!(rr > 0D)) {
+                spd = false;
+                throw new RuntimeException("Matrix is not symmetric positive definite.");
+            }
+            double r = Math.sqrt(rr);
+            double c = r / lkk;
+            double s = w[k] / lkk;
+            l[rowK + k] = r;
+            for (int i = k + 1; i < n; i++) {
+                int ik = i * n + k;
+                l[ik] = (l[ik] + sign * s * w[i]) / c;
+                w[i] = c * w[i] - s * l[ik];
+            }
+        }
+    }
+}
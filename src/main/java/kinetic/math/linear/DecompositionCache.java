@@ -0,0 +1,215 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math.linear;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import kinetic.math.Matrix;
+
+/**
+ * Small least recently used cache of decompositions keyed by matrix
+ * identity, so repeated determinant and solve calls on an unchanged matrix
+ * factor it once.
+ *
+ * A cached decomposition compares the modification count of its matrix on
+ * every query and refactors it when the matrix has changed, so entries
+ * never go stale; a modified matrix simply costs one new factorisation.
+ * Entries hold strong references to their matrices, so the capacity should
+ * stay small. Lookups are thread safe and each decomposition is computed
+ * under its own lock, not the lock of the cache.
+ *
+ * Caching is opt-in: MatrixD.solve, MatrixD.determinant and invert only reuse
+ * decompositions once a shared cache has been installed with setShared,
+ * otherwise they factor A on every call and keep nothing alive. Cached
+ * decompositions are shared between callers, so they refuse setMatrix and
+ * the Cholesky update and downdate.
+ *
+ * @author openecho
+ */
+public final class DecompositionCache {
+
+    /**
+     * Suggested capacity of a shared cache.
+     */
+    public static final int DEFAULT_CAPACITY = 8;
+    private static final int LU = 0, QR = 1, CHOLESKY = 2;
+    private static volatile DecompositionCache shared;
+    private final LinkedHashMap<Key, MatrixDecomposition> entries;
+    private int capacity;
+
+    /**
+     * @param capacity maximum number of decompositions kept.
+     */
+    public DecompositionCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be >= 1.");
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Key, MatrixDecomposition>(16, 0.75F, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, MatrixDecomposition> eldest) {
+                return size() > DecompositionCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Cache used by MatrixD.solve, MatrixD.determinant and invert.
+     * @return shared DecompositionCache, null when caching is off.
+     */
+    public static DecompositionCache getShared() {
+        return shared;
+    }
+
+    /**
+     * Installs the cache used by MatrixD.solve, MatrixD.determinant and
+     * invert, for example new DecompositionCache(DEFAULT_CAPACITY).
+     * @param cache shared DecompositionCache, null turns caching off.
+     */
+    public static void setShared(DecompositionCache cache) {
+        shared = cache;
+    }
+
+    /**
+     * LU decomposition of a from the shared cache when one is installed,
+     * otherwise a new decomposition.
+     * @param a square Matrix a.
+     * @return LUDecompositionD of a.
+     */
+    public static LUDecompositionD lu(Matrix a) {
+        DecompositionCache cache = shared;
+        return (cache == null) ? new LUDecompositionD(a) : cache.getLU(a);
+    }
+
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Changes the capacity, evicting the least recently used entries if
+     * there are now too many.
+     * @param capacity maximum number of decompositions kept.
+     */
+    public synchronized void setCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be >= 1.");
+        }
+        this.capacity = capacity;
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (entries.size() > capacity) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Drops every decomposition of a matrix, for example before discarding
+     * a large one.
+     * @param a Matrix a.
+     */
+    public synchronized void remove(Matrix a) {
+        entries.remove(new Key(a, LU));
+        entries.remove(new Key(a, QR));
+        entries.remove(new Key(a, CHOLESKY));
+    }
+
+    /**
+     * @param a square Matrix a.
+     * @return decomposed LUDecompositionD of a.
+     */
+    public LUDecompositionD getLU(Matrix a) {
+        return (LUDecompositionD) get(a, LU);
+    }
+
+    /**
+     * @param a Matrix a with m >= n.
+     * @return decomposed QRDecompositionD of a.
+     */
+    public QRDecompositionD getQR(Matrix a) {
+        return (QRDecompositionD) get(a, QR);
+    }
+
+    /**
+     * @param a symmetric Matrix a.
+     * @return decomposed CholeskyDecompositionD of a, which cannot be
+     * updated or downdated.
+     */
+    public CholeskyDecompositionD getCholesky(Matrix a) {
+        return (CholeskyDecompositionD) get(a, CHOLESKY);
+    }
+
+    private MatrixDecomposition get(Matrix a, int kind) {
+        if (a == null) {
+            throw new NullPointerException("Matrix a cannot be null.");
+        }
+        Key key = new Key(a, kind);
+        MatrixDecomposition d;
+        synchronized (this) {
+            d = entries.get(key);
+            if (d == null) {
+                d = (kind == LU) ? new LUDecompositionD(a)
+                        : (kind == QR) ? new QRDecompositionD(a)
+                        : new CholeskyDecompositionD(a);
+                d.cached = true;
+                entries.put(key, d);
+            }
+        }
+        synchronized (d) {
+            if (!d.isDecomposed()) {
+                d.decompose();
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Matrix identity and decomposition kind.
+     */
+    private static final class Key {
+
+        final Matrix matrix;
+        final int kind;
+
+        Key(Matrix matrix, int kind) {
+            this.matrix = matrix;
+            this.kind = kind;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(matrix) * 31 + kind;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return k.matrix == matrix && k.kind == kind;
+        }
+    }
+}
@@ -48,11 +48,26 @@ import kinetic.math.QuickMath;
  * conditioned, or even singular, so the validity of the equation
  * A = V*D*inverse(V) depends upon V.cond().
  *
+ * Symmetric matrices never touch the Hessenberg storage. When only the
+ * eigenvalues are requested the Householder transformations are not
+ * accumulated and the QL iteration runs on the tridiagonal alone, which
+ * is O(n^2) after the reduction. When only the k largest eigenpairs of a
+ * symmetric matrix are requested the eigenvalues are found that way, the
+ * eigenvectors of the tridiagonal are found by inverse iteration and then
+ * mapped back through the stored Householder vectors. Working arrays are
+ * kept between decompositions, so an instance reused through setMatrix
+ * on matrices of the same size allocates nothing.
+ *
  * @author openecho
  * @author The Mathworks and NIST
  **/
 public class EigendecompositionD extends MatrixDecomposition {
 
+    private static final double EPS = Math.pow(2.0, -52.0);
+    /**
+     * Inverse iteration steps per eigenvector of the tridiagonal.
+     */
+    private static final int INVERSE_ITERATIONS = 3;
     /**
      * Row and column dimension (square matrix).
      */
@@ -61,6 +76,14 @@ public class EigendecompositionD extends MatrixDecomposition {
      * Symmetry flag.
      */
     private boolean issymmetric;
+    /**
+     * Compute eigenvectors as well as eigenvalues.
+     */
+    private final boolean vectors;
+    /**
+     * Number of largest eigenpairs to compute, 0 for all of them.
+     */
+    private final int top;
     /**
      * Arrays for internal storage of eigenvalues.
      */
@@ -77,51 +100,101 @@ public class EigendecompositionD extends MatrixDecomposition {
      * Working storage for nonsymmetric algorithm.
      */
     private double[] ort;
+    /**
+     * Largest k eigenvalues, ascending, and their n by k eigenvectors.
+     */
+    private double[] topValues;
+    private double[][] topVectors;
+    /**
+     * Working storage for the top k path: Householder scalars, a copy of
+     * the tridiagonal and its pivoted LU factors.
+     */
+    private double[] householder, diagonal, offDiagonal, lower, upper, upper1, upper2, x;
+    private boolean[] swapped;
 
     public EigendecompositionD(Matrix a) {
+        this(a, true);
+    }
+
+    /**
+     * @param a Matrix a.
+     * @param vectors false to compute only the eigenvalues. Only symmetric
+     * matrices benefit, eigenvectors of nonsymmetric matrices are always
+     * computed.
+     */
+    public EigendecompositionD(Matrix a, boolean vectors) {
+        super(a);
+        this.vectors = vectors;
+        this.top = 0;
+    }
+
+    /**
+     * Computes only the k largest eigenvalues and their eigenvectors of a
+     * symmetric matrix.
+     * @param a symmetric Matrix a.
+     * @param k number of eigenpairs, 1 to n.
+     */
+    public EigendecompositionD(Matrix a, int k) {
         super(a);
+        if (k < 1 || k > a.getN()) {
+            throw new IllegalArgumentException("k must be between 1 and n.");
+        }
+        this.vectors = true;
+        this.top = k;
     }
 
     @Override
     protected boolean handleDecompose() {
         n = a.getN();
-        double[][] aData = new double[n][n];
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                aData[i][j] = a.getData(i, j).doubleValue();
+        if (a.getM() != n) {
+            throw new IllegalArgumentException("Matrix must be square. m != n.");
+        }
+        if (eigenVectors == null || eigenVectors.length != n) {
+            eigenVectors = new double[n][n];
+            d = new double[n];
+            e = new double[n];
+            hessenberg = null;
+        }
+        if (a instanceof MatrixD) {
+            MatrixD matrix = (MatrixD) a;
+            for (int i = 0; i < n; i++) {
+                matrix.getRows(i, 1, eigenVectors[i]);
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    eigenVectors[i][j] = a.getData(i, j).doubleValue();
+                }
             }
         }
 
-        eigenVectors = new double[n][n];
-        d = new double[n];
-        e = new double[n];
-
         issymmetric = true;
         for (int j = 0; (j < n) & issymmetric; j++) {
-            for (int i = 0; (i < n) & issymmetric; i++) {
-                issymmetric = (aData[i][j] == aData[j][i]);
+            for (int i = 0; (i < j) & issymmetric; i++) {
+                issymmetric = (eigenVectors[i][j] == eigenVectors[j][i]);
             }
         }
 
         if (issymmetric) {
-            for (int i = 0; i < n; i++) {
-                System.arraycopy(aData[i], 0, eigenVectors[i], 0, n);
-            }
-
-            // Tridiagonalize.
-            tred2();
-
-            // Diagonalize.
-            tql2();
+            if (top > 0) {
+                topEigenpairs();
+            } else {
+                // Tridiagonalize.
+                tred2(vectors);
 
+                // Diagonalize.
+                tql2(vectors);
+            }
         } else {
-            hessenberg = new double[n][n];
-            ort = new double[n];
-
-            for (int j = 0; j < n; j++) {
-                for (int i = 0; i < n; i++) {
-                    hessenberg[i][j] = aData[i][j];
-                }
+            if (top > 0) {
+                throw new IllegalArgumentException("Matrix must be symmetric to compute the largest k eigenpairs.");
+            }
+            if (hessenberg == null) {
+                hessenberg = new double[n][n];
+                ort = new double[n];
+            }
+            for (int i = 0; i < n; i++) {
+                System.arraycopy(eigenVectors[i], 0, hessenberg[i], 0, n);
             }
 
             // Reduce to Hessenberg form.
@@ -133,37 +206,58 @@ public class EigendecompositionD extends MatrixDecomposition {
         return true;
     }
 
-    public MatrixD getV() {
+    /**
+     * Decomposes on first use.
+     */
+    private void check() {
         if (!isDecomposed()) {
             decompose();
         }
+    }
+
+    /**
+     * Eigenvector matrix, n by k when only the k largest eigenpairs were
+     * requested.
+     * @return V
+     */
+    public MatrixD getV() {
+        check();
+        if (top > 0) {
+            return MatrixD.create(topVectors);
+        }
+        if (!vectors && issymmetric) {
+            throw new RuntimeException("Eigenvectors were not computed.");
+        }
         return MatrixD.create(eigenVectors);
     }
 
+    /**
+     * Real parts of the eigenvalues, ascending for a symmetric matrix. The
+     * array is working storage and is overwritten when this instance is
+     * reused.
+     * @return real eigenvalues.
+     */
     public double[] getRealEigenvalues() {
-        if (!isDecomposed()) {
-            decompose();
-        }
-        return d;
+        check();
+        return (top > 0) ? topValues : d;
     }
 
     public double[] getImagEigenvalues() {
-        if (!isDecomposed()) {
-            decompose();
-        }
-        return e;
+        check();
+        return (top > 0) ? new double[top] : e;
     }
 
     public MatrixD getD() {
-        if (!isDecomposed()) {
-            decompose();
+        check();
+        if (top > 0) {
+            double[][] D = new double[top][top];
+            for (int i = 0; i < top; i++) {
+                D[i][i] = topValues[i];
+            }
+            return MatrixD.create(D, true);
         }
-        MatrixD X = MatrixD.empty(n, n);
-        Double[][] D = X.getData();
+        double[][] D = new double[n][n];
         for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                D[i][j] = 0.0;
-            }
             D[i][i] = d[i];
             if (e[i] > 0) {
                 D[i][i + 1] = e[i];
@@ -171,11 +265,163 @@ public class EigendecompositionD extends MatrixDecomposition {
                 D[i][i - 1] = e[i];
             }
         }
-        return X;
+        return MatrixD.create(D, true);
+    }
+
+    /**
+     * Largest k eigenpairs of a symmetric matrix. The matrix is reduced to
+     * tridiagonal T = Q'*A*Q without forming Q, all eigenvalues of T are
+     * found by QL, the eigenvectors of T belonging to the k largest by
+     * inverse iteration and these are multiplied by Q.
+     */
+    private void topEigenpairs() {
+        if (householder == null || householder.length != n) {
+            householder = new double[n];
+            diagonal = new double[n];
+            offDiagonal = new double[n];
+            lower = new double[n];
+            upper = new double[n];
+            upper1 = new double[n];
+            upper2 = new double[n];
+            x = new double[n];
+            swapped = new boolean[n];
+            topVectors = null;
+        }
+        if (topVectors == null || topVectors[0].length != top) {
+            topValues = new double[top];
+            topVectors = new double[n][top];
+        }
+        tred2(false);
+        // T has diagonal d and off diagonal e[1..n-1].
+        System.arraycopy(d, 0, diagonal, 0, n);
+        for (int i = 0; i < n - 1; i++) {
+            offDiagonal[i] = e[i + 1];
+        }
+        double norm = 0D;
+        for (int i = 0; i < n; i++) {
+            norm = Math.max(norm, Math.abs(diagonal[i]) + Math.abs(e[i]) + Math.abs((i < n - 1) ? e[i + 1] : 0D));
+        }
+        tql2(false);
+        System.arraycopy(d, n - top, topValues, 0, top);
+
+        // Inverse iteration on T, orthogonal to the vectors already found.
+        double tiny = Math.max(EPS * norm, Double.MIN_NORMAL);
+        for (int c = 0; c < top; c++) {
+            factorShifted(topValues[c], tiny);
+            for (int i = 0; i < n; i++) {
+                x[i] = 1D + 0.5D * Math.sin(i + c);
+            }
+            for (int iter = 0; iter < INVERSE_ITERATIONS; iter++) {
+                solveShifted();
+                for (int p = 0; p < c; p++) {
+                    double dot = 0D;
+                    for (int i = 0; i < n; i++) {
+                        dot += topVectors[i][p] * x[i];
+                    }
+                    for (int i = 0; i < n; i++) {
+                        x[i] -= dot * topVectors[i][p];
+                    }
+                }
+                double nrm = 0D;
+                for (int i = 0; i < n; i++) {
+                    nrm = QuickMath.hypot(nrm, x[i]);
+                }
+                for (int i = 0; i < n; i++) {
+                    x[i] /= nrm;
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                topVectors[i][c] = x[i];
+            }
+        }
+
+        // Back transformation, V = Q*Z with Q = P(n-1)...P(1).
+        for (int i = 0; i < n - 1; i++) {
+            double h = householder[i + 1];
+            if (h != 0.0) {
+                for (int c = 0; c < top; c++) {
+                    double g = 0.0;
+                    for (int r = 0; r <= i; r++) {
+                        g += eigenVectors[r][i + 1] * topVectors[r][c];
+                    }
+                    g /= h;
+                    for (int r = 0; r <= i; r++) {
+                        topVectors[r][c] -= g * eigenVectors[r][i + 1];
+                    }
+                }
+            }
+        }
     }
 
-    // Symmetric Householder reduction to tridiagonal form.
-    private void tred2() {
+    /**
+     * LU factorisation with partial pivoting of T - lambda*I, zero pivots
+     * replaced by tiny. U has diagonal upper and super diagonals upper1 and
+     * upper2, L unit lower bidiagonal with multipliers lower.
+     */
+    private void factorShifted(double lambda, double tiny) {
+        for (int i = 0; i < n; i++) {
+            upper[i] = diagonal[i] - lambda;
+            upper1[i] = (i < n - 1) ? offDiagonal[i] : 0D;
+            upper2[i] = 0D;
+            lower[i] = upper1[i];
+        }
+        for (int i = 0; i < n - 1; i++) {
+            if (Math.abs(upper[i]) >= Math.abs(lower[i])) {
+                swapped[i] = false;
+                if (upper[i] == 0D) {
+                    upper[i] = tiny;
+                }
+                double f = lower[i] / upper[i];
+                lower[i] = f;
+                upper[i + 1] -= f * upper1[i];
+            } else {
+                swapped[i] = true;
+                double f = upper[i] / lower[i];
+                upper[i] = lower[i];
+                lower[i] = f;
+                double t = upper1[i];
+                upper1[i] = upper[i + 1];
+                upper[i + 1] = t - f * upper[i + 1];
+                if (i < n - 2) {
+                    upper2[i] = upper1[i + 1];
+                    upper1[i + 1] = -f * upper1[i + 1];
+                }
+            }
+        }
+        if (upper[n - 1] == 0D) {
+            upper[n - 1] = tiny;
+        }
+    }
+
+    /**
+     * Overwrites x with (T - lambda*I)^-1 * x using factorShifted.
+     */
+    private void solveShifted() {
+        for (int i = 0; i < n - 1; i++) {
+            if (swapped[i]) {
+                double t = x[i];
+                x[i] = x[i + 1];
+                x[i + 1] = t - lower[i] * x[i];
+            } else {
+                x[i + 1] -= lower[i] * x[i];
+            }
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double s = x[i];
+            if (i < n - 1) {
+                s -= upper1[i] * x[i + 1];
+            }
+            if (i < n - 2) {
+                s -= upper2[i] * x[i + 2];
+            }
+            x[i] = s / upper[i];
+        }
+    }
+
+    // Symmetric Householder reduction to tridiagonal form. Without vectors
+    // the Householder vectors are left in the columns above the diagonal
+    // and their scalars in householder.
+    private void tred2(boolean vectors) {
         System.arraycopy(eigenVectors[n - 1], 0, d, 0, n);
 
         // Householder reduction to tridiagonal form.
@@ -250,6 +496,17 @@ public class EigendecompositionD extends MatrixDecomposition {
             d[i] = h;
         }
 
+        if (!vectors) {
+            if (top > 0) {
+                System.arraycopy(d, 0, householder, 0, n);
+            }
+            for (int j = 0; j < n; j++) {
+                d[j] = eigenVectors[j][j];
+            }
+            e[0] = 0.0;
+            return;
+        }
+
         // Accumulate transformations.
 
         for (int i = 0; i < n - 1; i++) {
@@ -282,8 +539,8 @@ public class EigendecompositionD extends MatrixDecomposition {
         e[0] = 0.0;
     }
 
-    // Symmetric tridiagonal QL algorithm.
-    private void tql2() {
+    // Symmetric tridiagonal QL algorithm, eigenvalues only without vectors.
+    private void tql2(boolean vectors) {
 
         //  This is derived from the Algol procedures tql2, by
         //  Bowdler, Martin, Reinsch, and Wilkinson, Handbook for
@@ -360,10 +617,12 @@ public class EigendecompositionD extends MatrixDecomposition {
 
                         // Accumulate transformation.
 
-                        for (int k = 0; k < n; k++) {
-                            h = eigenVectors[k][i + 1];
-                            eigenVectors[k][i + 1] = s * eigenVectors[k][i] + c * h;
-                            eigenVectors[k][i] = c * eigenVectors[k][i] - s * h;
+                        if (vectors) {
+                            for (int k = 0; k < n; k++) {
+                                h = eigenVectors[k][i + 1];
+                                eigenVectors[k][i + 1] = s * eigenVectors[k][i] + c * h;
+                                eigenVectors[k][i] = c * eigenVectors[k][i] - s * h;
+                            }
                         }
                     }
                     p = -s * s2 * c3 * el1 * e[l] / dl1;
@@ -392,7 +651,7 @@ public class EigendecompositionD extends MatrixDecomposition {
             if (k != i) {
                 d[k] = d[i];
                 d[i] = p;
-                for (int j = 0; j < n; j++) {
+                for (int j = 0; j < n && vectors; j++) {
                     p = eigenVectors[j][i];
                     eigenVectors[j][i] = eigenVectors[j][k];
                     eigenVectors[j][k] = p;
@@ -28,17 +28,39 @@
  **/
 package kinetic.math.linear;
 
+import kinetic.math.DenseMatrixD;
 import kinetic.math.Matrix;
 import kinetic.math.MatrixD;
+import kinetic.math.MultiplyKernel;
 import kinetic.math.QuickMath;
 
 /**
+ * LU Decomposition with partial pivoting, PA = LU.
+ *
+ * The factorisation is right looking and blocked. Each panel of BLOCK_SIZE
+ * columns is factored with the Crout/Doolittle column algorithm, the block
+ * row of U to its right is found by forward substitution and the trailing
+ * submatrix is updated with a single MultiplyKernel call, so most of the
+ * work runs in the cache blocked kernel. Everything is held in one row
+ * major double array; the input is copied once without boxing where it
+ * stores primitives.
+ *
+ * The factorisation is computed on first use and kept, so any number of
+ * calls to solve, inverse and determinant share it.
  *
  * @author openecho
  */
 public class LUDecompositionD extends MatrixDecomposition {
 
-    double[][] lu;
+    /**
+     * Columns factored per panel.
+     */
+    public static final int BLOCK_SIZE = 64;
+    /**
+     * Row major m by n factors, L below the diagonal (unit diagonal implied)
+     * and U on and above it.
+     */
+    double[] lu;
     int m, n, pivSign;
     private int[] piv;
 
@@ -50,10 +72,14 @@ public class LUDecompositionD extends MatrixDecomposition {
     protected boolean handleDecompose() {
         m = a.getM();
         n = a.getN();
-        lu = new double[m][n];
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < n; j++) {
-                lu[i][j] = a.getData(i, j).doubleValue();
+        lu = new double[m * n];
+        if (a instanceof MatrixD) {
+            ((MatrixD) a).getRows(0, m, lu);
+        } else {
+            for (int i = 0; i < m; i++) {
+                for (int j = 0; j < n; j++) {
+                    lu[i * n + j] = a.getData(i, j).doubleValue();
+                }
             }
         }
         piv = new int[m];
@@ -61,22 +87,57 @@ public class LUDecompositionD extends MatrixDecomposition {
             piv[i] = i;
         }
         pivSign = 1;
-        double[] luRowI;
+        int min = QuickMath.min(m, n);
         double[] luColJ = new double[m];
-        for (int j = 0; j < n; j++) {
+        for (int j0 = 0; j0 < min; j0 += BLOCK_SIZE) {
+            int j1 = QuickMath.min(j0 + BLOCK_SIZE, min);
+            factorPanel(j0, j1, luColJ);
+            if (j1 < n) {
+                // U12 = L11^-1 A12
+                for (int k = j0; k < j1; k++) {
+                    int rowK = k * n;
+                    for (int i = k + 1; i < j1; i++) {
+                        double l = lu[i * n + k];
+                        if (l != 0D) {
+                            int rowI = i * n;
+                            for (int j = j1; j < n; j++) {
+                                lu[rowI + j] -= l * lu[rowK + j];
+                            }
+                        }
+                    }
+                }
+                // A22 -= L21 U12
+                if (j1 < m) {
+                    MultiplyKernel.multiply(m - j1, j1 - j0, n - j1, -1D,
+                            lu, j1 * n + j0, n,
+                            lu, j0 * n + j1, n,
+                            lu, j1 * n + j1, n);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Factors columns j0 to j1 of rows j0 to m in place, swapping whole rows
+     * as pivots are chosen. Earlier panels have already been applied to
+     * these columns by the trailing update.
+     */
+    private void factorPanel(int j0, int j1, double[] luColJ) {
+        for (int j = j0; j < j1; j++) {
             // Make a copy of the j-th column to localize references.
-            for (int i = 0; i < m; i++) {
-                luColJ[i] = lu[i][j];
+            for (int i = j0; i < m; i++) {
+                luColJ[i] = lu[i * n + j];
             }
-            // Apply previous transformations.
-            for (int i = 0; i < m; i++) {
-                luRowI = lu[i];
+            // Apply previous transformations within the panel.
+            for (int i = j0; i < m; i++) {
+                int rowI = i * n;
                 int kMax = QuickMath.min(i, j);
                 double s = 0.0;
-                for (int k = 0; k < kMax; k++) {
-                    s += luRowI[k] * luColJ[k];
+                for (int k = j0; k < kMax; k++) {
+                    s += lu[rowI + k] * luColJ[k];
                 }
-                luRowI[j] = luColJ[i] -= s;
+                lu[rowI + j] = luColJ[i] -= s;
             }
             // Find pivot and exchange if necessary.
             int p = j;
@@ -86,10 +147,12 @@ public class LUDecompositionD extends MatrixDecomposition {
                 }
             }
             if (p != j) {
+                int rowP = p * n;
+                int rowJ = j * n;
                 for (int k = 0; k < n; k++) {
-                    double t = lu[p][k];
-                    lu[p][k] = lu[j][k];
-                    lu[j][k] = t;
+                    double t = lu[rowP + k];
+                    lu[rowP + k] = lu[rowJ + k];
+                    lu[rowJ + k] = t;
                 }
                 int k = piv[p];
                 piv[p] = piv[j];
@@ -97,13 +160,13 @@ public class LUDecompositionD extends MatrixDecomposition {
                 pivSign = -pivSign;
             }
             // Compute multipliers.
-            if (j < m & lu[j][j] != 0.0) {
+            double pivot = lu[j * n + j];
+            if (j < m & pivot != 0.0) {
                 for (int i = j + 1; i < m; i++) {
-                    lu[i][j] /= lu[j][j];
+                    lu[i * n + j] /= pivot;
                 }
             }
         }
-        return true;
     }
 
     public MatrixD getL() {
@@ -114,7 +177,7 @@ public class LUDecompositionD extends MatrixDecomposition {
         for (int i = 0; i < m; i++) {
             for (int j = 0; j < n; j++) {
                 if (i > j) {
-                    l.setData(i, j, lu[i][j]);
+                    l.setData(i, j, lu[i * n + j]);
                 } else if (i == j) {
                     l.setData(i, j, 1D);
                 } else {
@@ -133,7 +196,7 @@ public class LUDecompositionD extends MatrixDecomposition {
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
                 if (i <= j) {
-                    u.setData(i, j, lu[i][j]);
+                    u.setData(i, j, lu[i * n + j]);
                 } else {
                     u.setData(i, j, 0D);
                 }
@@ -151,6 +214,22 @@ public class LUDecompositionD extends MatrixDecomposition {
         return p;
     }
 
+    /**
+     * Is the decomposed matrix non singular.
+     * @return true if U, and hence A, has no zero on its diagonal.
+     */
+    public boolean isNonSingular() {
+        if (!isDecomposed()) {
+            decompose();
+        }
+        for (int j = 0; j < n; j++) {
+            if (lu[j * n + j] == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public double determinant() {
         if (!isDecomposed()) {
             decompose();
@@ -160,8 +239,122 @@ public class LUDecompositionD extends MatrixDecomposition {
         }
         double d = (double) pivSign;
         for (int j = 0; j < n; j++) {
-            d *= lu[j][j];
+            d *= lu[j * n + j];
         }
         return d;
     }
+
+    /**
+     * Solves A*X = B for X reusing the factorisation. B may have any number
+     * of columns and is not modified.
+     * @param b Matrix B with as many rows as A.
+     * @return X such that L*U*X = B(piv,:).
+     */
+    public DenseMatrixD solve(Matrix b) {
+        checkSolvable();
+        if (b.getM() != m) {
+            throw new IllegalArgumentException("Matrix row dimensions must agree.");
+        }
+        int r = b.getN();
+        double[] x = new double[n * r];
+        if (b instanceof MatrixD) {
+            double[] rows = new double[m * r];
+            ((MatrixD) b).getRows(0, m, rows);
+            for (int i = 0; i < n; i++) {
+                System.arraycopy(rows, piv[i] * r, x, i * r, r);
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < r; j++) {
+                    x[i * r + j] = b.getData(piv[i], j).doubleValue();
+                }
+            }
+        }
+        solveInPlace(x, r);
+        return new DenseMatrixD(n, r, x, false);
+    }
+
+    /**
+     * Solves A*x = b for a single right hand side.
+     * @param b right hand side of length m.
+     * @return x
+     */
+    public double[] solve(double[] b) {
+        checkSolvable();
+        if (b.length != m) {
+            throw new IllegalArgumentException("Matrix row dimensions must agree.");
+        }
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = b[piv[i]];
+        }
+        solveInPlace(x, 1);
+        return x;
+    }
+
+    /**
+     * A^-1 from the factorisation.
+     * @return DenseMatrixD inverse of A.
+     */
+    public DenseMatrixD inverse() {
+        checkSolvable();
+        double[] x = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            x[i * n + piv[i]] = 1D;
+        }
+        solveInPlace(x, n);
+        return new DenseMatrixD(n, n, x, false);
+    }
+
+    /**
+     * Decomposes if needed and checks the factors can be solved against.
+     */
+    private void checkSolvable() {
+        if (!isDecomposed()) {
+            decompose();
+        }
+        if (m != n) {
+            throw new IllegalArgumentException("Matrix must be square. m != n.");
+        }
+        if (!isNonSingular()) {
+            throw new RuntimeException("Matrix is singular.");
+        }
+    }
+
+    /**
+     * Forward and back substitution of the row permuted n by r right hand
+     * sides held row major in x, overwriting them with the solution.
+     */
+    private void solveInPlace(double[] x, int r) {
+        // Solve L*Y = B(piv,:)
+        for (int k = 0; k < n; k++) {
+            int rowK = k * r;
+            for (int i = k + 1; i < n; i++) {
+                double l = lu[i * n + k];
+                if (l != 0D) {
+                    int rowI = i * r;
+                    for (int j = 0; j < r; j++) {
+                        x[rowI + j] -= x[rowK + j] * l;
+                    }
+                }
+            }
+        }
+        // Solve U*X = Y;
+        for (int k = n - 1; k >= 0; k--) {
+            int rowK = k * r;
+            double d = lu[k * n + k];
+            for (int j = 0; j < r; j++) {
+                x[rowK + j] /= d;
+            }
+            for (int i = 0; i < k; i++) {
+                double u = lu[i * n + k];
+                if (u != 0D) {
+                    int rowI = i * r;
+                    for (int j = 0; j < r; j++) {
+                        x[rowI + j] -= x[rowK + j] * u;
+                    }
+                }
+            }
+        }
+    }
 }
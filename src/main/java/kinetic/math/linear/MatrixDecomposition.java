@@ -20,15 +20,26 @@ import kinetic.math.Matrix;
 /**
  * Base Matrix Decomposition class.
  *
+ * Decompositions are computed lazily on the first query and kept until the
+ * matrix is modified, which is detected through its modification count.
+ *
  * @author openecho
  */
 public abstract class MatrixDecomposition {
 
     boolean decomposeFlag = false;
+    /**
+     * Modification count of the matrix when it was decomposed.
+     */
+    int version;
     /**
      * Matrix to be decomposed.
      */
     Matrix a;
+    /**
+     * Shared through a DecompositionCache, so it must keep factoring a.
+     */
+    boolean cached;
 
     /**
      * Default Constructor.
@@ -41,15 +52,41 @@ public abstract class MatrixDecomposition {
         this.a = a;
     }
 
+    /**
+     * Is a decomposition of the current contents of the matrix available.
+     * Modifying the matrix makes the decomposition stale, the getters of
+     * every decomposition then decompose it again on their next call.
+     * @return true if decomposed since the matrix was last modified.
+     */
     public boolean isDecomposed() {
-        return decomposeFlag;
+        return decomposeFlag && version == a.getModificationCount();
     }
 
     public void setDecomposeFlag(boolean decomposeFlag) {
         this.decomposeFlag = decomposeFlag;
     }
 
+    /**
+     * Replaces the matrix to be decomposed so that this instance, and any
+     * working storage it has allocated, can be reused for another matrix.
+     * The new matrix is decomposed on the next access.
+     * @param a Matrix a.
+     * @throws UnsupportedOperationException if this decomposition is held
+     * by a DecompositionCache.
+     */
+    public void setMatrix(Matrix a) {
+        if (a == null) {
+            throw new NullPointerException("Matrix a cannot be null.");
+        }
+        if (cached) {
+            throw new UnsupportedOperationException("Cached decompositions cannot be reused.");
+        }
+        this.a = a;
+        decomposeFlag = false;
+    }
+
     public final void decompose() {
+        version = a.getModificationCount();
         decomposeFlag = handleDecompose();
     }
 
@@ -0,0 +1,232 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math.linear;
+
+import kinetic.math.DenseMatrixD;
+import kinetic.math.Matrix;
+import kinetic.math.MatrixD;
+import kinetic.math.QuickMath;
+
+/**
+ * Rank revealing QR Decomposition with column pivoting, A*P = Q*R.
+ *
+ * At each step the remaining column of largest norm is moved to the front
+ * (Businger-Golub), so the magnitudes on the diagonal of R decrease and the
+ * numerical rank can be read off them. Column norms are downdated after
+ * each reflection and recomputed when cancellation makes the downdate
+ * unreliable. Like QRDecompositionD the reflectors are applied to right
+ * hand sides without forming Q.
+ *
+ * @author openecho
+ */
+public class PivotedQRDecompositionD extends MatrixDecomposition {
+
+    private static final double EPS = Math.pow(2.0, -52.0);
+    private double[][] qr;
+    private int m, n;
+    private double[] rDiagonal;
+    private int[] piv;
+
+    public PivotedQRDecompositionD(Matrix a) {
+        super(a);
+    }
+
+    @Override
+    protected boolean handleDecompose() {
+        m = a.getM();
+        n = a.getN();
+        qr = QRDecompositionD.copy(a);
+        int min = QuickMath.min(m, n);
+        rDiagonal = new double[min];
+        piv = new int[n];
+        double[] norms = new double[n];
+        double[] original = new double[n];
+        for (int j = 0; j < n; j++) {
+            piv[j] = j;
+            norms[j] = columnNorm(j, 0);
+            original[j] = norms[j];
+        }
+        double threshold = Math.sqrt(EPS);
+        for (int k = 0; k < min; k++) {
+            // Bring the remaining column of largest norm to k.
+            int p = k;
+            for (int j = k + 1; j < n; j++) {
+                if (norms[j] > norms[p]) {
+                    p = j;
+                }
+            }
+            if (p != k) {
+                for (int i = 0; i < m; i++) {
+                    double t = qr[i][p];
+                    qr[i][p] = qr[i][k];
+                    qr[i][k] = t;
+                }
+                int t = piv[p];
+                piv[p] = piv[k];
+                piv[k] = t;
+                norms[p] = norms[k];
+                original[p] = original[k];
+            }
+            double nrm = columnNorm(k, k);
+            if (nrm != 0.0) {
+                // Form k-th Householder vector.
+                if (qr[k][k] < 0) {
+                    nrm = -nrm;
+                }
+                for (int i = k; i < m; i++) {
+                    qr[i][k] /= nrm;
+                }
+                qr[k][k] += 1.0;
+                // Apply transformation to remaining columns.
+                for (int j = k + 1; j < n; j++) {
+                    double s = 0.0;
+                    for (int i = k; i < m; i++) {
+                        s += qr[i][k] * qr[i][j];
+                    }
+                    s = -s / qr[k][k];
+                    for (int i = k; i < m; i++) {
+                        qr[i][j] += s * qr[i][k];
+                    }
+                }
+            }
+            rDiagonal[k] = -nrm;
+            // Downdate the norms of the remaining columns.
+            for (int j = k + 1; j < n; j++) {
+                if (norms[j] != 0D) {
+                    double t = Math.abs(qr[k][j]) / norms[j];
+                    t = Math.max(0D, (1D + t) * (1D - t));
+                    double ratio = norms[j] / original[j];
+                    if (t * ratio * ratio <= threshold) {
+                        norms[j] = columnNorm(j, k + 1);
+                        original[j] = norms[j];
+                    } else {
+                        norms[j] *= Math.sqrt(t);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 2-norm of rows from to m of column j without under/overflow.
+     */
+    private double columnNorm(int j, int from) {
+        double nrm = 0D;
+        for (int i = from; i < m; i++) {
+            nrm = QuickMath.hypot(nrm, qr[i][j]);
+        }
+        return nrm;
+    }
+
+    /**
+     * Decomposes on first use.
+     */
+    private void check() {
+        if (!isDecomposed()) {
+            decompose();
+        }
+    }
+
+    /**
+     * Column permutation, column j of A*P is column getPivot()[j] of A.
+     * @return copy of the pivot indices.
+     */
+    public int[] getPivot() {
+        check();
+        return piv.clone();
+    }
+
+    /**
+     * Numerical rank using the tolerance max(m,n) * eps * |r[0,0]|.
+     * @return number of diagonal elements of R above the tolerance.
+     */
+    public int getRank() {
+        check();
+        double tol = (rDiagonal.length == 0) ? 0D : Math.max(m, n) * EPS * Math.abs(rDiagonal[0]);
+        return getRank(tol);
+    }
+
+    /**
+     * Numerical rank for a given tolerance.
+     * @param tolerance diagonal elements of R with magnitude at or below
+     * this are treated as zero.
+     * @return number of diagonal elements of R above the tolerance.
+     */
+    public int getRank(double tolerance) {
+        check();
+        int rank = 0;
+        while (rank < rDiagonal.length && Math.abs(rDiagonal[rank]) > tolerance) {
+            rank++;
+        }
+        return rank;
+    }
+
+    public boolean isFullRank() {
+        return getRank() == n;
+    }
+
+    public MatrixD getR() {
+        check();
+        int min = rDiagonal.length;
+        double[] r = new double[min * n];
+        for (int i = 0; i < min; i++) {
+            r[i * n + i] = rDiagonal[i];
+            for (int j = i + 1; j < n; j++) {
+                r[i * n + j] = qr[i][j];
+            }
+        }
+        return new DenseMatrixD(min, n, r, false);
+    }
+
+    /**
+     * Basic least squares solution of A*X = B using the numerical rank k:
+     * X has at most k non zero rows, in the positions of the k leading
+     * pivot columns. Equal to the QRDecompositionD solution when A has full
+     * column rank.
+     * @param b Matrix B with m rows and any number of columns.
+     * @return n by r DenseMatrixD X.
+     */
+    public DenseMatrixD solve(Matrix b) {
+        return solve(b, getRank());
+    }
+
+    /**
+     * Basic least squares solution of A*X = B using only the first rank
+     * pivot columns.
+     * @param b Matrix B with m rows and any number of columns.
+     * @param rank number of pivot columns to use, at most getRank().
+     * @return n by r DenseMatrixD X.
+     */
+    public DenseMatrixD solve(Matrix b, int rank) {
+        check();
+        if (b.getM() != m) {
+            throw new IllegalArgumentException("Matrix row dimensions must agree.");
+        }
+        if (rank < 0 || rank > rDiagonal.length || (rank > 0 && rDiagonal[rank - 1] == 0D)) {
+            throw new IllegalArgumentException("rank must be >= 0 and no more than the numerical rank.");
+        }
+        int r = b.getN();
+        double[] y = QRDecompositionD.copyRows(b);
+        QRDecompositionD.applyQt(qr, m, rDiagonal.length, y, r);
+        QRDecompositionD.backSubstitute(qr, rDiagonal, rank, y, r);
+        double[] x = new double[n * r];
+        for (int i = 0; i < rank; i++) {
+            System.arraycopy(y, i * r, x, piv[i] * r, r);
+        }
+        return new DenseMatrixD(n, r, x, false);
+    }
+}
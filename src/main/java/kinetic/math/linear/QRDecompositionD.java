@@ -28,11 +28,20 @@
  **/
 package kinetic.math.linear;
 
+import java.util.Arrays;
+import kinetic.math.DenseMatrixD;
 import kinetic.math.Matrix;
 import kinetic.math.MatrixD;
 import kinetic.math.QuickMath;
 
 /**
+ * QR Decomposition by Householder reflections, A = Q*R.
+ *
+ * For an m-by-n matrix A with m >= n, Q is m-by-n with orthonormal columns
+ * and R is n-by-n upper triangular. The reflectors are kept below the
+ * diagonal and solve applies them to the right hand sides directly, so a
+ * least squares fit never forms Q and needs O(mn) memory. See
+ * PivotedQRDecompositionD for rank deficient problems.
  *
  * @author openecho
  */
@@ -50,12 +59,7 @@ public class QRDecompositionD extends MatrixDecomposition {
     protected boolean handleDecompose() {
         m = a.getM();
         n = a.getN();
-        qr = new double[m][n];
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < n; j++) {
-                qr[i][j] = a.getData(i, j).doubleValue();
-            }
-        }
+        qr = copy(a);
         rDiagonal = new double[n];
 
         // Main loop.
@@ -93,7 +97,37 @@ public class QRDecompositionD extends MatrixDecomposition {
         return true;
     }
 
+    /**
+     * Copies a into rows of a new array without boxing where a stores
+     * primitives.
+     */
+    static double[][] copy(Matrix a) {
+        int m = a.getM();
+        int n = a.getN();
+        double[][] rows = new double[m][n];
+        for (int i = 0; i < m; i++) {
+            if (a instanceof MatrixD) {
+                ((MatrixD) a).getRows(i, 1, rows[i]);
+            } else {
+                for (int j = 0; j < n; j++) {
+                    rows[i][j] = a.getData(i, j).doubleValue();
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Decomposes on first use.
+     */
+    private void check() {
+        if (!isDecomposed()) {
+            decompose();
+        }
+    }
+
     public boolean isFullRank() {
+        check();
         for (int j = 0; j < n; j++) {
             if (rDiagonal[j] == 0) {
                 return false;
@@ -103,6 +137,7 @@ public class QRDecompositionD extends MatrixDecomposition {
     }
 
     public MatrixD getH() {
+        check();
         MatrixD h = MatrixD.empty(m, n);
         for (int i = 0; i < m; i++) {
             for (int j = 0; j < n; j++) {
@@ -117,6 +152,7 @@ public class QRDecompositionD extends MatrixDecomposition {
     }
 
     public Matrix getR() {
+        check();
         MatrixD r = MatrixD.empty(n, n);
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
@@ -132,26 +168,129 @@ public class QRDecompositionD extends MatrixDecomposition {
         return r;
     }
 
+    /**
+     * Forms the m by n orthonormal factor Q. Prefer solve, which does not
+     * need Q.
+     * @return m by n Q.
+     */
     public Matrix getQ() {
-        MatrixD q = MatrixD.empty(n, n);
-        for (int k = n - 1; k >= 0; k--) {
-            for (int i = 0; i < m; i++) {
-                q.setData(i, k, 0D);
-            }
-            q.setData(k, k, 1D);
+        check();
+        double[] q = new double[m * n];
+        for (int k = QuickMath.min(m, n) - 1; k >= 0; k--) {
+            q[k * n + k] = 1D;
             for (int j = k; j < n; j++) {
                 if (qr[k][k] != 0) {
                     double s = 0.0;
                     for (int i = k; i < m; i++) {
-                        s += qr[i][k] * q.getData(i, j);
+                        s += qr[i][k] * q[i * n + j];
                     }
                     s = -s / qr[k][k];
                     for (int i = k; i < m; i++) {
-                        q.setData(i, j, q.getData(i, j) + (s * q.getData(i, k)));
+                        q[i * n + j] += s * qr[i][k];
+                    }
+                }
+            }
+        }
+        return new DenseMatrixD(m, n, q, false);
+    }
+
+    /**
+     * Least squares solution of A*X = B, minimising ||A*X - B||. Q' is
+     * applied to B by the stored reflectors, then R*X = Q'*B is solved by
+     * back substitution.
+     * @param b Matrix B with m rows and any number of columns.
+     * @return n by r DenseMatrixD X.
+     */
+    public DenseMatrixD solve(Matrix b) {
+        check();
+        if (b.getM() != m) {
+            throw new IllegalArgumentException("Matrix row dimensions must agree.");
+        }
+        if (m < n) {
+            throw new IllegalArgumentException("Matrix must have m >= n.");
+        }
+        if (!isFullRank()) {
+            throw new RuntimeException("Matrix is rank deficient.");
+        }
+        int r = b.getN();
+        double[] x = copyRows(b);
+        applyQt(qr, m, n, x, r);
+        backSubstitute(qr, rDiagonal, n, x, r);
+        return new DenseMatrixD(n, r, Arrays.copyOf(x, n * r), false);
+    }
+
+    /**
+     * Copies B into a new row major array.
+     */
+    static double[] copyRows(Matrix b) {
+        int m = b.getM();
+        int r = b.getN();
+        double[] x = new double[m * r];
+        if (b instanceof MatrixD) {
+            ((MatrixD) b).getRows(0, m, x);
+        } else {
+            for (int i = 0; i < m; i++) {
+                for (int j = 0; j < r; j++) {
+                    x[i * r + j] = b.getData(i, j).doubleValue();
+                }
+            }
+        }
+        return x;
+    }
+
+    /**
+     * Applies the first k reflectors held below the diagonal of qr, Q', to
+     * the m by r row major x in place. Reflectors of zero columns are
+     * skipped.
+     */
+    static void applyQt(double[][] qr, int m, int k, double[] x, int r) {
+        double[] dots = new double[r];
+        for (int c = 0; c < k; c++) {
+            double h = qr[c][c];
+            if (h == 0) {
+                continue;
+            }
+            Arrays.fill(dots, 0D);
+            for (int i = c; i < m; i++) {
+                double qi = qr[i][c];
+                int row = i * r;
+                for (int j = 0; j < r; j++) {
+                    dots[j] += qi * x[row + j];
+                }
+            }
+            for (int j = 0; j < r; j++) {
+                dots[j] = -dots[j] / h;
+            }
+            for (int i = c; i < m; i++) {
+                double qi = qr[i][c];
+                int row = i * r;
+                for (int j = 0; j < r; j++) {
+                    x[row + j] += dots[j] * qi;
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves R*X = Y in place for the leading k rows of the row major y,
+     * R being the strict upper triangle of qr with rDiagonal.
+     */
+    static void backSubstitute(double[][] qr, double[] rDiagonal, int k, double[] y, int r) {
+        for (int c = k - 1; c >= 0; c--) {
+            int rowC = c * r;
+            double d = rDiagonal[c];
+            for (int j = 0; j < r; j++) {
+                y[rowC + j] /= d;
+            }
+            for (int i = 0; i < c; i++) {
+                double rik = qr[i][c];
+                if (rik != 0D) {
+                    int rowI = i * r;
+                    for (int j = 0; j < r; j++) {
+                        y[rowI + j] -= y[rowC + j] * rik;
                     }
                 }
             }
         }
-        return q;
     }
 }
@@ -0,0 +1,819 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * This class contains portions of code which are Copyright The Mathworks and
+ * NIST. Their license statement follows,
+ *
+ * --------------------------------------------------------------------------
+ *
+ * This software is a cooperative product of The MathWorks and the National
+ * Institute of Standards and Technology (NIST) which has been released to the
+ * public domain. Neither The MathWorks nor NIST assumes any responsibility
+ * whatsoever for its use by other parties, and makes no guarantees, expressed
+ * or implied, about its quality, reliability, or any other characteristic.
+ *
+ * Copyright (C) 1999 The Mathworks and NIST
+ **/
+package kinetic.math.linear;
+
+import java.util.Arrays;
+import java.util.Random;
+import kinetic.math.DenseMatrixD;
+import kinetic.math.Matrix;
+import kinetic.math.MatrixD;
+import kinetic.math.MultiplyKernel;
+import kinetic.math.QuickMath;
+
+/**
+ * Singular Value Decomposition, A = U*S*V'.
+ *
+ * For an m-by-n matrix A the singular values s[0] >= s[1] >= ... >= 0 are
+ * found by Householder bidiagonalisation followed by implicit shifted QR
+ * (Golub-Kahan). In thin mode, the default, U is m-by-min(m,n) and V is
+ * n-by-min(m,n); otherwise U is m-by-m and V is n-by-n. Wide matrices are
+ * decomposed through their transpose.
+ *
+ * The truncated mode computes only the k largest singular triplets with
+ * the randomised range finder of Halko, Martinsson and Tropp: A is
+ * multiplied by k + OVERSAMPLE random vectors, refined with POWER_ITERATIONS
+ * power iterations, and the small projected matrix is decomposed exactly.
+ * All products go through the MultiplyKernel so large matrices cost a few
+ * passes over A rather than the O(mn*min(m,n)) of the full decomposition.
+ * The random vectors are drawn from a fixed seed so results repeat.
+ *
+ * @author openecho
+ * @author The Mathworks and NIST
+ */
+public class SingularValueDecompositionD extends MatrixDecomposition {
+
+    /**
+     * Extra random vectors sampled beyond k in truncated mode.
+     */
+    public static final int OVERSAMPLE = 10;
+    /**
+     * Power iterations applied to the sampled range in truncated mode.
+     */
+    public static final int POWER_ITERATIONS = 2;
+    private static final double EPS = Math.pow(2.0, -52.0);
+    private static final double TINY = Math.pow(2.0, -966.0);
+    private final boolean thin;
+    /**
+     * Number of singular triplets kept in truncated mode, 0 otherwise.
+     */
+    private final int truncation;
+    private int m, n;
+    /**
+     * Left singular vectors, one per column.
+     */
+    private double[][] u;
+    /**
+     * Right singular vectors, one per column.
+     */
+    private double[][] v;
+    /**
+     * Singular values in descending order.
+     */
+    private double[] s;
+
+    /**
+     * Thin decomposition of a.
+     * @param a Matrix A.
+     */
+    public SingularValueDecompositionD(Matrix a) {
+        this(a, true);
+    }
+
+    /**
+     * Full or thin decomposition of a.
+     * @param a Matrix A.
+     * @param thin when true U and V have min(m,n) columns, otherwise they are
+     * square.
+     */
+    public SingularValueDecompositionD(Matrix a, boolean thin) {
+        super(a);
+        this.thin = thin;
+        this.truncation = 0;
+    }
+
+    /**
+     * Truncated decomposition of a holding only the k largest singular
+     * values and their vectors.
+     * @param a Matrix A.
+     * @param k number of singular triplets, 0 < k <= min(m,n).
+     */
+    public SingularValueDecompositionD(Matrix a, int k) {
+        super(a);
+        if (k <= 0 || k > QuickMath.min(a.getM(), a.getN())) {
+            throw new IllegalArgumentException("k must be > 0 and <= min(m,n).");
+        }
+        this.thin = true;
+        this.truncation = k;
+    }
+
+    @Override
+    protected boolean handleDecompose() {
+        m = a.getM();
+        n = a.getN();
+        double[] data = new double[m * n];
+        if (a instanceof MatrixD) {
+            ((MatrixD) a).getRows(0, m, data);
+        } else {
+            for (int i = 0; i < m; i++) {
+                for (int j = 0; j < n; j++) {
+                    data[i * n + j] = a.getData(i, j).doubleValue();
+                }
+            }
+        }
+        if (m == 0 || n == 0) {
+            // Nothing to decompose, U and V are empty or identity.
+            s = new double[0];
+            u = identity(m, thin ? 0 : m);
+            v = identity(n, thin ? 0 : n);
+        } else if (truncation > 0) {
+            truncated(data);
+        } else if (m >= n) {
+            double[][] rows = new double[m][n];
+            for (int i = 0; i < m; i++) {
+                System.arraycopy(data, i * n, rows[i], 0, n);
+            }
+            compute(rows, m, n, thin ? n : m);
+        } else {
+            double[][] rows = new double[n][m];
+            for (int i = 0; i < m; i++) {
+                for (int j = 0; j < n; j++) {
+                    rows[j][i] = data[i * n + j];
+                }
+            }
+            compute(rows, n, m, thin ? m : n);
+            double[][] t = u;
+            u = v;
+            v = t;
+        }
+        return true;
+    }
+
+    /**
+     * Randomised truncated decomposition of the row major m by n data.
+     */
+    private void truncated(double[] data) {
+        int min = QuickMath.min(m, n);
+        int k = truncation;
+        int l = QuickMath.min(k + OVERSAMPLE, min);
+        Random random = new Random(0x4B4D4154L);
+        double[] omega = new double[n * l];
+        for (int i = 0; i < omega.length; i++) {
+            omega[i] = random.nextGaussian();
+        }
+        // Q = orth(A * Omega), refined by (A A')^q
+        double[] q = new double[m * l];
+        MultiplyKernel.multiply(m, n, l, 1D, data, 0, n, omega, 0, l, q, 0, l);
+        orthonormalise(q, m, l);
+        double[] z = new double[n * l];
+        for (int iteration = 0; iteration < POWER_ITERATIONS; iteration++) {
+            Arrays.fill(z, 0D);
+            multiplyTransposed(data, q, l, z);
+            orthonormalise(z, n, l);
+            Arrays.fill(q, 0D);
+            MultiplyKernel.multiply(m, n, l, 1D, data, 0, n, z, 0, l, q, 0, l);
+            orthonormalise(q, m, l);
+        }
+        // B' = A' * Q is n by l, tall, so decompose it directly.
+        Arrays.fill(z, 0D);
+        multiplyTransposed(data, q, l, z);
+        double[][] bt = new double[n][l];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(z, i * l, bt[i], 0, l);
+        }
+        compute(bt, n, l, l);
+        // B = Ub S Vb' with Ub = v (l by l) and Vb = u (n by l), so U = Q Ub.
+        double[][] ub = v;
+        double[][] vb = u;
+        u = new double[m][k];
+        for (int i = 0; i < m; i++) {
+            for (int c = 0; c < l; c++) {
+                double qic = q[i * l + c];
+                if (qic != 0D) {
+                    for (int j = 0; j < k; j++) {
+                        u[i][j] += qic * ub[c][j];
+                    }
+                }
+            }
+        }
+        v = new double[n][k];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(vb[i], 0, v[i], 0, k);
+        }
+        double[] values = new double[k];
+        System.arraycopy(s, 0, values, 0, k);
+        s = values;
+    }
+
+    /**
+     * Accumulates A' * X into the n by l z, streaming the rows of the m by n
+     * data so A never has to be held transposed as well.
+     */
+    private void multiplyTransposed(double[] data, double[] x, int l, double[] z) {
+        for (int i = 0; i < m; i++) {
+            int row = i * n;
+            int xRow = i * l;
+            for (int j = 0; j < n; j++) {
+                double aij = data[row + j];
+                if (aij != 0D) {
+                    int zRow = j * l;
+                    for (int c = 0; c < l; c++) {
+                        z[zRow + c] += aij * x[xRow + c];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Orthonormalises the columns of the row major rows by cols array in
+     * place with two passes of modified Gram-Schmidt. Columns that are
+     * dependent on earlier ones are set to zero.
+     */
+    static void orthonormalise(double[] x, int rows, int cols) {
+        for (int pass = 0; pass < 2; pass++) {
+            for (int j = 0; j < cols; j++) {
+                for (int c = 0; c < j; c++) {
+                    double dot = 0D;
+                    for (int i = 0; i < rows; i++) {
+                        dot += x[i * cols + c] * x[i * cols + j];
+                    }
+                    if (dot != 0D) {
+                        for (int i = 0; i < rows; i++) {
+                            x[i * cols + j] -= dot * x[i * cols + c];
+                        }
+                    }
+                }
+                double norm = 0D;
+                for (int i = 0; i < rows; i++) {
+                    norm = QuickMath.hypot(norm, x[i * cols + j]);
+                }
+                double scale = (norm > TINY) ? 1D / norm : 0D;
+                for (int i = 0; i < rows; i++) {
+                    x[i * cols + j] *= scale;
+                }
+            }
+        }
+    }
+
+    /**
+     * Golub-Kahan SVD of the rows by cols array a, rows >= cols, destroying
+     * a. Sets u to rows by nu, v to cols by cols and s to the cols singular
+     * values.
+     */
+    private void compute(double[][] a, int m, int n, int nu) {
+        s = new double[QuickMath.min(m + 1, n)];
+        double[][] uu = new double[m][nu];
+        double[][] vv = new double[n][n];
+        double[] e = new double[n];
+        double[] work = new double[m];
+
+        // Reduce A to bidiagonal form, storing the diagonal elements
+        // in s and the super-diagonal elements in e.
+        int nct = QuickMath.min(m - 1, n);
+        int nrt = Math.max(0, QuickMath.min(n - 2, m));
+        for (int k = 0; k < Math.max(nct, nrt); k++) {
+            if (k < nct) {
+                // Compute the transformation for the k-th column and
+                // place the k-th diagonal in s[k].
+                // Compute 2-norm of k-th column without under/overflow.
+                s[k] = 0;
+                for (int i = k; i < m; i++) {
+                    s[k] = QuickMath.hypot(s[k], a[i][k]);
+                }
+                if (s[k] != 0.0) {
+                    if (a[k][k] < 0.0) {
+                        s[k] = -s[k];
+                    }
+                    for (int i = k; i < m; i++) {
+                        a[i][k] /= s[k];
+                    }
+                    a[k][k] += 1.0;
+                }
+                s[k] = -s[k];
+            }
+            for (int j = k + 1; j < n; j++) {
+                if ((k < nct) & (s[k] != 0.0)) {
+                    // Apply the transformation.
+                    double t = 0;
+                    for (int i = k; i < m; i++) {
+                        t += a[i][k] * a[i][j];
+                    }
+                    t = -t / a[k][k];
+                    for (int i = k; i < m; i++) {
+                        a[i][j] += t * a[i][k];
+                    }
+                }
+                // Place the k-th row of A into e for the
+                // subsequent calculation of the row transformation.
+                e[j] = a[k][j];
+            }
+            if (k < nct) {
+                // Place the transformation in U for subsequent back
+                // multiplication.
+                for (int i = k; i < m; i++) {
+                    uu[i][k] = a[i][k];
+                }
+            }
+            if (k < nrt) {
+                // Compute the k-th row transformation and place the
+                // k-th super-diagonal in e[k].
+                // Compute 2-norm without under/overflow.
+                e[k] = 0;
+                for (int i = k + 1; i < n; i++) {
+                    e[k] = QuickMath.hypot(e[k], e[i]);
+                }
+                if (e[k] != 0.0) {
+                    if (e[k + 1] < 0.0) {
+                        e[k] = -e[k];
+                    }
+                    for (int i = k + 1; i < n; i++) {
+                        e[i] /= e[k];
+                    }
+                    e[k + 1] += 1.0;
+                }
+                e[k] = -e[k];
+                if ((k + 1 < m) & (e[k] != 0.0)) {
+                    // Apply the transformation.
+                    for (int i = k + 1; i < m; i++) {
+                        work[i] = 0.0;
+                    }
+                    for (int j = k + 1; j < n; j++) {
+                        for (int i = k + 1; i < m; i++) {
+                            work[i] += e[j] * a[i][j];
+                        }
+                    }
+                    for (int j = k + 1; j < n; j++) {
+                        double t = -e[j] / e[k + 1];
+                        for (int i = k + 1; i < m; i++) {
+                            a[i][j] += t * work[i];
+                        }
+                    }
+                }
+                // Place the transformation in V for subsequent
+                // back multiplication.
+                for (int i = k + 1; i < n; i++) {
+                    vv[i][k] = e[i];
+                }
+            }
+        }
+
+        // Set up the final bidiagonal matrix or order p.
+        int p = QuickMath.min(n, m + 1);
+        if (nct < n) {
+            s[nct] = a[nct][nct];
+        }
+        if (m < p) {
+            s[p - 1] = 0.0;
+        }
+        if (nrt + 1 < p) {
+            e[nrt] = a[nrt][p - 1];
+        }
+        e[p - 1] = 0.0;
+
+        // Generate U.
+        for (int j = nct; j < nu; j++) {
+            for (int i = 0; i < m; i++) {
+                uu[i][j] = 0.0;
+            }
+            uu[j][j] = 1.0;
+        }
+        for (int k = nct - 1; k >= 0; k--) {
+            if (s[k] != 0.0) {
+                for (int j = k + 1; j < nu; j++) {
+                    double t = 0;
+                    for (int i = k; i < m; i++) {
+                        t += uu[i][k] * uu[i][j];
+                    }
+                    t = -t / uu[k][k];
+                    for (int i = k; i < m; i++) {
+                        uu[i][j] += t * uu[i][k];
+                    }
+                }
+                for (int i = k; i < m; i++) {
+                    uu[i][k] = -uu[i][k];
+                }
+                uu[k][k] = 1.0 + uu[k][k];
+                for (int i = 0; i < k - 1; i++) {
+                    uu[i][k] = 0.0;
+                }
+            } else {
+                for (int i = 0; i < m; i++) {
+                    uu[i][k] = 0.0;
+                }
+                uu[k][k] = 1.0;
+            }
+        }
+
+        // Generate V.
+        for (int k = n - 1; k >= 0; k--) {
+            if ((k < nrt) & (e[k] != 0.0)) {
+                for (int j = k + 1; j < n; j++) {
+                    double t = 0;
+                    for (int i = k + 1; i < n; i++) {
+                        t += vv[i][k] * vv[i][j];
+                    }
+                    t = -t / vv[k + 1][k];
+                    for (int i = k + 1; i < n; i++) {
+                        vv[i][j] += t * vv[i][k];
+                    }
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                vv[i][k] = 0.0;
+            }
+            vv[k][k] = 1.0;
+        }
+
+        // Main iteration loop for the singular values.
+        int pp = p - 1;
+        while (p > 0) {
+            int k, kase;
+            // This section of the program inspects for
+            // negligible elements in the s and e arrays.  On
+            // completion the variables kase and k are set as follows.
+            // kase = 1     if s(p) and e[k-1] are negligible and k<p
+            // kase = 2     if s(k) is negligible and k<p
+            // kase = 3     if e[k-1] is negligible, k<p, and
+            //              s(k), ..., s(p) are not negligible (qr step).
+            // kase = 4     if e(p-1) is negligible (convergence).
+            for (k = p - 2; k >= -1; k--) {
+                if (k == -1) {
+                    break;
+                }
+                if (Math.abs(e[k]) <= TINY + EPS * (Math.abs(s[k]) + Math.abs(s[k + 1]))) {
+                    e[k] = 0.0;
+                    break;
+                }
+            }
+            if (k == p - 2) {
+                kase = 4;
+            } else {
+                int ks;
+                for (ks = p - 1; ks >= k; ks--) {
+                    if (ks == k) {
+                        break;
+                    }
+                    double t = (ks != p ? Math.abs(e[ks]) : 0.)
+                            + (ks != k + 1 ? Math.abs(e[ks - 1]) : 0.);
+                    if (Math.abs(s[ks]) <= TINY + EPS * t) {
+                        s[ks] = 0.0;
+                        break;
+                    }
+                }
+                if (ks == k) {
+                    kase = 3;
+                } else if (ks == p - 1) {
+                    kase = 1;
+                } else {
+                    kase = 2;
+                    k = ks;
+                }
+            }
+            k++;
+
+            // Perform the task indicated by kase.
+            switch (kase) {
+                // Deflate negligible s(p).
+                case 1: {
+                    double f = e[p - 2];
+                    e[p - 2] = 0.0;
+                    for (int j = p - 2; j >= k; j--) {
+                        double t = QuickMath.hypot(s[j], f);
+                        double cs = s[j] / t;
+                        double sn = f / t;
+                        s[j] = t;
+                        if (j != k) {
+                            f = -sn * e[j - 1];
+                            e[j - 1] = cs * e[j - 1];
+                        }
+                        for (int i = 0; i < n; i++) {
+                            t = cs * vv[i][j] + sn * vv[i][p - 1];
+                            vv[i][p - 1] = -sn * vv[i][j] + cs * vv[i][p - 1];
+                            vv[i][j] = t;
+                        }
+                    }
+                }
+                break;
+                // Split at negligible s(k).
+                case 2: {
+                    double f = e[k - 1];
+                    e[k - 1] = 0.0;
+                    for (int j = k; j < p; j++) {
+                        double t = QuickMath.hypot(s[j], f);
+                        double cs = s[j] / t;
+                        double sn = f / t;
+                        s[j] = t;
+                        f = -sn * e[j];
+                        e[j] = cs * e[j];
+                        for (int i = 0; i < m; i++) {
+                            t = cs * uu[i][j] + sn * uu[i][k - 1];
+                            uu[i][k - 1] = -sn * uu[i][j] + cs * uu[i][k - 1];
+                            uu[i][j] = t;
+                        }
+                    }
+                }
+                break;
+                // Perform one qr step.
+                case 3: {
+                    // Calculate the shift.
+                    double scale = Math.max(Math.max(Math.max(Math.max(
+                            Math.abs(s[p - 1]), Math.abs(s[p - 2])), Math.abs(e[p - 2])),
+                            Math.abs(s[k])), Math.abs(e[k]));
+                    double sp = s[p - 1] / scale;
+                    double spm1 = s[p - 2] / scale;
+                    double epm1 = e[p - 2] / scale;
+                    double sk = s[k] / scale;
+                    double ek = e[k] / scale;
+                    double b = ((spm1 + sp) * (spm1 - sp) + epm1 * epm1) / 2.0;
+                    double c = (sp * epm1) * (sp * epm1);
+                    double shift = 0.0;
+                    if ((b != 0.0) | (c != 0.0)) {
+                        shift = Math.sqrt(b * b + c);
+                        if (b < 0.0) {
+                            shift = -shift;
+                        }
+                        shift = c / (b + shift);
+                    }
+                    double f = (sk + sp) * (sk - sp) + shift;
+                    double g = sk * ek;
+                    // Chase zeros.
+                    for (int j = k; j < p - 1; j++) {
+                        double t = QuickMath.hypot(f, g);
+                        double cs = f / t;
+                        double sn = g / t;
+                        if (j != k) {
+                            e[j - 1] = t;
+                        }
+                        f = cs * s[j] + sn * e[j];
+                        e[j] = cs * e[j] - sn * s[j];
+                        g = sn * s[j + 1];
+                        s[j + 1] = cs * s[j + 1];
+                        for (int i = 0; i < n; i++) {
+                            t = cs * vv[i][j] + sn * vv[i][j + 1];
+                            vv[i][j + 1] = -sn * vv[i][j] + cs * vv[i][j + 1];
+                            vv[i][j] = t;
+                        }
+                        t = QuickMath.hypot(f, g);
+                        cs = f / t;
+                        sn = g / t;
+                        s[j] = t;
+                        f = cs * e[j] + sn * s[j + 1];
+                        s[j + 1] = -sn * e[j] + cs * s[j + 1];
+                        g = sn * e[j + 1];
+                        e[j + 1] = cs * e[j + 1];
+                        if (j < m - 1) {
+                            for (int i = 0; i < m; i++) {
+                                t = cs * uu[i][j] + sn * uu[i][j + 1];
+                                uu[i][j + 1] = -sn * uu[i][j] + cs * uu[i][j + 1];
+                                uu[i][j] = t;
+                            }
+                        }
+                    }
+                    e[p - 2] = f;
+                }
+                break;
+                // Convergence.
+                case 4: {
+                    // Make the singular values positive.
+                    if (s[k] <= 0.0) {
+                        s[k] = (s[k] < 0.0 ? -s[k] : 0.0);
+                        for (int i = 0; i <= pp; i++) {
+                            vv[i][k] = -vv[i][k];
+                        }
+                    }
+                    // Order the singular values.
+                    while (k < pp) {
+                        if (s[k] >= s[k + 1]) {
+                            break;
+                        }
+                        double t = s[k];
+                        s[k] = s[k + 1];
+                        s[k + 1] = t;
+                        if (k < n - 1) {
+                            for (int i = 0; i < n; i++) {
+                                t = vv[i][k + 1];
+                                vv[i][k + 1] = vv[i][k];
+                                vv[i][k] = t;
+                            }
+                        }
+                        if (k < m - 1) {
+                            for (int i = 0; i < m; i++) {
+                                t = uu[i][k + 1];
+                                uu[i][k + 1] = uu[i][k];
+                                uu[i][k] = t;
+                            }
+                        }
+                        k++;
+                    }
+                    p--;
+                }
+                break;
+            }
+        }
+        if (s.length > n) {
+            double[] values = new double[n];
+            System.arraycopy(s, 0, values, 0, n);
+            s = values;
+        }
+        u = uu;
+        v = vv;
+    }
+
+    /**
+     * Decomposes on first use.
+     */
+    private void check() {
+        if (!isDecomposed()) {
+            decompose();
+        }
+    }
+
+    private static double[][] identity(int rows, int cols) {
+        double[][] x = new double[rows][cols];
+        for (int i = 0; i < QuickMath.min(rows, cols); i++) {
+            x[i][i] = 1D;
+        }
+        return x;
+    }
+
+    private static DenseMatrixD toMatrix(double[][] x) {
+        int rows = x.length;
+        int cols = (rows == 0) ? 0 : x[0].length;
+        double[] data = new double[rows * cols];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(x[i], 0, data, i * cols, cols);
+        }
+        return new DenseMatrixD(rows, cols, data, false);
+    }
+
+    /**
+     * @return the left singular vectors as columns.
+     */
+    public MatrixD getU() {
+        check();
+        return toMatrix(u);
+    }
+
+    /**
+     * @return the right singular vectors as columns.
+     */
+    public MatrixD getV() {
+        check();
+        return toMatrix(v);
+    }
+
+    /**
+     * @return diagonal matrix of the singular values, sized to match U and V.
+     */
+    public MatrixD getS() {
+        check();
+        int rows = thin ? s.length : m;
+        int cols = thin ? s.length : v.length;
+        double[] data = new double[rows * cols];
+        for (int i = 0; i < s.length; i++) {
+            data[i * cols + i] = s[i];
+        }
+        return new DenseMatrixD(rows, cols, data, false);
+    }
+
+    /**
+     * @return copy of the singular values in descending order.
+     */
+    public double[] getSingularValues() {
+        check();
+        return s.clone();
+    }
+
+    /**
+     * Two norm of A.
+     * @return largest singular value, 0 when A is empty.
+     */
+    public double norm2() {
+        check();
+        return (s.length == 0) ? 0D : s[0];
+    }
+
+    /**
+     * Two norm condition number of A. In truncated mode only the k computed
+     * singular values are considered.
+     * @return ratio of the largest to smallest singular value, 0 when A is
+     * empty.
+     */
+    public double cond() {
+        check();
+        return (s.length == 0) ? 0D : s[0] / s[s.length - 1];
+    }
+
+    /**
+     * Singular values below max(m,n) * s[0] * eps are treated as zero.
+     */
+    private double tolerance() {
+        return (s.length == 0) ? 0D : Math.max(m, n) * s[0] * EPS;
+    }
+
+    /**
+     * Effective numerical rank of A.
+     * @return number of non negligible singular values.
+     */
+    public int rank() {
+        check();
+        double tol = tolerance();
+        int r = 0;
+        for (int i = 0; i < s.length; i++) {
+            if (s[i] > tol) {
+                r++;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Moore-Penrose pseudo inverse, V * S^+ * U'. In truncated mode this is
+     * the pseudo inverse of the rank k approximation.
+     * @return n by m DenseMatrixD.
+     */
+    public DenseMatrixD pinv() {
+        check();
+        double tol = tolerance();
+        double[] x = new double[n * m];
+        for (int c = 0; c < s.length; c++) {
+            if (s[c] <= tol) {
+                continue;
+            }
+            double inverse = 1D / s[c];
+            for (int i = 0; i < n; i++) {
+                double vic = v[i][c] * inverse;
+                if (vic != 0D) {
+                    int row = i * m;
+                    for (int j = 0; j < m; j++) {
+                        x[row + j] += vic * u[j][c];
+                    }
+                }
+            }
+        }
+        return new DenseMatrixD(n, m, x, false);
+    }
+
+    /**
+     * Minimum norm least squares solution of A*X = B, V * S^+ * U' * B.
+     * @param b Matrix B with m rows.
+     * @return n by r DenseMatrixD X.
+     */
+    public DenseMatrixD solve(Matrix b) {
+        check();
+        if (b.getM() != m) {
+            throw new IllegalArgumentException("Matrix row dimensions must agree.");
+        }
+        int r = b.getN();
+        double[] bd = new double[m * r];
+        if (b instanceof MatrixD) {
+            ((MatrixD) b).getRows(0, m, bd);
+        } else {
+            for (int i = 0; i < m; i++) {
+                for (int j = 0; j < r; j++) {
+                    bd[i * r + j] = b.getData(i, j).doubleValue();
+                }
+            }
+        }
+        double tol = tolerance();
+        double[] y = new double[r];
+        double[] x = new double[n * r];
+        for (int c = 0; c < s.length; c++) {
+            if (s[c] <= tol) {
+                continue;
+            }
+            Arrays.fill(y, 0D);
+            for (int i = 0; i < m; i++) {
+                double uic = u[i][c];
+                if (uic != 0D) {
+                    for (int j = 0; j < r; j++) {
+                        y[j] += uic * bd[i * r + j];
+                    }
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                double vic = v[i][c] / s[c];
+                for (int j = 0; j < r; j++) {
+                    x[i * r + j] += vic * y[j];
+                }
+            }
+        }
+        return new DenseMatrixD(n, r, x, false);
+    }
+}
@@ -0,0 +1,712 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math.linear;
+
+import java.util.concurrent.RecursiveAction;
+import kinetic.math.MatrixExecutor;
+
+/**
+ * Determinants, inverses and solves for batches of many small matrices of
+ * the same size, 3 by 3 or 4 by 4, in one call. Meant for workloads that
+ * solve thousands of tiny independent systems, where the general n by n
+ * decompositions spend more time on allocation and indexing than on
+ * arithmetic.
+ *
+ * Batches are stored as a structure of arrays. Element (i, j) of matrix k
+ * in a batch of count n by n matrices is at a[(i * n + j) * count + k] and
+ * element i of vector k is at b[i * count + k], see index(). The loops run
+ * over k with unit stride so that the JIT compiler can vectorise them.
+ * Determinants and inverses use cofactor expansion, which has no branches;
+ * solves use Gaussian elimination with partial pivoting for each matrix,
+ * which is better conditioned than multiplying by the inverse.
+ *
+ * Each method has an overload taking a MatrixExecutor that splits the batch
+ * into chunks on its pool once the work is above the executor's threshold.
+ *
+ * @author openecho
+ */
+public final class SmallMatrixBatch {
+
+    static final int DETERMINANT = 0;
+    static final int INVERT = 1;
+    static final int SOLVE = 2;
+
+    private SmallMatrixBatch() {
+    }
+
+    /**
+     * Index of element (i, j) of matrix k in a batch.
+     * @param n matrix size.
+     * @param count number of matrices in the batch.
+     * @param i row.
+     * @param j column.
+     * @param k matrix.
+     * @return index into the batch array.
+     */
+    public static int index(int n, int count, int i, int j, int k) {
+        return (i * n + j) * count + k;
+    }
+
+    /**
+     * Determinants of a batch of double precision matrices.
+     * @param n matrix size, 3 or 4.
+     * @param a batch of count matrices.
+     * @param count number of matrices in the batch.
+     * @param det receives the count determinants.
+     */
+    public static void determinant(int n, double[] a, int count, double[] det) {
+        determinant(n, a, count, det, null);
+    }
+
+    /**
+     * Determinants of a batch of double precision matrices, split into
+     * chunks on the executor's pool.
+     * @param n matrix size, 3 or 4.
+     * @param a batch of count matrices.
+     * @param count number of matrices in the batch.
+     * @param det receives the count determinants.
+     * @param executor executor to run on, or null to run sequentially.
+     */
+    public static void determinant(int n, double[] a, int count, double[] det, MatrixExecutor executor) {
+        check(n, count, a.length, n * n);
+        check(n, count, det.length, 1);
+        execute(new BatchD(DETERMINANT, n, count, a, null, det, null), executor);
+    }
+
+    /**
+     * Inverses of a batch of double precision matrices. The inverse of a
+     * singular matrix has infinite or NaN elements and a zero determinant.
+     * @param n matrix size, 3 or 4.
+     * @param a batch of count matrices.
+     * @param count number of matrices in the batch.
+     * @param inverse receives the inverses, may be a to invert in place.
+     * @param det receives the determinants, may be null.
+     */
+    public static void invert(int n, double[] a, int count, double[] inverse, double[] det) {
+        invert(n, a, count, inverse, det, null);
+    }
+
+    /**
+     * Inverses of a batch of double precision matrices, split into chunks
+     * on the executor's pool.
+     * @param n matrix size, 3 or 4.
+     * @param a batch of count matrices.
+     * @param count number of matrices in the batch.
+     * @param inverse receives the inverses, may be a to invert in place.
+     * @param det receives the determinants, may be null.
+     * @param executor executor to run on, or null to run sequentially.
+     */
+    public static void invert(int n, double[] a, int count, double[] inverse, double[] det, MatrixExecutor executor) {
+        check(n, count, a.length, n * n);
+        check(n, count, inverse.length, n * n);
+        if (det != null) {
+            check(n, count, det.length, 1);
+        }
+        execute(new BatchD(INVERT, n, count, a, null, inverse, det), executor);
+    }
+
+    /**
+     * Solves A*x = b for a batch of double precision matrices and right
+     * hand sides. The solution of a singular system is set to NaN.
+     * @param n matrix size, 3 or 4.
+     * @param a batch of count matrices, left unchanged.
+     * @param b batch of count vectors of length n.
+     * @param count number of systems in the batch.
+     * @param x receives the solutions, may be b to solve in place.
+     */
+    public static void solve(int n, double[] a, double[] b, int count, double[] x) {
+        solve(n, a, b, count, x, null);
+    }
+
+    /**
+     * Solves A*x = b for a batch of double precision matrices and right
+     * hand sides, split into chunks on the executor's pool.
+     * @param n matrix size, 3 or 4.
+     * @param a batch of count matrices, left unchanged.
+     * @param b batch of count vectors of length n.
+     * @param count number of systems in the batch.
+     * @param x receives the solutions, may be b to solve in place.
+     * @param executor executor to run on, or null to run sequentially.
+     */
+    public static void solve(int n, double[] a, double[] b, int count, double[] x, MatrixExecutor executor) {
+        check(n, count, a.length, n * n);
+        check(n, count, b.length, n);
+        check(n, count, x.length, n);
+        execute(new BatchD(SOLVE, n, count, a, b, x, null), executor);
+    }
+
+    /**
+     * Determinants of a batch of single precision matrices.
+     * @param n matrix size, 3 or 4.
+     * @param a batch of count matrices.
+     * @param count number of matrices in the batch.
+     * @param det receives the count determinants.
+     */
+    public static void determinant(int n, float[] a, int count, float[] det) {
+        determinant(n, a, count, det, null);
+    }
+
+    /**
+     * Determinants of a batch of single precision matrices, split into
+     * chunks on the executor's pool.
+     * @param n matrix size, 3 or 4.
+     * @param a batch of count matrices.
+     * @param count number of matrices in the batch.
+     * @param det receives the count determinants.
+     * @param executor executor to run on, or null to run sequentially.
+     */
+    public static void determinant(int n, float[] a, int count, float[] det, MatrixExecutor executor) {
+        check(n, count, a.length, n * n);
+        check(n, count, det.length, 1);
+        execute(new BatchF(DETERMINANT, n, count, a, null, det, null), executor);
+    }
+
+    /**
+     * Inverses of a batch of single precision matrices. The inverse of a
+     * singular matrix has infinite or NaN elements and a zero determinant.
+     * @param n matrix size, 3 or 4.
+     * @param a batch of count matrices.
+     * @param count number of matrices in the batch.
+     * @param inverse receives the inverses, may be a to invert in place.
+     * @param det receives the determinants, may be null.
+     */
+    public static void invert(int n, float[] a, int count, float[] inverse, float[] det) {
+        invert(n, a, count, inverse, det, null);
+    }
+
+    /**
+     * Inverses of a batch of single precision matrices, split into chunks
+     * on the executor's pool.
+     * @param n matrix size, 3 or 4.
+     * @param a batch of count matrices.
+     * @param count number of matrices in the batch.
+     * @param inverse receives the inverses, may be a to invert in place.
+     * @param det receives the determinants, may be null.
+     * @param executor executor to run on, or null to run sequentially.
+     */
+    public static void invert(int n, float[] a, int count, float[] inverse, float[] det, MatrixExecutor executor) {
+        check(n, count, a.length, n * n);
+        check(n, count, inverse.length, n * n);
+        if (det != null) {
+            check(n, count, det.length, 1);
+        }
+        execute(new BatchF(INVERT, n, count, a, null, inverse, det), executor);
+    }
+
+    /**
+     * Solves A*x = b for a batch of single precision matrices and right
+     * hand sides. The solution of a singular system is set to NaN.
+     * @param n matrix size, 3 or 4.
+     * @param a batch of count matrices, left unchanged.
+     * @param b batch of count vectors of length n.
+     * @param count number of systems in the batch.
+     * @param x receives the solutions, may be b to solve in place.
+     */
+    public static void solve(int n, float[] a, float[] b, int count, float[] x) {
+        solve(n, a, b, count, x, null);
+    }
+
+    /**
+     * Solves A*x = b for a batch of single precision matrices and right
+     * hand sides, split into chunks on the executor's pool.
+     * @param n matrix size, 3 or 4.
+     * @param a batch of count matrices, left unchanged.
+     * @param b batch of count vectors of length n.
+     * @param count number of systems in the batch.
+     * @param x receives the solutions, may be b to solve in place.
+     * @param executor executor to run on, or null to run sequentially.
+     */
+    public static void solve(int n, float[] a, float[] b, int count, float[] x, MatrixExecutor executor) {
+        check(n, count, a.length, n * n);
+        check(n, count, b.length, n);
+        check(n, count, x.length, n);
+        execute(new BatchF(SOLVE, n, count, a, b, x, null), executor);
+    }
+
+    private static void check(int n, int count, int length, int size) {
+        if (n != 3 && n != 4) {
+            throw new IllegalArgumentException("Only 3 by 3 and 4 by 4 matrices are supported.");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("count must be >= 0");
+        }
+        if (length < (long) size * count) {
+            throw new IllegalArgumentException("Batch array is too short.");
+        }
+    }
+
+    private static void execute(Batch task, MatrixExecutor executor) {
+        if (executor == null) {
+            task.run();
+        } else {
+            task.threshold = executor.getThreshold();
+            if (task.isSmall()) {
+                task.run();
+            } else {
+                executor.getPool().invoke(task);
+            }
+        }
+    }
+
+    /**
+     * Operation over the matrices lo to hi of a batch, split in halves
+     * until the work of each part is below the threshold.
+     */
+    private abstract static class Batch extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        final int op, n, count;
+        int lo, hi, threshold;
+
+        Batch(int op, int n, int count) {
+            this.op = op;
+            this.n = n;
+            this.count = count;
+            this.hi = count;
+        }
+
+        abstract Batch split(int lo, int hi);
+
+        abstract void run();
+
+        boolean isSmall() {
+            return hi - lo < 2 || (long) (hi - lo) * n * n * n <= threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (isSmall()) {
+                run();
+            } else {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(split(lo, mid), split(mid, hi));
+            }
+        }
+    }
+
+    private static void determinant3(double[] a, int c, double[] det, int lo, int hi) {
+        for (int k = lo; k < hi; k++) {
+            double a00 = a[k], a01 = a[c + k], a02 = a[2 * c + k];
+            double a10 = a[3 * c + k], a11 = a[4 * c + k], a12 = a[5 * c + k];
+            double a20 = a[6 * c + k], a21 = a[7 * c + k], a22 = a[8 * c + k];
+            det[k] = a00 * (a11 * a22 - a12 * a21)
+                    + a01 * (a12 * a20 - a10 * a22)
+                    + a02 * (a10 * a21 - a11 * a20);
+        }
+    }
+
+    private static void determinant4(double[] a, int c, double[] det, int lo, int hi) {
+        for (int k = lo; k < hi; k++) {
+            double a00 = a[k], a01 = a[c + k], a02 = a[2 * c + k], a03 = a[3 * c + k];
+            double a10 = a[4 * c + k], a11 = a[5 * c + k], a12 = a[6 * c + k], a13 = a[7 * c + k];
+            double a20 = a[8 * c + k], a21 = a[9 * c + k], a22 = a[10 * c + k], a23 = a[11 * c + k];
+            double a30 = a[12 * c + k], a31 = a[13 * c + k], a32 = a[14 * c + k], a33 = a[15 * c + k];
+            // 2 by 2 minors of the top and bottom row pairs.
+            double s0 = a00 * a11 - a10 * a01;
+            double s1 = a00 * a12 - a10 * a02;
+            double s2 = a00 * a13 - a10 * a03;
+            double s3 = a01 * a12 - a11 * a02;
+            double s4 = a01 * a13 - a11 * a03;
+            double s5 = a02 * a13 - a12 * a03;
+            double c5 = a22 * a33 - a32 * a23;
+            double c4 = a21 * a33 - a31 * a23;
+            double c3 = a21 * a32 - a31 * a22;
+            double c2 = a20 * a33 - a30 * a23;
+            double c1 = a20 * a32 - a30 * a22;
+            double c0 = a20 * a31 - a30 * a21;
+            det[k] = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+        }
+    }
+
+    private static void invert3(double[] a, int c, double[] inv, double[] det, int lo, int hi) {
+        for (int k = lo; k < hi; k++) {
+            double a00 = a[k], a01 = a[c + k], a02 = a[2 * c + k];
+            double a10 = a[3 * c + k], a11 = a[4 * c + k], a12 = a[5 * c + k];
+            double a20 = a[6 * c + k], a21 = a[7 * c + k], a22 = a[8 * c + k];
+            double c00 = a11 * a22 - a12 * a21;
+            double c01 = a12 * a20 - a10 * a22;
+            double c02 = a10 * a21 - a11 * a20;
+            double d = a00 * c00 + a01 * c01 + a02 * c02;
+            double f = 1D / d;
+            inv[k] = c00 * f;
+            inv[c + k] = (a02 * a21 - a01 * a22) * f;
+            inv[2 * c + k] = (a01 * a12 - a02 * a11) * f;
+            inv[3 * c + k] = c01 * f;
+            inv[4 * c + k] = (a00 * a22 - a02 * a20) * f;
+            inv[5 * c + k] = (a02 * a10 - a00 * a12) * f;
+            inv[6 * c + k] = c02 * f;
+            inv[7 * c + k] = (a01 * a20 - a00 * a21) * f;
+            inv[8 * c + k] = (a00 * a11 - a01 * a10) * f;
+            if (det != null) {
+                det[k] = d;
+            }
+        }
+    }
+
+    private static void invert4(double[] a, int c, double[] inv, double[] det, int lo, int hi) {
+        for (int k = lo; k < hi; k++) {
+            double a00 = a[k], a01 = a[c + k], a02 = a[2 * c + k], a03 = a[3 * c + k];
+            double a10 = a[4 * c + k], a11 = a[5 * c + k], a12 = a[6 * c + k], a13 = a[7 * c + k];
+            double a20 = a[8 * c + k], a21 = a[9 * c + k], a22 = a[10 * c + k], a23 = a[11 * c + k];
+            double a30 = a[12 * c + k], a31 = a[13 * c + k], a32 = a[14 * c + k], a33 = a[15 * c + k];
+            double s0 = a00 * a11 - a10 * a01;
+            double s1 = a00 * a12 - a10 * a02;
+            double s2 = a00 * a13 - a10 * a03;
+            double s3 = a01 * a12 - a11 * a02;
+            double s4 = a01 * a13 - a11 * a03;
+            double s5 = a02 * a13 - a12 * a03;
+            double c5 = a22 * a33 - a32 * a23;
+            double c4 = a21 * a33 - a31 * a23;
+            double c3 = a21 * a32 - a31 * a22;
+            double c2 = a20 * a33 - a30 * a23;
+            double c1 = a20 * a32 - a30 * a22;
+            double c0 = a20 * a31 - a30 * a21;
+            double d = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+            double f = 1D / d;
+            inv[k] = (a11 * c5 - a12 * c4 + a13 * c3) * f;
+            inv[c + k] = (-a01 * c5 + a02 * c4 - a03 * c3) * f;
+            inv[2 * c + k] = (a31 * s5 - a32 * s4 + a33 * s3) * f;
+            inv[3 * c + k] = (-a21 * s5 + a22 * s4 - a23 * s3) * f;
+            inv[4 * c + k] = (-a10 * c5 + a12 * c2 - a13 * c1) * f;
+            inv[5 * c + k] = (a00 * c5 - a02 * c2 + a03 * c1) * f;
+            inv[6 * c + k] = (-a30 * s5 + a32 * s2 - a33 * s1) * f;
+            inv[7 * c + k] = (a20 * s5 - a22 * s2 + a23 * s1) * f;
+            inv[8 * c + k] = (a10 * c4 - a11 * c2 + a13 * c0) * f;
+            inv[9 * c + k] = (-a00 * c4 + a01 * c2 - a03 * c0) * f;
+            inv[10 * c + k] = (a30 * s4 - a31 * s2 + a33 * s0) * f;
+            inv[11 * c + k] = (-a20 * s4 + a21 * s2 - a23 * s0) * f;
+            inv[12 * c + k] = (-a10 * c3 + a11 * c1 - a12 * c0) * f;
+            inv[13 * c + k] = (a00 * c3 - a01 * c1 + a02 * c0) * f;
+            inv[14 * c + k] = (-a30 * s3 + a31 * s1 - a32 * s0) * f;
+            inv[15 * c + k] = (a20 * s3 - a21 * s1 + a22 * s0) * f;
+            if (det != null) {
+                det[k] = d;
+            }
+        }
+    }
+
+    /**
+     * Gaussian elimination with partial pivoting, one matrix at a time in
+     * scratch arrays allocated once for the whole range.
+     */
+    private static void solve(int n, double[] a, double[] b, int c, double[] x, int lo, int hi) {
+        double[] lu = new double[n * n];
+        double[] y = new double[n];
+        for (int k = lo; k < hi; k++) {
+            for (int e = 0; e < lu.length; e++) {
+                lu[e] = a[e * c + k];
+            }
+            for (int i = 0; i < n; i++) {
+                y[i] = b[i * c + k];
+            }
+            boolean singular = false;
+            for (int j = 0; j < n && !singular; j++) {
+                int p = j;
+                double max = Math.abs(lu[j * n + j]);
+                for (int i = j + 1; i < n; i++) {
+                    double v = Math.abs(lu[i * n + j]);
+                    if (v > max) {
+                        max = v;
+                        p = i;
+                    }
+                }
+                if (max == 0D) {
+                    singular = true;
+                    break;
+                }
+                if (p != j) {
+                    for (int l = j; l < n; l++) {
+                        double t = lu[p * n + l];
+                        lu[p * n + l] = lu[j * n + l];
+                        lu[j * n + l] = t;
+                    }
+                    double t = y[p];
+                    y[p] = y[j];
+                    y[j] = t;
+                }
+                double pivot = lu[j * n + j];
+                for (int i = j + 1; i < n; i++) {
+                    double f = lu[i * n + j] / pivot;
+                    for (int l = j + 1; l < n; l++) {
+                        lu[i * n + l] -= f * lu[j * n + l];
+                    }
+                    y[i] -= f * y[j];
+                }
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                double s = y[i];
+                for (int l = i + 1; l < n; l++) {
+                    s -= lu[i * n + l] * y[l];
+                }
+                y[i] = singular ? Double.NaN : s / lu[i * n + i];
+            }
+            for (int i = 0; i < n; i++) {
+                x[i * c + k] = y[i];
+            }
+        }
+    }
+
+    private static final class BatchD extends Batch {
+
+        private static final long serialVersionUID = 1L;
+
+        final double[] a, b, c, d;
+
+        BatchD(int op, int n, int count, double[] a, double[] b, double[] c, double[] d) {
+            super(op, n, count);
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.d = d;
+        }
+
+        @Override
+        Batch split(int lo, int hi) {
+            BatchD task = new BatchD(op, n, count, a, b, c, d);
+            task.lo = lo;
+            task.hi = hi;
+            task.threshold = threshold;
+            return task;
+        }
+
+        @Override
+        void run() {
+            switch (op) {
+                case DETERMINANT:
+                    if (n == 3) {
+                        determinant3(a, count, c, lo, hi);
+                    } else {
+                        determinant4(a, count, c, lo, hi);
+                    }
+                    break;
+                case INVERT:
+                    if (n == 3) {
+                        invert3(a, count, c, d, lo, hi);
+                    } else {
+                        invert4(a, count, c, d, lo, hi);
+                    }
+                    break;
+                default:
+                    solve(n, a, b, count, c, lo, hi);
+            }
+        }
+    }
+
+    private static void determinant3(float[] a, int c, float[] det, int lo, int hi) {
+        for (int k = lo; k < hi; k++) {
+            float a00 = a[k], a01 = a[c + k], a02 = a[2 * c + k];
+            float a10 = a[3 * c + k], a11 = a[4 * c + k], a12 = a[5 * c + k];
+            float a20 = a[6 * c + k], a21 = a[7 * c + k], a22 = a[8 * c + k];
+            det[k] = a00 * (a11 * a22 - a12 * a21)
+                    + a01 * (a12 * a20 - a10 * a22)
+                    + a02 * (a10 * a21 - a11 * a20);
+        }
+    }
+
+    private static void determinant4(float[] a, int c, float[] det, int lo, int hi) {
+        for (int k = lo; k < hi; k++) {
+            float a00 = a[k], a01 = a[c + k], a02 = a[2 * c + k], a03 = a[3 * c + k];
+            float a10 = a[4 * c + k], a11 = a[5 * c + k], a12 = a[6 * c + k], a13 = a[7 * c + k];
+            float a20 = a[8 * c + k], a21 = a[9 * c + k], a22 = a[10 * c + k], a23 = a[11 * c + k];
+            float a30 = a[12 * c + k], a31 = a[13 * c + k], a32 = a[14 * c + k], a33 = a[15 * c + k];
+            // 2 by 2 minors of the top and bottom row pairs.
+            float s0 = a00 * a11 - a10 * a01;
+            float s1 = a00 * a12 - a10 * a02;
+            float s2 = a00 * a13 - a10 * a03;
+            float s3 = a01 * a12 - a11 * a02;
+            float s4 = a01 * a13 - a11 * a03;
+            float s5 = a02 * a13 - a12 * a03;
+            float c5 = a22 * a33 - a32 * a23;
+            float c4 = a21 * a33 - a31 * a23;
+            float c3 = a21 * a32 - a31 * a22;
+            float c2 = a20 * a33 - a30 * a23;
+            float c1 = a20 * a32 - a30 * a22;
+            float c0 = a20 * a31 - a30 * a21;
+            det[k] = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+        }
+    }
+
+    private static void invert3(float[] a, int c, float[] inv, float[] det, int lo, int hi) {
+        for (int k = lo; k < hi; k++) {
+            float a00 = a[k], a01 = a[c + k], a02 = a[2 * c + k];
+            float a10 = a[3 * c + k], a11 = a[4 * c + k], a12 = a[5 * c + k];
+            float a20 = a[6 * c + k], a21 = a[7 * c + k], a22 = a[8 * c + k];
+            float c00 = a11 * a22 - a12 * a21;
+            float c01 = a12 * a20 - a10 * a22;
+            float c02 = a10 * a21 - a11 * a20;
+            float d = a00 * c00 + a01 * c01 + a02 * c02;
+            float f = 1F / d;
+            inv[k] = c00 * f;
+            inv[c + k] = (a02 * a21 - a01 * a22) * f;
+            inv[2 * c + k] = (a01 * a12 - a02 * a11) * f;
+            inv[3 * c + k] = c01 * f;
+            inv[4 * c + k] = (a00 * a22 - a02 * a20) * f;
+            inv[5 * c + k] = (a02 * a10 - a00 * a12) * f;
+            inv[6 * c + k] = c02 * f;
+            inv[7 * c + k] = (a01 * a20 - a00 * a21) * f;
+            inv[8 * c + k] = (a00 * a11 - a01 * a10) * f;
+            if (det != null) {
+                det[k] = d;
+            }
+        }
+    }
+
+    private static void invert4(float[] a, int c, float[] inv, float[] det, int lo, int hi) {
+        for (int k = lo; k < hi; k++) {
+            float a00 = a[k], a01 = a[c + k], a02 = a[2 * c + k], a03 = a[3 * c + k];
+            float a10 = a[4 * c + k], a11 = a[5 * c + k], a12 = a[6 * c + k], a13 = a[7 * c + k];
+            float a20 = a[8 * c + k], a21 = a[9 * c + k], a22 = a[10 * c + k], a23 = a[11 * c + k];
+            float a30 = a[12 * c + k], a31 = a[13 * c + k], a32 = a[14 * c + k], a33 = a[15 * c + k];
+            float s0 = a00 * a11 - a10 * a01;
+            float s1 = a00 * a12 - a10 * a02;
+            float s2 = a00 * a13 - a10 * a03;
+            float s3 = a01 * a12 - a11 * a02;
+            float s4 = a01 * a13 - a11 * a03;
+            float s5 = a02 * a13 - a12 * a03;
+            float c5 = a22 * a33 - a32 * a23;
+            float c4 = a21 * a33 - a31 * a23;
+            float c3 = a21 * a32 - a31 * a22;
+            float c2 = a20 * a33 - a30 * a23;
+            float c1 = a20 * a32 - a30 * a22;
+            float c0 = a20 * a31 - a30 * a21;
+            float d = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+            float f = 1F / d;
+            inv[k] = (a11 * c5 - a12 * c4 + a13 * c3) * f;
+            inv[c + k] = (-a01 * c5 + a02 * c4 - a03 * c3) * f;
+            inv[2 * c + k] = (a31 * s5 - a32 * s4 + a33 * s3) * f;
+            inv[3 * c + k] = (-a21 * s5 + a22 * s4 - a23 * s3) * f;
+            inv[4 * c + k] = (-a10 * c5 + a12 * c2 - a13 * c1) * f;
+            inv[5 * c + k] = (a00 * c5 - a02 * c2 + a03 * c1) * f;
+            inv[6 * c + k] = (-a30 * s5 + a32 * s2 - a33 * s1) * f;
+            inv[7 * c + k] = (a20 * s5 - a22 * s2 + a23 * s1) * f;
+            inv[8 * c + k] = (a10 * c4 - a11 * c2 + a13 * c0) * f;
+            inv[9 * c + k] = (-a00 * c4 + a01 * c2 - a03 * c0) * f;
+            inv[10 * c + k] = (a30 * s4 - a31 * s2 + a33 * s0) * f;
+            inv[11 * c + k] = (-a20 * s4 + a21 * s2 - a23 * s0) * f;
+            inv[12 * c + k] = (-a10 * c3 + a11 * c1 - a12 * c0) * f;
+            inv[13 * c + k] = (a00 * c3 - a01 * c1 + a02 * c0) * f;
+            inv[14 * c + k] = (-a30 * s3 + a31 * s1 - a32 * s0) * f;
+            inv[15 * c + k] = (a20 * s3 - a21 * s1 + a22 * s0) * f;
+            if (det != null) {
+                det[k] = d;
+            }
+        }
+    }
+
+    private static void solve(int n, float[] a, float[] b, int c, float[] x, int lo, int hi) {
+        float[] lu = new float[n * n];
+        float[] y = new float[n];
+        for (int k = lo; k < hi; k++) {
+            for (int e = 0; e < lu.length; e++) {
+                lu[e] = a[e * c + k];
+            }
+            for (int i = 0; i < n; i++) {
+                y[i] = b[i * c + k];
+            }
+            boolean singular = false;
+            for (int j = 0; j < n && !singular; j++) {
+                int p = j;
+                float max = Math.abs(lu[j * n + j]);
+                for (int i = j + 1; i < n; i++) {
+                    float v = Math.abs(lu[i * n + j]);
+                    if (v > max) {
+                        max = v;
+                        p = i;
+                    }
+                }
+                if (max == 0F) {
+                    singular = true;
+                    break;
+                }
+                if (p != j) {
+                    for (int l = j; l < n; l++) {
+                        float t = lu[p * n + l];
+                        lu[p * n + l] = lu[j * n + l];
+                        lu[j * n + l] = t;
+                    }
+                    float t = y[p];
+                    y[p] = y[j];
+                    y[j] = t;
+                }
+                float pivot = lu[j * n + j];
+                for (int i = j + 1; i < n; i++) {
+                    float f = lu[i * n + j] / pivot;
+                    for (int l = j + 1; l < n; l++) {
+                        lu[i * n + l] -= f * lu[j * n + l];
+                    }
+                    y[i] -= f * y[j];
+                }
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                float s = y[i];
+                for (int l = i + 1; l < n; l++) {
+                    s -= lu[i * n + l] * y[l];
+                }
+                y[i] = singular ? Float.NaN : s / lu[i * n + i];
+            }
+            for (int i = 0; i < n; i++) {
+                x[i * c + k] = y[i];
+            }
+        }
+    }
+
+    private static final class BatchF extends Batch {
+
+        private static final long serialVersionUID = 1L;
+
+        final float[] a, b, c, d;
+
+        BatchF(int op, int n, int count, float[] a, float[] b, float[] c, float[] d) {
+            super(op, n, count);
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.d = d;
+        }
+
+        @Override
+        Batch split(int lo, int hi) {
+            BatchF task = new BatchF(op, n, count, a, b, c, d);
+            task.lo = lo;
+            task.hi = hi;
+            task.threshold = threshold;
+            return task;
+        }
+
+        @Override
+        void run() {
+            switch (op) {
+                case DETERMINANT:
+                    if (n == 3) {
+                        determinant3(a, count, c, lo, hi);
+                    } else {
+                        determinant4(a, count, c, lo, hi);
+                    }
+                    break;
+                case INVERT:
+                    if (n == 3) {
+                        invert3(a, count, c, d, lo, hi);
+                    } else {
+                        invert4(a, count, c, d, lo, hi);
+                    }
+                    break;
+                default:
+                    solve(n, a, b, count, c, lo, hi);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math.linear.iterative;
+
+/**
+ * Right preconditioned BiCGSTAB (van der Vorst) for general non symmetric
+ * A. Each iteration costs two products with A and two applications of the
+ * preconditioner. The solve ends without converging if the method breaks
+ * down.
+ *
+ * @author openecho
+ */
+public class BiCGSTABSolver extends IterativeSolver {
+
+    private double[] r, rHat, p, v, pHat, sHat, t;
+
+    @Override
+    void allocate(int n) {
+        r = new double[n];
+        rHat = new double[n];
+        p = new double[n];
+        v = new double[n];
+        pHat = new double[n];
+        sHat = new double[n];
+        t = new double[n];
+    }
+
+    @Override
+    void iterate(LinearOperator a, double[] b, double[] x, double target) {
+        int n = size;
+        residual(a, b, x, r, n);
+        if (initial(norm(r, n), target)) {
+            return;
+        }
+        System.arraycopy(r, 0, rHat, 0, n);
+        for (int i = 0; i < n; i++) {
+            p[i] = 0D;
+            v[i] = 0D;
+        }
+        double rho = 1D;
+        double alpha = 1D;
+        double omega = 1D;
+        for (int iteration = 1;; iteration++) {
+            double rhoNext = dot(rHat, r, n);
+            if (rhoNext == 0D) {
+                return;
+            }
+            double beta = (rhoNext / rho) * (alpha / omega);
+            rho = rhoNext;
+            for (int i = 0; i < n; i++) {
+                p[i] = r[i] + beta * (p[i] - omega * v[i]);
+            }
+            precondition(p, pHat);
+            a.apply(pHat, v);
+            double rv = dot(rHat, v, n);
+            if (rv == 0D) {
+                return;
+            }
+            alpha = rho / rv;
+            // r now holds s = r - alpha * v.
+            axpy(-alpha, v, r, n);
+            axpy(alpha, pHat, x, n);
+            double sNorm = norm(r, n);
+            if (sNorm <= target) {
+                stop(iteration, sNorm, target);
+                return;
+            }
+            precondition(r, sHat);
+            a.apply(sHat, t);
+            double tt = dot(t, t, n);
+            omega = (tt == 0D) ? 0D : dot(t, r, n) / tt;
+            axpy(omega, sHat, x, n);
+            axpy(-omega, t, r, n);
+            if (stop(iteration, norm(r, n), target) || omega == 0D) {
+                return;
+            }
+        }
+    }
+}
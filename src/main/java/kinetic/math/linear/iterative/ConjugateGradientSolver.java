@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math.linear.iterative;
+
+/**
+ * Preconditioned conjugate gradient method for symmetric positive definite
+ * A, which must be paired with a symmetric positive definite
+ * preconditioner such as JacobiPreconditioner or
+ * IncompleteCholeskyPreconditioner.
+ *
+ * @author openecho
+ */
+public class ConjugateGradientSolver extends IterativeSolver {
+
+    private double[] r, z, p, q;
+
+    @Override
+    void allocate(int n) {
+        r = new double[n];
+        z = new double[n];
+        p = new double[n];
+        q = new double[n];
+    }
+
+    @Override
+    void iterate(LinearOperator a, double[] b, double[] x, double target) {
+        int n = size;
+        residual(a, b, x, r, n);
+        if (initial(norm(r, n), target)) {
+            return;
+        }
+        precondition(r, z);
+        System.arraycopy(z, 0, p, 0, n);
+        double rz = dot(r, z, n);
+        for (int iteration = 1;; iteration++) {
+            a.apply(p, q);
+            double pq = dot(p, q, n);
+            if (pq == 0D) {
+                return;
+            }
+            double alpha = rz / pq;
+            axpy(alpha, p, x, n);
+            axpy(-alpha, q, r, n);
+            if (stop(iteration, norm(r, n), target)) {
+                return;
+            }
+            precondition(r, z);
+            double rzNext = dot(r, z, n);
+            double beta = rzNext / rz;
+            rz = rzNext;
+            for (int i = 0; i < n; i++) {
+                p[i] = z[i] + beta * p[i];
+            }
+        }
+    }
+}
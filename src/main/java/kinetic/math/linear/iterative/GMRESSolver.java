@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math.linear.iterative;
+
+import kinetic.math.QuickMath;
+
+/**
+ * Restarted, right preconditioned GMRES(m) for general non symmetric A.
+ *
+ * An orthonormal Krylov basis of up to restart vectors is built with
+ * modified Gram-Schmidt and the least squares problem is kept upper
+ * triangular with Givens rotations, so the residual norm is known every
+ * iteration without forming x. x is updated at each restart, or when the
+ * solve ends. Memory grows with restart * n.
+ *
+ * @author openecho
+ */
+public class GMRESSolver extends IterativeSolver {
+
+    /**
+     * Default Krylov basis size between restarts.
+     */
+    public static final int DEFAULT_RESTART = 30;
+    private final int restart;
+    private double[][] basis, h;
+    private double[] cs, sn, g, y, w, z;
+
+    public GMRESSolver() {
+        this(DEFAULT_RESTART);
+    }
+
+    /**
+     * @param restart Krylov basis size between restarts.
+     */
+    public GMRESSolver(int restart) {
+        if (restart < 1) {
+            throw new IllegalArgumentException("restart must be >= 1.");
+        }
+        this.restart = restart;
+    }
+
+    public int getRestart() {
+        return restart;
+    }
+
+    @Override
+    void allocate(int n) {
+        int k = Math.min(restart, n);
+        basis = new double[k + 1][n];
+        h = new double[k + 1][k];
+        cs = new double[k];
+        sn = new double[k];
+        g = new double[k + 1];
+        y = new double[k];
+        w = new double[n];
+        z = new double[n];
+    }
+
+    @Override
+    void iterate(LinearOperator a, double[] b, double[] x, double target) {
+        int n = size;
+        int k = Math.min(restart, n);
+        int iteration = 0;
+        while (true) {
+            double[] r = basis[0];
+            residual(a, b, x, r, n);
+            double beta = norm(r, n);
+            if (initial(beta, target)) {
+                return;
+            }
+            for (int i = 0; i < n; i++) {
+                r[i] /= beta;
+            }
+            g[0] = beta;
+            for (int i = 1; i <= k; i++) {
+                g[i] = 0D;
+            }
+            int j = 0;
+            boolean done = false;
+            boolean breakdown = false;
+            while (j < k && !done && !breakdown) {
+                iteration++;
+                double[] next = basis[j + 1];
+                precondition(basis[j], z);
+                a.apply(z, next);
+                for (int i = 0; i <= j; i++) {
+                    double hij = dot(next, basis[i], n);
+                    h[i][j] = hij;
+                    axpy(-hij, basis[i], next, n);
+                }
+                double hNext = norm(next, n);
+                if (hNext != 0D) {
+                    for (int i = 0; i < n; i++) {
+                        next[i] /= hNext;
+                    }
+                }
+                // Apply the previous rotations to the new column.
+                for (int i = 0; i < j; i++) {
+                    double t = cs[i] * h[i][j] + sn[i] * h[i + 1][j];
+                    h[i + 1][j] = -sn[i] * h[i][j] + cs[i] * h[i + 1][j];
+                    h[i][j] = t;
+                }
+                double rr = QuickMath.hypot(h[j][j], hNext);
+                if (rr == 0D) {
+                    cs[j] = 1D;
+                    sn[j] = 0D;
+                } else {
+                    cs[j] = h[j][j] / rr;
+                    sn[j] = hNext / rr;
+                }
+                h[j][j] = rr;
+                g[j + 1] = -sn[j] * g[j];
+                g[j] = cs[j] * g[j];
+                j++;
+                done = stop(iteration, Math.abs(g[j]), target);
+                // On breakdown the basis spans the solution, restart to
+                // confirm it with the true residual.
+                breakdown = hNext == 0D;
+            }
+            update(x, j, n);
+            if (done) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * x += M^-1 * V * y where H*y = g over the first count basis vectors.
+     */
+    private void update(double[] x, int count, int n) {
+        for (int i = count - 1; i >= 0; i--) {
+            double s = g[i];
+            for (int l = i + 1; l < count; l++) {
+                s -= h[i][l] * y[l];
+            }
+            y[i] = (h[i][i] == 0D) ? 0D : s / h[i][i];
+        }
+        for (int i = 0; i < n; i++) {
+            w[i] = 0D;
+        }
+        for (int i = 0; i < count; i++) {
+            axpy(y[i], basis[i], w, n);
+        }
+        precondition(w, z);
+        axpy(1D, z, x, n);
+    }
+}
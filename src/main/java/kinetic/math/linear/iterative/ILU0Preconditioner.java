@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math.linear.iterative;
+
+import kinetic.math.CompressedRowMatrixD;
+import kinetic.math.Matrix;
+
+/**
+ * Incomplete LU preconditioner with no fill in, ILU(0).
+ *
+ * L and U are restricted to the non zero pattern of A and are stored
+ * together in CSR form, the unit diagonal of L implied. Suitable for
+ * BiCGSTABSolver and GMRESSolver. Any Matrix is first compressed, every
+ * diagonal element must be stored.
+ *
+ * @author openecho
+ */
+public class ILU0Preconditioner implements Preconditioner {
+
+    private final int n;
+    private final int[] pointers, indices, diagonal;
+    private final double[] values;
+
+    /**
+     * @param a square Matrix A.
+     * @throws RuntimeException if a zero pivot is met.
+     */
+    public ILU0Preconditioner(Matrix a) {
+        n = a.getN();
+        if (a.getM() != n) {
+            throw new IllegalArgumentException("Matrix must be square. m != n.");
+        }
+        CompressedRowMatrixD csr = (a instanceof CompressedRowMatrixD) ? (CompressedRowMatrixD) a : new CompressedRowMatrixD(a);
+        pointers = csr.getPointers();
+        indices = csr.getIndices();
+        values = csr.getValues();
+        diagonal = IncompleteCholeskyPreconditioner.findDiagonal(n, pointers, indices);
+        int[] position = new int[n];
+        for (int j = 0; j < n; j++) {
+            position[j] = -1;
+        }
+        for (int i = 0; i < n; i++) {
+            for (int kk = pointers[i]; kk < pointers[i + 1]; kk++) {
+                position[indices[kk]] = kk;
+            }
+            for (int kk = pointers[i]; kk < diagonal[i]; kk++) {
+                int k = indices[kk];
+                double lik = values[kk] / values[diagonal[k]];
+                values[kk] = lik;
+                for (int jj = diagonal[k] + 1; jj < pointers[k + 1]; jj++) {
+                    int p = position[indices[jj]];
+                    if (p >= 0) {
+                        values[p] -= lik * values[jj];
+                    }
+                }
+            }
+            if (values[diagonal[i]] == 0D) {
+                throw new RuntimeException("Zero pivot in incomplete factorisation.");
+            }
+            for (int kk = pointers[i]; kk < pointers[i + 1]; kk++) {
+                position[indices[kk]] = -1;
+            }
+        }
+    }
+
+    public void apply(double[] r, double[] z) {
+        // Solve L*y = r;
+        for (int i = 0; i < n; i++) {
+            double s = r[i];
+            for (int kk = pointers[i]; kk < diagonal[i]; kk++) {
+                s -= values[kk] * z[indices[kk]];
+            }
+            z[i] = s;
+        }
+        // Solve U*z = y;
+        for (int i = n - 1; i >= 0; i--) {
+            double s = z[i];
+            for (int kk = diagonal[i] + 1; kk < pointers[i + 1]; kk++) {
+                s -= values[kk] * z[indices[kk]];
+            }
+            z[i] = s / values[diagonal[i]];
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math.linear.iterative;
+
+import kinetic.math.CompressedRowMatrixD;
+import kinetic.math.Matrix;
+
+/**
+ * Incomplete Cholesky preconditioner with no fill in, IC(0).
+ *
+ * L is restricted to the non zero pattern of the lower triangle of A and
+ * is stored in CSR form, M = L*L'. Suitable for ConjugateGradientSolver on
+ * symmetric positive definite A; only the lower triangle of A is read. The
+ * factorisation can break down even for positive definite A, in which
+ * case JacobiPreconditioner is the fallback.
+ *
+ * @author openecho
+ */
+public class IncompleteCholeskyPreconditioner implements Preconditioner {
+
+    private final int n;
+    private final int[] pointers, indices;
+    private final double[] values;
+
+    /**
+     * @param a symmetric positive definite Matrix A.
+     * @throws RuntimeException if a pivot is not positive.
+     */
+    public IncompleteCholeskyPreconditioner(Matrix a) {
+        n = a.getN();
+        if (a.getM() != n) {
+            throw new IllegalArgumentException("Matrix must be square. m != n.");
+        }
+        CompressedRowMatrixD csr = (a instanceof CompressedRowMatrixD) ? (CompressedRowMatrixD) a : new CompressedRowMatrixD(a);
+        int[] ap = csr.getPointers();
+        int[] ai = csr.getIndices();
+        double[] ax = csr.getValues();
+        // Keep the lower triangle only.
+        pointers = new int[n + 1];
+        int nnz = 0;
+        for (int i = 0; i < n; i++) {
+            for (int kk = ap[i]; kk < ap[i + 1] && ai[kk] <= i; kk++) {
+                ai[nnz] = ai[kk];
+                ax[nnz] = ax[kk];
+                nnz++;
+            }
+            pointers[i + 1] = nnz;
+        }
+        indices = ai;
+        values = ax;
+        findDiagonal(n, pointers, indices);
+        for (int i = 0; i < n; i++) {
+            for (int kk = pointers[i]; kk < pointers[i + 1]; kk++) {
+                int j = indices[kk];
+                double s = values[kk];
+                // s -= sum over k < j of L[i,k] * L[j,k], by merging rows.
+                int p = pointers[i];
+                int q = pointers[j];
+                while (p < kk && q < pointers[j + 1] - 1) {
+                    int ci = indices[p];
+                    int cj = indices[q];
+                    if (ci == cj) {
+                        s -= values[p++] * values[q++];
+                    } else if (ci < cj) {
+                        p++;
+                    } else {
+                        q++;
+                    }
+                }
+                if (j < i) {
+                    values[kk] = s / values[pointers[j + 1] - 1];
+                } else {
+                    if (!(s > 0D)) {
+                        throw new RuntimeException("Incomplete Cholesky factorisation broke down.");
+                    }
+                    values[kk] = Math.sqrt(s);
+                }
+            }
+        }
+    }
+
+    /**
+     * Position of each diagonal element within its row.
+     * @throws IllegalArgumentException if a diagonal element is not stored.
+     */
+    static int[] findDiagonal(int n, int[] pointers, int[] indices) {
+        int[] diagonal = new int[n];
+        for (int i = 0; i < n; i++) {
+            diagonal[i] = -1;
+            for (int kk = pointers[i]; kk < pointers[i + 1]; kk++) {
+                if (indices[kk] == i) {
+                    diagonal[i] = kk;
+                    break;
+                }
+            }
+            if (diagonal[i] < 0) {
+                throw new IllegalArgumentException("Matrix has a zero on its diagonal.");
+            }
+        }
+        return diagonal;
+    }
+
+    public void apply(double[] r, double[] z) {
+        // Solve L*y = r;
+        for (int i = 0; i < n; i++) {
+            int last = pointers[i + 1] - 1;
+            double s = r[i];
+            for (int kk = pointers[i]; kk < last; kk++) {
+                s -= values[kk] * z[indices[kk]];
+            }
+            z[i] = s / values[last];
+        }
+        // Solve L'*z = y;
+        for (int i = n - 1; i >= 0; i--) {
+            int last = pointers[i + 1] - 1;
+            double zi = z[i] / values[last];
+            z[i] = zi;
+            for (int kk = pointers[i]; kk < last; kk++) {
+                z[indices[kk]] -= values[kk] * zi;
+            }
+        }
+    }
+}
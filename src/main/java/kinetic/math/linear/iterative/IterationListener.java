@@ -0,0 +1,33 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math.linear.iterative;
+
+/**
+ * Callback invoked by an IterativeSolver after every iteration, for
+ * example to log convergence or to stop early.
+ *
+ * @author openecho
+ */
+public interface IterationListener {
+
+    /**
+     * @param iteration number of iterations performed, from 1.
+     * @param residual 2-norm of the current residual b - A*x. GMRES
+     * reports the norm its least squares problem predicts.
+     * @return false to stop the solver after this iteration.
+     */
+    boolean iterationPerformed(int iteration, double residual);
+}
@@ -0,0 +1,236 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math.linear.iterative;
+
+import java.util.Arrays;
+import kinetic.math.Matrix;
+
+/**
+ * Base class of the Krylov subspace solvers for A*x = b.
+ *
+ * A solve stops when the 2-norm of the residual b - A*x is at most
+ * tolerance * |b|, when maxIterations have been performed or when the
+ * IterationListener returns false; isConverged tells the cases apart.
+ * Work vectors are allocated on the first solve and reused while the
+ * system size stays the same, so the iteration loops do not allocate.
+ * Instances are not thread safe.
+ *
+ * @author openecho
+ */
+public abstract class IterativeSolver {
+
+    double tolerance = 1E-10;
+    int maxIterations = 1000;
+    Preconditioner preconditioner;
+    IterationListener listener;
+    int iterations;
+    double residual;
+    boolean converged;
+    /**
+     * System size the work vectors were allocated for.
+     */
+    int size = -1;
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * @param tolerance residual norm relative to |b| at which to stop.
+     */
+    public void setTolerance(double tolerance) {
+        if (!(tolerance >= 0D)) {
+            throw new IllegalArgumentException("tolerance must be >= 0.");
+        }
+        this.tolerance = tolerance;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("maxIterations must be >= 1.");
+        }
+        this.maxIterations = maxIterations;
+    }
+
+    public Preconditioner getPreconditioner() {
+        return preconditioner;
+    }
+
+    /**
+     * @param preconditioner M^-1, or null for none.
+     */
+    public void setPreconditioner(Preconditioner preconditioner) {
+        this.preconditioner = preconditioner;
+    }
+
+    public IterationListener getIterationListener() {
+        return listener;
+    }
+
+    /**
+     * @param listener callback after each iteration, or null for none.
+     */
+    public void setIterationListener(IterationListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Iterations performed by the last solve.
+     * @return iteration count.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Residual norm at the end of the last solve.
+     * @return |b - A*x|
+     */
+    public double getResidual() {
+        return residual;
+    }
+
+    /**
+     * Did the last solve reach the tolerance.
+     * @return true if converged.
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    /**
+     * Solves A*x = b starting from x = 0.
+     * @param a square Matrix A.
+     * @param b right hand side.
+     * @return x
+     */
+    public double[] solve(Matrix a, double[] b) {
+        return solve(LinearOperator.create(a), b, new double[b.length]);
+    }
+
+    /**
+     * Solves A*x = b.
+     * @param a square LinearOperator A.
+     * @param b right hand side of n elements, not modified.
+     * @param x initial guess of n elements, overwritten by the solution.
+     * @return x
+     */
+    public double[] solve(LinearOperator a, double[] b, double[] x) {
+        int n = a.getN();
+        if (a.getM() != n) {
+            throw new IllegalArgumentException("Operator must be square. m != n.");
+        }
+        if (b.length != n || x.length != n) {
+            throw new IllegalArgumentException("Vector lengths must equal n.");
+        }
+        if (size != n) {
+            allocate(n);
+            size = n;
+        }
+        iterations = 0;
+        converged = false;
+        double bNorm = norm(b, n);
+        if (bNorm == 0D) {
+            Arrays.fill(x, 0D);
+            residual = 0D;
+            converged = true;
+            return x;
+        }
+        iterate(a, b, x, tolerance * bNorm);
+        return x;
+    }
+
+    /**
+     * Allocates the work vectors for systems of size n.
+     */
+    abstract void allocate(int n);
+
+    /**
+     * Runs the iteration until stop returns true.
+     * @param target absolute residual norm to reach.
+     */
+    abstract void iterate(LinearOperator a, double[] b, double[] x, double target);
+
+    /**
+     * Records the state after an iteration and notifies the listener.
+     * @return true if the solve should end.
+     */
+    final boolean stop(int iteration, double residual, double target) {
+        this.iterations = iteration;
+        this.residual = residual;
+        converged = residual <= target;
+        if (listener != null && !listener.iterationPerformed(iteration, residual)) {
+            return true;
+        }
+        return converged || iteration >= maxIterations;
+    }
+
+    /**
+     * Records the initial residual without notifying the listener.
+     * @return true if x already solves the system.
+     */
+    final boolean initial(double residual, double target) {
+        this.residual = residual;
+        converged = residual <= target;
+        return converged;
+    }
+
+    /**
+     * z = M^-1 * r, or a copy of r without a preconditioner.
+     */
+    final void precondition(double[] r, double[] z) {
+        if (preconditioner == null) {
+            System.arraycopy(r, 0, z, 0, size);
+        } else {
+            preconditioner.apply(r, z);
+        }
+    }
+
+    /**
+     * r = b - A*x, with A*x formed in r.
+     */
+    static void residual(LinearOperator a, double[] b, double[] x, double[] r, int n) {
+        a.apply(x, r);
+        for (int i = 0; i < n; i++) {
+            r[i] = b[i] - r[i];
+        }
+    }
+
+    static double dot(double[] x, double[] y, int n) {
+        double sum = 0D;
+        for (int i = 0; i < n; i++) {
+            sum += x[i] * y[i];
+        }
+        return sum;
+    }
+
+    static double norm(double[] x, int n) {
+        return Math.sqrt(dot(x, x, n));
+    }
+
+    /**
+     * y += alpha * x
+     */
+    static void axpy(double alpha, double[] x, double[] y, int n) {
+        for (int i = 0; i < n; i++) {
+            y[i] += alpha * x[i];
+        }
+    }
+}
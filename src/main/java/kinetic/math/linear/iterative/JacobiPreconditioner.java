@@ -0,0 +1,66 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math.linear.iterative;
+
+import kinetic.math.CompressedMatrixD;
+import kinetic.math.Matrix;
+
+/**
+ * Jacobi (diagonal) preconditioner, M = diag(A).
+ *
+ * @author openecho
+ */
+public class JacobiPreconditioner implements Preconditioner {
+
+    private final double[] inverseDiagonal;
+
+    /**
+     * @param a square Matrix A with no zeros on its diagonal.
+     */
+    public JacobiPreconditioner(Matrix a) {
+        int n = a.getN();
+        if (a.getM() != n) {
+            throw new IllegalArgumentException("Matrix must be square. m != n.");
+        }
+        inverseDiagonal = new double[n];
+        for (int i = 0; i < n; i++) {
+            double d = (a instanceof CompressedMatrixD) ? ((CompressedMatrixD) a).get(i, i) : a.getData(i, i).doubleValue();
+            if (d == 0D) {
+                throw new IllegalArgumentException("Matrix has a zero on its diagonal.");
+            }
+            inverseDiagonal[i] = 1D / d;
+        }
+    }
+
+    /**
+     * @param diagonal diagonal of A, no element may be zero.
+     */
+    public JacobiPreconditioner(double[] diagonal) {
+        inverseDiagonal = new double[diagonal.length];
+        for (int i = 0; i < diagonal.length; i++) {
+            if (diagonal[i] == 0D) {
+                throw new IllegalArgumentException("Matrix has a zero on its diagonal.");
+            }
+            inverseDiagonal[i] = 1D / diagonal[i];
+        }
+    }
+
+    public void apply(double[] r, double[] z) {
+        for (int i = 0; i < inverseDiagonal.length; i++) {
+            z[i] = r[i] * inverseDiagonal[i];
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math.linear.iterative;
+
+import kinetic.math.CompressedMatrixD;
+import kinetic.math.DenseMatrixD;
+import kinetic.math.Matrix;
+import kinetic.math.MatrixD;
+
+/**
+ * Square or rectangular linear map y = A * x on primitive arrays.
+ *
+ * Iterative solvers only need the product of A with a vector, so A may be
+ * a Matrix wrapped with create or any implicitly defined operator written
+ * as a subclass, for example a stencil that is never stored.
+ *
+ * @author openecho
+ */
+public abstract class LinearOperator {
+
+    /**
+     * Length of y.
+     * @return rows of A.
+     */
+    public abstract int getM();
+
+    /**
+     * Length of x.
+     * @return columns of A.
+     */
+    public abstract int getN();
+
+    /**
+     * Computes y = A * x. Implementations must not allocate.
+     * @param x array of n elements, not modified.
+     * @param y array of m elements to write to, distinct from x.
+     */
+    public abstract void apply(double[] x, double[] y);
+
+    /**
+     * Wraps a Matrix. Compressed and dense matrices multiply on their own
+     * storage, other MatrixD implementations are read a row at a time and
+     * any other Matrix element by element.
+     * @param a Matrix A, later changes to its elements are seen.
+     * @return LinearOperator for A.
+     */
+    public static LinearOperator create(final Matrix a) {
+        if (a == null) {
+            throw new NullPointerException("Matrix a cannot be null.");
+        }
+        final int m = a.getM();
+        final int n = a.getN();
+        if (a instanceof CompressedMatrixD) {
+            return new LinearOperator() {
+
+                @Override
+                public int getM() {
+                    return m;
+                }
+
+                @Override
+                public int getN() {
+                    return n;
+                }
+
+                @Override
+                public void apply(double[] x, double[] y) {
+                    ((CompressedMatrixD) a).multiply(x, y);
+                }
+            };
+        } else if (a instanceof DenseMatrixD) {
+            return new LinearOperator() {
+
+                @Override
+                public int getM() {
+                    return m;
+                }
+
+                @Override
+                public int getN() {
+                    return n;
+                }
+
+                @Override
+                public void apply(double[] x, double[] y) {
+                    ((DenseMatrixD) a).multiply(x, y);
+                }
+            };
+        } else if (a instanceof MatrixD) {
+            final double[] row = new double[n];
+            return new LinearOperator() {
+
+                @Override
+                public int getM() {
+                    return m;
+                }
+
+                @Override
+                public int getN() {
+                    return n;
+                }
+
+                @Override
+                public void apply(double[] x, double[] y) {
+                    for (int i = 0; i < m; i++) {
+                        ((MatrixD) a).getRows(i, 1, row);
+                        double sum = 0D;
+                        for (int j = 0; j < n; j++) {
+                            sum += row[j] * x[j];
+                        }
+                        y[i] = sum;
+                    }
+                }
+            };
+        }
+        return new LinearOperator() {
+
+            @Override
+            public int getM() {
+                return m;
+            }
+
+            @Override
+            public int getN() {
+                return n;
+            }
+
+            @Override
+            public void apply(double[] x, double[] y) {
+                for (int i = 0; i < m; i++) {
+                    double sum = 0D;
+                    for (int j = 0; j < n; j++) {
+                        sum += a.getData(i, j).doubleValue() * x[j];
+                    }
+                    y[i] = sum;
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,32 @@
+/**
+ * Copyright (C) 2010 openecho
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+package kinetic.math.linear.iterative;
+
+/**
+ * Approximate inverse M^-1 of a matrix A, applied to residuals to speed
+ * up the convergence of an IterativeSolver.
+ *
+ * @author openecho
+ */
+public interface Preconditioner {
+
+    /**
+     * Computes z = M^-1 * r. Implementations must not allocate.
+     * @param r residual of n elements, not modified.
+     * @param z array of n elements to write to, distinct from r.
+     */
+    void apply(double[] r, double[] z);
+}
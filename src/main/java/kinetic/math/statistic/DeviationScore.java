@@ -35,4 +35,46 @@ public class DeviationScore {
         MatrixD d = (x.subtract(o.multiply(x).divideScalar(x.getM())));
         return d.getData();
     }
+
+    /**
+     * Streams the deviation scores of a (m x n) matrix into dest a block of
+     * rows at a time, subtracting the column means found by Mean.
+     * @param data matrix (m x n) of data.
+     * @param dest matrix (m x n) to write to, may be data when mutable.
+     * @return dest
+     */
+    public static MatrixD evaluate(MatrixD data, MatrixD dest) {
+        if (data == null || dest == null) {
+            throw new NullPointerException();
+        }
+        double[] mean = Mean.evaluate(data);
+        return subtract(data, mean, null, dest);
+    }
+
+    /**
+     * Writes (a[i,j] - mean[j]) / scale[j] into dest one block of rows at a
+     * time. scale may be null.
+     */
+    static MatrixD subtract(MatrixD data, double[] mean, double[] scale, MatrixD dest) {
+        int m = data.getM();
+        int n = data.getN();
+        if (dest.getM() != m || dest.getN() != n) {
+            throw new RuntimeException("Matrix dimensions are not equal.");
+        }
+        int block = data.getRowBlockSize();
+        double[] rows = new double[block * n];
+        for (int i = 0; i < m; i += block) {
+            int count = Math.min(block, m - i);
+            data.getRows(i, count, rows);
+            for (int r = 0; r < count; r++) {
+                int row = r * n;
+                for (int j = 0; j < n; j++) {
+                    double d = rows[row + j] - mean[j];
+                    rows[row + j] = (scale == null) ? d : d / scale[j];
+                }
+            }
+            dest.setRows(i, count, rows);
+        }
+        return dest;
+    }
 }
@@ -16,6 +16,7 @@
 package kinetic.math.statistic;
 
 import java.lang.reflect.Array;
+import kinetic.math.MatrixD;
 
 /**
  * Mean utility.
@@ -97,4 +98,38 @@ public class Mean {
         }
         return sum / length;
     }
+
+    /**
+     * Calculates the mean of each column of a (m x n) matrix. The matrix is
+     * read a block of rows at a time so it never has to be copied, which
+     * keeps file backed matrices off the heap.
+     * @param data matrix (m x n) of m samples containing n observations.
+     * @return n column means.
+     */
+    public static double[] evaluate(MatrixD data) {
+        if (data == null) {
+            throw new NullPointerException();
+        }
+        int m = data.getM();
+        int n = data.getN();
+        double[] sum = new double[n];
+        int block = data.getRowBlockSize();
+        double[] rows = new double[block * n];
+        for (int i = 0; i < m; i += block) {
+            int count = Math.min(block, m - i);
+            data.getRows(i, count, rows);
+            for (int r = 0; r < count; r++) {
+                int row = r * n;
+                for (int j = 0; j < n; j++) {
+                    sum[j] += rows[row + j];
+                }
+            }
+        }
+        if (m > 0) {
+            for (int j = 0; j < n; j++) {
+                sum[j] /= m;
+            }
+        }
+        return sum;
+    }
 }
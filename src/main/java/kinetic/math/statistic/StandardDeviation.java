@@ -16,6 +16,7 @@
 package kinetic.math.statistic;
 
 import java.lang.reflect.Array;
+import kinetic.math.MatrixD;
 
 /**
  * Standard Deviation Utility
@@ -44,4 +45,46 @@ public class StandardDeviation {
         }
         return Math.sqrt(sumDifferenceSquared/((partialPopulation) ? (length-1) : (length)));
     }
-}
\ No newline at end of file
+
+    public static double[] evaluate(MatrixD data) {
+        return StandardDeviation.evaluate(data, true);
+    }
+
+    /**
+     * Calculates the standard deviation of each column of a (m x n) matrix
+     * in two streamed passes over its rows, the first for the means.
+     * @param data matrix (m x n) of m samples containing n observations.
+     * @param partialPopulation divide by m - 1 when true, m otherwise.
+     * @return n column standard deviations.
+     */
+    public static double[] evaluate(MatrixD data, boolean partialPopulation) {
+        if (data == null) {
+            throw new NullPointerException();
+        }
+        int m = data.getM();
+        int n = data.getN();
+        if (m < 2) {
+            throw new RuntimeException("More than two values are required to calculate a standard deviation");
+        }
+        double[] mean = Mean.evaluate(data);
+        double[] sumDifferenceSquared = new double[n];
+        int block = data.getRowBlockSize();
+        double[] rows = new double[block * n];
+        for (int i = 0; i < m; i += block) {
+            int count = Math.min(block, m - i);
+            data.getRows(i, count, rows);
+            for (int r = 0; r < count; r++) {
+                int row = r * n;
+                for (int j = 0; j < n; j++) {
+                    double d = rows[row + j] - mean[j];
+                    sumDifferenceSquared[j] += d * d;
+                }
+            }
+        }
+        double divisor = (partialPopulation) ? (m - 1) : m;
+        for (int j = 0; j < n; j++) {
+            sumDifferenceSquared[j] = Math.sqrt(sumDifferenceSquared[j] / divisor);
+        }
+        return sumDifferenceSquared;
+    }
+}
@@ -43,6 +43,9 @@ public class Standardize {
         for(int j=0;j<a.getN();j++) {
             Number[] nNumbers = a.getColumn(j);
             Double[] nData = new Double[Array.getLength(nNumbers)];
+            for(int i=0;i<nData.length;i++) {
+                nData[i] = nNumbers[i].doubleValue();
+            }
 
             double std = StandardDeviation.evaluate(nData);
             double mean = Mean.evaluate(nData);
@@ -52,4 +55,21 @@ public class Standardize {
         }
         return d;
     }
+
+    /**
+     * Streams the standardized values of a (m x n) matrix into dest a block
+     * of rows at a time. Three passes are made over data; the column means,
+     * the column standard deviations and the output.
+     * @param data matrix (m x n) of m samples containing n observations
+     * @param dest matrix (m x n) to write to, may be data when mutable.
+     * @return dest
+     */
+    public static MatrixD evaluate(MatrixD data, MatrixD dest) {
+        if (data == null || dest == null) {
+            throw new NullPointerException();
+        }
+        double[] mean = Mean.evaluate(data);
+        double[] std = StandardDeviation.evaluate(data);
+        return DeviationScore.subtract(data, mean, std, dest);
+    }
 }
@@ -15,7 +15,9 @@
  **/
 package kinetic.math.statistic;
 
+import kinetic.math.DenseMatrixD;
 import kinetic.math.MatrixD;
+import kinetic.math.MultiplyKernel;
 
 /**
  * Variance-Covariance utility for to generate a variance-covariance matrix (n x n)
@@ -44,4 +46,46 @@ public class VarianceCovariance {
         MatrixD a = MatrixD.create(DeviationScore.evaluate(data));
         return a.transpose().multiply(a).divideScalar(a.getM()).getData();
     }
+
+    /**
+     * Calculates the variance-covariance matrix (n x n) of a (m x n) matrix
+     * with two streamed passes over its rows. The first finds the column
+     * means, the second centres each block of rows x and accumulates
+     * x'x through the MultiplyKernel, so only one block of data and the
+     * n x n result are ever held in memory.
+     * @param data matrix (m x n) of data.
+     * @return MatrixD (n x n) variance-covariance matrix.
+     */
+    public static MatrixD evaluate(MatrixD data) {
+        if (data == null) {
+            throw new NullPointerException();
+        }
+        int m = data.getM();
+        int n = data.getN();
+        double[] mean = Mean.evaluate(data);
+        double[] v = new double[n * n];
+        int block = data.getRowBlockSize();
+        double[] rows = new double[block * n];
+        double[] transposed = new double[n * block];
+        for (int i = 0; i < m; i += block) {
+            int count = Math.min(block, m - i);
+            data.getRows(i, count, rows);
+            for (int r = 0; r < count; r++) {
+                int row = r * n;
+                for (int j = 0; j < n; j++) {
+                    double d = rows[row + j] - mean[j];
+                    rows[row + j] = d;
+                    transposed[j * count + r] = d;
+                }
+            }
+            MultiplyKernel.multiply(n, count, n, 1D,
+                    transposed, 0, count,
+                    rows, 0, n,
+                    v, 0, n);
+        }
+        for (int k = 0; k < v.length; k++) {
+            v[k] /= m;
+        }
+        return new DenseMatrixD(n, n, v, false);
+    }
 }
@@ -0,0 +1,59 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package kinetic.math;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author openecho
+ */
+public class ArrayVectorFTest extends TestCase {
+
+    public ArrayVectorFTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of the non mutating operations, of class ArrayVectorF.
+     */
+    public void testImmutable() {
+        System.out.println("immutable");
+        ArrayVectorF a = create(false, 1F, 2F, 3F);
+        ArrayVectorF b = create(false, 4F, 5F, 6F);
+        assertVectorEquals(new float[]{5F, 7F, 9F}, a.add(b));
+        assertVectorEquals(new float[]{-3F, -3F, -3F}, a.subtract(b));
+        assertVectorEquals(new float[]{2F, 3F, 4F}, a.addScalar(1F));
+        assertVectorEquals(new float[]{0F, 1F, 2F}, a.subtractScalar(1F));
+        assertVectorEquals(new float[]{2F, 4F, 6F}, a.multiplyScalar(2F));
+        assertVectorEquals(new float[]{0.5F, 1F, 1.5F}, a.divideScalar(2F));
+        assertVectorEquals(new float[]{1F, 2F, 3F}, a);
+    }
+
+    /**
+     * Test of the mutating operations, of class ArrayVectorF.
+     */
+    public void testMutable() {
+        System.out.println("mutable");
+        ArrayVectorF a = create(true, 1F, 2F, 3F);
+        assertSame(a, a.add(create(false, 4F, 5F, 6F)));
+        assertVectorEquals(new float[]{5F, 7F, 9F}, a);
+        assertSame(a, a.multiplyScalar(2F));
+        assertVectorEquals(new float[]{10F, 14F, 18F}, a);
+    }
+
+    private static ArrayVectorF create(boolean mutate, Float... data) {
+        ArrayVectorF v = new ArrayVectorF(data.length, mutate);
+        v.setData(data);
+        return v;
+    }
+
+    private static void assertVectorEquals(float[] expected, VectorF actual) {
+        assertEquals(expected.length, actual.getN());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual.get(i), 0.00001F);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package kinetic.math;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author openecho
+ */
+public class CompressedMatrixDTest extends TestCase {
+
+    MatrixD dense;
+    CompressedRowMatrixD csr;
+    CompressedColumnMatrixD csc;
+
+    public CompressedMatrixDTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        dense = MatrixD.create(new double[][]{{1D, 0D, 2D, 0D}, {0D, 3D, 0D, 0D}, {0D, 0D, 0D, 4D}});
+        SparseMatrixBuilderD builder = new SparseMatrixBuilderD(3, 4);
+        builder.add(2, 3, 4D).add(0, 2, 1D).add(1, 1, 3D).add(0, 0, 1D).add(0, 2, 1D).add(1, 0, 5D).add(1, 0, -5D);
+        csr = builder.toCompressedRow();
+        csc = builder.toCompressedColumn();
+    }
+
+    /**
+     * Test of SparseMatrixBuilderD, of class CompressedMatrixD.
+     */
+    public void testBuilder() {
+        System.out.println("builder");
+        assertEquals(4, csr.getNonZeroCount());
+        assertEquals(4, csc.getNonZeroCount());
+        assertTrue(dense.equals(csr));
+        assertTrue(dense.equals(csc));
+        assertEquals(2D, csr.get(0, 2), 0D);
+        assertEquals(0D, csc.get(1, 0), 0D);
+    }
+
+    /**
+     * Test of conversion constructors, of class CompressedMatrixD.
+     */
+    public void testConversion() {
+        System.out.println("conversion");
+        RowArrayMatrixD boxed = new RowArrayMatrixD(dense.getData());
+        CompressedRowMatrixD fromBoxed = new CompressedRowMatrixD(boxed);
+        assertEquals(4, fromBoxed.getNonZeroCount());
+        assertTrue(boxed.equals(fromBoxed.toRowArrayMatrixD()));
+        assertTrue(csc.equals(new CompressedRowMatrixD(csc)));
+        assertTrue(csr.equals(new CompressedColumnMatrixD(csr)));
+        assertTrue(dense.equals(new DenseMatrixD(csc, false)));
+    }
+
+    /**
+     * Test of set method, of class CompressedMatrixD.
+     */
+    public void testSet() {
+        System.out.println("set");
+        csr.set(1, 3, 7D);
+        csc.set(1, 3, 7D);
+        assertEquals(5, csr.getNonZeroCount());
+        assertEquals(7D, csr.get(1, 3), 0D);
+        assertEquals(7D, csc.get(1, 3), 0D);
+        assertEquals(4D, csr.get(2, 3), 0D);
+        assertTrue(csr.equals(csc));
+    }
+
+    /**
+     * Test of multiply method, of class CompressedMatrixD.
+     */
+    public void testMultiply() {
+        System.out.println("multiply");
+        MatrixD b = MatrixD.random(4, 5);
+        MatrixD expResult = dense.multiply(b);
+        assertTrue(csr.multiply(b) instanceof DenseMatrixD);
+        assertTrue(expResult.equals(csr.multiply(b)));
+        assertTrue(expResult.equals(csc.multiply(b)));
+        MatrixD at = MatrixD.transpose(dense);
+        MatrixD sparseProduct = csr.multiply(new CompressedRowMatrixD(at));
+        assertTrue(sparseProduct instanceof CompressedRowMatrixD);
+        assertTrue(dense.multiply(at).equals(sparseProduct));
+        assertTrue(dense.multiply(at).equals(csc.multiply(new CompressedRowMatrixD(at))));
+        MatrixD dest = MatrixD.empty(3, 5);
+        assertSame(dest, csr.multiply(b, dest));
+        assertTrue(expResult.equals(dest));
+    }
+
+    /**
+     * Test of multiply method with a VectorD, of class CompressedMatrixD.
+     */
+    public void testMultiplyVector() {
+        System.out.println("multiply vector");
+        VectorD x = VectorD.create(new double[]{1D, 2D, 3D, 4D});
+        VectorD y = csr.multiply(x);
+        assertEquals(3, y.getN());
+        assertEquals(7D, y.getData(0), 0D);
+        assertEquals(6D, y.getData(1), 0D);
+        assertEquals(16D, y.getData(2), 0D);
+        assertTrue(y.equals(csc.multiply(x)));
+    }
+
+    /**
+     * Test of transpose method, of class CompressedMatrixD.
+     */
+    public void testTranspose() {
+        System.out.println("transpose");
+        MatrixD expResult = MatrixD.transpose(dense);
+        MatrixD result = csr.transpose();
+        assertTrue(result instanceof CompressedRowMatrixD);
+        assertEquals(4, result.getM());
+        assertTrue(expResult.equals(result));
+        assertTrue(expResult.equals(csc.transpose()));
+    }
+
+    /**
+     * Test of add, subtract and scalar methods, of class CompressedMatrixD.
+     */
+    public void testElementWise() {
+        System.out.println("element wise");
+        MatrixD sum = csr.add(csc);
+        assertTrue(sum instanceof CompressedRowMatrixD);
+        assertTrue(dense.multiplyScalar(2D).equals(sum));
+        MatrixD difference = csr.subtract(csc);
+        assertEquals(0, ((CompressedMatrixD) difference).getNonZeroCount());
+        assertTrue(dense.add(dense).equals(csr.add(dense)));
+        assertTrue(dense.divideScalar(2D).equals(csc.divideScalar(2D)));
+        assertTrue(dense.addScalar(1D).equals(csr.addScalar(1D)));
+        CompressedRowMatrixD mutable = new CompressedRowMatrixD(dense, true);
+        assertSame(mutable, mutable.multiplyScalar(3D));
+        assertEquals(12D, mutable.get(2, 3), 0D);
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package kinetic.math;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author openecho
+ */
+public class DenseMatrixDTest extends TestCase {
+
+    public DenseMatrixDTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of get and set methods, of class DenseMatrixD.
+     */
+    public void testGetSet() {
+        System.out.println("get/set");
+        DenseMatrixD instance = new DenseMatrixD(new double[][]{{1D, 2D, 3D}, {4D, 5D, 6D}});
+        assertEquals(2, instance.getM());
+        assertEquals(3, instance.getN());
+        assertEquals(6D, instance.get(1, 2), 0D);
+        instance.set(1, 2, 7D);
+        assertEquals(7D, instance.getData(1, 2).doubleValue(), 0D);
+        try {
+            instance.get(2, 0);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+        }
+    }
+
+    /**
+     * Test of getRow and getColumn methods, of class DenseMatrixD.
+     */
+    public void testGetRowColumn() {
+        System.out.println("getRow/getColumn");
+        DenseMatrixD instance = new DenseMatrixD(new double[][]{{1D, 2D, 3D}, {4D, 5D, 6D}});
+        double[] row = instance.getRow(1, new double[3]);
+        assertEquals(4D, row[0], 0D);
+        assertEquals(6D, row[2], 0D);
+        double[] column = instance.getColumn(2, new double[2]);
+        assertEquals(3D, column[0], 0D);
+        assertEquals(6D, column[1], 0D);
+    }
+
+    /**
+     * Test of add and subtract methods, of class DenseMatrixD.
+     */
+    public void testAddSubtract() {
+        System.out.println("add/subtract");
+        Double[][] data = new Double[][]{{1D, 2D, 3D}, {3D, 2D, 1D}, {1D, 2D, 3D}};
+        DenseMatrixD instance = new DenseMatrixD(data);
+        MatrixD expResult = MatrixD.create(new Double[][]{{2D, 4D, 6D}, {6D, 4D, 2D}, {2D, 4D, 6D}});
+        assertTrue(expResult.equals(instance.add(instance)));
+        assertTrue(expResult.equals(instance.add(new RowArrayMatrixD(data))));
+        assertTrue(instance.equals(expResult.subtract(instance)));
+    }
+
+    /**
+     * Test of multiply method, of class DenseMatrixD.
+     */
+    public void testMultiply() {
+        System.out.println("multiply");
+        DenseMatrixD a = new DenseMatrixD(new double[][]{{1D, 2D, 3D}, {4D, 5D, 6D}});
+        DenseMatrixD b = new DenseMatrixD(new double[][]{{7D, 1D}, {8D, 2D}, {9D, 3D}});
+        MatrixD expResult = MatrixD.create(new double[][]{{50D, 14D}, {122D, 32D}});
+        assertTrue(expResult.equals(a.multiply(b)));
+        assertTrue(expResult.equals(a.multiply(new RowArrayMatrixD(b.getData()))));
+    }
+
+    /**
+     * Test of multiply method across kernel block boundaries, of class
+     * DenseMatrixD.
+     */
+    public void testMultiplyBlocked() {
+        System.out.println("multiply blocked");
+        int m = MultiplyKernel.BLOCK_M + 7;
+        int k = MultiplyKernel.BLOCK_K * 2 + 3;
+        int n = MultiplyKernel.BLOCK_N + 5;
+        MatrixD a = MatrixD.random(m, k);
+        MatrixD b = MatrixD.random(k, n);
+        MatrixD result = a.multiply(b);
+        MatrixD boxed = new RowArrayMatrixD(a.getData()).multiply(new RowArrayMatrixD(b.getData()));
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                double expResult = 0D;
+                for (int p = 0; p < k; p++) {
+                    expResult += a.getData(i, p) * b.getData(p, j);
+                }
+                assertEquals(expResult, result.getData(i, j), 0.0000001);
+                assertEquals(expResult, boxed.getData(i, j), 0.0000001);
+            }
+        }
+    }
+
+    /**
+     * Test of mutating multiply method, of class DenseMatrixD.
+     */
+    public void testMultiplyMutate() {
+        System.out.println("multiply mutate");
+        DenseMatrixD a = new DenseMatrixD(new double[][]{{1D, 2D}, {3D, 4D}}, true);
+        MatrixD result = a.multiply(a);
+        assertSame(a, result);
+        assertTrue(MatrixD.create(new double[][]{{7D, 10D}, {15D, 22D}}).equals(result));
+    }
+
+    /**
+     * Test of multiply by a non square Matrix on a mutable instance, as
+     * handed out by MatrixD.empty, of class DenseMatrixD.
+     */
+    public void testMultiplyMutableNonSquare() {
+        System.out.println("multiply mutable non square");
+        MatrixD a = MatrixD.empty(2, 3);
+        a.setData(0, 0, 1D);
+        a.setData(1, 2, 2D);
+        DenseMatrixD b = new DenseMatrixD(new double[][]{{1D, 2D, 3D, 4D}, {0D, 0D, 0D, 0D}, {1D, 1D, 1D, 1D}});
+        MatrixD result = a.multiply(b);
+        assertNotSame(a, result);
+        assertEquals(2, result.getM());
+        assertEquals(4, result.getN());
+        assertTrue(new DenseMatrixD(new double[][]{{1D, 2D, 3D, 4D}, {2D, 2D, 2D, 2D}}).equals(result));
+        assertEquals(3, a.getN());
+    }
+
+    /**
+     * Test of transpose method, of class DenseMatrixD.
+     */
+    public void testTranspose() {
+        System.out.println("transpose");
+        DenseMatrixD instance = new DenseMatrixD(new double[][]{{1D, 2D, 3D}});
+        MatrixD expResult = MatrixD.create(new double[][]{{1D}, {2D}, {3D}});
+        assertTrue(expResult.equals(instance.transpose()));
+        DenseMatrixD square = new DenseMatrixD(new double[][]{{1D, 2D}, {3D, 4D}}, true);
+        assertSame(square, square.transpose());
+        assertEquals(3D, square.get(0, 1), 0D);
+        assertEquals(2D, square.get(1, 0), 0D);
+    }
+
+    /**
+     * Test of scalar methods, of class DenseMatrixD.
+     */
+    public void testScalar() {
+        System.out.println("scalar");
+        DenseMatrixD instance = new DenseMatrixD(new double[][]{{1D, 2D}, {3D, 4D}});
+        assertTrue(MatrixD.create(new double[][]{{6D, 7D}, {8D, 9D}}).equals(instance.addScalar(5D)));
+        assertTrue(MatrixD.create(new double[][]{{0D, 1D}, {2D, 3D}}).equals(instance.subtractScalar(1D)));
+        assertTrue(MatrixD.create(new double[][]{{2D, 4D}, {6D, 8D}}).equals(instance.multiplyScalar(2D)));
+        assertTrue(MatrixD.create(new double[][]{{0.5D, 1D}, {1.5D, 2D}}).equals(instance.divideScalar(2D)));
+        assertEquals(1D, instance.get(0, 0), 0D);
+    }
+
+    /**
+     * Test of solve, invert and determinant methods, of class DenseMatrixD.
+     */
+    public void testSolve() {
+        System.out.println("solve");
+        DenseMatrixD instance = new DenseMatrixD(new double[][]{{1D, 2D, 3D}, {2D, -1D, 1D}, {3D, 0D, -1D}});
+        MatrixD b = MatrixD.create(new double[][]{{9D}, {8D}, {3D}});
+        MatrixD result = instance.solve(b);
+        assertEquals(2D, result.getData(0, 0), 0.0000001);
+        assertEquals(-1D, result.getData(1, 0), 0.0000001);
+        assertEquals(3D, result.getData(2, 0), 0.0000001);
+        assertEquals(9D, b.getData(0, 0), 0D);
+        MatrixD identity = instance.multiply(instance.invert());
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(i == j ? 1D : 0D, identity.getData(i, j), 0.0000001);
+            }
+        }
+        assertEquals(20D, instance.determinant(), 0.0000001);
+    }
+
+    /**
+     * Test of destination methods, of class DenseMatrixD.
+     */
+    public void testInto() {
+        System.out.println("into");
+        DenseMatrixD a = new DenseMatrixD(new double[][]{{1D, 2D}, {3D, 4D}});
+        DenseMatrixD dest = new DenseMatrixD(2, 2);
+        assertSame(dest, a.addInto(a, dest));
+        assertTrue(MatrixD.create(new double[][]{{2D, 4D}, {6D, 8D}}).equals(dest));
+        a.subtractInto(new RowArrayMatrixD(a.getData()), dest);
+        assertTrue(MatrixD.create(new double[][]{{0D, 0D}, {0D, 0D}}).equals(dest));
+        a.scaleInto(3D, dest);
+        assertEquals(12D, dest.get(1, 1), 0D);
+        a.multiply(a, dest);
+        assertTrue(MatrixD.create(new double[][]{{7D, 10D}, {15D, 22D}}).equals(dest));
+        a.transposeInto(a);
+        assertEquals(3D, a.get(0, 1), 0D);
+        try {
+            a.addInto(a, new DenseMatrixD(3, 2));
+            fail("Expected RuntimeException");
+        } catch (RuntimeException e) {
+        }
+        // A destination sharing storage with this instance.
+        DenseMatrixD b = new DenseMatrixD(new double[][]{{1D, 2D, 3D}, {4D, 5D, 6D}, {7D, 8D, 9D}});
+        b.transposeInto(b.getSubMatrix(0, 3, 0, 3));
+        assertTrue(MatrixD.create(new double[][]{{1D, 4D, 7D}, {2D, 5D, 8D}, {3D, 6D, 9D}}).equals(b));
+        b.transposeInto(b.transposeView());
+        assertTrue(MatrixD.create(new double[][]{{1D, 4D, 7D}, {2D, 5D, 8D}, {3D, 6D, 9D}}).equals(b));
+        RowArrayMatrixD r = new RowArrayMatrixD(new Double[][]{{1D, 2D}, {3D, 4D}});
+        r.transposeInto(r.getSubMatrix(0, 2, 0, 2));
+        assertTrue(MatrixD.create(new double[][]{{1D, 3D}, {2D, 4D}}).equals(r));
+        // Element wise destinations overlapping an operand.
+        b = new DenseMatrixD(new double[][]{{1D, 2D, 3D}, {4D, 5D, 6D}, {7D, 8D, 9D}});
+        b.getSubMatrix(0, 2, 0, 3).addInto(b.getSubMatrix(0, 2, 0, 3), b.getSubMatrix(1, 3, 0, 3));
+        assertTrue(MatrixD.create(new double[][]{{1D, 2D, 3D}, {2D, 4D, 6D}, {8D, 10D, 12D}}).equals(b));
+        b = new DenseMatrixD(new double[][]{{1D, 2D}, {3D, 4D}});
+        b.subtractInto(b.transposeView(), b.transposeView());
+        assertTrue(MatrixD.create(new double[][]{{0D, 1D}, {-1D, 0D}}).equals(b));
+        b.scaleInto(2D, b.transposeView());
+        assertTrue(MatrixD.create(new double[][]{{0D, -2D}, {2D, 0D}}).equals(b));
+        r = new RowArrayMatrixD(new Double[][]{{1D, 2D}, {3D, 4D}});
+        r.addInto(r, r.transposeView());
+        assertTrue(MatrixD.create(new double[][]{{2D, 6D}, {4D, 8D}}).equals(r));
+    }
+
+    /**
+     * Test of getSubMatrix method, of class DenseMatrixD.
+     */
+    public void testGetSubMatrix() {
+        System.out.println("getSubMatrix");
+        DenseMatrixD instance = new DenseMatrixD(new double[][]{{1D, 2D, 3D}, {4D, 5D, 6D}, {7D, 8D, 9D}}, true);
+        DenseMatrixD sub = instance.getSubMatrix(1, 3, 1, 3);
+        assertTrue(MatrixD.create(new double[][]{{5D, 6D}, {8D, 9D}}).equals(sub));
+        sub.multiplyScalar(2D);
+        assertEquals(18D, instance.get(2, 2), 0D);
+        assertEquals(3D, instance.get(0, 2), 0D);
+        MatrixD product = sub.multiply(MatrixD.identity(2), false);
+        assertTrue(sub.equals(product));
+        try {
+            instance.getSubMatrix(1, 4, 0, 1);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+        }
+    }
+
+    /**
+     * Test of transposeView, rowView and columnView methods, of class
+     * DenseMatrixD.
+     */
+    public void testViews() {
+        System.out.println("views");
+        DenseMatrixD instance = new DenseMatrixD(new double[][]{{1D, 2D, 3D}, {4D, 5D, 6D}}, true);
+        MatrixD t = instance.transposeView();
+        assertEquals(3, t.getM());
+        assertTrue(MatrixD.transpose(instance).equals(t));
+        t.setData(2, 0, 30D);
+        assertEquals(30D, instance.get(0, 2), 0D);
+        assertTrue(instance.multiply(MatrixD.transpose(instance)).equals(instance.multiply(t)));
+        VectorD column = instance.columnView(1);
+        assertEquals(2, column.getN());
+        assertEquals(5D, column.getData(1), 0D);
+        column.multiplyScalar(10D);
+        assertEquals(50D, instance.get(1, 1), 0D);
+        VectorD row = t.rowView(2);
+        assertEquals(30D, row.getData(0), 0D);
+        assertEquals(6D, row.getData(1), 0D);
+        MatrixD sub = t.getSubMatrix(1, 3, 0, 1);
+        assertEquals(20D, sub.getData(0, 0), 0D);
+        assertEquals(30D, sub.getData(1, 0), 0D);
+        // A zero view normalises to a zero vector of its own length.
+        Vector zero = new DenseMatrixD(4, 5).rowView(0).normalise(false);
+        assertEquals(5, zero.getN());
+        assertEquals(0D, zero.magnitude().doubleValue(), 0D);
+    }
+
+    /**
+     * Test of mutating add and subtract with an operand sharing the storage,
+     * of class DenseMatrixD.
+     */
+    public void testAddOverlapping() {
+        System.out.println("add/subtract overlapping");
+        DenseMatrixD instance = new DenseMatrixD(new double[][]{{1D, 2D}, {3D, 4D}}, true);
+        assertSame(instance, instance.add(instance.transposeView(), true));
+        assertTrue(new DenseMatrixD(new double[][]{{2D, 5D}, {5D, 8D}}).equals(instance));
+        instance.subtract(instance.transposeView(), true);
+        assertTrue(new DenseMatrixD(new double[][]{{0D, 0D}, {0D, 0D}}).equals(instance));
+        DenseMatrixD square = new DenseMatrixD(new double[][]{{1D, 2D, 3D}, {4D, 5D, 6D}, {7D, 8D, 9D}}, true);
+        DenseMatrixD upper = square.getSubMatrix(0, 2, 0, 3);
+        DenseMatrixD lower = square.getSubMatrix(1, 3, 0, 3);
+        lower.add(upper, true);
+        assertTrue(new DenseMatrixD(new double[][]{{1D, 2D, 3D}, {5D, 7D, 9D}, {11D, 13D, 15D}}).equals(square));
+        // A transpose view writing into itself from its parent.
+        square = new DenseMatrixD(new double[][]{{1D, 2D}, {3D, 4D}}, true);
+        square.transposeView().add(square, true);
+        assertTrue(new DenseMatrixD(new double[][]{{2D, 5D}, {5D, 8D}}).equals(square));
+    }
+}
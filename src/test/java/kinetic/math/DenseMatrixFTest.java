@@ -0,0 +1,192 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package kinetic.math;
+
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author openecho
+ */
+public class DenseMatrixFTest extends TestCase {
+
+    public DenseMatrixFTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of get and set methods, of class DenseMatrixF.
+     */
+    public void testGetSet() {
+        System.out.println("get/set");
+        DenseMatrixF instance = new DenseMatrixF(new float[][]{{1F, 2F, 3F}, {4F, 5F, 6F}});
+        assertEquals(2, instance.getM());
+        assertEquals(3, instance.getN());
+        assertEquals(6F, instance.get(1, 2), 0F);
+        instance.set(1, 2, 7F);
+        assertEquals(7F, instance.getData(1, 2).doubleValue(), 0F);
+        try {
+            instance.get(2, 0);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+        }
+    }
+
+    /**
+     * Test of getRow and getColumn methods, of class DenseMatrixF.
+     */
+    public void testGetRowColumn() {
+        System.out.println("getRow/getColumn");
+        DenseMatrixF instance = new DenseMatrixF(new float[][]{{1F, 2F, 3F}, {4F, 5F, 6F}});
+        float[] row = instance.getRow(1, new float[3]);
+        assertEquals(4F, row[0], 0F);
+        assertEquals(6F, row[2], 0F);
+        float[] column = instance.getColumn(2, new float[2]);
+        assertEquals(3F, column[0], 0F);
+        assertEquals(6F, column[1], 0F);
+    }
+
+    /**
+     * Test of add and subtract methods, of class DenseMatrixF.
+     */
+    public void testAddSubtract() {
+        System.out.println("add/subtract");
+        Float[][] data = new Float[][]{{1F, 2F, 3F}, {3F, 2F, 1F}, {1F, 2F, 3F}};
+        DenseMatrixF instance = new DenseMatrixF(data);
+        MatrixF expResult = MatrixF.create(new Float[][]{{2F, 4F, 6F}, {6F, 4F, 2F}, {2F, 4F, 6F}});
+        assertTrue(expResult.equals(instance.add(instance)));
+        assertTrue(expResult.equals(instance.add(new RowArrayMatrixF(data))));
+        assertTrue(instance.equals(expResult.subtract(instance)));
+    }
+
+    /**
+     * Test of multiply method, of class DenseMatrixF.
+     */
+    public void testMultiply() {
+        System.out.println("multiply");
+        DenseMatrixF a = new DenseMatrixF(new float[][]{{1F, 2F, 3F}, {4F, 5F, 6F}});
+        DenseMatrixF b = new DenseMatrixF(new float[][]{{7F, 1F}, {8F, 2F}, {9F, 3F}});
+        MatrixF expResult = new DenseMatrixF(new float[][]{{50F, 14F}, {122F, 32F}});
+        assertTrue(expResult.equals(a.multiply(b)));
+        assertTrue(expResult.equals(a.multiply(new RowArrayMatrixF(b.getData()))));
+    }
+
+    /**
+     * Test of mutating multiply method, of class DenseMatrixF.
+     */
+    public void testMultiplyMutate() {
+        System.out.println("multiply mutate");
+        DenseMatrixF a = new DenseMatrixF(new float[][]{{1F, 2F}, {3F, 4F}}, true);
+        MatrixF result = a.multiply(a);
+        assertSame(a, result);
+        assertTrue(new DenseMatrixF(new float[][]{{7F, 10F}, {15F, 22F}}).equals(result));
+    }
+
+    /**
+     * Test of multiply by a non square Matrix on a mutable instance, as
+     * handed out by MatrixF.empty, of class DenseMatrixF.
+     */
+    public void testMultiplyMutableNonSquare() {
+        System.out.println("multiply mutable non square");
+        MatrixF a = MatrixF.empty(2, 3);
+        a.setData(0, 0, 1F);
+        a.setData(1, 2, 2F);
+        DenseMatrixF b = new DenseMatrixF(new float[][]{{1F, 2F, 3F, 4F}, {0F, 0F, 0F, 0F}, {1F, 1F, 1F, 1F}});
+        MatrixF result = a.multiply(b);
+        assertNotSame(a, result);
+        assertEquals(2, result.getM());
+        assertEquals(4, result.getN());
+        assertTrue(new DenseMatrixF(new float[][]{{1F, 2F, 3F, 4F}, {2F, 2F, 2F, 2F}}).equals(result));
+        assertEquals(3, a.getN());
+    }
+
+    /**
+     * Test of transpose method, of class DenseMatrixF.
+     */
+    public void testTranspose() {
+        System.out.println("transpose");
+        DenseMatrixF instance = new DenseMatrixF(new float[][]{{1F, 2F, 3F}});
+        MatrixF expResult = new DenseMatrixF(new float[][]{{1F}, {2F}, {3F}});
+        assertTrue(expResult.equals(instance.transpose()));
+        DenseMatrixF square = new DenseMatrixF(new float[][]{{1F, 2F}, {3F, 4F}}, true);
+        assertSame(square, square.transpose());
+        assertEquals(3F, square.get(0, 1), 0F);
+        assertEquals(2F, square.get(1, 0), 0F);
+    }
+
+    /**
+     * Test of scalar methods, of class DenseMatrixF.
+     */
+    public void testScalar() {
+        System.out.println("scalar");
+        DenseMatrixF instance = new DenseMatrixF(new float[][]{{1F, 2F}, {3F, 4F}});
+        assertTrue(new DenseMatrixF(new float[][]{{6F, 7F}, {8F, 9F}}).equals(instance.addScalar(5F)));
+        assertTrue(new DenseMatrixF(new float[][]{{0F, 1F}, {2F, 3F}}).equals(instance.subtractScalar(1F)));
+        assertTrue(new DenseMatrixF(new float[][]{{2F, 4F}, {6F, 8F}}).equals(instance.multiplyScalar(2F)));
+        assertTrue(new DenseMatrixF(new float[][]{{0.5F, 1F}, {1.5F, 2F}}).equals(instance.divideScalar(2F)));
+        assertEquals(1F, instance.get(0, 0), 0F);
+    }
+
+    /**
+     * Test of solve, invert and determinant methods, of class DenseMatrixF.
+     */
+    public void testSolve() {
+        System.out.println("solve");
+        DenseMatrixF instance = new DenseMatrixF(new float[][]{{1F, 2F, 3F}, {2F, -1F, 1F}, {3F, 0F, -1F}});
+        MatrixF b = new DenseMatrixF(new float[][]{{9F}, {8F}, {3F}});
+        MatrixF result = instance.solve(b);
+        assertEquals(2F, result.getData(0, 0), 0.0001);
+        assertEquals(-1F, result.getData(1, 0), 0.0001);
+        assertEquals(3F, result.getData(2, 0), 0.0001);
+        assertEquals(9F, b.getData(0, 0), 0F);
+        MatrixF identity = instance.multiply(instance.invert());
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(i == j ? 1F : 0F, identity.getData(i, j), 0.0001);
+            }
+        }
+        assertEquals(20F, instance.determinant(), 0.0001);
+    }
+
+    /**
+     * Test of transformVector method, of class DenseMatrixF.
+     */
+    public void testTransformVector() {
+        System.out.println("transformVector");
+        DenseMatrixF instance = new DenseMatrixF(new float[][]{{0F, -1F, 0F}, {1F, 0F, 0F}, {0F, 0F, 1F}});
+        VectorF result = instance.transformVector(new Vector3F(1F, 2F, 3F));
+        assertEquals(-2F, result.getData(0), 0F);
+        assertEquals(1F, result.getData(1), 0F);
+        assertEquals(3F, result.getData(2), 0F);
+    }
+
+    /**
+     * Test of views, of class DenseMatrixF.
+     */
+    public void testViews() {
+        System.out.println("views");
+        DenseMatrixF instance = new DenseMatrixF(new float[][]{{1F, 2F, 3F}, {4F, 5F, 6F}});
+        DenseMatrixF sub = instance.getSubMatrix(0, 2, 0, 2);
+        sub.set(1, 1, 50F);
+        assertEquals(50F, instance.get(1, 1), 0F);
+        MatrixF t = instance.transposeView();
+        assertEquals(6F, t.getData(2, 1), 0F);
+        VectorF row = t.rowView(0);
+        assertEquals(4F, row.getData(1), 0F);
+        int count = instance.getModificationCount();
+        row.setData(1, 40F);
+        assertEquals(40F, instance.get(1, 0), 0F);
+        assertTrue(instance.getModificationCount() != count);
+        // Transposing into a sub-matrix sharing the storage.
+        DenseMatrixF square = new DenseMatrixF(new float[][]{{1F, 2F}, {3F, 4F}});
+        square.transposeInto(square.getSubMatrix(0, 2, 0, 2));
+        assertTrue(new DenseMatrixF(new float[][]{{1F, 3F}, {2F, 4F}}).equals(square));
+        // Adding a transpose view of the same storage in place.
+        square.add(square.transposeView(), true);
+        assertTrue(new DenseMatrixF(new float[][]{{2F, 5F}, {5F, 8F}}).equals(square));
+        square.transposeView().subtract(square.getSubMatrix(0, 2, 0, 2), true);
+        assertTrue(new DenseMatrixF(new float[][]{{0F, 0F}, {0F, 0F}}).equals(square));
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package kinetic.math;
+
+import java.util.concurrent.ForkJoinPool;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author openecho
+ */
+public class DenseVectorDTest extends TestCase {
+
+    private MatrixExecutor executor;
+
+    public DenseVectorDTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        executor = new MatrixExecutor(new ForkJoinPool(4), 64);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        executor.getPool().shutdown();
+    }
+
+    /**
+     * Test of get and set methods, of class DenseVectorD.
+     */
+    public void testGetSet() {
+        System.out.println("get/set");
+        double[] data = new double[]{1D, 2D, 3D};
+        DenseVectorD instance = new DenseVectorD(data);
+        assertEquals(3, instance.getN());
+        assertEquals(2D, instance.get(1), 0D);
+        instance.set(1, 5D);
+        assertEquals(5D, data[1], 0D);
+        assertEquals(5D, instance.getData(1), 0D);
+        DenseVectorD copy = new DenseVectorD(new Number[]{1, 2F, 3D});
+        assertEquals(2D, copy.get(1), 0D);
+        copy = new DenseVectorD(instance, false);
+        instance.set(0, 9D);
+        assertEquals(1D, copy.get(0), 0D);
+    }
+
+    /**
+     * Test of the Vector operations, of class DenseVectorD.
+     */
+    public void testOperations() {
+        System.out.println("operations");
+        DenseVectorD a = new DenseVectorD(new double[]{1D, 2D, 3D});
+        DenseVectorD b = new DenseVectorD(new double[]{4D, 5D, 6D});
+        assertVectorEquals(new double[]{5D, 7D, 9D}, a.add(b));
+        assertVectorEquals(new double[]{-3D, -3D, -3D}, a.subtract(b));
+        assertVectorEquals(new double[]{-3D, 6D, -3D}, a.cross(b));
+        assertVectorEquals(new double[]{2D, 4D, 6D}, a.multiplyScalar(2));
+        assertVectorEquals(new double[]{0.5D, 1D, 1.5D}, a.divideScalar(2));
+        assertVectorEquals(new double[]{-1D, -2D, -3D}, a.negative());
+        assertEquals(32D, a.dot(b), 0D);
+        assertEquals(14D, a.lengthSquared(), 0D);
+        assertEquals(1D, a.normalise().magnitude(), 0.0000001);
+        // Mixed with another implementation.
+        assertEquals(32D, a.dotD(VectorD.create(new double[]{4D, 5D, 6D})), 0D);
+        // Non mutating operations leave the instance alone.
+        assertVectorEquals(new double[]{1D, 2D, 3D}, a);
+        VectorD c = a.add(b, true);
+        assertSame(a, c);
+        assertVectorEquals(new double[]{5D, 7D, 9D}, a);
+        a.addScalar(1, true);
+        assertVectorEquals(new double[]{6D, 8D, 10D}, a);
+        try {
+            a.divideScalar(0);
+            fail("Expected RuntimeException");
+        } catch (RuntimeException e) {
+        }
+        // A zero vector normalises to a zero vector of its own length.
+        DenseVectorD zero = new DenseVectorD(5);
+        VectorD unit = zero.normalise(false);
+        assertNotSame(zero, unit);
+        assertEquals(5, unit.getData().length);
+        assertVectorEquals(new double[5], unit);
+        assertSame(zero, zero.normalise(true));
+    }
+
+    /**
+     * Test of axpy and scal methods, of class DenseVectorD.
+     */
+    public void testAxpyScal() {
+        System.out.println("axpy/scal");
+        DenseVectorD y = new DenseVectorD(new double[]{1D, 2D, 3D});
+        DenseVectorD x = new DenseVectorD(new double[]{1D, 1D, 2D});
+        assertSame(y, y.axpy(2D, x));
+        assertVectorEquals(new double[]{3D, 4D, 7D}, y);
+        assertSame(y, y.scal(-1D));
+        assertVectorEquals(new double[]{-3D, -4D, -7D}, y);
+        try {
+            y.axpy(1D, new DenseVectorD(2));
+            fail("Expected RuntimeException");
+        } catch (RuntimeException e) {
+        }
+    }
+
+    /**
+     * Test of the reductions, of class DenseVectorD.
+     */
+    public void testReductions() {
+        System.out.println("dot/nrm2/asum/iamax");
+        DenseVectorD x = new DenseVectorD(new double[]{3D, -4D, 1D, -4D});
+        assertEquals(42D, x.dotD(x), 0D);
+        assertEquals(Math.sqrt(42D), x.nrm2(), 0D);
+        assertEquals(12D, x.asum(), 0D);
+        assertEquals(1, x.iamax());
+        assertEquals(-1, new DenseVectorD(0).iamax());
+        assertEquals(0D, new DenseVectorD(5).nrm2(), 0D);
+        assertEquals(0D, new DenseVectorD(0).nrm2(), 0D);
+    }
+
+    /**
+     * Test of nrm2 at the ends of the double range, of class DenseVectorD.
+     */
+    public void testNrm2Scaling() {
+        System.out.println("nrm2 scaling");
+        DenseVectorD big = new DenseVectorD(new double[]{3e300, 4e300});
+        assertEquals(5e300, big.nrm2(), 1e286);
+        DenseVectorD small = new DenseVectorD(new double[]{3e-300, 4e-300});
+        assertEquals(5e-300, small.nrm2(), 1e-314);
+        DenseVectorD infinite = new DenseVectorD(new double[]{1D, Double.NEGATIVE_INFINITY});
+        assertEquals(Double.POSITIVE_INFINITY, infinite.nrm2(), 0D);
+        assertTrue(Double.isNaN(new DenseVectorD(new double[]{1D, Double.NaN}).nrm2()));
+    }
+
+    /**
+     * Test of the executor overloads, of class DenseVectorD.
+     */
+    public void testParallel() {
+        System.out.println("parallel");
+        int n = 10007;
+        DenseVectorD x = new DenseVectorD(n);
+        DenseVectorD y = new DenseVectorD(n);
+        for (int i = 0; i < n; i++) {
+            x.set(i, Math.sin(i));
+            y.set(i, Math.cos(i));
+        }
+        x.set(7777, -3D);
+        DenseVectorD expected = new DenseVectorD(y, false).axpy(0.5D, x).scal(3D);
+        y.axpy(0.5D, x, executor).scal(3D, executor);
+        assertVectorEquals(expected.copyTo(new double[n]), y);
+        assertEquals(x.dotD(y), x.dotD(y, executor), 0.0000001);
+        assertEquals(x.nrm2(), x.nrm2(executor), 0.0000001);
+        assertEquals(x.asum(), x.asum(executor), 0.0000001);
+        assertEquals(7777, x.iamax(executor));
+        assertEquals(x.iamax(), x.iamax(executor));
+        assertEquals(x.nrm2(), x.nrm2(null), 0D);
+        DenseVectorD big = new DenseVectorD(n);
+        for (int i = 0; i < n; i++) {
+            big.set(i, 1e300);
+        }
+        assertEquals(1e300 * Math.sqrt(n), big.nrm2(executor), 1e288);
+    }
+
+    /**
+     * Test of the VectorD factories handing out DenseVectorD.
+     */
+    public void testFactories() {
+        System.out.println("factories");
+        double[] data = new double[]{1D, 2D};
+        VectorD v = VectorD.create(data);
+        assertTrue(v instanceof DenseVectorD);
+        data[0] = 5D;
+        assertEquals(1D, v.get(0), 0D);
+        assertVectorEquals(new double[4], VectorD.empty(4));
+        assertEquals(6, VectorD.random(6).getN());
+    }
+
+    private static void assertVectorEquals(double[] expected, VectorD actual) {
+        assertEquals(expected.length, actual.getN());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual.get(i), 0.0000001);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package kinetic.math;
+
+import java.util.concurrent.ForkJoinPool;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author openecho
+ */
+public class DenseVectorFTest extends TestCase {
+
+    public DenseVectorFTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of get, set and the Vector operations, of class DenseVectorF.
+     */
+    public void testOperations() {
+        System.out.println("operations");
+        float[] data = new float[]{1F, 2F, 3F};
+        DenseVectorF a = new DenseVectorF(data);
+        DenseVectorF b = new DenseVectorF(new float[]{4F, 5F, 6F});
+        a.set(0, 1F);
+        assertEquals(2F, a.getData(1), 0F);
+        assertVectorEquals(new float[]{5F, 7F, 9F}, a.add(b));
+        assertVectorEquals(new float[]{-3F, -3F, -3F}, a.subtract(b));
+        assertVectorEquals(new float[]{-3F, 6F, -3F}, a.cross(b));
+        assertVectorEquals(new float[]{2F, 4F, 6F}, a.multiplyScalar(2));
+        assertEquals(32F, a.dot(b), 0F);
+        assertEquals(1F, a.normalise().magnitude(), 0.00001F);
+        assertSame(a, a.subtract(b, true));
+        assertEquals(-3F, data[0], 0F);
+        VectorF empty = VectorF.empty(5);
+        assertTrue(empty instanceof DenseVectorF);
+        assertEquals(5, VectorF.random(5).getN());
+        assertTrue(VectorF.empty(3) instanceof Vector3F);
+    }
+
+    /**
+     * Test of the level 1 BLAS operations, of class DenseVectorF.
+     */
+    public void testBlas() {
+        System.out.println("axpy/scal/dot/nrm2/asum/iamax");
+        DenseVectorF y = new DenseVectorF(new float[]{1F, 2F, 3F});
+        DenseVectorF x = new DenseVectorF(new float[]{3F, -4F, 0F});
+        y.axpy(2F, x).scal(0.5F);
+        assertVectorEquals(new float[]{3.5F, -3F, 1.5F}, y);
+        assertEquals(25D, x.dotD(x), 0D);
+        assertEquals(5F, x.nrm2(), 0F);
+        assertEquals(7F, x.asum(), 0F);
+        assertEquals(1, x.iamax());
+        // Summed in double so large floats do not overflow.
+        DenseVectorF big = new DenseVectorF(new float[]{3e30F, 4e30F});
+        assertEquals(5e30F, big.nrm2(), 1e24F);
+    }
+
+    /**
+     * Test of the executor overloads, of class DenseVectorF.
+     */
+    public void testParallel() {
+        System.out.println("parallel");
+        MatrixExecutor executor = new MatrixExecutor(new ForkJoinPool(4), 64);
+        int n = 5003;
+        DenseVectorF x = new DenseVectorF(n);
+        DenseVectorF y = new DenseVectorF(n);
+        for (int i = 0; i < n; i++) {
+            x.set(i, (float) Math.sin(i));
+            y.set(i, (float) Math.cos(i));
+        }
+        x.set(123, 2F);
+        DenseVectorF expected = new DenseVectorF(y, false).axpy(-2F, x).scal(0.25F);
+        y.axpy(-2F, x, executor).scal(0.25F, executor);
+        assertVectorEquals(expected.copyTo(new float[n]), y);
+        assertEquals(x.dotD(y), x.dotD(y, executor), 0.00001);
+        assertEquals(x.nrm2(), x.nrm2(executor), 0.0001F);
+        assertEquals(x.asum(), x.asum(executor), 0.01F);
+        assertEquals(123, x.iamax(executor));
+        executor.getPool().shutdown();
+    }
+
+    private static void assertVectorEquals(float[] expected, VectorF actual) {
+        assertEquals(expected.length, actual.getN());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual.get(i), 0.00001F);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+
+package kinetic.math;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author openecho
+ */
+public class DirectVector3FArrayTest {
+
+    public DirectVector3FArrayTest() {
+    }
+
+    /**
+     * Test of element access and buffer views, of class DirectVector3FArray.
+     */
+    @Test
+    public void testAccess() {
+        System.out.println("access");
+        DirectVector3FArray instance = new DirectVector3FArray(4);
+        assertEquals(4, instance.length());
+        assertTrue(instance.getByteBuffer().isDirect());
+        instance.set(2, 1F, 2F, 3F);
+        instance.set(3, new Vector3F(4F, 5F, 6F));
+        Vector3F v = instance.get(2, new Vector3F());
+        assertEquals(1F, v.getX(), 0F);
+        assertEquals(3F, v.getZ(), 0F);
+        assertEquals(5F, instance.getY(3), 0F);
+        FloatBuffer floats = instance.getFloatBuffer();
+        assertEquals(12, floats.remaining());
+        assertEquals(2F, floats.get(7), 0F);
+        ByteBuffer bytes = instance.getByteBuffer();
+        assertEquals(48, bytes.remaining());
+        assertEquals(4F, bytes.getFloat(36), 0F);
+        // Views are independent of each other.
+        bytes.position(20);
+        assertEquals(0, instance.getByteBuffer().position());
+        try {
+            instance.getX(4);
+            fail("Index beyond the array accepted.");
+        } catch (IndexOutOfBoundsException e) {
+        }
+    }
+
+    /**
+     * Test of wrapping an existing buffer, of class DirectVector3FArray.
+     */
+    @Test
+    public void testWrap() {
+        System.out.println("wrap");
+        ByteBuffer bytes = ByteBuffer.allocateDirect(40).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.putFloat(4, 7F);
+        bytes.position(4);
+        DirectVector3FArray instance = new DirectVector3FArray(bytes);
+        assertEquals(3, instance.length());
+        assertEquals(7F, instance.getX(0), 0F);
+    }
+
+    /**
+     * Test of load and store, of class DirectVector3FArray.
+     */
+    @Test
+    public void testLoadStore() {
+        System.out.println("loadStore");
+        Vector3FBuffer source = new Vector3FBuffer(5);
+        for (int i = 0; i < 5; i++) {
+            source.set(i, i, 10 * i, 100 * i);
+        }
+        DirectVector3FArray instance = new DirectVector3FArray(3);
+        instance.load(source, 2, 0, 3);
+        assertEquals(40F, instance.getY(2), 0F);
+        Vector3FBuffer dest = new Vector3FBuffer(3);
+        instance.store(dest, 0, 1, 2);
+        assertEquals(300F, dest.getZs()[0], 0F);
+        assertEquals(4F, dest.getXs()[1], 0F);
+    }
+
+    /**
+     * Test of store and load, of class Matrix4F.
+     */
+    @Test
+    public void testMatrix4F() {
+        System.out.println("matrix4F");
+        Matrix4F a = new Matrix4F(1F, 2F, 3F, 4F, 5F, 6F, 7F, 8F, 9F, 10F, 11F, 12F, 13F, 14F, 15F, 16F);
+        FloatBuffer buffer = ByteBuffer.allocateDirect(128).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        a.store(buffer);
+        a.store(buffer, true);
+        assertEquals(32, buffer.position());
+        assertEquals(2F, buffer.get(1), 0F);
+        assertEquals(5F, buffer.get(17), 0F);
+        buffer.flip();
+        Matrix4F b = new Matrix4F();
+        int count = b.getModificationCount();
+        b.load(buffer);
+        assertTrue(a.equals(b));
+        assertTrue(b.getModificationCount() != count);
+        b.load(buffer, true);
+        assertTrue(a.equals(b));
+        assertEquals(0, buffer.remaining());
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package kinetic.math;
+
+import java.io.File;
+import java.io.IOException;
+import junit.framework.TestCase;
+import kinetic.math.statistic.Mean;
+import kinetic.math.statistic.StandardDeviation;
+import kinetic.math.statistic.Standardize;
+import kinetic.math.statistic.VarianceCovariance;
+
+/**
+ *
+ * @author openecho
+ */
+public class MappedMatrixDTest extends TestCase {
+
+    File file;
+    MatrixD a;
+    MappedMatrixD instance;
+
+    public MappedMatrixDTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        file = File.createTempFile("kinetic", ".kmat");
+        a = MatrixD.random(23, 7);
+        instance = MappedMatrixD.write(file, a);
+        instance.setRowBlockSize(5);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        instance.close();
+        file.delete();
+        super.tearDown();
+    }
+
+    /**
+     * Test of write and open methods, of class MappedMatrixD.
+     */
+    public void testOpen() throws IOException {
+        System.out.println("open");
+        assertTrue(a.equals(instance));
+        instance.set(3, 4, 42D);
+        instance.flush();
+        MappedMatrixD read = MappedMatrixD.open(file, false);
+        try {
+            assertEquals(23, read.getM());
+            assertEquals(7, read.getN());
+            assertFalse(read.willMutate());
+            assertEquals(42D, read.get(3, 4), 0D);
+        } finally {
+            read.close();
+        }
+    }
+
+    /**
+     * Test of float element files, of class MappedMatrixD.
+     */
+    public void testFloat() throws IOException {
+        System.out.println("float");
+        File floats = File.createTempFile("kinetic", ".kmat");
+        MappedMatrixD f = MappedMatrixD.create(floats, 2, 3, MappedMatrixD.TYPE_FLOAT);
+        try {
+            f.set(1, 2, 0.5D);
+            assertEquals(MappedMatrixD.TYPE_FLOAT, f.getType());
+            assertEquals(0.5D, f.getRows(0, 2, new double[6])[5], 0D);
+        } finally {
+            f.close();
+            floats.delete();
+        }
+    }
+
+    /**
+     * Test of multiply method, of class MappedMatrixD.
+     */
+    public void testMultiply() throws IOException {
+        System.out.println("multiply");
+        MatrixD b = MatrixD.random(7, 4);
+        MatrixD expResult = a.multiply(b);
+        assertTrue(expResult.equals(instance.multiply(b, false)));
+        File out = File.createTempFile("kinetic", ".kmat");
+        MappedMatrixD dest = MappedMatrixD.create(out, 23, 4);
+        try {
+            assertSame(dest, instance.multiply(b, dest));
+            assertTrue(expResult.equals(dest));
+        } finally {
+            dest.close();
+            out.delete();
+        }
+    }
+
+    /**
+     * Test of transpose method, of class MappedMatrixD.
+     */
+    public void testTranspose() throws IOException {
+        System.out.println("transpose");
+        MatrixD expResult = MatrixD.transpose(a);
+        assertTrue(expResult.equals(instance.transpose()));
+        File out = File.createTempFile("kinetic", ".kmat");
+        MappedMatrixD t = instance.transpose(out);
+        try {
+            assertEquals(7, t.getM());
+            assertTrue(expResult.equals(t));
+        } finally {
+            t.close();
+            out.delete();
+        }
+    }
+
+    /**
+     * Test of element wise methods, of class MappedMatrixD.
+     */
+    public void testElementWise() {
+        System.out.println("element wise");
+        assertTrue(a.add(a).equals(instance.add(a, false)));
+        assertTrue(a.multiplyScalar(3D).equals(instance.multiplyScalar(3D, false)));
+        assertSame(instance, instance.subtract(a));
+        assertEquals(0D, instance.get(22, 6), 0D);
+    }
+
+    /**
+     * Test of the streamed statistics, of class MappedMatrixD.
+     */
+    public void testStatistics() {
+        System.out.println("statistics");
+        Double[][] data = a.getData();
+        double[] mean = Mean.evaluate(instance);
+        double[] std = StandardDeviation.evaluate(instance);
+        for (int j = 0; j < 7; j++) {
+            Double[] column = a.getColumn(j);
+            assertEquals(Mean.evaluate(column), mean[j], 0.0000001);
+            assertEquals(StandardDeviation.evaluate(column), std[j], 0.0000001);
+        }
+        Double[][] expResult = VarianceCovariance.evaluate(data);
+        MatrixD result = VarianceCovariance.evaluate(instance);
+        for (int i = 0; i < 7; i++) {
+            for (int j = 0; j < 7; j++) {
+                assertEquals(expResult[i][j], result.getData(i, j), 0.0000001);
+            }
+        }
+        Double[][] standardized = Standardize.evaluate(data);
+        Standardize.evaluate(instance, instance);
+        assertEquals(standardized[10][3], instance.get(10, 3), 0.0000001);
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package kinetic.math;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author openecho
+ */
+public class MatrixCodecTest extends TestCase {
+
+    public MatrixCodecTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of write and readMatrixD methods, of class MatrixCodec.
+     */
+    public void testMatrixD() {
+        System.out.println("matrixD");
+        MatrixD a = MatrixD.random(5, 3);
+        ByteBuffer buffer = ByteBuffer.allocate((int) MatrixCodec.encodedSize(a));
+        MatrixCodec.write(a, buffer);
+        assertFalse(buffer.hasRemaining());
+        assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+        buffer.flip();
+        assertEquals(MatrixCodec.MAGIC, Integer.reverseBytes(buffer.getInt(0)));
+        MatrixD result = MatrixCodec.readMatrixD(buffer);
+        assertTrue(a.equals(result));
+        assertFalse(buffer.hasRemaining());
+        RowArrayMatrixD boxed = new RowArrayMatrixD(a.getData());
+        buffer.clear();
+        MatrixCodec.write(boxed, buffer);
+        buffer.flip();
+        assertTrue(a.equals(MatrixCodec.readMatrix(buffer)));
+        MatrixD sub = new DenseMatrixD(a, false).getSubMatrix(1, 4, 1, 3);
+        buffer.clear();
+        MatrixCodec.write(sub, buffer);
+        buffer.flip();
+        assertTrue(sub.equals(MatrixCodec.readMatrixD(buffer)));
+    }
+
+    /**
+     * Test of float encodings, of class MatrixCodec.
+     */
+    public void testMatrixF() {
+        System.out.println("matrixF");
+        DenseMatrixF a = new DenseMatrixF(new float[][]{{1F, 2F}, {3F, 4.5F}});
+        ByteBuffer buffer = ByteBuffer.allocate((int) MatrixCodec.encodedSize(a));
+        assertEquals(MatrixCodec.HEADER_SIZE + 16, buffer.capacity());
+        MatrixCodec.write(a, buffer).flip();
+        Matrix result = MatrixCodec.readMatrix(buffer);
+        assertTrue(result instanceof DenseMatrixF);
+        assertTrue(a.equals(result));
+        buffer.rewind();
+        DenseMatrixD widened = MatrixCodec.readMatrixD(buffer);
+        assertEquals(4.5D, widened.get(1, 1), 0D);
+        ByteBuffer m4 = ByteBuffer.allocate((int) MatrixCodec.encodedSize(new Matrix4F()));
+        MatrixCodec.write(Matrix4F.identity(), m4).flip();
+        assertEquals(1F, MatrixCodec.readMatrixF(m4).get(3, 3), 0F);
+    }
+
+    /**
+     * Test of vector encodings, of class MatrixCodec.
+     */
+    public void testVector() {
+        System.out.println("vector");
+        VectorD v = VectorD.create(new double[]{1D, -2D, 3.25D, 4D});
+        ByteBuffer buffer = ByteBuffer.allocate((int) MatrixCodec.encodedSize(v));
+        MatrixCodec.write(v, buffer).flip();
+        VectorD read = MatrixCodec.readVectorD(buffer);
+        assertTrue(read instanceof DenseVectorD);
+        assertTrue(v.equals(read));
+        Vector3F u = new Vector3F(1F, 2F, 3F);
+        buffer = ByteBuffer.allocate((int) MatrixCodec.encodedSize(u));
+        MatrixCodec.write(u, buffer).flip();
+        VectorF result = MatrixCodec.readVectorF(buffer);
+        assertTrue(result instanceof Vector3F);
+        assertTrue(u.equals(result));
+    }
+
+    /**
+     * Test of invalid data, of class MatrixCodec.
+     */
+    public void testInvalid() {
+        System.out.println("invalid");
+        ByteBuffer buffer = ByteBuffer.allocate(MatrixCodec.HEADER_SIZE);
+        try {
+            MatrixCodec.readMatrixD(buffer);
+            fail("Expected an exception for a missing magic number.");
+        } catch (IllegalArgumentException e) {
+        }
+        MatrixD a = MatrixD.random(3, 3);
+        buffer = ByteBuffer.allocate((int) MatrixCodec.encodedSize(a) - 8);
+        try {
+            MatrixCodec.write(a, buffer);
+            fail("Expected an exception for a short buffer.");
+        } catch (IllegalArgumentException e) {
+        }
+        // m * n overflows an int.
+        buffer = ByteBuffer.allocate(MatrixCodec.HEADER_SIZE + 64).order(ByteOrder.LITTLE_ENDIAN);
+        MatrixCodec.putHeader(buffer, MatrixCodec.TYPE_DOUBLE, MatrixCodec.KIND_MATRIX, 65536, 65537);
+        buffer.flip();
+        try {
+            MatrixCodec.readMatrixD(buffer);
+            fail("Expected an exception for an overflowing size.");
+        } catch (IllegalArgumentException e) {
+        }
+        // A matrix is not a vector.
+        buffer = ByteBuffer.allocate((int) MatrixCodec.encodedSize(a));
+        MatrixCodec.write(a, buffer);
+        buffer.flip();
+        try {
+            MatrixCodec.readVectorD(buffer);
+            fail("Expected an exception for a matrix read as a vector.");
+        } catch (IllegalArgumentException e) {
+        }
+        buffer.rewind();
+        try {
+            MatrixCodec.readVectorF(buffer);
+            fail("Expected an exception for a matrix read as a vector.");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    /**
+     * Test of channel methods and MatrixRowReader, of class MatrixCodec.
+     */
+    public void testChannel() throws IOException {
+        System.out.println("channel");
+        File file = File.createTempFile("kinetic", ".kmat");
+        try {
+            MatrixD a = MatrixD.random(3000, 7);
+            FileChannel out = new FileOutputStream(file).getChannel();
+            try {
+                MatrixCodec.write(a, out);
+                MatrixCodec.write(VectorD.create(new double[]{5D, 6D}), out);
+            } finally {
+                out.close();
+            }
+            assertEquals(MatrixCodec.encodedSize(a) + MatrixCodec.HEADER_SIZE + 16, file.length());
+            FileChannel in = new FileInputStream(file).getChannel();
+            try {
+                MatrixRowReader reader = new MatrixRowReader(in);
+                assertEquals(3000, reader.getM());
+                assertEquals(MatrixCodec.TYPE_DOUBLE, reader.getType());
+                double[] row = new double[7];
+                float[] rowF = new float[7];
+                while (reader.hasNext()) {
+                    int i = reader.getRow();
+                    if (i % 2 == 0) {
+                        reader.nextRow(row);
+                        assertEquals(a.getData(i, 6), row[6], 0D);
+                    } else {
+                        reader.nextRow(rowF);
+                        assertEquals(a.getData(i, 0).floatValue(), rowF[0], 0F);
+                    }
+                }
+                MatrixRowReader vector = new MatrixRowReader(in);
+                assertTrue(vector.isVector());
+                assertEquals(5D, vector.nextRow((double[]) null)[0], 0D);
+                vector.nextRow((double[]) null);
+                assertFalse(vector.hasNext());
+            } finally {
+                in.close();
+            }
+            in = new FileInputStream(file).getChannel();
+            try {
+                assertTrue(a.equals(MatrixCodec.readMatrixD(in)));
+            } finally {
+                in.close();
+            }
+            MappedMatrixD mapped = MappedMatrixD.open(file, false);
+            try {
+                assertTrue(a.equals(mapped));
+            } finally {
+                mapped.close();
+            }
+        } finally {
+            file.delete();
+        }
+    }
+}
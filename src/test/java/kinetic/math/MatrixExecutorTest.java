@@ -0,0 +1,89 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package kinetic.math;
+
+import java.util.concurrent.ForkJoinPool;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author openecho
+ */
+public class MatrixExecutorTest extends TestCase {
+
+    MatrixExecutor executor;
+
+    public MatrixExecutorTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        executor = new MatrixExecutor(new ForkJoinPool(4), 64);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        executor.getPool().shutdown();
+        super.tearDown();
+    }
+
+    /**
+     * Test of multiply method, of class MatrixExecutor.
+     */
+    public void testMultiply() {
+        System.out.println("multiply");
+        MatrixD a = MatrixD.random(97, 131);
+        MatrixD b = MatrixD.random(131, 67);
+        assertTrue(a.multiply(b).equals(executor.multiply(a, b)));
+        MatrixF af = MatrixF.random(53, 71);
+        MatrixF bf = MatrixF.random(71, 29);
+        assertTrue(af.multiply(bf).equals(executor.multiply(af, bf)));
+    }
+
+    /**
+     * Test of element wise methods, of class MatrixExecutor.
+     */
+    public void testElementWise() {
+        System.out.println("element wise");
+        MatrixD a = MatrixD.random(83, 45);
+        MatrixD b = MatrixD.random(83, 45);
+        assertTrue(a.add(b, false).equals(executor.add(a, b, false)));
+        assertTrue(a.subtract(b, false).equals(executor.subtract(a, b, false)));
+        assertTrue(a.addScalar(3D, false).equals(executor.addScalar(a, 3D, false)));
+        assertTrue(a.subtractScalar(3D, false).equals(executor.subtractScalar(a, 3D, false)));
+        assertTrue(a.multiplyScalar(3D, false).equals(executor.multiplyScalar(a, 3D, false)));
+        assertTrue(a.divideScalar(3D, false).equals(executor.divideScalar(a, 3D, false)));
+        assertTrue(a.transpose().equals(executor.transpose(a)));
+        MatrixF af = MatrixF.random(61, 17);
+        assertTrue(af.multiplyScalar(2F, false).equals(executor.multiplyScalar(af, 2F, false)));
+        assertTrue(MatrixF.transpose(af).equals(executor.transpose(af)));
+    }
+
+    /**
+     * Test of mutating element wise methods, of class MatrixExecutor.
+     */
+    public void testMutate() {
+        System.out.println("mutate");
+        MatrixD a = MatrixD.random(40, 40);
+        MatrixD expResult = a.addScalar(1D, false);
+        MatrixD result = executor.addScalar(a, 1D, true);
+        assertSame(a, result);
+        assertTrue(expResult.equals(a));
+        MatrixD boxed = new RowArrayMatrixD(a.getData(), true);
+        assertSame(boxed, executor.add(boxed, a, true));
+    }
+
+    /**
+     * Test of the sequential fallback, of class MatrixExecutor.
+     */
+    public void testSmall() {
+        System.out.println("small");
+        executor.setThreshold(Integer.MAX_VALUE);
+        MatrixD a = MatrixD.create(new double[][]{{1D, 2D}, {3D, 4D}});
+        assertTrue(MatrixD.create(new double[][]{{7D, 10D}, {15D, 22D}}).equals(executor.multiply(a, a)));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package kinetic.math;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.text.ParseException;
+import java.text.ParsePosition;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author openecho
+ */
+public class MatrixFormatTest extends TestCase {
+
+    MatrixFormat instance;
+
+    public MatrixFormatTest(String testName) {
+        super(testName);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        instance = new MatrixFormat();
+    }
+
+    /**
+     * Test of format method, of class MatrixFormat.
+     */
+    public void testFormat() throws IOException {
+        System.out.println("format");
+        MatrixD a = MatrixD.create(new double[][]{{1D, -250.5D}, {12345.25D, 0D}});
+        int[] widths = instance.getColumnCharacterWidths(a);
+        assertEquals(11, widths[0]);
+        assertEquals(9, widths[1]);
+        String expResult = "[     1.0000, -250.5000 ]\r\n"
+                + "[ 12345.2500,    0.0000 ]\r\n";
+        assertEquals(expResult, instance.format(a));
+        assertEquals(expResult, instance.format(a, new StringBuilder()).toString());
+        assertEquals(expResult, instance.format(new RowArrayMatrixF(new Float[][]{{1F, -250.5F}, {12345.25F, 0F}})));
+        assertEquals("[ 1.0000,  2.0000,  3.0000 ]\r\n", instance.format(new Vector3F(1F, 2F, 3F)));
+    }
+
+    /**
+     * Test of parse method, of class MatrixFormat.
+     */
+    public void testParse() throws IOException, ParseException {
+        System.out.println("parse");
+        MatrixD expResult = MatrixD.create(new double[][]{{1D, 2.5D}, {-3D, 4000D}});
+        assertTrue(expResult.equals(instance.parse(new StringReader("1,2.5\n-3,4e3\n"))));
+        assertTrue(expResult.equals(instance.parse(new StringReader("[1 2.5; -3 4000] % matlab"))));
+        assertTrue(expResult.equals(instance.parse(new StringReader("{{1.0,2.5},{-3.0,4000.0}}"))));
+        assertTrue(expResult.equals((MatrixD) instance.parseObject(instance.format(expResult))));
+        MatrixD random = MatrixD.random(40, 9);
+        String text = random.toString();
+        MatrixD result = (MatrixD) instance.parseObject(text, new ParsePosition(text.indexOf(' ')));
+        assertTrue(random.equals(result));
+        DenseMatrixF f = instance.parseMatrixF(new StringReader("# header\r\n0.1\t0.2\r\n"));
+        assertEquals(1, f.getM());
+        assertEquals(0.2F, f.get(0, 1), 0F);
+    }
+
+    /**
+     * Test of parse method with invalid text, of class MatrixFormat.
+     */
+    public void testParseInvalid() throws IOException {
+        System.out.println("parse invalid");
+        try {
+            instance.parse(new StringReader("1,2\n3\n"));
+            fail("Expected a ParseException for a ragged row.");
+        } catch (ParseException e) {
+        }
+        ParsePosition pos = new ParsePosition(0);
+        assertNull(instance.parseObject("1, x2", pos));
+        assertEquals(3, pos.getErrorIndex());
+    }
+
+    /**
+     * Test of parseNumber method, of class MatrixFormat.
+     */
+    public void testParseNumber() {
+        System.out.println("parseNumber");
+        String[] numbers = {"0", "-0.0", "3.14159", "1e-5", "123456789012345678", "0.1", "2.2250738585072014E-308",
+            "1.7976931348623157e308", ".5", "7.", "+12.5e+2", "NaN", "-Infinity", "1.5F", "0.000000000000000000001234"};
+        for (String number : numbers) {
+            assertEquals(number, Double.parseDouble(number), MatrixFormat.parseNumber(number.toCharArray(), number.length()));
+        }
+    }
+}
@@ -359,4 +359,109 @@ public class RowArrayMatrixDTest extends TestCase {
         assertEquals(m, result.getM());
         assertEquals(n, result.getN());
     }
+
+    /**
+     * Test of mutating scalar methods, of class RowArrayMatrixD.
+     */
+    public void testScalarMutate() {
+        System.out.println("scalar mutate");
+        Double[][] data = new Double[][]{{1D, 2D}, {3D, 4D}};
+        RowArrayMatrixD instance = new RowArrayMatrixD(data, true);
+        assertSame(instance, instance.addScalar(1D));
+        assertSame(instance, instance.multiplyScalar(2D));
+        assertSame(instance, instance.subtractScalar(2D));
+        assertSame(instance, instance.divideScalar(2D));
+        MatrixD expResult = new RowArrayMatrixD(new Double[][]{{1D, 2D}, {3D, 4D}});
+        assertTrue(expResult.equals(instance));
+    }
+
+    /**
+     * Test of mutating multiply method, of class RowArrayMatrixD.
+     */
+    public void testMultiplyMutate() {
+        System.out.println("multiply mutate");
+        RowArrayMatrixD instance = new RowArrayMatrixD(new Double[][]{{1D, 2D}, {3D, 4D}}, true);
+        RowArrayMatrixD b = new RowArrayMatrixD(new Double[][]{{1D, 2D}, {3D, 4D}});
+        assertSame(instance, instance.multiply(b, true));
+        assertTrue(new RowArrayMatrixD(new Double[][]{{7D, 10D}, {15D, 22D}}).equals(instance));
+    }
+
+    /**
+     * Test of multiply into destination method, of class RowArrayMatrixD.
+     */
+    public void testMultiplyDestination() {
+        System.out.println("multiply destination");
+        RowArrayMatrixD a = new RowArrayMatrixD(new Double[][]{{1D, 2D, 3D}, {4D, 5D, 6D}});
+        RowArrayMatrixD b = new RowArrayMatrixD(new Double[][]{{7D, 1D}, {8D, 2D}, {9D, 3D}});
+        MatrixD expResult = new RowArrayMatrixD(new Double[][]{{50D, 14D}, {122D, 32D}});
+        MatrixD dest = new RowArrayMatrixD(2, 2, true);
+        assertSame(dest, a.multiply(b, dest));
+        assertTrue(expResult.equals(dest));
+        dest = MatrixD.empty(2, 2);
+        assertSame(dest, a.multiply(b, dest));
+        assertTrue(expResult.equals(dest));
+    }
+
+    /**
+     * Test of multiply into a destination sharing storage with an operand,
+     * of class RowArrayMatrixD.
+     */
+    public void testMultiplyDestinationAliased() {
+        System.out.println("multiply destination aliased");
+        RowArrayMatrixD identity = new RowArrayMatrixD(new Double[][]{{1D, 0D}, {0D, 1D}});
+        MatrixD b = new DenseMatrixD(new double[][]{{1D, 2D}, {3D, 4D}}, true);
+        assertSame(b, identity.multiply(b, b));
+        assertTrue(new DenseMatrixD(new double[][]{{1D, 2D}, {3D, 4D}}).equals(b));
+        MatrixD view = b.getSubMatrix(0, 2, 0, 2);
+        assertSame(view, identity.multiply(b, view));
+        assertTrue(new DenseMatrixD(new double[][]{{1D, 2D}, {3D, 4D}}).equals(b));
+        RowArrayMatrixD a = new RowArrayMatrixD(new Double[][]{{1D, 2D}, {3D, 4D}}, true);
+        view = a.getSubMatrix(0, 2, 0, 2);
+        assertSame(view, a.multiply(a, view));
+        assertTrue(new RowArrayMatrixD(new Double[][]{{7D, 10D}, {15D, 22D}}).equals(a));
+    }
+
+    /**
+     * Test of mutating add and subtract with an operand sharing the storage,
+     * of class RowArrayMatrixD.
+     */
+    public void testAddOverlapping() {
+        System.out.println("add/subtract overlapping");
+        RowArrayMatrixD instance = new RowArrayMatrixD(new Double[][]{{1D, 2D}, {3D, 4D}}, true);
+        assertSame(instance, instance.add(instance.transposeView(), true));
+        assertTrue(new RowArrayMatrixD(new Double[][]{{2D, 5D}, {5D, 8D}}).equals(instance));
+        instance.subtract(instance.transposeView(), true);
+        assertTrue(new RowArrayMatrixD(new Double[][]{{0D, 0D}, {0D, 0D}}).equals(instance));
+    }
+
+    /**
+     * Test of mutating transpose method, of class RowArrayMatrixD.
+     */
+    public void testTransposeMutate() {
+        System.out.println("transpose mutate");
+        RowArrayMatrixD instance = new RowArrayMatrixD(new Double[][]{{1D, 2D}, {3D, 4D}}, true);
+        assertSame(instance, instance.transpose());
+        assertTrue(new RowArrayMatrixD(new Double[][]{{1D, 3D}, {2D, 4D}}).equals(instance));
+        instance = new RowArrayMatrixD(new Double[][]{{1D, 2D, 3D}}, true);
+        assertSame(instance, instance.transpose());
+        assertEquals(3, instance.getM());
+        assertEquals(1, instance.getN());
+        assertTrue(new RowArrayMatrixD(new Double[][]{{1D}, {2D}, {3D}}).equals(instance));
+    }
+
+    /**
+     * Test of getSubMatrix method, of class RowArrayMatrixD.
+     */
+    public void testGetSubMatrix() {
+        System.out.println("getSubMatrix");
+        RowArrayMatrixD instance = new RowArrayMatrixD(new Double[][]{{1D, 2D, 3D}, {4D, 5D, 6D}}, true);
+        MatrixD sub = instance.getSubMatrix(0, 2, 1, 3);
+        assertTrue(new RowArrayMatrixD(new Double[][]{{2D, 3D}, {5D, 6D}}).equals(sub));
+        sub.addScalar(1D);
+        assertEquals(7D, instance.getData(1, 2), 0D);
+        assertEquals(1D, instance.getData(0, 0), 0D);
+        MatrixD t = sub.transposeView();
+        assertEquals(4D, t.getData(1, 0), 0D);
+        assertEquals(6D, t.columnView(1).getData(0), 0D);
+    }
 }
@@ -342,4 +342,19 @@ public class RowArrayMatrixFTest extends TestCase {
         assertEquals(m, result.getM());
         assertEquals(n, result.getN());
     }
+
+    /**
+     * Test of multiplyInto method with an aliased destination, of class
+     * RowArrayMatrixF.
+     */
+    public void testMultiplyIntoAliased() {
+        System.out.println("multiplyInto aliased");
+        RowArrayMatrixF a = new RowArrayMatrixF(new Float[][]{{1F, 2F}, {3F, 4F}});
+        assertSame(a, a.multiplyInto(a, a));
+        assertTrue(new RowArrayMatrixF(new Float[][]{{7F, 10F}, {15F, 22F}}).equals(a));
+        a = new RowArrayMatrixF(new Float[][]{{1F, 2F}, {3F, 4F}});
+        MatrixF t = a.transposeView();
+        assertSame(t, a.multiplyInto(new RowArrayMatrixF(new Float[][]{{1F, 0F}, {0F, 1F}}), t));
+        assertTrue(new RowArrayMatrixF(new Float[][]{{1F, 3F}, {2F, 4F}}).equals(a));
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package kinetic.math;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author openecho
+ */
+public class StrassenKernelTest extends TestCase {
+
+    private static final int RUNS = 3;
+
+    /**
+     * Times MULTIPLY_BLOCKED against MULTIPLY_STRASSEN, sequential and on the
+     * default MatrixExecutor, for square sizes given as arguments (default
+     * 256 512 1024 2048 4096). Not run by the test suite, start it with
+     * java kinetic.math.StrassenKernelTest with target/classes,
+     * target/test-classes and JUnit on the class path.
+     * @param args square sizes to time.
+     */
+    public static void main(String[] args) {
+        int[] sizes = {256, 512, 1024, 2048, 4096};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        MatrixExecutor executor = MatrixExecutor.getDefault();
+        System.out.println("n blocked(ms) strassen(ms) parallel blocked(ms) parallel strassen(ms) max difference");
+        for (int n : sizes) {
+            MatrixD a = new DenseMatrixD(MatrixD.random(n, n), false);
+            MatrixD b = new DenseMatrixD(MatrixD.random(n, n), false);
+            DenseMatrixD expected = a.multiply(b, MatrixD.MULTIPLY_BLOCKED);
+            DenseMatrixD result = a.multiply(b, MatrixD.MULTIPLY_STRASSEN);
+            double difference = 0D;
+            for (int i = 0; i < expected.data.length; i++) {
+                difference = Math.max(difference, Math.abs(expected.data[i] - result.data[i]));
+            }
+            long blocked = Long.MAX_VALUE, strassen = Long.MAX_VALUE;
+            long parallelBlocked = Long.MAX_VALUE, parallelStrassen = Long.MAX_VALUE;
+            for (int r = 0; r < RUNS; r++) {
+                long t = System.nanoTime();
+                a.multiply(b, MatrixD.MULTIPLY_BLOCKED);
+                blocked = Math.min(blocked, System.nanoTime() - t);
+                t = System.nanoTime();
+                a.multiply(b, MatrixD.MULTIPLY_STRASSEN);
+                strassen = Math.min(strassen, System.nanoTime() - t);
+                t = System.nanoTime();
+                executor.multiply(a, b, MatrixD.MULTIPLY_BLOCKED);
+                parallelBlocked = Math.min(parallelBlocked, System.nanoTime() - t);
+                t = System.nanoTime();
+                executor.multiply(a, b, MatrixD.MULTIPLY_STRASSEN);
+                parallelStrassen = Math.min(parallelStrassen, System.nanoTime() - t);
+            }
+            System.out.println(n + " " + blocked / 1000000 + " " + strassen / 1000000
+                    + " " + parallelBlocked / 1000000 + " " + parallelStrassen / 1000000
+                    + " " + difference);
+        }
+    }
+
+    public StrassenKernelTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * Test of multiply method with odd dimensions, of class StrassenKernel.
+     */
+    public void testMultiply() {
+        System.out.println("multiply");
+        int m = 101, k = 77, n = 93;
+        DenseMatrixD a = new DenseMatrixD(MatrixD.random(m, k), false);
+        DenseMatrixD b = new DenseMatrixD(MatrixD.random(k, n), false);
+        DenseMatrixD expResult = a.multiply(b);
+        double[] c = new double[m * n];
+        Arrays.fill(c, Double.NaN);
+        StrassenKernel.multiply(m, k, n, a.data, 0, k, b.data, 0, n, c, 0, n, 8);
+        assertEquals(expResult, new DenseMatrixD(m, n, c, false), 1E-10);
+    }
+
+    /**
+     * Test of MatrixD multiply with MULTIPLY_STRASSEN.
+     */
+    public void testMatrixD() {
+        System.out.println("matrixD");
+        MatrixD a = MatrixD.random(300, 300);
+        MatrixD b = MatrixD.random(300, 300);
+        MatrixD expResult = a.multiply(b);
+        assertEquals(expResult, a.multiply(b, MatrixD.MULTIPLY_STRASSEN), 1E-10);
+        assertTrue(expResult.equals(a.multiply(b, MatrixD.MULTIPLY_BLOCKED)));
+        try {
+            a.multiply(b, 2);
+            fail("Unknown algorithm accepted.");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    /**
+     * Test of the parallel top level, of class StrassenKernel.
+     */
+    public void testParallel() {
+        System.out.println("parallel");
+        MatrixExecutor executor = new MatrixExecutor(new ForkJoinPool(4), 64);
+        MatrixD a = MatrixD.random(301, 283);
+        MatrixD b = MatrixD.random(283, 299);
+        assertEquals(a.multiply(b), executor.multiply(a, b, MatrixD.MULTIPLY_STRASSEN), 1E-10);
+        executor.getPool().shutdown();
+    }
+
+    private static void assertEquals(MatrixD expected, MatrixD actual, double delta) {
+        assertEquals(expected.getM(), actual.getM());
+        assertEquals(expected.getN(), actual.getN());
+        for (int i = 0; i < expected.getM(); i++) {
+            for (int j = 0; j < expected.getN(); j++) {
+                assertEquals(expected.getData(i, j), actual.getData(i, j), delta);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+
+package kinetic.math;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author openecho
+ */
+public class Vector2FTest {
+
+    public Vector2FTest() {
+    }
+
+    /**
+     * Test of the in place methods, of class Vector2F.
+     */
+    @Test
+    public void testLocal() {
+        System.out.println("local");
+        Vector2F position = new Vector2F(1F, 2F, false);
+        Vector2F velocity = new Vector2F(4F, -2F, false);
+        assertSame(position, position.scaleAdd(0.5F, velocity));
+        assertEquals(3F, position.getX(), 0);
+        assertEquals(1F, position.getY(), 0);
+        position.addLocal(velocity).subtractLocal(velocity).scaleLocal(2F);
+        assertEquals(6F, position.getX(), 0);
+        position.lerpLocal(velocity, 0.5F);
+        assertEquals(5F, position.getX(), 0);
+        assertEquals(0F, position.getY(), 0);
+        assertEquals(1F, position.normaliseLocal().getX(), 0);
+    }
+
+    /**
+     * Test of the mutate flag overloads, of class Vector2F.
+     */
+    @Test
+    public void testMutate() {
+        System.out.println("mutate");
+        Vector2F a = new Vector2F(3F, 4F, false);
+        Vector2F result = a.normalise(false);
+        assertNotSame(a, result);
+        assertEquals(0.8F, result.getY(), 0.00001);
+        assertSame(a, a.add(ones(2), true));
+        assertEquals(5F, a.getY(), 0);
+        assertSame(a, a.negative(true));
+        assertEquals(-5F, a.getY(), 0);
+        assertEquals(-10F, a.multiplyScalar(2F, false).getY(), 0);
+        assertEquals(-5F, a.getY(), 0);
+        assertEquals(-2.5F, a.divideScalar(2F, true).getY(), 0);
+        assertEquals(-5F, a.divideScalar(0.5F, false).getY(), 0);
+        assertEquals(-1.5F, a.addScalar(1F, true).getY(), 0);
+        assertEquals(-2.5F, a.subtractScalar(1F, true).getY(), 0);
+        assertEquals(-3.5F, a.subtract(new Vector2F(1F, 1F), true).getY(), 0);
+        // A normalised zero vector is a new instance, not the shared ZERO.
+        new Vector2F(0F, 0F).normalise(false).addLocal(a);
+        Vector2F.zero().addLocal(a);
+        assertEquals(0F, Vector2F.ZERO.magnitude(), 0);
+    }
+
+    private static VectorF ones(int n) {
+        VectorF v = new ArrayVectorF(n);
+        for (int i = 0; i < n; i++) {
+            v.setData(i, 1F);
+        }
+        return v;
+    }
+}
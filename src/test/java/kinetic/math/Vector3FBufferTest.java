@@ -0,0 +1,113 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+
+package kinetic.math;
+
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author openecho
+ */
+public class Vector3FBufferTest {
+
+    private static final int LENGTH = 37;
+
+    public Vector3FBufferTest() {
+    }
+
+    /**
+     * Test of the bulk operations against Vector3F, of class Vector3FBuffer.
+     */
+    @Test
+    public void testBulk() {
+        System.out.println("bulk");
+        Vector3FBuffer a = random(1);
+        Vector3FBuffer b = random(2);
+        Vector3FBuffer sum = a.add(b, new Vector3FBuffer(LENGTH));
+        Vector3FBuffer difference = a.subtract(b, new Vector3FBuffer(LENGTH));
+        Vector3FBuffer cross = a.cross(b, new Vector3FBuffer(LENGTH));
+        Vector3FBuffer scaled = a.scale(3F, new Vector3FBuffer(LENGTH));
+        Vector3FBuffer normal = a.normalise(new Vector3FBuffer(LENGTH));
+        float[] dot = a.dot(b, new float[LENGTH]);
+        float[] lengths = a.lengths(new float[LENGTH]);
+        Vector3F u = new Vector3F(), v = new Vector3F(), w = new Vector3F();
+        for (int i = 0; i < LENGTH; i++) {
+            a.get(i, u);
+            b.get(i, v);
+            assertVectorEquals(u.addInto(v, w), sum, i);
+            assertVectorEquals(u.subtractInto(v, w), difference, i);
+            assertVectorEquals(u.crossInto(v, w), cross, i);
+            assertVectorEquals(u.scaleInto(3F, w), scaled, i);
+            assertVectorEquals(u.normaliseInto(w), normal, i);
+            assertEquals(u.dot(v), dot[i], 0.00001F);
+            assertEquals(u.magnitude(), lengths[i], 0.00001F);
+        }
+    }
+
+    /**
+     * Test of ranges and in place operations, of class Vector3FBuffer.
+     */
+    @Test
+    public void testRange() {
+        System.out.println("range");
+        Vector3FBuffer a = random(3);
+        Vector3FBuffer expResult = random(3);
+        a.add(new Vector3F(1F, 2F, 3F), a, 5, 10);
+        for (int i = 0; i < LENGTH; i++) {
+            float f = (i >= 5 && i < 10) ? 1F : 0F;
+            assertEquals(expResult.xs[i] + f, a.xs[i], 0F);
+            assertEquals(expResult.zs[i] + 3 * f, a.zs[i], 0F);
+        }
+        a.set(0, 0F, 0F, 0F);
+        a.normalise(a, 0, 1);
+        assertEquals(0F, a.ys[0], 0F);
+        try {
+            a.scale(2F, a, 0, LENGTH + 1);
+            fail("Range beyond the buffer accepted.");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    /**
+     * Test of transformBatch method, of class Matrix4F.
+     */
+    @Test
+    public void testTransformBatch() {
+        System.out.println("transformBatch");
+        Matrix4F affine = new Matrix4F(0F, -1F, 0F, 2F, 1F, 0F, 0F, 3F, 0F, 0F, 2F, 4F, 0F, 0F, 0F, 1F);
+        Matrix4F projective = new Matrix4F(1F, 0F, 0F, 0F, 0F, 1F, 0F, 0F, 0F, 0F, 1F, 0F, 0F, 0F, 1F, 1F);
+        Vector3FBuffer in = random(4);
+        Vector3FBuffer out = affine.transformBatch(in, new Vector3FBuffer(LENGTH));
+        Vector3FBuffer divided = projective.transformBatch(in, new Vector3FBuffer(LENGTH));
+        for (int i = 0; i < LENGTH; i++) {
+            float x = in.xs[i], y = in.ys[i], z = in.zs[i];
+            assertEquals(-y + 2F, out.xs[i], 0.00001F);
+            assertEquals(x + 3F, out.ys[i], 0.00001F);
+            assertEquals(2F * z + 4F, out.zs[i], 0.00001F);
+            assertEquals(x / (z + 1F), divided.xs[i], 0.00001F);
+            assertEquals(z / (z + 1F), divided.zs[i], 0.00001F);
+        }
+        affine.transformBatch(in, in);
+        assertArrayEquals(out.xs, in.xs, 0F);
+    }
+
+    private static void assertVectorEquals(Vector3F expected, Vector3FBuffer buffer, int i) {
+        assertEquals(expected.getX(), buffer.xs[i], 0.00001F);
+        assertEquals(expected.getY(), buffer.ys[i], 0.00001F);
+        assertEquals(expected.getZ(), buffer.zs[i], 0.00001F);
+    }
+
+    private static Vector3FBuffer random(long seed) {
+        Random random = new Random(seed);
+        Vector3FBuffer buffer = new Vector3FBuffer(LENGTH);
+        for (int i = 0; i < LENGTH; i++) {
+            buffer.set(i, random.nextFloat(), random.nextFloat(), random.nextFloat());
+        }
+        return buffer;
+    }
+}
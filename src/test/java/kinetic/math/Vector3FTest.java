@@ -423,4 +423,148 @@ public class Vector3FTest {
         assertEquals(expResult.z, result.z, 0.001);
     }
 
-}
\ No newline at end of file
+    /**
+     * Test of crossInto method, of class Vector3F.
+     */
+    @Test
+    public void testCrossInto() {
+        System.out.println("crossInto");
+        Vector3F a = new Vector3F(1F, 0F, 0F, false);
+        Vector3F b = new Vector3F(0F, 1F, 0F, false);
+        Vector3F result = a.crossInto(b, a);
+        assertSame(a, result);
+        assertEquals(0F, result.x, 0);
+        assertEquals(0F, result.y, 0);
+        assertEquals(1F, result.z, 0);
+        Vector3F dest = new Vector3F();
+        assertSame(dest, a.addInto(b, dest));
+        assertEquals(1F, dest.y, 0);
+        assertEquals(1F, dest.z, 0);
+        a.scaleInto(2F, dest);
+        assertEquals(2F, dest.z, 0);
+        a.normaliseInto(dest);
+        assertEquals(1F, dest.z, 0.001);
+    }
+
+    /**
+     * Test of the in place methods, of class Vector3F.
+     */
+    @Test
+    public void testLocal() {
+        System.out.println("local");
+        Vector3F a = new Vector3F(1F, 2F, 3F, false);
+        Vector3F b = new Vector3F(4F, 5F, 6F, false);
+        assertSame(a, a.addLocal(b));
+        assertEquals(9F, a.z, 0);
+        a.subtractLocal(b).scaleLocal(2F);
+        assertEquals(6F, a.z, 0);
+        a.scaleAdd(0.5F, b);
+        assertEquals(4F, a.x, 0);
+        assertEquals(9F, a.z, 0);
+        a.lerpLocal(b, 1F);
+        assertEquals(b, a);
+        new Vector3F(1F, 0F, 0F, false).crossLocal(Vector3F.Y_UNIT).crossInto(Vector3F.Z_UNIT, a);
+        assertEquals(0F, a.z, 0);
+        a.setX(3F);
+        a.setY(0F);
+        a.setZ(4F);
+        assertEquals(0.8F, a.normaliseLocal().z, 0.00001);
+        assertEquals(0F, new Vector3F().normaliseLocal().x, 0);
+    }
+
+    /**
+     * Test of the mutate flag overloads, of class Vector3F.
+     */
+    @Test
+    public void testMutate() {
+        System.out.println("mutate");
+        Vector3F a = new Vector3F(1F, 2F, 3F, false);
+        Vector3F b = new Vector3F(4F, 5F, 6F, false);
+        Vector3F result = a.add(b, false);
+        assertNotSame(a, result);
+        assertEquals(9F, result.z, 0);
+        assertSame(a, a.add(b, true));
+        assertEquals(9F, a.z, 0);
+        // Mutating add3F and subtract3F use z, not y.
+        Vector3F m = new Vector3F(1F, 2F, 3F, true);
+        m.add3F(b);
+        assertEquals(9F, m.z, 0);
+        m.subtract3F(b);
+        assertEquals(3F, m.z, 0);
+        assertSame(a, a.subtract(ones(3), true));
+        assertEquals(8F, a.z, 0);
+        assertEquals(-8F, a.negative(false).getZ(), 0);
+        assertEquals(16F, a.multiplyScalar(2F, true).getZ(), 0);
+        assertEquals(4F, a.divideScalar(4F, true).getZ(), 0);
+        assertEquals(8F, a.divideScalar(0.5F, false).getZ(), 0);
+        try {
+            a.divideScalar(0F, true);
+            fail("Expected RuntimeException");
+        } catch (RuntimeException e) {
+        }
+        assertEquals(5F, a.addScalar(1F, true).getZ(), 0);
+        assertEquals(4F, a.subtractScalar(1F, false).getZ(), 0);
+        assertEquals(1F, a.normalise(false).magnitude(), 0.00001);
+        // A normalised zero vector is a new instance, not the shared ZERO.
+        new Vector3F(0F, 0F, 0F).normalise(false).addLocal(new Vector3F(1F, 2F, 3F));
+        Vector3F.zero().scaleLocal(2F).addLocal(b);
+        assertEquals(0F, Vector3F.ZERO.magnitude(), 0);
+        assertNotSame(Vector3F.zero(), Vector3F.zero());
+    }
+
+    /**
+     * Test of the primitive accessors, of class Vector3F.
+     */
+    @Test
+    public void testPrimitive() {
+        System.out.println("primitive");
+        Vector3F a = new Vector3F(1F, 2F, 3F, false);
+        assertEquals(2F, a.get(Vector.Y), 0);
+        assertEquals(14D, a.lengthSquared(), 0);
+        assertEquals(32D, a.dotD(new Vector3F(4F, 5F, 6F)), 0);
+        VectorD b = VectorD.create(new double[]{4D, 5D, 6D});
+        assertEquals(32D, a.dotD(b), 0);
+        assertEquals(32D, b.dotD(a), 0);
+        assertEquals(77D, b.lengthSquared(), 0);
+        assertEquals(32F, a.dot(b), 0);
+        double[] copy = a.copyTo(new double[3]);
+        assertEquals(3D, copy[2], 0);
+        assertEquals(5D, b.copyTo(new double[3])[1], 0);
+        assertEquals(2F, a.copyTo(new float[3])[1], 0);
+        a.set(Vector.Z, 7F);
+        assertEquals(7F, a.getZ(), 0);
+    }
+
+    /**
+     * Test of matrix into methods, of class Matrix4F.
+     */
+    @Test
+    public void testMatrix4FInto() {
+        System.out.println("Matrix4F into");
+        Matrix4F a = new Matrix4F(false);
+        Matrix4F b = new Matrix4F(false);
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                a.setData(i, j, i * 4 + j);
+                b.setData(i, j, i == j ? 2F : 0F);
+            }
+        }
+        Matrix4F dest = new Matrix4F(false);
+        a.multiplyInto(b, dest);
+        assertEquals(26F, dest.getData(3, 1), 0);
+        a.multiplyInto(b, a);
+        assertEquals(26F, a.getData(3, 1), 0);
+        a.transposeInto(a);
+        assertEquals(26F, a.getData(1, 3), 0);
+        a.subtractInto(dest, dest);
+        assertEquals(0F, dest.getData(0, 0), 0);
+    }
+
+    private static VectorF ones(int n) {
+        VectorF v = new ArrayVectorF(n);
+        for (int i = 0; i < n; i++) {
+            v.setData(i, 1F);
+        }
+        return v;
+    }
+}
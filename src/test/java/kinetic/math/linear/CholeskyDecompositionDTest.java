@@ -0,0 +1,92 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package kinetic.math.linear;
+
+import kinetic.math.MatrixD;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author openecho
+ */
+public class CholeskyDecompositionDTest {
+
+    MatrixD matrix;
+    int n;
+
+    public CholeskyDecompositionDTest() {
+    }
+
+    @Before
+    public void setUp() {
+        n = CholeskyDecompositionD.BLOCK_SIZE * 2 + 7;
+        MatrixD x = MatrixD.random(n, n);
+        matrix = MatrixD.transpose(x).multiply(x).add(MatrixD.identity(n).multiplyScalar((double) n));
+    }
+
+    /**
+     * Test of getL method, of class CholeskyDecompositionD.
+     */
+    @Test
+    public void testGetL() {
+        System.out.println("getL");
+        MatrixD a = MatrixD.create(new double[][]{{4D, 12D, -16D}, {12D, 37D, -43D}, {-16D, -43D, 98D}});
+        CholeskyDecompositionD instance = new CholeskyDecompositionD(a);
+        assertTrue(instance.isSPD());
+        MatrixD expResult = MatrixD.create(new double[][]{{2D, 0D, 0D}, {6D, 1D, 0D}, {-8D, 5D, 3D}});
+        assertTrue(expResult.equals(instance.getL()));
+        assertEquals(36D, instance.determinant(), 0.0000001);
+        assertFalse(new CholeskyDecompositionD(MatrixD.create(new double[][]{{1D, 2D}, {2D, 1D}})).isSPD());
+    }
+
+    /**
+     * Test of solve method, of class CholeskyDecompositionD.
+     */
+    @Test
+    public void testSolve() {
+        System.out.println("solve");
+        MatrixD b = MatrixD.random(n, 4);
+        CholeskyDecompositionD instance = new CholeskyDecompositionD(matrix);
+        MatrixD l = instance.getL();
+        assertMatrixEquals(matrix, l.multiply(MatrixD.transpose(l)));
+        MatrixD result = matrix.multiply(instance.solve(b));
+        assertMatrixEquals(b, result);
+        MatrixD identity = matrix.multiply(instance.inverse());
+        assertMatrixEquals(MatrixD.identity(n), identity);
+        double expResult = Math.log(Math.abs(new LUDecompositionD(matrix).determinant()));
+        assertEquals(expResult, instance.logDeterminant(), 0.0000001 * Math.abs(expResult));
+    }
+
+    /**
+     * Test of update and downdate methods, of class CholeskyDecompositionD.
+     */
+    @Test
+    public void testUpdate() {
+        System.out.println("update");
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = Math.sin(i);
+        }
+        MatrixD xx = MatrixD.create(new double[][]{x});
+        MatrixD updated = matrix.add(MatrixD.transpose(xx).multiply(xx));
+        CholeskyDecompositionD instance = new CholeskyDecompositionD(matrix);
+        instance.update(x);
+        assertMatrixEquals(new CholeskyDecompositionD(updated).getL(), instance.getL());
+        instance.downdate(x);
+        assertMatrixEquals(new CholeskyDecompositionD(matrix).getL(), instance.getL());
+    }
+
+    private static void assertMatrixEquals(MatrixD expected, MatrixD actual) {
+        assertEquals(expected.getM(), actual.getM());
+        assertEquals(expected.getN(), actual.getN());
+        for (int i = 0; i < expected.getM(); i++) {
+            for (int j = 0; j < expected.getN(); j++) {
+                assertEquals(expected.getData(i, j), actual.getData(i, j), 0.0000001);
+            }
+        }
+    }
+}
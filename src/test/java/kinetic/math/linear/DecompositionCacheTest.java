@@ -0,0 +1,137 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package kinetic.math.linear;
+
+import kinetic.math.DenseMatrixD;
+import kinetic.math.MatrixD;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author openecho
+ */
+public class DecompositionCacheTest {
+
+    public DecompositionCacheTest() {
+    }
+
+    /**
+     * Test of getLU method, of class DecompositionCache.
+     */
+    @Test
+    public void testGetLU() {
+        System.out.println("getLU");
+        DecompositionCache instance = new DecompositionCache(4);
+        DenseMatrixD a = (DenseMatrixD) MatrixD.create(new double[][]{{4D, 3D}, {6D, 3D}});
+        LUDecompositionD lu = instance.getLU(a);
+        assertTrue(lu.isDecomposed());
+        assertSame(lu, instance.getLU(a));
+        assertEquals(-6D, lu.determinant(), 0.0000001);
+        a.set(0, 0, 5D);
+        assertFalse(lu.isDecomposed());
+        assertSame(lu, instance.getLU(a));
+        assertEquals(-3D, lu.determinant(), 0.0000001);
+        // Writes through a sub-matrix are seen by the parent.
+        a.getSubMatrix(1, 2, 0, 2).set(0, 1, 4D);
+        assertEquals(2D, instance.getLU(a).determinant(), 0.0000001);
+    }
+
+    /**
+     * Test of least recently used eviction, of class DecompositionCache.
+     */
+    @Test
+    public void testEviction() {
+        System.out.println("eviction");
+        DecompositionCache instance = new DecompositionCache(2);
+        MatrixD a = MatrixD.random(3, 3);
+        MatrixD b = MatrixD.random(3, 3);
+        MatrixD c = MatrixD.random(3, 3);
+        LUDecompositionD lu = instance.getLU(a);
+        instance.getLU(b);
+        instance.getLU(a);
+        instance.getLU(c);
+        assertEquals(2, instance.size());
+        assertSame(lu, instance.getLU(a));
+        instance.setCapacity(1);
+        assertEquals(1, instance.size());
+        instance.remove(a);
+        assertEquals(0, instance.size());
+    }
+
+    /**
+     * Test of the modification count used by MatrixDecomposition.
+     */
+    @Test
+    public void testModificationCount() {
+        System.out.println("modificationCount");
+        MatrixD a = MatrixD.empty(2, 2);
+        int count = a.getModificationCount();
+        a.add(MatrixD.identity(2), false);
+        assertEquals(count, a.getModificationCount());
+        a.add(MatrixD.identity(2), true);
+        assertTrue(a.getModificationCount() != count);
+        QRDecompositionD qr = new QRDecompositionD(a);
+        assertTrue(qr.isFullRank());
+        count = a.getModificationCount();
+        a.multiplyScalar(0D, true);
+        assertTrue(a.getModificationCount() != count);
+        assertFalse(qr.isFullRank());
+    }
+
+    /**
+     * Test of writes through a vector view reaching the shared cache.
+     */
+    @Test
+    public void testViewWrites() {
+        System.out.println("viewWrites");
+        DecompositionCache.setShared(new DecompositionCache(DecompositionCache.DEFAULT_CAPACITY));
+        try {
+            MatrixD a = MatrixD.create(new double[][]{{4D, 1D, 2D, 0D}, {1D, 5D, 1D, 2D},
+                        {2D, 1D, 6D, 1D}, {0D, 2D, 1D, 7D}});
+            MatrixD b = MatrixD.create(new double[][]{{1D}, {2D}, {3D}, {4D}});
+            assertEquals(new LUDecompositionD(a).determinant(), a.determinant(), 0.0000001);
+            a.solve(b);
+            a.rowView(0).set(0, 40D);
+            a.columnView(3).set(1, -3D);
+            MatrixD fresh = MatrixD.create(a.getData());
+            assertEquals(new LUDecompositionD(fresh).determinant(), a.determinant(), 0.0000001);
+            MatrixD x = a.solve(b);
+            MatrixD expected = fresh.solve(b);
+            for (int i = 0; i < 4; i++) {
+                assertEquals(expected.getData(i, 0), x.getData(i, 0), 0.0000001);
+            }
+        } finally {
+            DecompositionCache.setShared(null);
+        }
+    }
+
+    /**
+     * Test of the opt-in shared cache and its read only decompositions.
+     */
+    @Test
+    public void testShared() {
+        System.out.println("shared");
+        assertNull(DecompositionCache.getShared());
+        MatrixD a = MatrixD.create(new double[][]{{4D, 2D}, {2D, 3D}});
+        assertNotSame(DecompositionCache.lu(a), DecompositionCache.lu(a));
+        DecompositionCache instance = new DecompositionCache(2);
+        CholeskyDecompositionD cholesky = instance.getCholesky(a);
+        try {
+            cholesky.update(new double[]{1D, 1D});
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            instance.getLU(a).setMatrix(MatrixD.identity(2));
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+        }
+        assertEquals(8D, instance.getCholesky(a).determinant(), 0.0000001);
+        CholeskyDecompositionD own = new CholeskyDecompositionD(a);
+        own.update(new double[]{1D, 1D});
+        assertEquals(11D, own.determinant(), 0.0000001);
+    }
+}
@@ -110,4 +110,66 @@ public class EigendecompositionDTest {
         MatrixD matrixReconstruct = vTranspose.multiply(d).multiply(v);
         matrixReconstruct.print(10, 4);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test of the symmetric path, of class EigendecompositionD.
+     */
+    @Test
+    public void testSymmetric() {
+        System.out.println("symmetric");
+        MatrixD matrix = symmetric(40);
+        EigendecompositionD instance = new EigendecompositionD(matrix);
+        MatrixD v = instance.getV();
+        double[] d = instance.getRealEigenvalues().clone();
+        for (int i = 1; i < d.length; i++) {
+            assertTrue(d[i - 1] <= d[i]);
+        }
+        assertMatrixEquals(MatrixD.identity(40), MatrixD.transpose(v).multiply(v));
+        assertMatrixEquals(matrix.multiply(v), v.multiply(instance.getD()));
+        double[] values = new EigendecompositionD(matrix, false).getRealEigenvalues();
+        for (int i = 0; i < d.length; i++) {
+            assertEquals(d[i], values[i], 0.0000001);
+        }
+    }
+
+    /**
+     * Test of the largest k eigenpairs, of class EigendecompositionD.
+     */
+    @Test
+    public void testTopK() {
+        System.out.println("topK");
+        MatrixD matrix = symmetric(50);
+        double[] expResult = new EigendecompositionD(matrix, false).getRealEigenvalues();
+        EigendecompositionD instance = new EigendecompositionD(matrix, 4);
+        double[] result = instance.getRealEigenvalues();
+        assertEquals(4, result.length);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(expResult[46 + i], result[i], 0.0000001);
+        }
+        MatrixD v = instance.getV();
+        assertEquals(50, v.getM());
+        assertEquals(4, v.getN());
+        assertMatrixEquals(MatrixD.identity(4), MatrixD.transpose(v).multiply(v));
+        assertMatrixEquals(matrix.multiply(v), v.multiply(instance.getD()));
+        // Reuse the working storage for another matrix.
+        MatrixD other = symmetric(50);
+        instance.setMatrix(other);
+        v = instance.getV();
+        assertMatrixEquals(other.multiply(v), v.multiply(instance.getD()));
+    }
+
+    private static MatrixD symmetric(int n) {
+        MatrixD x = MatrixD.random(n, n);
+        return x.add(MatrixD.transpose(x));
+    }
+
+    private static void assertMatrixEquals(MatrixD expected, MatrixD actual) {
+        assertEquals(expected.getM(), actual.getM());
+        assertEquals(expected.getN(), actual.getN());
+        for (int i = 0; i < expected.getM(); i++) {
+            for (int j = 0; j < expected.getN(); j++) {
+                assertEquals(expected.getData(i, j), actual.getData(i, j), 0.0000001);
+            }
+        }
+    }
+}
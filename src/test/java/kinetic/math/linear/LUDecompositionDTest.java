@@ -97,4 +97,58 @@ public class LUDecompositionDTest {
         double result = instance.determinant();
         assertEquals(expResult, result, 0.00001);
     }
+
+    /**
+     * Test of solve method with several right hand sides and a matrix larger
+     * than one block, of class LUDecomposition.
+     */
+    @Test
+    public void testSolve() {
+        System.out.println("solve");
+        int n = LUDecompositionD.BLOCK_SIZE * 2 + 13;
+        MatrixD matrix = MatrixD.random(n, n);
+        MatrixD b = MatrixD.random(n, 3);
+        LUDecompositionD instance = new LUDecompositionD(matrix);
+        MatrixD x = instance.solve(b);
+        MatrixD result = matrix.multiply(x);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(b.getData(i, j), result.getData(i, j), 0.0000001);
+            }
+        }
+        double[] column = new double[n];
+        for (int i = 0; i < n; i++) {
+            column[i] = b.getData(i, 1);
+        }
+        double[] x1 = instance.solve(column);
+        for (int i = 0; i < n; i++) {
+            assertEquals(x.getData(i, 1), x1[i], 0D);
+        }
+        assertTrue(x.equals(matrix.solve(b)));
+    }
+
+    /**
+     * Test of inverse method, of class LUDecomposition.
+     */
+    @Test
+    public void testInverse() {
+        System.out.println("inverse");
+        MatrixD matrix = MatrixD.create(new Double[][]{{1D, 2D, 3D}, {3D, 2D, 1D}, {10D, 5D, 1D}});
+        MatrixD inverse = new LUDecompositionD(matrix).inverse();
+        MatrixD identity = matrix.multiply(inverse);
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(i == j ? 1D : 0D, identity.getData(i, j), 0.0000001);
+            }
+        }
+        assertTrue(inverse.equals(matrix.invert()));
+        MatrixD singular = MatrixD.create(new Double[][]{{1D, 2D}, {2D, 4D}});
+        LUDecompositionD lu = new LUDecompositionD(singular);
+        assertFalse(lu.isNonSingular());
+        try {
+            lu.inverse();
+            fail("Expected a singular matrix exception.");
+        } catch (RuntimeException e) {
+        }
+    }
 }
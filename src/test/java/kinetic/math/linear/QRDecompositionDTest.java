@@ -0,0 +1,84 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package kinetic.math.linear;
+
+import kinetic.math.MatrixD;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author openecho
+ */
+public class QRDecompositionDTest {
+
+    public QRDecompositionDTest() {
+    }
+
+    /**
+     * Test of getQ and getR methods, of class QRDecompositionD.
+     */
+    @Test
+    public void testGetQR() {
+        System.out.println("getQR");
+        MatrixD matrix = MatrixD.random(12, 4);
+        QRDecompositionD instance = new QRDecompositionD(matrix);
+        MatrixD q = (MatrixD) instance.getQ();
+        assertEquals(12, q.getM());
+        assertEquals(4, q.getN());
+        assertMatrixEquals(MatrixD.identity(4), MatrixD.transpose(q).multiply(q));
+        assertMatrixEquals(matrix, q.multiply(instance.getR()));
+    }
+
+    /**
+     * Test of solve method, of class QRDecompositionD.
+     */
+    @Test
+    public void testSolve() {
+        System.out.println("solve");
+        MatrixD matrix = MatrixD.random(40, 5);
+        MatrixD b = MatrixD.random(40, 3);
+        QRDecompositionD instance = new QRDecompositionD(matrix);
+        assertTrue(instance.isFullRank());
+        MatrixD x = instance.solve(b);
+        assertEquals(5, x.getM());
+        assertEquals(3, x.getN());
+        // The residual of a least squares solution is orthogonal to A.
+        MatrixD normal = MatrixD.transpose(matrix).multiply(matrix.multiply(x).subtract(b));
+        assertMatrixEquals(MatrixD.empty(5, 3), normal);
+        assertMatrixEquals(new SingularValueDecompositionD(matrix).solve(b), x);
+        assertMatrixEquals(x, new PivotedQRDecompositionD(matrix).solve(b));
+    }
+
+    /**
+     * Test of PivotedQRDecompositionD with a rank deficient matrix.
+     */
+    @Test
+    public void testPivoted() {
+        System.out.println("pivoted");
+        MatrixD matrix = MatrixD.create(new double[][]{{1D, 2D, 3D}, {4D, 5D, 9D}, {7D, 8D, 15D}, {1D, 0D, 1D}});
+        MatrixD b = MatrixD.create(new double[][]{{1D}, {2D}, {3D}, {5D}});
+        PivotedQRDecompositionD instance = new PivotedQRDecompositionD(matrix);
+        assertEquals(2, instance.getRank());
+        assertFalse(instance.isFullRank());
+        assertEquals(2, instance.getPivot()[0]);
+        MatrixD r = instance.getR();
+        assertTrue(Math.abs(r.getData(0, 0)) >= Math.abs(r.getData(1, 1)));
+        MatrixD x = instance.solve(b);
+        assertEquals(0D, x.getData(instance.getPivot()[2], 0), 0D);
+        MatrixD normal = MatrixD.transpose(matrix).multiply(matrix.multiply(x).subtract(b));
+        assertMatrixEquals(MatrixD.empty(3, 1), normal);
+    }
+
+    private static void assertMatrixEquals(MatrixD expected, MatrixD actual) {
+        assertEquals(expected.getM(), actual.getM());
+        assertEquals(expected.getN(), actual.getN());
+        for (int i = 0; i < expected.getM(); i++) {
+            for (int j = 0; j < expected.getN(); j++) {
+                assertEquals(expected.getData(i, j), actual.getData(i, j), 0.0000001);
+            }
+        }
+    }
+}
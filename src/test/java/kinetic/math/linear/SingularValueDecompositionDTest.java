@@ -0,0 +1,130 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package kinetic.math.linear;
+
+import kinetic.math.MatrixD;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author openecho
+ */
+public class SingularValueDecompositionDTest {
+
+    public SingularValueDecompositionDTest() {
+    }
+
+    /**
+     * Test of getSingularValues method, of class SingularValueDecompositionD.
+     */
+    @Test
+    public void testSingularValues() {
+        System.out.println("singularValues");
+        MatrixD matrix = MatrixD.create(new double[][]{{3D, 2D, 2D}, {2D, 3D, -2D}});
+        SingularValueDecompositionD instance = new SingularValueDecompositionD(matrix);
+        double[] s = instance.getSingularValues();
+        assertEquals(2, s.length);
+        assertEquals(5D, s[0], 0.0000001);
+        assertEquals(3D, s[1], 0.0000001);
+        assertEquals(5D, instance.norm2(), 0.0000001);
+        assertEquals(5D / 3D, instance.cond(), 0.0000001);
+        assertEquals(2, instance.getU().getM());
+        assertEquals(2, instance.getV().getN());
+        assertMatrixEquals(matrix, reconstruct(instance));
+    }
+
+    /**
+     * Test of thin and full modes, of class SingularValueDecompositionD.
+     */
+    @Test
+    public void testThin() {
+        System.out.println("thin");
+        MatrixD matrix = MatrixD.random(30, 6);
+        SingularValueDecompositionD thin = new SingularValueDecompositionD(matrix);
+        assertEquals(6, thin.getU().getN());
+        assertMatrixEquals(matrix, reconstruct(thin));
+        SingularValueDecompositionD full = new SingularValueDecompositionD(matrix, false);
+        MatrixD u = full.getU();
+        assertEquals(30, u.getN());
+        assertMatrixEquals(MatrixD.identity(30), MatrixD.transpose(u).multiply(u));
+        assertMatrixEquals(matrix, reconstruct(full));
+        MatrixD wide = MatrixD.transpose(matrix);
+        assertMatrixEquals(wide, reconstruct(new SingularValueDecompositionD(wide, false)));
+    }
+
+    /**
+     * Test of rank and pinv methods, of class SingularValueDecompositionD.
+     */
+    @Test
+    public void testPinv() {
+        System.out.println("pinv");
+        MatrixD matrix = MatrixD.create(new double[][]{{1D, 2D, 3D}, {4D, 5D, 9D}, {7D, 8D, 15D}, {1D, 0D, 1D}});
+        SingularValueDecompositionD instance = new SingularValueDecompositionD(matrix);
+        assertEquals(2, instance.rank());
+        MatrixD pinv = instance.pinv();
+        assertEquals(3, pinv.getM());
+        assertMatrixEquals(matrix, matrix.multiply(pinv).multiply(matrix));
+        assertMatrixEquals(pinv, pinv.multiply(matrix).multiply(pinv));
+        MatrixD b = MatrixD.random(4, 2);
+        assertMatrixEquals(pinv.multiply(b), instance.solve(b));
+    }
+
+    /**
+     * Test of the truncated mode, of class SingularValueDecompositionD.
+     */
+    @Test
+    public void testTruncated() {
+        System.out.println("truncated");
+        MatrixD matrix = MatrixD.random(60, 5).multiply(MatrixD.random(5, 40));
+        double[] expResult = new SingularValueDecompositionD(matrix).getSingularValues();
+        SingularValueDecompositionD instance = new SingularValueDecompositionD(matrix, 3);
+        double[] result = instance.getSingularValues();
+        assertEquals(3, result.length);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expResult[i], result[i], 0.0000001 * expResult[0]);
+        }
+        assertEquals(60, instance.getU().getM());
+        assertEquals(3, instance.getU().getN());
+        assertEquals(40, instance.getV().getM());
+        MatrixD u = instance.getU();
+        assertMatrixEquals(MatrixD.identity(3), MatrixD.transpose(u).multiply(u));
+        assertMatrixEquals(matrix, reconstruct(new SingularValueDecompositionD(matrix, 5)));
+    }
+
+    /**
+     * Test of an empty matrix, of class SingularValueDecompositionD.
+     */
+    @Test
+    public void testEmpty() {
+        System.out.println("empty");
+        MatrixD matrix = MatrixD.empty(0, 3);
+        SingularValueDecompositionD thin = new SingularValueDecompositionD(matrix);
+        assertEquals(0, thin.getSingularValues().length);
+        assertEquals(0, thin.getS().getM());
+        assertEquals(3, thin.getV().getM());
+        assertEquals(0D, thin.norm2(), 0D);
+        assertEquals(0, thin.rank());
+        assertEquals(3, thin.pinv().getM());
+        SingularValueDecompositionD full = new SingularValueDecompositionD(matrix, false);
+        assertEquals(3, full.getS().getN());
+        assertMatrixEquals(MatrixD.identity(3), full.getV());
+        assertMatrixEquals(MatrixD.transpose(matrix), reconstruct(new SingularValueDecompositionD(MatrixD.transpose(matrix), false)));
+    }
+
+    private static MatrixD reconstruct(SingularValueDecompositionD svd) {
+        return svd.getU().multiply(svd.getS()).multiply(MatrixD.transpose(svd.getV()));
+    }
+
+    private static void assertMatrixEquals(MatrixD expected, MatrixD actual) {
+        assertEquals(expected.getM(), actual.getM());
+        assertEquals(expected.getN(), actual.getN());
+        for (int i = 0; i < expected.getM(); i++) {
+            for (int j = 0; j < expected.getN(); j++) {
+                assertEquals(expected.getData(i, j), actual.getData(i, j), 0.0000001);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+
+package kinetic.math.linear;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import kinetic.math.DenseMatrixD;
+import kinetic.math.MatrixExecutor;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author openecho
+ */
+public class SmallMatrixBatchTest {
+
+    private static final int COUNT = 1000;
+
+    public SmallMatrixBatchTest() {
+    }
+
+    /**
+     * Test of determinant and invert, of class SmallMatrixBatch.
+     */
+    @Test
+    public void testInvert() {
+        System.out.println("invert");
+        for (int n = 3; n <= 4; n++) {
+            double[] a = random(n * n * COUNT, n);
+            double[] inverse = new double[a.length];
+            double[] det = new double[COUNT];
+            double[] det2 = new double[COUNT];
+            SmallMatrixBatch.invert(n, a, COUNT, inverse, det);
+            SmallMatrixBatch.determinant(n, a, COUNT, det2);
+            for (int k = 0; k < COUNT; k++) {
+                LUDecompositionD lu = new LUDecompositionD(extract(n, a, k));
+                assertEquals(lu.determinant(), det[k], 0.0000001);
+                assertEquals(det[k], det2[k], 0D);
+                double[] expResult = lu.inverse().getRows(0, n, new double[n * n]);
+                for (int e = 0; e < n * n; e++) {
+                    assertEquals(expResult[e], inverse[e * COUNT + k], 0.0000001);
+                }
+            }
+            // In place.
+            SmallMatrixBatch.invert(n, a, COUNT, a, null);
+            assertArrayEquals(inverse, a, 0D);
+        }
+    }
+
+    /**
+     * Test of solve, of class SmallMatrixBatch.
+     */
+    @Test
+    public void testSolve() {
+        System.out.println("solve");
+        for (int n = 3; n <= 4; n++) {
+            double[] a = random(n * n * COUNT, n);
+            double[] b = random(n * COUNT, 0);
+            double[] x = new double[b.length];
+            SmallMatrixBatch.solve(n, a, b, COUNT, x);
+            for (int k = 0; k < COUNT; k++) {
+                double[] column = new double[n];
+                for (int i = 0; i < n; i++) {
+                    column[i] = b[i * COUNT + k];
+                }
+                double[] expResult = new LUDecompositionD(extract(n, a, k)).solve(column);
+                for (int i = 0; i < n; i++) {
+                    assertEquals(expResult[i], x[i * COUNT + k], 0.0000001);
+                }
+            }
+        }
+        // A singular system gives NaN, the others are unaffected.
+        double[] a = new double[9 * 2];
+        double[] b = new double[]{1, 1, 1, 1, 1, 1};
+        for (int i = 0; i < 3; i++) {
+            a[SmallMatrixBatch.index(3, 2, i, i, 1)] = 2;
+        }
+        SmallMatrixBatch.solve(3, a, b, 2, b);
+        assertTrue(Double.isNaN(b[0]));
+        assertEquals(0.5, b[1], 0D);
+    }
+
+    /**
+     * Test of the single precision and parallel paths, of class SmallMatrixBatch.
+     */
+    @Test
+    public void testParallel() {
+        System.out.println("parallel");
+        MatrixExecutor executor = new MatrixExecutor(new ForkJoinPool(4), 64);
+        int n = 4;
+        double[] a = random(n * n * COUNT, n);
+        double[] b = random(n * COUNT, 0);
+        float[] af = new float[a.length];
+        for (int e = 0; e < a.length; e++) {
+            af[e] = (float) a[e];
+        }
+        double[] x = new double[b.length];
+        double[] y = new double[b.length];
+        SmallMatrixBatch.solve(n, a, b, COUNT, x);
+        SmallMatrixBatch.solve(n, a, b, COUNT, y, executor);
+        assertArrayEquals(x, y, 0D);
+        float[] inverse = new float[af.length];
+        float[] parallel = new float[af.length];
+        float[] det = new float[COUNT];
+        SmallMatrixBatch.invert(n, af, COUNT, inverse, det);
+        SmallMatrixBatch.invert(n, af, COUNT, parallel, null, executor);
+        assertArrayEquals(inverse, parallel, 0F);
+        double[] inverseD = new double[a.length];
+        SmallMatrixBatch.invert(n, a, COUNT, inverseD, null);
+        for (int e = 0; e < a.length; e++) {
+            assertEquals(inverseD[e], inverse[e], 0.001 * Math.max(1D, Math.abs(inverseD[e])));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSize() {
+        SmallMatrixBatch.determinant(5, new double[25], 1, new double[1]);
+    }
+
+    /**
+     * Random batch, with diagonal added to every matrix to keep it well
+     * conditioned.
+     */
+    private static double[] random(int length, int n) {
+        Random random = new Random(length);
+        double[] a = new double[length];
+        for (int e = 0; e < length; e++) {
+            a[e] = random.nextDouble() - 0.5;
+        }
+        int count = (n == 0) ? 0 : length / (n * n);
+        for (int k = 0; k < count; k++) {
+            for (int i = 0; i < n; i++) {
+                a[SmallMatrixBatch.index(n, count, i, i, k)] += n;
+            }
+        }
+        return a;
+    }
+
+    private static DenseMatrixD extract(int n, double[] a, int k) {
+        double[] data = new double[n * n];
+        for (int e = 0; e < n * n; e++) {
+            data[e] = a[e * COUNT + k];
+        }
+        return new DenseMatrixD(n, n, data, false);
+    }
+}
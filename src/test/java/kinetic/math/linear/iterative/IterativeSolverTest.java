@@ -0,0 +1,190 @@
+/*
+ * To change this template, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package kinetic.math.linear.iterative;
+
+import kinetic.math.CompressedRowMatrixD;
+import kinetic.math.MatrixD;
+import kinetic.math.SparseMatrixBuilderD;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author openecho
+ */
+public class IterativeSolverTest {
+
+    private static final int GRID = 20;
+
+    public IterativeSolverTest() {
+    }
+
+    /**
+     * Test of solve method, of class ConjugateGradientSolver.
+     */
+    @Test
+    public void testConjugateGradient() {
+        System.out.println("conjugateGradient");
+        CompressedRowMatrixD a = laplacian(GRID, 0D);
+        double[] b = rightHandSide(a.getM());
+        ConjugateGradientSolver instance = new ConjugateGradientSolver();
+        assertResidual(a, b, instance.solve(a, b));
+        assertTrue(instance.isConverged());
+        int plain = instance.getIterations();
+        instance.setPreconditioner(new JacobiPreconditioner(a));
+        assertResidual(a, b, instance.solve(a, b));
+        instance.setPreconditioner(new IncompleteCholeskyPreconditioner(a));
+        assertResidual(a, b, instance.solve(a, b));
+        assertTrue(instance.getIterations() < plain);
+        // Dense matrices go through the same operator.
+        MatrixD x = MatrixD.random(30, 30);
+        MatrixD spd = MatrixD.transpose(x).multiply(x).add(MatrixD.identity(30).multiplyScalar(30D));
+        double[] c = rightHandSide(30);
+        assertResidual(spd, c, new ConjugateGradientSolver().solve(spd, c));
+    }
+
+    /**
+     * Test of solve method, of class BiCGSTABSolver.
+     */
+    @Test
+    public void testBiCGSTAB() {
+        System.out.println("biCGSTAB");
+        CompressedRowMatrixD a = laplacian(GRID, 0.4D);
+        double[] b = rightHandSide(a.getM());
+        BiCGSTABSolver instance = new BiCGSTABSolver();
+        assertResidual(a, b, instance.solve(a, b));
+        int plain = instance.getIterations();
+        instance.setPreconditioner(new ILU0Preconditioner(a));
+        assertResidual(a, b, instance.solve(a, b));
+        assertTrue(instance.getIterations() < plain);
+    }
+
+    /**
+     * Test of solve method, of class GMRESSolver.
+     */
+    @Test
+    public void testGMRES() {
+        System.out.println("gmres");
+        CompressedRowMatrixD a = laplacian(GRID, 0.4D);
+        double[] b = rightHandSide(a.getM());
+        GMRESSolver instance = new GMRESSolver(20);
+        instance.setMaxIterations(5000);
+        assertResidual(a, b, instance.solve(a, b));
+        instance.setPreconditioner(new ILU0Preconditioner(a));
+        assertResidual(a, b, instance.solve(a, b));
+        assertTrue(instance.getIterations() < 60);
+    }
+
+    /**
+     * Test of an implicit LinearOperator and the IterationListener.
+     */
+    @Test
+    public void testOperatorAndListener() {
+        System.out.println("operatorAndListener");
+        final int n = 100;
+        // Tridiagonal [-1 2 -1] applied without storing it.
+        LinearOperator a = new LinearOperator() {
+
+            @Override
+            public int getM() {
+                return n;
+            }
+
+            @Override
+            public int getN() {
+                return n;
+            }
+
+            @Override
+            public void apply(double[] x, double[] y) {
+                for (int i = 0; i < n; i++) {
+                    double s = 2D * x[i];
+                    if (i > 0) {
+                        s -= x[i - 1];
+                    }
+                    if (i < n - 1) {
+                        s -= x[i + 1];
+                    }
+                    y[i] = s;
+                }
+            }
+        };
+        double[] b = rightHandSide(n);
+        final int[] calls = new int[1];
+        ConjugateGradientSolver instance = new ConjugateGradientSolver();
+        instance.setIterationListener(new IterationListener() {
+
+            public boolean iterationPerformed(int iteration, double residual) {
+                calls[0]++;
+                return true;
+            }
+        });
+        double[] x = instance.solve(a, b, new double[n]);
+        assertTrue(instance.isConverged());
+        assertEquals(instance.getIterations(), calls[0]);
+        double[] ax = new double[n];
+        a.apply(x, ax);
+        for (int i = 0; i < n; i++) {
+            assertEquals(b[i], ax[i], 0.0000001);
+        }
+        instance.setIterationListener(new IterationListener() {
+
+            public boolean iterationPerformed(int iteration, double residual) {
+                return iteration < 5;
+            }
+        });
+        instance.solve(a, b, new double[n]);
+        assertEquals(5, instance.getIterations());
+        assertFalse(instance.isConverged());
+    }
+
+    /**
+     * 5 point Laplacian on a grid by grid mesh, with a first order
+     * convection term of strength c that makes it non symmetric.
+     */
+    private static CompressedRowMatrixD laplacian(int grid, double c) {
+        int n = grid * grid;
+        SparseMatrixBuilderD builder = new SparseMatrixBuilderD(n, n);
+        for (int i = 0; i < grid; i++) {
+            for (int j = 0; j < grid; j++) {
+                int row = i * grid + j;
+                builder.add(row, row, 4D);
+                if (i > 0) {
+                    builder.add(row, row - grid, -1D - c);
+                }
+                if (i < grid - 1) {
+                    builder.add(row, row + grid, -1D + c);
+                }
+                if (j > 0) {
+                    builder.add(row, row - 1, -1D - c);
+                }
+                if (j < grid - 1) {
+                    builder.add(row, row + 1, -1D + c);
+                }
+            }
+        }
+        return builder.toCompressedRow();
+    }
+
+    private static double[] rightHandSide(int n) {
+        double[] b = new double[n];
+        for (int i = 0; i < n; i++) {
+            b[i] = Math.sin(i + 1);
+        }
+        return b;
+    }
+
+    private static void assertResidual(MatrixD a, double[] b, double[] x) {
+        double[] ax = new double[b.length];
+        LinearOperator.create(a).apply(x, ax);
+        double r = 0D;
+        double bb = 0D;
+        for (int i = 0; i < b.length; i++) {
+            r += (b[i] - ax[i]) * (b[i] - ax[i]);
+            bb += b[i] * b[i];
+        }
+        assertTrue(Math.sqrt(r / bb) < 0.00000001);
+    }
+}